@@ -0,0 +1,114 @@
+package com.iabdinur.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded, access-ordered LRU cache with a time-to-live per entry.
+ * <p>
+ * {@link #get(Object, Supplier)} is a read-through: on a miss the loader runs outside the lock and
+ * its result is stored only if no invalidation happened meanwhile, so a load that raced with a
+ * write can never put the pre-write value back. Empty loader results are not cached.
+ */
+public class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long invalidations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public LruCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    LruCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<V> get(K key, Supplier<Optional<V>> loader) {
+        long version;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt - clock.getAsLong() > 0) {
+                    hits.increment();
+                    return Optional.of(entry.value);
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+            misses.increment();
+            version = invalidations;
+        }
+        Optional<V> loaded = loader.get();
+        if (loaded.isPresent() && maxEntries > 0) {
+            synchronized (this) {
+                if (version == invalidations) {
+                    entries.put(key, new Entry<>(loaded.get(), clock.getAsLong() + ttlNanos));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry matching the predicate; used for invalidations that cannot be expressed by key.
+     */
+    public synchronized void invalidateIf(BiPredicate<K, V> predicate) {
+        invalidations++;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Stats stats() {
+        return new Stats(size(), maxEntries, hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    public record Stats(int size, int maxEntries, long hits, long misses, long evictions, long expirations) {}
+}
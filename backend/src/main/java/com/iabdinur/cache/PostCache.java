@@ -0,0 +1,148 @@
+package com.iabdinur.cache;
+
+import com.iabdinur.dto.PostDTO;
+import com.iabdinur.dto.PostListResponse;
+import com.iabdinur.dto.PostSummaryDTO;
+import com.iabdinur.dto.TagDTO;
+import com.iabdinur.model.PostSort;
+import com.iabdinur.search.SearchIndexEvent;
+import com.iabdinur.util.ContentVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for published post details (by slug), the first pages of the feed, and the
+ * total post count of each feed.
+ * Entries live for a short TTL so view, like and comment counts stay fresh, and are dropped as
+ * soon as a committed {@link SearchIndexEvent} shows the cached content changed.
+ */
+@Component
+public class PostCache {
+
+    private final LruCache<String, PostSummaryDTO> postsBySlug;
+    private final LruCache<FeedKey, PostListResponse> feedPages;
+    private final LruCache<FeedTotalKey, Long> feedTotals;
+    private final int maxCachedPage;
+
+    public PostCache(@Value("${app.cache.posts.max-entries:1000}") int maxPosts,
+                     @Value("${app.cache.feed.max-entries:200}") int maxFeedPages,
+                     @Value("${app.cache.feed.max-page:3}") int maxCachedPage,
+                     @Value("${app.cache.feed-totals.max-entries:500}") int maxFeedTotals,
+                     @Value("${app.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.postsBySlug = new LruCache<>(maxPosts, Duration.ofSeconds(ttlSeconds));
+        this.feedPages = new LruCache<>(maxFeedPages, Duration.ofSeconds(ttlSeconds));
+        this.feedTotals = new LruCache<>(maxFeedTotals, Duration.ofSeconds(ttlSeconds));
+        this.maxCachedPage = maxCachedPage;
+    }
+
+    public Optional<PostSummaryDTO> getPost(String slug, Supplier<Optional<PostSummaryDTO>> loader) {
+        return postsBySlug.get(slug, loader);
+    }
+
+    /**
+     * The cached post if it is still at {@code version}, the post loaded afresh otherwise. Likes and
+     * comments move a post's version without going through the writes that invalidate this cache,
+     * so a copy is checked against the current validators before it is served under them.
+     */
+    public Optional<PostSummaryDTO> getPost(String slug, ContentVersion version,
+                                            Supplier<Optional<PostSummaryDTO>> loader) {
+        Optional<PostSummaryDTO> cached = postsBySlug.get(slug, loader);
+        if (cached.isPresent() && !ContentVersion.ofPost(cached.get()).equals(version)) {
+            postsBySlug.invalidate(slug);
+            return postsBySlug.get(slug, loader);
+        }
+        return cached;
+    }
+
+    /**
+     * Only plain page-number requests for the first pages are cached; cursor and exclude
+     * requests are too varied to be worth keeping.
+     */
+    public PostListResponse getFeedPage(String sort, Integer page, Integer limit, String tag, String author,
+                                        String exclude, String cursor, boolean includeTotal,
+                                        Supplier<PostListResponse> loader) {
+        boolean cacheable = page != null && page >= 1 && page <= maxCachedPage
+                && (exclude == null || exclude.isEmpty())
+                && (cursor == null || cursor.isEmpty());
+        if (!cacheable) {
+            return loader.get();
+        }
+        PostSort feedSort = tag == null && author == null ? PostSort.fromParam(sort) : PostSort.LATEST;
+        FeedKey key = new FeedKey(feedSort, tag, author, page, limit, includeTotal);
+        return feedPages.get(key, () -> Optional.of(loader.get())).orElseThrow();
+    }
+
+    /**
+     * Total published posts of the whole feed, or of one tag or author feed.
+     */
+    public long getFeedTotal(String tag, Long authorId, Supplier<Long> loader) {
+        return feedTotals.get(new FeedTotalKey(tag, authorId), () -> Optional.of(loader.get())).orElseThrow();
+    }
+
+    @TransactionalEventListener
+    public void onChange(SearchIndexEvent event) {
+        switch (event) {
+            case SearchIndexEvent.PostUpserted e -> {
+                PostDTO post = e.post();
+                // The old slug is found through the id when the update renamed the post
+                postsBySlug.invalidateIf((slug, cached) ->
+                        slug.equals(post.slug()) || cached.id().equals(post.id()));
+                feedPages.invalidateIf((key, page) -> key.matches(post) || contains(page, post.id()));
+                // Publishing, unpublishing or retagging moves totals of feeds the post may have just left
+                feedTotals.invalidateAll();
+            }
+            case SearchIndexEvent.PostRemoved e -> {
+                String id = String.valueOf(e.postId());
+                postsBySlug.invalidateIf((slug, cached) -> cached.id().equals(id));
+                // The removed post's tags and author are unknown here, and every feed total may shift
+                feedPages.invalidateAll();
+                feedTotals.invalidateAll();
+            }
+            // Posts embed their author and tags
+            case SearchIndexEvent.TagUpserted e -> invalidateAll();
+            case SearchIndexEvent.TagRemoved e -> invalidateAll();
+            case SearchIndexEvent.AuthorUpserted e -> invalidateAll();
+            case SearchIndexEvent.AuthorRemoved e -> invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        postsBySlug.invalidateAll();
+        feedPages.invalidateAll();
+        feedTotals.invalidateAll();
+    }
+
+    public Stats stats() {
+        return new Stats(postsBySlug.stats(), feedPages.stats(), feedTotals.stats());
+    }
+
+    private static boolean contains(PostListResponse page, String postId) {
+        return page.posts().stream().anyMatch(post -> post.id().equals(postId));
+    }
+
+    record FeedKey(PostSort sort, String tag, String author, int page, int limit, boolean includeTotal) {
+
+        /**
+         * Whether the post belongs to this feed, and so may change its order or total.
+         */
+        boolean matches(PostDTO post) {
+            if (tag != null) {
+                return post.tags() != null && post.tags().stream().map(TagDTO::slug).anyMatch(tag::equals);
+            }
+            if (author != null) {
+                return post.author() != null && Objects.equals(author, post.author().username());
+            }
+            return true;
+        }
+    }
+
+    private record FeedTotalKey(String tag, Long authorId) {}
+
+    public record Stats(LruCache.Stats posts, LruCache.Stats feedPages, LruCache.Stats feedTotals) {}
+}
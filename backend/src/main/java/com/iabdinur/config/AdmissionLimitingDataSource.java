@@ -0,0 +1,138 @@
+package com.iabdinur.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds how many callers may hold a JDBC connection at once. With virtual threads there is no
+ * request-thread pool left to cap concurrency, so thousands of requests would otherwise queue
+ * inside the connection pool and fail together on its timeout. Callers wait here instead, in
+ * FIFO order and for at most {@code timeoutMs}, after which they fail with a
+ * {@link SQLTransientConnectionException} as the pool itself would.
+ * <p>
+ * A permit belongs to a thread, not a connection: a thread that already holds one (a
+ * {@code REQUIRES_NEW} transaction, a listener running inside the caller's transaction) gets
+ * further connections straight from the pool, since waiting here for a second permit could
+ * deadlock against threads waiting for its first. The permit is handed back once the last of the
+ * thread's connections is closed.
+ */
+public class AdmissionLimitingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long timeoutMs;
+    private final AtomicLong rejected = new AtomicLong();
+    // Connections open per thread under its permit; closing may happen on another thread
+    private final ThreadLocal<AtomicInteger> held = ThreadLocal.withInitial(AtomicInteger::new);
+
+    public AdmissionLimitingDataSource(DataSource target, int maxConcurrent, long timeoutMs) {
+        super(target);
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return admitted(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return admitted(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public Stats stats() {
+        return new Stats(maxConcurrent, maxConcurrent - permits.availablePermits(),
+                permits.getQueueLength(), rejected.get());
+    }
+
+    /**
+     * Closes the wrapped pool, which would otherwise be missed by the inferred destroy method.
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                throw new SQLTransientConnectionException(
+                        "No JDBC admission permit available within " + timeoutMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC admission permit", e);
+        }
+    }
+
+    private Connection admitted(ConnectionSupplier supplier) throws SQLException {
+        AtomicInteger threadConnections = held.get();
+        if (threadConnections.get() == 0) {
+            acquire();
+        }
+        threadConnections.incrementAndGet();
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            release(threadConnections);
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                release(threadConnections);
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private void release(AtomicInteger threadConnections) {
+        if (threadConnections.decrementAndGet() == 0) {
+            permits.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Active connections are the permits in use; waiting callers are queued on the semaphore.
+     */
+    public record Stats(int maxConcurrent, int active, int waiting, long rejected) {}
+}
@@ -0,0 +1,20 @@
+package com.iabdinur.config;
+
+import com.iabdinur.ratelimit.SendRateThrottle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EmailConfig {
+
+    /**
+     * The one pace for every SES send from this node, shared by the post notification fan-out
+     * and the outbox workers so that together they stay within the account's maximum send rate.
+     */
+    @Bean
+    public SendRateThrottle sesSendRateThrottle(
+            @Value("${app.email.send-rate-per-second:14}") double sendRatePerSecond) {
+        return new SendRateThrottle(sendRatePerSecond);
+    }
+}
@@ -0,0 +1,39 @@
+package com.iabdinur.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in an {@link AdmissionLimitingDataSource}. On by default
+ * whenever virtual threads are, sized to the connection pool so permits and connections match, and
+ * waiting no longer than the pool's own connection timeout.
+ */
+@Configuration
+public class JdbcAdmissionConfig {
+
+    @Bean
+    static BeanPostProcessor jdbcAdmissionPostProcessor(Environment environment) {
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        boolean enabled = environment.getProperty("app.jdbc.admission.enabled", Boolean.class, virtualThreads);
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int maxConcurrent = environment.getProperty("app.jdbc.admission.max-concurrent", Integer.class, poolSize);
+        long connectionTimeoutMs = environment.getProperty(
+                "spring.datasource.hikari.connection-timeout", Long.class, 30000L);
+        long timeoutMs = environment.getProperty("app.jdbc.admission.timeout-ms", Long.class, connectionTimeoutMs);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource
+                        && !(bean instanceof AdmissionLimitingDataSource)) {
+                    return new AdmissionLimitingDataSource(dataSource, maxConcurrent, timeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
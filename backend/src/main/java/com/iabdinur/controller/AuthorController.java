@@ -2,9 +2,13 @@ package com.iabdinur.controller;
 
 import com.iabdinur.dto.AuthorDTO;
 import com.iabdinur.service.AuthorService;
+import com.iabdinur.util.ContentVersion;
 import com.iabdinur.util.JWTUtil;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/authors")
@@ -18,17 +22,28 @@ public class AuthorController {
     }
 
     @GetMapping
-    public ResponseEntity<java.util.List<AuthorDTO>> getAllAuthors() {
-        return ResponseEntity.ok(authorService.getAllAuthors());
+    public ResponseEntity<java.util.List<AuthorDTO>> getAllAuthors(WebRequest request) {
+        ContentVersion version = authorService.getAuthorsVersion();
+        if (version.isNotModified(request)) {
+            return version.notModified();
+        }
+        return version.ok(authorService.getAllAuthors());
     }
 
     @GetMapping("/{idOrUsername}")
-    public ResponseEntity<AuthorDTO> getAuthor(@PathVariable String idOrUsername) {
+    public ResponseEntity<AuthorDTO> getAuthor(@PathVariable String idOrUsername, WebRequest request) {
+        Optional<ContentVersion> version = authorService.getAuthorVersion(idOrUsername);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.get().isNotModified(request)) {
+            return version.get().notModified();
+        }
         // Try as username first, then as ID
         return authorService.getAuthorByUsername(idOrUsername)
-            .map(ResponseEntity::ok)
+            .map(version.get()::ok)
             .orElseGet(() -> authorService.getAuthorById(idOrUsername)
-                .map(ResponseEntity::ok)
+                .map(version.get()::ok)
                 .orElse(ResponseEntity.notFound().build()));
     }
 
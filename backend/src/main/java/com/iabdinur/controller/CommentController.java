@@ -1,7 +1,10 @@
 package com.iabdinur.controller;
 
 import com.iabdinur.dto.CommentDTO;
+import com.iabdinur.dto.CommentPageResponse;
+import com.iabdinur.dto.CommentThreadResponse;
 import com.iabdinur.service.CommentService;
+import com.iabdinur.service.LikeService;
 import com.iabdinur.service.UserService;
 import com.iabdinur.service.AuthorService;
 import com.iabdinur.util.JWTUtil;
@@ -11,7 +14,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -20,21 +22,37 @@ public class CommentController {
     private final CommentService commentService;
     private final UserService userService;
     private final AuthorService authorService;
+    private final LikeService likeService;
     private final JWTUtil jwtUtil;
 
     public CommentController(CommentService commentService,
                             UserService userService,
                             AuthorService authorService,
+                            LikeService likeService,
                             JWTUtil jwtUtil) {
         this.commentService = commentService;
         this.userService = userService;
         this.authorService = authorService;
+        this.likeService = likeService;
         this.jwtUtil = jwtUtil;
     }
 
     @GetMapping
-    public ResponseEntity<List<CommentDTO>> getComments(@PathVariable String slug) {
-        return ResponseEntity.ok(commentService.getCommentsByPostSlug(slug));
+    public ResponseEntity<CommentPageResponse> getComments(
+            @PathVariable String slug,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") Integer limit,
+            @RequestParam(required = false, defaultValue = "3") Integer replies) {
+        return ResponseEntity.ok(commentService.getComments(slug, cursor, limit, replies));
+    }
+
+    @GetMapping("/{commentId}/thread")
+    public ResponseEntity<CommentThreadResponse> getThread(
+            @PathVariable String slug,
+            @PathVariable Long commentId) {
+        return commentService.getThread(slug, commentId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
@@ -61,8 +79,26 @@ public class CommentController {
     }
 
     @PostMapping("/{commentId}/like")
-    public ResponseEntity<Void> likeComment(@PathVariable String commentId) {
-        commentService.incrementLikes(Long.parseLong(commentId));
+    public ResponseEntity<Void> likeComment(
+            @PathVariable String commentId,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        String userEmail = extractEmailFromToken(authHeader);
+        if (userEmail == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required to like comments");
+        }
+        likeService.likeComment(Long.parseLong(commentId), userEmail);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/{commentId}/like")
+    public ResponseEntity<Void> unlikeComment(
+            @PathVariable String commentId,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        String userEmail = extractEmailFromToken(authHeader);
+        if (userEmail == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required to unlike comments");
+        }
+        likeService.unlikeComment(Long.parseLong(commentId), userEmail);
         return ResponseEntity.ok().build();
     }
 
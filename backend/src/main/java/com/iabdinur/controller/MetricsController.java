@@ -0,0 +1,108 @@
+package com.iabdinur.controller;
+
+import com.iabdinur.cache.PostCache;
+import com.iabdinur.config.AdmissionLimitingDataSource;
+import com.iabdinur.search.InMemorySearchIndex;
+import com.iabdinur.service.AuthorService;
+import com.iabdinur.service.PostSlugResolver;
+import com.iabdinur.service.PostViewCounter;
+import com.iabdinur.util.JWTUtil;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Internal counters for operating the blog. Only authors can read them: they expose cache
+ * sizes, pool saturation and traffic that are of no use to readers.
+ */
+@RestController
+@RequestMapping("/api/v1/metrics")
+public class MetricsController {
+    private final PostViewCounter viewCounter;
+    private final PostSlugResolver slugResolver;
+    private final PostCache postCache;
+    private final DataSource dataSource;
+    private final InMemorySearchIndex searchIndex;
+    private final AuthorService authorService;
+    private final JWTUtil jwtUtil;
+
+    public MetricsController(PostViewCounter viewCounter, PostSlugResolver slugResolver, PostCache postCache,
+                             DataSource dataSource, InMemorySearchIndex searchIndex,
+                             AuthorService authorService, JWTUtil jwtUtil) {
+        this.viewCounter = viewCounter;
+        this.slugResolver = slugResolver;
+        this.postCache = postCache;
+        this.dataSource = dataSource;
+        this.searchIndex = searchIndex;
+        this.authorService = authorService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @GetMapping("/views")
+    public ResponseEntity<PostViewCounter.Metrics> getViewCounterMetrics(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        requireAuthor(authHeader);
+        return ResponseEntity.ok(viewCounter.metrics());
+    }
+
+    @GetMapping("/slug-cache")
+    public ResponseEntity<PostSlugResolver.Stats> getSlugCacheStats(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        requireAuthor(authHeader);
+        return ResponseEntity.ok(slugResolver.stats());
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<PostCache.Stats> getPostCacheStats(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        requireAuthor(authHeader);
+        return ResponseEntity.ok(postCache.stats());
+    }
+
+    @GetMapping("/jdbc-admission")
+    public ResponseEntity<AdmissionLimitingDataSource.Stats> getJdbcAdmissionStats(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        requireAuthor(authHeader);
+        if (dataSource instanceof AdmissionLimitingDataSource admission) {
+            return ResponseEntity.ok(admission.stats());
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/search-index")
+    public ResponseEntity<List<InMemorySearchIndex.IndexFootprint>> getSearchIndexFootprint(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        requireAuthor(authHeader);
+        return ResponseEntity.ok(searchIndex.footprint());
+    }
+
+    private void requireAuthor(String authHeader) {
+        String userEmail = extractEmailFromToken(authHeader);
+        if (userEmail == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication required");
+        }
+        if (authorService.getAuthorByEmail(userEmail).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Author profile not found");
+        }
+    }
+
+    private String extractEmailFromToken(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+
+        try {
+            String token = authHeader.substring(7); // Remove "Bearer " prefix
+            return jwtUtil.getSubject(token); // JWT subject is the email
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
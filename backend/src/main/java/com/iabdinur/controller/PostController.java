@@ -1,16 +1,33 @@
 package com.iabdinur.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iabdinur.cache.PostCache;
 import com.iabdinur.dto.PostDTO;
 import com.iabdinur.dto.PostListResponse;
+import com.iabdinur.dto.PostSummaryDTO;
+import com.iabdinur.model.Post;
+import com.iabdinur.model.RenderedPostBody;
 import com.iabdinur.service.AuthorService;
+import com.iabdinur.service.LikeService;
 import com.iabdinur.service.PostService;
 import com.iabdinur.service.UserService;
+import com.iabdinur.util.ContentVersion;
 import com.iabdinur.util.JWTUtil;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/posts")
@@ -18,10 +35,18 @@ public class PostController {
     private final PostService postService;
     private final AuthorService authorService;
     private final UserService userService;
+    private final LikeService likeService;
+    private final PostCache postCache;
     private final JWTUtil jwtUtil;
+    private final ObjectMapper objectMapper;
 
-    public PostController(PostService postService, AuthorService authorService, UserService userService, JWTUtil jwtUtil) {
+    public PostController(PostService postService, AuthorService authorService, UserService userService,
+                          LikeService likeService, PostCache postCache, JWTUtil jwtUtil,
+                          ObjectMapper objectMapper) {
         this.postService = postService;
+        this.objectMapper = objectMapper;
+        this.likeService = likeService;
+        this.postCache = postCache;
         this.authorService = authorService;
         this.userService = userService;
         this.jwtUtil = jwtUtil;
@@ -34,18 +59,91 @@ public class PostController {
             @RequestParam(required = false, defaultValue = "10") Integer limit,
             @RequestParam(required = false) String tag,
             @RequestParam(required = false) String author,
-            @RequestParam(required = false) String exclude) {
-        PostListResponse response = postService.getAllPosts(sort, page, limit, tag, author, exclude);
-        return ResponseEntity.ok(response);
+            @RequestParam(required = false) String exclude,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "true") boolean includeTotal) {
+        PostListResponse response = postCache.getFeedPage(sort, page, limit, tag, author, exclude, cursor,
+            includeTotal, () -> postService.getAllPosts(sort, page, limit, tag, author, exclude, cursor, includeTotal));
+        // A matching If-None-Match turns this into a 304 before the page is serialized
+        return ContentVersion.ofFeed(response).ok(response);
     }
 
     @GetMapping("/{slug}")
-    public ResponseEntity<PostDTO> getPostBySlug(@PathVariable String slug) {
-        return postService.getPostBySlug(slug)
-            .map(ResponseEntity::ok)
+    public ResponseEntity<PostSummaryDTO> getPostBySlug(@PathVariable String slug, WebRequest request) {
+        // The validators come from the database on every request, so a 200 and a later 304
+        // describe the same version; revalidation is answered before the post is loaded
+        Optional<ContentVersion> version = postService.getPostVersion(slug);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.get().isNotModified(request)) {
+            return version.get().notModified();
+        }
+        return postCache.getPost(slug, version.get(), () -> postService.getPostBySlug(slug))
+            .map(post -> ContentVersion.ofPost(post).ok(post))
             .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * The post body as sanitized HTML, rendered when the post was written. Clients that accept gzip
+     * get the stored compressed bytes as they are; others get the plain HTML.
+     */
+    @GetMapping(value = "/{slug}/body", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<byte[]> getPostBody(
+            @PathVariable String slug,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        Optional<Post> body = postService.getPostBody(slug);
+        if (body.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        RenderedPostBody rendered = body.get().getRenderedBody();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ContentVersion version = ContentVersion.ofPostBody(body.get().getId(), body.get().getUpdatedAt(),
+            gzip ? "gzip" : "identity");
+        if (version.isNotModified(request)) {
+            return version.notModified();
+        }
+        ResponseEntity.BodyBuilder response = version.ok()
+            .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.gzip());
+        }
+        return response.body(rendered.html().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether an Accept-Encoding header lists gzip (or *) with a non-zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (quality > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @PostMapping("/{slug}/views")
     public ResponseEntity<Void> incrementViews(@PathVariable String slug) {
         postService.incrementViews(slug);
@@ -53,14 +151,18 @@ public class PostController {
     }
 
     @PostMapping("/{slug}/like")
-    public ResponseEntity<Void> likePost(@PathVariable String slug) {
-        postService.incrementLikes(slug);
+    public ResponseEntity<Void> likePost(
+            @PathVariable String slug,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        likeService.likePost(slug, requireEmail(authHeader, "Authentication required to like posts"));
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/{slug}/like")
-    public ResponseEntity<Void> unlikePost(@PathVariable String slug) {
-        postService.decrementLikes(slug);
+    public ResponseEntity<Void> unlikePost(
+            @PathVariable String slug,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        likeService.unlikePost(slug, requireEmail(authHeader, "Authentication required to unlike posts"));
         return ResponseEntity.ok().build();
     }
 
@@ -102,6 +204,35 @@ public class PostController {
             .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Every post, drafts included, for admin listings. The JSON array is written as rows come off
+     * the database cursor rather than serialized from a list held in memory.
+     */
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllPostsForAdmin(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        String userEmail = requireEmail(authHeader, "Authentication required");
+        if (getAuthorIdFromEmail(userEmail) == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Author profile not found");
+        }
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)) {
+                generator.writeStartArray();
+                postService.streamAllPosts(post -> {
+                    try {
+                        generator.writeObject(post);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/drafts")
     public ResponseEntity<PostListResponse> getDrafts(
             @RequestHeader(value = "Authorization", required = false) String authHeader,
@@ -157,6 +288,14 @@ public class PostController {
             .orElse(ResponseEntity.notFound().build());
     }
 
+    private String requireEmail(String authHeader, String message) {
+        String userEmail = extractEmailFromToken(authHeader);
+        if (userEmail == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, message);
+        }
+        return userEmail;
+    }
+
     private String extractEmailFromToken(String authHeader) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return null;
@@ -1,17 +1,24 @@
 package com.iabdinur.controller;
 
 import com.iabdinur.dto.SearchResponse;
+import com.iabdinur.dto.SuggestionDTO;
+import com.iabdinur.search.SuggestionService;
 import com.iabdinur.service.SearchService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/search")
 public class SearchController {
     private final SearchService searchService;
+    private final SuggestionService suggestionService;
 
-    public SearchController(SearchService searchService) {
+    public SearchController(SearchService searchService,
+                            SuggestionService suggestionService) {
         this.searchService = searchService;
+        this.suggestionService = suggestionService;
     }
 
     @GetMapping
@@ -22,5 +29,11 @@ public class SearchController {
         SearchResponse response = searchService.search(query, type, limit);
         return ResponseEntity.ok(response);
     }
-}
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(suggestionService.suggest(prefix, limit));
+    }
+}
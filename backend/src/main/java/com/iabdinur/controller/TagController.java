@@ -2,10 +2,13 @@ package com.iabdinur.controller;
 
 import com.iabdinur.dto.TagDTO;
 import com.iabdinur.service.TagService;
+import com.iabdinur.util.ContentVersion;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/tags")
@@ -17,14 +20,25 @@ public class TagController {
     }
 
     @GetMapping
-    public ResponseEntity<List<TagDTO>> getAllTags() {
-        return ResponseEntity.ok(tagService.getAllTags());
+    public ResponseEntity<List<TagDTO>> getAllTags(WebRequest request) {
+        ContentVersion version = tagService.getTagsVersion();
+        if (version.isNotModified(request)) {
+            return version.notModified();
+        }
+        return version.ok(tagService.getAllTags());
     }
 
     @GetMapping("/{slug}")
-    public ResponseEntity<TagDTO> getTagBySlug(@PathVariable String slug) {
+    public ResponseEntity<TagDTO> getTagBySlug(@PathVariable String slug, WebRequest request) {
+        Optional<ContentVersion> version = tagService.getTagVersion(slug);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (version.get().isNotModified(request)) {
+            return version.get().notModified();
+        }
         return tagService.getTagBySlug(slug)
-            .map(ResponseEntity::ok)
+            .map(version.get()::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 
@@ -1,14 +1,19 @@
 package com.iabdinur.dao;
 
 import com.iabdinur.model.Author;
+import com.iabdinur.util.ContentVersion;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface AuthorDao {
     List<Author> selectAllAuthors();
     Optional<Author> selectAuthorById(Long authorId);
+    List<Author> selectAuthorsByIds(Collection<Long> authorIds);
     Optional<Author> selectAuthorByUsername(String username);
+    Optional<ContentVersion> selectAuthorVersion(String idOrUsername);
+    ContentVersion selectAuthorsVersion();
     void insertAuthor(Author author);
     boolean existsAuthorWithUsername(String username);
     boolean existsAuthorWithEmail(String email);
@@ -1,17 +1,24 @@
 package com.iabdinur.dao;
 
 import com.iabdinur.model.Comment;
+import com.iabdinur.util.CommentCursor;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface CommentDao {
     List<Comment> selectAllComments();
-    List<Comment> selectCommentsByPostId(Long postId);
+    // Materialized-path range scans with authors loaded, in display order: each comment is
+    // followed by its replies, depth first. Returns at most limit comments, the root first
+    List<Comment> selectSubtree(Long commentId, int limit);
+    // A page of top-level comments, newest first, each followed by up to repliesPerThread of its descendants
+    List<Comment> selectThreads(Long postId, CommentCursor after, int threads, int repliesPerThread);
+    // The comment itself and all of its descendants; 0 when it does not exist
+    int countSubtree(Long commentId);
     Optional<Comment> selectCommentById(Long commentId);
     void insertComment(Comment comment);
     boolean existsCommentById(Long commentId);
+    // Deletes the comment with its whole subtree
     void deleteCommentById(Long commentId);
     void updateComment(Comment update);
-    void incrementLikes(Long commentId);
 }
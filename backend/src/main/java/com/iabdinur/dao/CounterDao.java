@@ -0,0 +1,19 @@
+package com.iabdinur.dao;
+
+public interface CounterDao {
+    /**
+     * Moves {@code posts_count} of the post's author and tags by {@code delta}, if the post is published.
+     */
+    void adjustPublishedPostCounters(Long postId, int delta);
+    void adjustCommentsCount(Long postId, int delta);
+    void adjustRepliesCount(Long commentId, int delta);
+    /**
+     * Subtracts the comment and all of its replies from its post's {@code comments_count},
+     * and the comment from its parent's {@code replies_count}.
+     */
+    void retractCommentThread(Long commentId);
+    int reconcileTagPostsCounts();
+    int reconcileAuthorPostsCounts();
+    int reconcileCommentsCounts();
+    int reconcileRepliesCounts();
+}
@@ -0,0 +1,22 @@
+package com.iabdinur.dao;
+
+import com.iabdinur.model.OutboxEmail;
+import com.iabdinur.model.RenderedEmail;
+import com.iabdinur.model.SentEmail;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface EmailOutboxDao {
+    // One row per recipient, due immediately; expiresAt may be null
+    void insertOutboxEmails(List<String> recipients, RenderedEmail email, LocalDateTime expiresAt);
+    // Claims up to limit due rows, skipping rows other workers hold, until the lease runs out
+    List<OutboxEmail> claimDue(int limit, Duration lease);
+    void retryLater(Long id, Duration delay, String error);
+    // Moves the row to sent_emails; false if the row was already completed after its lease ran out
+    boolean complete(Long id, SentEmail outcome);
+    // complete for each row in one JDBC batch; returns how many rows were still in the outbox
+    int completeAll(Map<Long, SentEmail> outcomes);
+}
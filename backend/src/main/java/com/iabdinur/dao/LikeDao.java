@@ -0,0 +1,14 @@
+package com.iabdinur.dao;
+
+import java.util.Collection;
+
+public interface LikeDao {
+    boolean insertPostLike(Long postId, String userEmail);
+    boolean deletePostLike(Long postId, String userEmail);
+    boolean insertCommentLike(Long commentId, String userEmail);
+    boolean deleteCommentLike(Long commentId, String userEmail);
+    int reconcilePostLikes(Collection<Long> postIds);
+    int reconcileCommentLikes(Collection<Long> commentIds);
+    int reconcileAllPostLikes();
+    int reconcileAllCommentLikes();
+}
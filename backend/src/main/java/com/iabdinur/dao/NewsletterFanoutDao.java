@@ -0,0 +1,13 @@
+package com.iabdinur.dao;
+
+import com.iabdinur.model.RenderedEmail;
+
+import java.util.Optional;
+
+public interface NewsletterFanoutDao {
+    // A fan-out of the post's rendered notification to every active subscriber, not yet queued
+    void insertFanout(Long postId, RenderedEmail email);
+    // Queues the oldest unfinished fan-out no other node holds for its next batchSize active
+    // subscribers in id order, and completes it when fewer remain; empty when there is none
+    Optional<Integer> queueNextBatch(int batchSize);
+}
@@ -1,32 +1,76 @@
 package com.iabdinur.dao;
 
 import com.iabdinur.model.Post;
+import com.iabdinur.model.PostSort;
+import com.iabdinur.model.RenderedPostBody;
+import com.iabdinur.util.ContentVersion;
+import com.iabdinur.util.PostCursor;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PostDao {
     List<Post> selectAllPosts();
-    List<Post> selectPublishedPosts(int limit, int offset);
-    List<Post> selectPostsByAuthorId(Long authorId, int limit, int offset);
-    List<Post> selectPostsByTagSlug(String tagSlug, int limit, int offset);
+    /**
+     * Every post, drafts included, newest first, without content. Rows are read through a
+     * forward-only cursor and handed to the action one at a time, so the result is never held in
+     * memory; the cursor only streams inside a transaction.
+     */
+    void streamAllPostSummaries(Consumer<Post> action);
+    List<Post> selectPublishedPosts(PostSort sort, int limit, int offset);
+    /*
+     * Summary queries leave content and content_image unset; feeds, drafts and search results
+     * never return the post body.
+     */
+    List<Post> selectPublishedPostSummaries(PostSort sort, int limit, int offset);
+    // In no particular order
+    List<Post> selectPublishedPostSummariesByIds(Collection<Long> postIds);
+    List<Post> selectPostSummariesByAuthorId(Long authorId, int limit, int offset);
+    List<Post> selectPostSummariesByTagSlug(String tagSlug, int limit, int offset);
+    List<Post> selectPublishedPostSummariesAfter(PostCursor cursor, int limit);
+    List<Post> selectPostSummariesByAuthorIdAfter(Long authorId, PostCursor cursor, int limit);
+    List<Post> selectPostSummariesByTagSlugAfter(String tagSlug, PostCursor cursor, int limit);
     Optional<Post> selectPostById(Long postId);
     Optional<Post> selectPostBySlug(String slug);
-    Optional<Post> selectPublishedPostBySlug(String slug);
+    // Summary columns only, like the list queries: the body is served by the body endpoint
+    Optional<Post> selectPublishedPostSummaryBySlug(String slug);
+    Optional<Long> resolveIdBySlug(String slug);
+    Optional<Long> resolvePublishedIdBySlug(String slug);
+    Optional<ContentVersion> selectPublishedPostVersion(String slug);
     void insertPost(Post post);
     boolean existsPostWithSlug(String slug);
     boolean existsPostById(Long postId);
     void deletePostById(Long postId);
-    void updatePost(Post update);
-    void incrementViews(Long postId);
-    void incrementLikes(Long postId);
-    void decrementLikes(Long postId);
+    /**
+     * Writes the columns that differ between {@code current}, the post as it was loaded, and
+     * {@code update} in one statement, guarded by the loaded {@code updated_at}.
+     *
+     * @return false if the post was changed or deleted since {@code current} was loaded
+     */
+    boolean updatePost(Post current, Post update);
+    int addViews(Map<Long, Long> viewDeltas);
     long countPublishedPosts();
     long countPostsByAuthorId(Long authorId);
     long countPostsByTagSlug(String tagSlug);
-    List<Post> selectDraftsByAuthorId(Long authorId, int limit, int offset);
+    List<Post> selectPublishedPostTitles();
+    List<Post> searchPublishedPosts(String query, int limit, int offset);
+    long countSearchPublishedPosts(String query);
+    List<Post> selectDraftSummariesByAuthorId(Long authorId, int limit, int offset);
     long countDraftsByAuthorId(Long authorId);
     List<Post> selectScheduledPostsReadyToPublish();
     void updatePostPublishedStatus(Long postId, boolean isPublished, LocalDateTime publishedAt);
+    /**
+     * Id, updated_at and rendered body of a published post; content and content_image are read
+     * only when the body has not been rendered yet.
+     */
+    Optional<Post> selectPublishedPostBody(String slug);
+    // Id, content and content_image of up to limit published posts past afterId whose body is not rendered
+    List<Post> selectPublishedPostsWithoutRenderedBody(Long afterId, int limit);
+    // Only while no body is stored, so a body rendered by a concurrent edit is never overwritten
+    void updateRenderedBodyIfMissing(Long postId, RenderedPostBody body);
+    void updateRenderedBody(Long postId, RenderedPostBody body);
 }
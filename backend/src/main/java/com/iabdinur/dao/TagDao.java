@@ -1,14 +1,29 @@
 package com.iabdinur.dao;
 
 import com.iabdinur.model.Tag;
+import com.iabdinur.util.ContentVersion;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface TagDao {
     List<Tag> selectAllTags();
     Optional<Tag> selectTagById(Long tagId);
     Optional<Tag> selectTagBySlug(String slug);
+    Optional<ContentVersion> selectTagVersion(String slug);
+    ContentVersion selectTagsVersion();
+    Map<Long, List<Tag>> selectTagsByPostIds(Collection<Long> postIds);
+    /**
+     * Makes the post's tags exactly the existing tags among {@code tagIds}, adjusting
+     * {@code posts_count} of the added and removed tags if the post is published. If that changed
+     * any of them, the post's {@code updated_at} moves forward, so its version changes too.
+     *
+     * @return the post's new {@code updated_at}, or empty if its tags were already these
+     */
+    Optional<LocalDateTime> replacePostTags(Long postId, Collection<Long> tagIds);
     void insertTag(Tag tag);
     boolean existsTagWithSlug(String slug);
     boolean existsTagWithName(String name);
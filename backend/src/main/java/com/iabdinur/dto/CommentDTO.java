@@ -9,6 +9,8 @@ public record CommentDTO(
     String postId,
     String parentId,
     List<CommentDTO> replies,
+    // Direct replies, whether or not they are included in replies
+    Integer replyCount,
     Integer likes,
     String createdAt
 ) {}
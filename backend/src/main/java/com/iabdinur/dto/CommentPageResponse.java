@@ -0,0 +1,9 @@
+package com.iabdinur.dto;
+
+import java.util.List;
+
+public record CommentPageResponse(
+    List<CommentDTO> comments,
+    String nextCursor,
+    Boolean hasMore
+) {}
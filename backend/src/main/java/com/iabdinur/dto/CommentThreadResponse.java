@@ -0,0 +1,8 @@
+package com.iabdinur.dto;
+
+public record CommentThreadResponse(
+    // The comment with its replies nested, cut off after the first comments in display order
+    CommentDTO comment,
+    // The comment and all of its descendants, including any not nested in comment
+    Integer totalComments
+) {}
@@ -26,6 +26,15 @@ public record CreatePostRequest(
     List<String> tagIds,
     Boolean isPublished,
     Integer readingTime,
-    String scheduledAt
-) {}
+    String scheduledAt,
+    // updatedAt of the post as the client loaded it; updates are rejected if the post changed since
+    String expectedUpdatedAt
+) {
+    public CreatePostRequest(String title, String slug, String content, String excerpt, String coverImage,
+                             String contentImage, String authorId, List<String> tagIds, Boolean isPublished,
+                             Integer readingTime, String scheduledAt) {
+        this(title, slug, content, excerpt, coverImage, contentImage, authorId, tagIds, isPublished,
+                readingTime, scheduledAt, null);
+    }
+}
 
@@ -3,6 +3,10 @@ package com.iabdinur.dto;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * A post with its markdown source, as the editor and the admin endpoints return it. Readers get
+ * a {@link PostSummaryDTO} and the rendered body from the body endpoint instead.
+ */
 public record PostDTO(
     String id,
     String title,
@@ -20,6 +24,7 @@ public record PostDTO(
     Long views,
     Long likes,
     Integer commentsCount,
-    Boolean isPublished
+    Boolean isPublished,
+    String highlight
 ) {}
 
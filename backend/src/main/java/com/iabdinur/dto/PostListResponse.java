@@ -3,9 +3,20 @@ package com.iabdinur.dto;
 import java.util.List;
 
 public record PostListResponse(
-    List<PostDTO> posts,
+    List<PostSummaryDTO> posts,
     Integer total,
     Integer page,
-    Integer limit
-) {}
+    Integer limit,
+    String nextCursor,
+    // Whether another page follows; total is null when the client asked to skip counting
+    Boolean hasMore
+) {
+    public PostListResponse(List<PostSummaryDTO> posts, Integer total, Integer page, Integer limit, String nextCursor) {
+        this(posts, total, page, limit, nextCursor, null);
+    }
+
+    public PostListResponse(List<PostSummaryDTO> posts, Integer total, Integer page, Integer limit) {
+        this(posts, total, page, limit, null);
+    }
+}
 
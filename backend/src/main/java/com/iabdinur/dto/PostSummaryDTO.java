@@ -0,0 +1,47 @@
+package com.iabdinur.dto;
+
+import java.util.List;
+
+/**
+ * A post as shown in feeds, drafts, search results and on its own page: everything but the
+ * body, which the body endpoint serves pre-rendered.
+ */
+public record PostSummaryDTO(
+    String id,
+    String title,
+    String slug,
+    String excerpt,
+    String coverImage,
+    String publishedAt,
+    String scheduledAt,
+    String updatedAt,
+    AuthorDTO author,
+    List<TagDTO> tags,
+    Integer readingTime,
+    Long views,
+    Long likes,
+    Integer commentsCount,
+    Boolean isPublished,
+    String highlight
+) {
+    public static PostSummaryDTO fromPost(PostDTO post) {
+        return new PostSummaryDTO(
+            post.id(),
+            post.title(),
+            post.slug(),
+            post.excerpt(),
+            post.coverImage(),
+            post.publishedAt(),
+            post.scheduledAt(),
+            post.updatedAt(),
+            post.author(),
+            post.tags(),
+            post.readingTime(),
+            post.views(),
+            post.likes(),
+            post.commentsCount(),
+            post.isPublished(),
+            post.highlight()
+        );
+    }
+}
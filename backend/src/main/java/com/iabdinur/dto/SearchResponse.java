@@ -3,7 +3,7 @@ package com.iabdinur.dto;
 import java.util.List;
 
 public record SearchResponse(
-    List<PostDTO> posts,
+    List<PostSummaryDTO> posts,
     List<AuthorDTO> authors,
     List<TagDTO> tags,
     Integer total
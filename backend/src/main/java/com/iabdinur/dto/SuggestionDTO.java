@@ -0,0 +1,11 @@
+package com.iabdinur.dto;
+
+/**
+ * A typeahead completion. {@code key} is the slug for posts and tags and the username for authors.
+ */
+public record SuggestionDTO(
+    String text,
+    String type,
+    String key,
+    Long weight
+) {}
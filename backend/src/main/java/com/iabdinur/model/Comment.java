@@ -34,6 +34,13 @@ public class Comment {
     @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> replies = new ArrayList<>();
 
+    @Column(name = "replies_count", nullable = false)
+    private Integer repliesCount = 0;
+
+    // Materialized path from the thread's top-level comment, assigned by the database on insert
+    @Column(name = "path", insertable = false, updatable = false)
+    private String path;
+
     @Column(name = "likes", nullable = false)
     private Integer likes;
 
@@ -115,6 +122,29 @@ public class Comment {
         this.replies = replies;
     }
 
+    public Integer getRepliesCount() {
+        return repliesCount;
+    }
+
+    public void setRepliesCount(Integer repliesCount) {
+        this.repliesCount = repliesCount;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Nesting level from the path: 0 for a top-level comment, 1 for its direct replies, and so on.
+     */
+    public int getDepth() {
+        return path != null ? (int) path.chars().filter(ch -> ch == '/').count() : 0;
+    }
+
     public Integer getLikes() {
         return likes;
     }
@@ -147,6 +177,8 @@ public class Comment {
                 ", author=" + (author != null ? author.getId() : null) +
                 ", content='" + content + '\'' +
                 ", parent=" + (parent != null ? parent.getId() : null) +
+                ", repliesCount=" + repliesCount +
+                ", path='" + path + '\'' +
                 ", likes=" + likes +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
@@ -0,0 +1,9 @@
+package com.iabdinur.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A claimed row of the email outbox. {@code attempts} includes the attempt it was claimed for.
+ */
+public record OutboxEmail(Long id, String recipientEmail, RenderedEmail email, int attempts,
+                          LocalDateTime expiresAt) {}
@@ -73,6 +73,14 @@ public class Post {
     )
     private Set<Tag> tags = new HashSet<>();
 
+    // Highlighted snippet populated only by full-text search queries
+    @Transient
+    private String searchHighlight;
+
+    // Pre-rendered body populated only by PostDao.selectPublishedPostBody
+    @Transient
+    private RenderedPostBody renderedBody;
+
     // Constructors
     public Post() {
     }
@@ -104,6 +112,32 @@ public class Post {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Shallow copy, used to keep the loaded state of a post while it is being edited.
+     */
+    public Post(Post other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.slug = other.slug;
+        this.content = other.content;
+        this.excerpt = other.excerpt;
+        this.coverImage = other.coverImage;
+        this.contentImage = other.contentImage;
+        this.author = other.author;
+        this.publishedAt = other.publishedAt;
+        this.scheduledAt = other.scheduledAt;
+        this.isPublished = other.isPublished;
+        this.views = other.views;
+        this.likes = other.likes;
+        this.commentsCount = other.commentsCount;
+        this.readingTime = other.readingTime;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.tags = new HashSet<>(other.tags);
+        this.searchHighlight = other.searchHighlight;
+        this.renderedBody = other.renderedBody;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -241,6 +275,22 @@ public class Post {
         this.updatedAt = updatedAt;
     }
 
+    public String getSearchHighlight() {
+        return searchHighlight;
+    }
+
+    public void setSearchHighlight(String searchHighlight) {
+        this.searchHighlight = searchHighlight;
+    }
+
+    public RenderedPostBody getRenderedBody() {
+        return renderedBody;
+    }
+
+    public void setRenderedBody(RenderedPostBody renderedBody) {
+        this.renderedBody = renderedBody;
+    }
+
     public LocalDateTime getScheduledAt() {
         return scheduledAt;
     }
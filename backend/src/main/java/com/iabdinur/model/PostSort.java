@@ -0,0 +1,59 @@
+package com.iabdinur.model;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Orderings supported by the published post feed. Each ordering is a descending
+ * sort on a single column with id as the tie-break, so it can be paged by keyset.
+ */
+public enum PostSort {
+    LATEST("published_at"),
+    TOP("likes"),
+    DISCUSSIONS("comments_count");
+
+    private final String column;
+
+    PostSort(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Map the public sort parameter to an ordering; anything unrecognised falls back to latest.
+     */
+    public static PostSort fromParam(String sort) {
+        if ("top".equals(sort)) {
+            return TOP;
+        }
+        if ("discussions".equals(sort)) {
+            return DISCUSSIONS;
+        }
+        return LATEST;
+    }
+
+    /**
+     * The value of this ordering's sort column for the given post, as a string.
+     */
+    public String keyOf(Post post) {
+        return switch (this) {
+            case LATEST -> post.getPublishedAt() != null ? post.getPublishedAt().toString() : null;
+            case TOP -> String.valueOf(post.getLikes());
+            case DISCUSSIONS -> String.valueOf(post.getCommentsCount());
+        };
+    }
+
+    /**
+     * Convert a key produced by {@link #keyOf(Post)} back into a JDBC parameter.
+     */
+    public Object toSqlValue(String key) {
+        return switch (this) {
+            case LATEST -> Timestamp.valueOf(LocalDateTime.parse(key));
+            case TOP -> Long.parseLong(key);
+            case DISCUSSIONS -> Integer.parseInt(key);
+        };
+    }
+}
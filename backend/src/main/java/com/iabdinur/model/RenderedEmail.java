@@ -0,0 +1,6 @@
+package com.iabdinur.model;
+
+/**
+ * An email rendered from its template, ready to be sent unchanged to any number of recipients.
+ */
+public record RenderedEmail(String subject, String html, String emailType) {}
@@ -0,0 +1,6 @@
+package com.iabdinur.model;
+
+/**
+ * A post body rendered to sanitized HTML, with the same HTML gzip-compressed.
+ */
+public record RenderedPostBody(String html, byte[] gzip) {}
@@ -0,0 +1,26 @@
+package com.iabdinur.ratelimit;
+
+/**
+ * A token bucket shape: up to {@code capacity} requests in a burst, refilled continuously at
+ * {@code refillPerMinute}.
+ */
+public record RateLimitProfile(String name, int capacity, int refillPerMinute) {
+
+    public RateLimitProfile {
+        if (capacity < 1 || capacity > TokenBucketRateLimiter.MAX_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "capacity must be between 1 and " + TokenBucketRateLimiter.MAX_CAPACITY);
+        }
+        if (refillPerMinute < 1 || refillPerMinute > TokenBucketRateLimiter.MAX_REFILL_PER_MINUTE) {
+            throw new IllegalArgumentException(
+                    "refillPerMinute must be between 1 and " + TokenBucketRateLimiter.MAX_REFILL_PER_MINUTE);
+        }
+    }
+
+    /**
+     * Upper bound on the wait for one token once the bucket is empty.
+     */
+    public long retryAfterSeconds() {
+        return (60 + refillPerMinute - 1) / refillPerMinute;
+    }
+}
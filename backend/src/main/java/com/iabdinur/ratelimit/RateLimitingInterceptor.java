@@ -0,0 +1,64 @@
+package com.iabdinur.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies one {@link RateLimitProfile} per client IP. Header values are built once up front,
+ * so an admitted request allocates nothing beyond the client key.
+ */
+public class RateLimitingInterceptor implements HandlerInterceptor {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final TokenBucketRateLimiter limiter;
+    private final String limit;
+    private final String retryAfter;
+    private final String[] remaining;
+
+    public RateLimitingInterceptor(TokenBucketRateLimiter limiter) {
+        RateLimitProfile profile = limiter.profile();
+        this.limiter = limiter;
+        this.limit = String.valueOf(profile.capacity());
+        this.retryAfter = String.valueOf(profile.retryAfterSeconds());
+        this.remaining = new String[profile.capacity()];
+        for (int i = 0; i < remaining.length; i++) {
+            remaining[i] = String.valueOf(i);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        int tokensLeft = limiter.tryAcquire(clientIp(request));
+        response.setHeader(LIMIT_HEADER, limit);
+        if (tokensLeft < 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(REMAINING_HEADER, remaining[0]);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            return false;
+        }
+        response.setHeader(REMAINING_HEADER, remaining[tokensLeft]);
+        return true;
+    }
+
+    public TokenBucketRateLimiter limiter() {
+        return limiter;
+    }
+
+    private static String clientIp(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            int comma = xForwardedFor.indexOf(',');
+            return comma < 0 ? xForwardedFor.trim() : xForwardedFor.substring(0, comma).trim();
+        }
+        String xRealIp = request.getHeader("X-Real-IP");
+        if (xRealIp != null && !xRealIp.isEmpty()) {
+            return xRealIp;
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,53 @@
+package com.iabdinur.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Paces callers to a fixed rate by handing out evenly spaced send slots. Each caller reserves
+ * the next free slot with one atomic update and then sleeps until it, so concurrent callers
+ * never exceed the rate and never burst: an outbound quota such as SES's maximum send rate
+ * is counted per second, and a burst after an idle spell would be throttled by the provider.
+ */
+public class SendRateThrottle {
+
+    private final long intervalNanos;
+    private final LongSupplier clock;
+    private final AtomicLong nextSlot;
+
+    public SendRateThrottle(double permitsPerSecond) {
+        this(permitsPerSecond, System::nanoTime);
+    }
+
+    SendRateThrottle(double permitsPerSecond, LongSupplier clock) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.clock = clock;
+        this.nextSlot = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Blocks until the caller's slot comes up. Cheap to block in on a virtual thread.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Reserves the next slot.
+     *
+     * @return how long the caller has to wait for it, in nanoseconds
+     */
+    long reserve() {
+        long now = clock.getAsLong();
+        // An idle throttle restarts from now instead of banking the slots it did not hand out
+        long slot = nextSlot.getAndUpdate(next -> Math.max(next, now) + intervalNanos);
+        return Math.max(slot, now) - now;
+    }
+}
@@ -0,0 +1,140 @@
+package com.iabdinur.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token buckets. Each bucket is a single {@link AtomicLong} packing the token count
+ * (in thousandths of a token, so slow refill rates accrue between requests) above the time of
+ * the last refill, and is updated with one compare-and-set per request without locking.
+ * <p>
+ * A bucket that has refilled completely is indistinguishable from a new one, so idle buckets
+ * are evicted by a periodic {@link #evictIdle()} and memory is bounded by the number of recently
+ * active keys. Past {@code maxKeys} such keys, new keys share one overflow bucket until the next
+ * sweep frees room, so a flood of new keys costs no scan of the map.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int TIME_BITS = 42;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final long UNITS_PER_TOKEN = 1000;
+    private static final long MAX_UNITS = (1L << (Long.SIZE - TIME_BITS - 1)) - 1;
+
+    static final int MAX_CAPACITY = (int) (MAX_UNITS / UNITS_PER_TOKEN);
+    static final int MAX_REFILL_PER_MINUTE = 1_000_000;
+
+    private final RateLimitProfile profile;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final long capacityUnits;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflowBucket;
+
+    public TokenBucketRateLimiter(RateLimitProfile profile, int maxKeys) {
+        this(profile, maxKeys, millisSince(System.nanoTime()));
+    }
+
+    TokenBucketRateLimiter(RateLimitProfile profile, int maxKeys, LongSupplier clock) {
+        this.profile = profile;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.capacityUnits = profile.capacity() * UNITS_PER_TOKEN;
+        this.overflowBucket = new AtomicLong(pack(capacityUnits, now()));
+    }
+
+    public RateLimitProfile profile() {
+        return profile;
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return the whole tokens left after this request, or -1 if the request is over the limit
+     */
+    public int tryAcquire(String key) {
+        long now = now();
+        AtomicLong bucket = bucketFor(key, now);
+        while (true) {
+            long state = bucket.get();
+            long refilled = refill(state, now);
+            long units = refilled >>> TIME_BITS;
+            if (units < UNITS_PER_TOKEN) {
+                // Denials write nothing, so a flood of rejected requests adds no CAS traffic
+                return -1;
+            }
+            if (bucket.compareAndSet(state, refilled - (UNITS_PER_TOKEN << TIME_BITS))) {
+                return (int) (units / UNITS_PER_TOKEN) - 1;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely since their last use.
+     */
+    public void evictIdle() {
+        long now = now();
+        // A request racing with removal can spend one token on the detached bucket, and the
+        // key then starts again from a full one: at most one extra request per eviction
+        buckets.forEach((key, bucket) -> {
+            if (refill(bucket.get(), now) >>> TIME_BITS == capacityUnits) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucketFor(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            return overflowBucket;
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(pack(capacityUnits, now)));
+    }
+
+    /**
+     * The state with tokens accrued up to {@code now}. The refill time only advances by the time
+     * those tokens took to accrue, so frequent requests against a slow rate still refill.
+     */
+    private long refill(long state, long now) {
+        long units = state >>> TIME_BITS;
+        long last = state & TIME_MASK;
+        long elapsed = now - last;
+        if (elapsed <= 0) {
+            return state;
+        }
+        if (units == capacityUnits) {
+            return pack(units, now);
+        }
+        long unitsPerMinute = profile.refillPerMinute() * UNITS_PER_TOKEN;
+        // Capped before multiplying, so the product cannot overflow
+        long refill = Math.min(elapsed, 60_000L * profile.capacity()) * unitsPerMinute / 60_000;
+        if (units + refill >= capacityUnits) {
+            return pack(capacityUnits, now);
+        }
+        if (refill == 0) {
+            return state;
+        }
+        long accrualMillis = (refill * 60_000 + unitsPerMinute - 1) / unitsPerMinute;
+        return pack(units + refill, last + accrualMillis);
+    }
+
+    private long now() {
+        return clock.getAsLong() & TIME_MASK;
+    }
+
+    private static long pack(long units, long time) {
+        return (units << TIME_BITS) | time;
+    }
+
+    private static LongSupplier millisSince(long originNanos) {
+        return () -> (System.nanoTime() - originNanos) / 1_000_000;
+    }
+}
@@ -3,6 +3,7 @@ package com.iabdinur.repository;
 import com.iabdinur.dao.AuthorDao;
 import com.iabdinur.model.Author;
 import com.iabdinur.rowmapper.AuthorRowMapper;
+import com.iabdinur.util.ContentVersion;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -12,6 +13,8 @@ import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,6 +56,25 @@ public class AuthorJDBCDataAccessService implements AuthorDao {
                 .findFirst();
     }
 
+    @Override
+    public List<Author> selectAuthorsByIds(Collection<Long> authorIds) {
+        if (authorIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        var sql = """
+                SELECT id, name, username, email, bio, avatar, cover_image, location, website,
+                       github, linkedin, followers_count, posts_count,
+                       joined_at, created_at, updated_at
+                FROM authors
+                WHERE id = ANY(?)
+                """;
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("bigint", authorIds.toArray()));
+            return ps;
+        }, authorRowMapper);
+    }
+
     @Override
     public Optional<Author> selectAuthorByUsername(String username) {
         var sql = """
@@ -67,6 +89,40 @@ public class AuthorJDBCDataAccessService implements AuthorDao {
                 .findFirst();
     }
 
+    @Override
+    public Optional<ContentVersion> selectAuthorVersion(String idOrUsername) {
+        // A username match wins over an id match, like the author lookup itself
+        var sql = """
+                SELECT id, updated_at, avatar, followers_count, posts_count
+                FROM authors
+                WHERE username = ? OR id::text = ?
+                ORDER BY username = ? DESC
+                LIMIT 1
+                """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+                    LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+                    return ContentVersion.of(updatedAt, "author", rs.getLong("id"), updatedAt,
+                            rs.getString("avatar"), rs.getInt("followers_count"), rs.getInt("posts_count"));
+                }, idOrUsername, idOrUsername, idOrUsername)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public ContentVersion selectAuthorsVersion() {
+        var sql = """
+                SELECT MAX(updated_at) AS last_modified,
+                       md5(string_agg(id || ':' || updated_at || ':' || COALESCE(avatar, '') || ':'
+                                      || followers_count || ':' || posts_count, ',' ORDER BY id)) AS digest
+                FROM authors
+                """;
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            Timestamp lastModified = rs.getTimestamp("last_modified");
+            return ContentVersion.of(lastModified != null ? lastModified.toLocalDateTime() : null,
+                    "authors", rs.getString("digest"));
+        });
+    }
+
     @Override
     public void insertAuthor(Author author) {
         var sql = """
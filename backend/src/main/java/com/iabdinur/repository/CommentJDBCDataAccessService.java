@@ -3,6 +3,8 @@ package com.iabdinur.repository;
 import com.iabdinur.dao.CommentDao;
 import com.iabdinur.model.Comment;
 import com.iabdinur.rowmapper.CommentRowMapper;
+import com.iabdinur.rowmapper.CommentWithAuthorRowMapper;
+import com.iabdinur.util.CommentCursor;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -13,24 +15,46 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
 public class CommentJDBCDataAccessService implements CommentDao {
 
+    // Comment columns joined with the author's, prefixed for CommentWithAuthorRowMapper
+    private static final String COLUMNS_WITH_AUTHOR = """
+            c.id, c.post_id, c.author_id, c.content, c.parent_id, c.replies_count, c.path, c.likes,
+            c.created_at, c.updated_at,
+            a.name AS author_name, a.username AS author_username, a.email AS author_email,
+            a.bio AS author_bio, a.avatar AS author_avatar, a.cover_image AS author_cover_image,
+            a.location AS author_location, a.website AS author_website,
+            a.github AS author_github, a.linkedin AS author_linkedin,
+            a.followers_count AS author_followers_count, a.posts_count AS author_posts_count,
+            a.joined_at AS author_joined_at, a.created_at AS author_created_at,
+            a.updated_at AS author_updated_at
+            """;
+
+    private static final String SELECT_WITH_AUTHOR = "SELECT " + COLUMNS_WITH_AUTHOR + """
+            FROM comments c
+            JOIN authors a ON a.id = c.author_id
+            """;
+
     private final JdbcTemplate jdbcTemplate;
     private final CommentRowMapper commentRowMapper;
+    private final CommentWithAuthorRowMapper commentWithAuthorRowMapper;
 
     public CommentJDBCDataAccessService(JdbcTemplate jdbcTemplate,
-                                         CommentRowMapper commentRowMapper) {
+                                         CommentRowMapper commentRowMapper,
+                                         CommentWithAuthorRowMapper commentWithAuthorRowMapper) {
         this.jdbcTemplate = jdbcTemplate;
         this.commentRowMapper = commentRowMapper;
+        this.commentWithAuthorRowMapper = commentWithAuthorRowMapper;
     }
 
     @Override
     public List<Comment> selectAllComments() {
         var sql = """
-                SELECT id, post_id, author_id, content, parent_id, likes, created_at, updated_at
+                SELECT id, post_id, author_id, content, parent_id, replies_count, path, likes, created_at, updated_at
                 FROM comments
                 ORDER BY created_at DESC
                 """;
@@ -38,20 +62,77 @@ public class CommentJDBCDataAccessService implements CommentDao {
     }
 
     @Override
-    public List<Comment> selectCommentsByPostId(Long postId) {
+    public List<Comment> selectSubtree(Long commentId, int limit) {
+        var sql = SELECT_WITH_AUTHOR + """
+                JOIN comments root ON root.id = ?
+                WHERE c.post_id = root.post_id
+                  AND c.path >= root.path AND c.path < root.path || '0'
+                ORDER BY c.path
+                LIMIT ?
+                """;
+        return jdbcTemplate.query(sql, commentWithAuthorRowMapper, commentId, limit);
+    }
+
+    @Override
+    public List<Comment> selectThreads(Long postId, CommentCursor after, int threads, int repliesPerThread) {
+        // The roots come from the thread index; each thread is then one range of the path index,
+        // cut off after the root and its first repliesPerThread descendants
+        var threadRows = "SELECT " + COLUMNS_WITH_AUTHOR + """
+                FROM roots r
+                CROSS JOIN LATERAL (
+                    SELECT *
+                    FROM comments t
+                    WHERE t.post_id = r.post_id
+                      AND t.path >= r.path AND t.path < r.path || '0'
+                    ORDER BY t.path
+                    LIMIT ?
+                ) c
+                JOIN authors a ON a.id = c.author_id
+                ORDER BY r.created_at DESC, r.id DESC, c.path
+                """;
+        if (after == null) {
+            var sql = """
+                    WITH roots AS (
+                        SELECT id, post_id, path, created_at
+                        FROM comments
+                        WHERE post_id = ? AND parent_id IS NULL
+                        ORDER BY created_at DESC, id DESC
+                        LIMIT ?
+                    )
+                    """ + threadRows;
+            return jdbcTemplate.query(sql, commentWithAuthorRowMapper, postId, threads, repliesPerThread + 1);
+        }
         var sql = """
-                SELECT id, post_id, author_id, content, parent_id, likes, created_at, updated_at
-                FROM comments
-                WHERE post_id = ?
-                ORDER BY created_at DESC
+                WITH roots AS (
+                    SELECT id, post_id, path, created_at
+                    FROM comments
+                    WHERE post_id = ? AND parent_id IS NULL
+                      AND (created_at, id) < (?, ?)
+                    ORDER BY created_at DESC, id DESC
+                    LIMIT ?
+                )
+                """ + threadRows;
+        return jdbcTemplate.query(sql, commentWithAuthorRowMapper,
+                postId, Timestamp.valueOf(after.createdAt()), after.id(), threads, repliesPerThread + 1);
+    }
+
+    @Override
+    public int countSubtree(Long commentId) {
+        var sql = """
+                SELECT count(c.id)
+                FROM comments root
+                JOIN comments c ON c.post_id = root.post_id
+                    AND c.path >= root.path AND c.path < root.path || '0'
+                WHERE root.id = ?
                 """;
-        return jdbcTemplate.query(sql, commentRowMapper, postId);
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, commentId);
+        return count != null ? count : 0;
     }
 
     @Override
     public Optional<Comment> selectCommentById(Long commentId) {
         var sql = """
-                SELECT id, post_id, author_id, content, parent_id, likes, created_at, updated_at
+                SELECT id, post_id, author_id, content, parent_id, replies_count, path, likes, created_at, updated_at
                 FROM comments
                 WHERE id = ?
                 """;
@@ -68,7 +149,7 @@ public class CommentJDBCDataAccessService implements CommentDao {
                 """;
         KeyHolder keyHolder = new GeneratedKeyHolder();
         jdbcTemplate.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"});
+            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id", "path"});
             ps.setLong(1, comment.getPost().getId());
             ps.setLong(2, comment.getAuthor().getId());
             ps.setString(3, comment.getContent());
@@ -79,8 +160,10 @@ public class CommentJDBCDataAccessService implements CommentDao {
             return ps;
         }, keyHolder);
         
-        Long id = keyHolder.getKey() != null ? keyHolder.getKey().longValue() : null;
-        comment.setId(id);
+        // The path is assigned by a trigger and returned with the generated id
+        Map<String, Object> keys = keyHolder.getKeys();
+        comment.setId(keys != null && keys.get("id") != null ? ((Number) keys.get("id")).longValue() : null);
+        comment.setPath(keys != null ? (String) keys.get("path") : null);
     }
 
     @Override
@@ -96,10 +179,14 @@ public class CommentJDBCDataAccessService implements CommentDao {
 
     @Override
     public void deleteCommentById(Long commentId) {
+        // One range delete of the subtree, instead of ON DELETE CASCADE walking it a level at a time
         var sql = """
                 DELETE
-                FROM comments
-                WHERE id = ?
+                FROM comments c
+                USING comments root
+                WHERE root.id = ?
+                  AND c.post_id = root.post_id
+                  AND c.path >= root.path AND c.path < root.path || '0'
                 """;
         jdbcTemplate.update(sql, commentId);
     }
@@ -114,17 +201,4 @@ public class CommentJDBCDataAccessService implements CommentDao {
                     update.getId());
         }
     }
-
-    @Override
-    public void incrementLikes(Long commentId) {
-        var sql = """
-                UPDATE comments
-                SET likes = likes + 1
-                WHERE id = ?
-                """;
-        int updated = jdbcTemplate.update(sql, commentId);
-        if (updated == 0) {
-            throw new IllegalArgumentException("Comment not found with id: " + commentId);
-        }
-    }
 }
@@ -0,0 +1,152 @@
+package com.iabdinur.repository;
+
+import com.iabdinur.dao.CounterDao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Denormalized counters: tags.posts_count and authors.posts_count count published posts,
+ * posts.comments_count counts all comments including replies, comments.replies_count direct replies.
+ */
+@Repository
+public class CounterJDBCDataAccessService implements CounterDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CounterJDBCDataAccessService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void adjustPublishedPostCounters(Long postId, int delta) {
+        var sql = """
+                WITH post AS (
+                    SELECT id, author_id
+                    FROM posts
+                    WHERE id = ? AND is_published = true
+                ),
+                author_update AS (
+                    UPDATE authors
+                    SET posts_count = GREATEST(posts_count + ?, 0)
+                    WHERE id IN (SELECT author_id FROM post)
+                )
+                UPDATE tags
+                SET posts_count = GREATEST(posts_count + ?, 0)
+                WHERE id IN (
+                    SELECT pt.tag_id
+                    FROM post_tags pt
+                    INNER JOIN post ON post.id = pt.post_id
+                )
+                """;
+        jdbcTemplate.update(sql, postId, delta, delta);
+    }
+
+    @Override
+    public void adjustCommentsCount(Long postId, int delta) {
+        var sql = """
+                UPDATE posts
+                SET comments_count = GREATEST(comments_count + ?, 0)
+                WHERE id = ?
+                """;
+        jdbcTemplate.update(sql, delta, postId);
+    }
+
+    @Override
+    public void adjustRepliesCount(Long commentId, int delta) {
+        var sql = """
+                UPDATE comments
+                SET replies_count = GREATEST(replies_count + ?, 0)
+                WHERE id = ?
+                """;
+        jdbcTemplate.update(sql, delta, commentId);
+    }
+
+    @Override
+    public void retractCommentThread(Long commentId) {
+        // Replies are removed with their parent, so the subtree is counted here first
+        var sql = """
+                WITH thread AS (
+                    SELECT c.id, c.post_id
+                    FROM comments root
+                    JOIN comments c ON c.post_id = root.post_id
+                        AND c.path >= root.path AND c.path < root.path || '0'
+                    WHERE root.id = ?
+                ),
+                parent_update AS (
+                    UPDATE comments
+                    SET replies_count = GREATEST(replies_count - 1, 0)
+                    WHERE id = (SELECT parent_id FROM comments WHERE id = ?)
+                )
+                UPDATE posts p
+                SET comments_count = GREATEST(p.comments_count - r.removed, 0)
+                FROM (SELECT post_id, COUNT(*) AS removed FROM thread GROUP BY post_id) r
+                WHERE p.id = r.post_id
+                """;
+        jdbcTemplate.update(sql, commentId, commentId);
+    }
+
+    @Override
+    public int reconcileTagPostsCounts() {
+        var sql = """
+                UPDATE tags t
+                SET posts_count = c.actual
+                FROM (
+                    SELECT t2.id, COUNT(p.id) AS actual
+                    FROM tags t2
+                    LEFT JOIN post_tags pt ON pt.tag_id = t2.id
+                    LEFT JOIN posts p ON p.id = pt.post_id AND p.is_published = true
+                    GROUP BY t2.id
+                ) c
+                WHERE t.id = c.id AND t.posts_count <> c.actual
+                """;
+        return jdbcTemplate.update(sql);
+    }
+
+    @Override
+    public int reconcileAuthorPostsCounts() {
+        var sql = """
+                UPDATE authors a
+                SET posts_count = c.actual
+                FROM (
+                    SELECT a2.id, COUNT(p.id) AS actual
+                    FROM authors a2
+                    LEFT JOIN posts p ON p.author_id = a2.id AND p.is_published = true
+                    GROUP BY a2.id
+                ) c
+                WHERE a.id = c.id AND a.posts_count <> c.actual
+                """;
+        return jdbcTemplate.update(sql);
+    }
+
+    @Override
+    public int reconcileCommentsCounts() {
+        var sql = """
+                UPDATE posts p
+                SET comments_count = c.actual
+                FROM (
+                    SELECT p2.id, COUNT(cm.id) AS actual
+                    FROM posts p2
+                    LEFT JOIN comments cm ON cm.post_id = p2.id
+                    GROUP BY p2.id
+                ) c
+                WHERE p.id = c.id AND p.comments_count <> c.actual
+                """;
+        return jdbcTemplate.update(sql);
+    }
+
+    @Override
+    public int reconcileRepliesCounts() {
+        var sql = """
+                UPDATE comments c
+                SET replies_count = r.actual
+                FROM (
+                    SELECT c2.id, COUNT(reply.id) AS actual
+                    FROM comments c2
+                    LEFT JOIN comments reply ON reply.parent_id = c2.id
+                    GROUP BY c2.id
+                ) r
+                WHERE c.id = r.id AND c.replies_count <> r.actual
+                """;
+        return jdbcTemplate.update(sql);
+    }
+}
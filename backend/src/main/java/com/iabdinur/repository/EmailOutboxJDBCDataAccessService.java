@@ -0,0 +1,122 @@
+package com.iabdinur.repository;
+
+import com.iabdinur.dao.EmailOutboxDao;
+import com.iabdinur.model.OutboxEmail;
+import com.iabdinur.model.RenderedEmail;
+import com.iabdinur.model.SentEmail;
+import com.iabdinur.rowmapper.OutboxEmailRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class EmailOutboxJDBCDataAccessService implements EmailOutboxDao {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxEmailRowMapper rowMapper;
+
+    public EmailOutboxJDBCDataAccessService(
+            JdbcTemplate jdbcTemplate,
+            OutboxEmailRowMapper rowMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rowMapper = rowMapper;
+    }
+
+    @Override
+    public void insertOutboxEmails(List<String> recipients, RenderedEmail email, LocalDateTime expiresAt) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        var sql = """
+                INSERT INTO email_outbox (recipient_email, subject, html_body, email_type, expires_at)
+                VALUES (?, ?, ?, ?, ?)
+                """;
+        Timestamp expires = expiresAt != null ? Timestamp.valueOf(expiresAt) : null;
+        jdbcTemplate.batchUpdate(sql, recipients, recipients.size(), (ps, recipient) -> {
+            ps.setString(1, recipient);
+            ps.setString(2, email.subject());
+            ps.setString(3, email.html());
+            ps.setString(4, email.emailType());
+            ps.setTimestamp(5, expires);
+        });
+    }
+
+    @Override
+    public List<OutboxEmail> claimDue(int limit, Duration lease) {
+        // SKIP LOCKED lets workers on every node claim disjoint rows without waiting on each other;
+        // moving next_attempt_at past the lease hides the rows from other claims until it runs out
+        var sql = """
+                UPDATE email_outbox o
+                SET attempts = o.attempts + 1,
+                    next_attempt_at = CURRENT_TIMESTAMP + ? * interval '1 millisecond'
+                FROM (
+                    SELECT id
+                    FROM email_outbox
+                    WHERE next_attempt_at <= CURRENT_TIMESTAMP
+                    ORDER BY next_attempt_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                ) due
+                WHERE o.id = due.id
+                RETURNING o.id, o.recipient_email, o.subject, o.html_body, o.email_type, o.attempts, o.expires_at
+                """;
+        return jdbcTemplate.query(sql, rowMapper, lease.toMillis(), limit);
+    }
+
+    @Override
+    public void retryLater(Long id, Duration delay, String error) {
+        var sql = """
+                UPDATE email_outbox
+                SET next_attempt_at = CURRENT_TIMESTAMP + ? * interval '1 millisecond',
+                    last_error = ?
+                WHERE id = ?
+                """;
+        jdbcTemplate.update(sql, delay.toMillis(), error, id);
+    }
+
+    @Override
+    public boolean complete(Long id, SentEmail outcome) {
+        return completeAll(Map.of(id, outcome)) > 0;
+    }
+
+    @Override
+    public int completeAll(Map<Long, SentEmail> outcomes) {
+        if (outcomes.isEmpty()) {
+            return 0;
+        }
+        // One statement per row, so each outcome is recorded exactly when its row leaves the outbox
+        var sql = """
+                WITH done AS (
+                    DELETE FROM email_outbox
+                    WHERE id = ?
+                    RETURNING recipient_email, subject, email_type
+                )
+                INSERT INTO sent_emails (recipient_email, subject, email_type, ses_message_id, status, sent_at, error_message)
+                SELECT recipient_email, subject, email_type, ?, ?, ?, ?
+                FROM done
+                """;
+        List<Map.Entry<Long, SentEmail>> rows = List.copyOf(outcomes.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, row) -> {
+            SentEmail outcome = row.getValue();
+            ps.setLong(1, row.getKey());
+            ps.setString(2, outcome.getSesMessageId());
+            ps.setString(3, outcome.getStatus());
+            ps.setTimestamp(4, outcome.getSentAt() != null ? Timestamp.valueOf(outcome.getSentAt()) : null);
+            ps.setString(5, outcome.getErrorMessage());
+        });
+        int completed = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // The driver may report a batched statement's count as unknown; it ran either way
+                completed += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+        return completed;
+    }
+}
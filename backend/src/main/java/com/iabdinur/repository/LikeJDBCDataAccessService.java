@@ -0,0 +1,140 @@
+package com.iabdinur.repository;
+
+import com.iabdinur.dao.LikeDao;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+@Repository
+public class LikeJDBCDataAccessService implements LikeDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LikeJDBCDataAccessService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean insertPostLike(Long postId, String userEmail) {
+        var sql = """
+                INSERT INTO post_likes(post_id, user_id)
+                SELECT ?, id
+                FROM users
+                WHERE email = ?
+                ON CONFLICT DO NOTHING
+                """;
+        return jdbcTemplate.update(sql, postId, userEmail) > 0;
+    }
+
+    @Override
+    public boolean deletePostLike(Long postId, String userEmail) {
+        var sql = """
+                DELETE
+                FROM post_likes
+                WHERE post_id = ? AND user_id = (SELECT id FROM users WHERE email = ?)
+                """;
+        return jdbcTemplate.update(sql, postId, userEmail) > 0;
+    }
+
+    @Override
+    public boolean insertCommentLike(Long commentId, String userEmail) {
+        var sql = """
+                INSERT INTO comment_likes(comment_id, user_id)
+                SELECT ?, id
+                FROM users
+                WHERE email = ?
+                ON CONFLICT DO NOTHING
+                """;
+        return jdbcTemplate.update(sql, commentId, userEmail) > 0;
+    }
+
+    @Override
+    public boolean deleteCommentLike(Long commentId, String userEmail) {
+        var sql = """
+                DELETE
+                FROM comment_likes
+                WHERE comment_id = ? AND user_id = (SELECT id FROM users WHERE email = ?)
+                """;
+        return jdbcTemplate.update(sql, commentId, userEmail) > 0;
+    }
+
+    @Override
+    public int reconcilePostLikes(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        var sql = """
+                UPDATE posts p
+                SET likes = p.base_likes + c.user_likes
+                FROM (
+                    SELECT ids.id, COUNT(pl.post_id) AS user_likes
+                    FROM unnest(?) AS ids(id)
+                    LEFT JOIN post_likes pl ON pl.post_id = ids.id
+                    GROUP BY ids.id
+                ) c
+                WHERE p.id = c.id AND p.likes <> p.base_likes + c.user_likes
+                """;
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("bigint", postIds.toArray()));
+            return ps;
+        });
+    }
+
+    @Override
+    public int reconcileCommentLikes(Collection<Long> commentIds) {
+        if (commentIds.isEmpty()) {
+            return 0;
+        }
+        var sql = """
+                UPDATE comments cm
+                SET likes = cm.base_likes + c.user_likes
+                FROM (
+                    SELECT ids.id, COUNT(cl.comment_id) AS user_likes
+                    FROM unnest(?) AS ids(id)
+                    LEFT JOIN comment_likes cl ON cl.comment_id = ids.id
+                    GROUP BY ids.id
+                ) c
+                WHERE cm.id = c.id AND cm.likes <> cm.base_likes + c.user_likes
+                """;
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("bigint", commentIds.toArray()));
+            return ps;
+        });
+    }
+
+    @Override
+    public int reconcileAllPostLikes() {
+        var sql = """
+                UPDATE posts p
+                SET likes = p.base_likes + COALESCE(c.user_likes, 0)
+                FROM posts p2
+                LEFT JOIN (
+                    SELECT post_id, COUNT(*) AS user_likes
+                    FROM post_likes
+                    GROUP BY post_id
+                ) c ON c.post_id = p2.id
+                WHERE p.id = p2.id AND p.likes <> p.base_likes + COALESCE(c.user_likes, 0)
+                """;
+        return jdbcTemplate.update(sql);
+    }
+
+    @Override
+    public int reconcileAllCommentLikes() {
+        var sql = """
+                UPDATE comments cm
+                SET likes = cm.base_likes + COALESCE(c.user_likes, 0)
+                FROM comments cm2
+                LEFT JOIN (
+                    SELECT comment_id, COUNT(*) AS user_likes
+                    FROM comment_likes
+                    GROUP BY comment_id
+                ) c ON c.comment_id = cm2.id
+                WHERE cm.id = cm2.id AND cm.likes <> cm.base_likes + COALESCE(c.user_likes, 0)
+                """;
+        return jdbcTemplate.update(sql);
+    }
+}
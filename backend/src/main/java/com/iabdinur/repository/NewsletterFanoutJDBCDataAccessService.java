@@ -0,0 +1,63 @@
+package com.iabdinur.repository;
+
+import com.iabdinur.dao.NewsletterFanoutDao;
+import com.iabdinur.model.RenderedEmail;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public class NewsletterFanoutJDBCDataAccessService implements NewsletterFanoutDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NewsletterFanoutJDBCDataAccessService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertFanout(Long postId, RenderedEmail email) {
+        var sql = """
+                INSERT INTO newsletter_fanouts (post_id, subject, html_body, email_type)
+                VALUES (?, ?, ?, ?)
+                """;
+        jdbcTemplate.update(sql, postId, email.subject(), email.html(), email.emailType());
+    }
+
+    @Override
+    public Optional<Integer> queueNextBatch(int batchSize) {
+        // One statement, so queueing the batch and moving the fan-out past it commit together; the
+        // recipients are copied inside the database rather than read into the application
+        var sql = """
+                WITH fanout AS (
+                    SELECT id, subject, html_body, email_type, last_subscription_id
+                    FROM newsletter_fanouts
+                    WHERE completed_at IS NULL
+                    ORDER BY id
+                    LIMIT 1
+                    FOR UPDATE SKIP LOCKED
+                ), batch AS (
+                    SELECT s.id, s.email
+                    FROM newsletter_subscriptions s, fanout f
+                    WHERE s.status = 'active'
+                      AND s.id > f.last_subscription_id
+                    ORDER BY s.id
+                    LIMIT ?
+                ), queued AS (
+                    INSERT INTO email_outbox (recipient_email, subject, html_body, email_type)
+                    SELECT b.email, f.subject, f.html_body, f.email_type
+                    FROM batch b, fanout f
+                ), counted AS (
+                    SELECT count(*) AS queued, max(id) AS last_id FROM batch
+                )
+                UPDATE newsletter_fanouts n
+                SET last_subscription_id = COALESCE(c.last_id, n.last_subscription_id),
+                    completed_at = CASE WHEN c.queued < ? THEN CURRENT_TIMESTAMP END
+                FROM fanout f, counted c
+                WHERE n.id = f.id
+                RETURNING c.queued
+                """;
+        return jdbcTemplate.queryForList(sql, Integer.class, batchSize, batchSize).stream().findFirst();
+    }
+}
@@ -2,29 +2,51 @@ package com.iabdinur.repository;
 
 import com.iabdinur.dao.PostDao;
 import com.iabdinur.model.Post;
+import com.iabdinur.model.PostSort;
+import com.iabdinur.model.RenderedPostBody;
 import com.iabdinur.rowmapper.PostRowMapper;
+import com.iabdinur.rowmapper.PostSummaryRowMapper;
+import com.iabdinur.util.ContentVersion;
+import com.iabdinur.util.PostCursor;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Repository
 public class PostJDBCDataAccessService implements PostDao {
 
+    private static final int ADD_VIEWS_CHUNK_SIZE = 1000;
+    private static final int STREAM_FETCH_SIZE = 200;
+
     private final JdbcTemplate jdbcTemplate;
     private final PostRowMapper postRowMapper;
+    private final PostSummaryRowMapper postSummaryRowMapper;
 
     public PostJDBCDataAccessService(JdbcTemplate jdbcTemplate,
-                                      PostRowMapper postRowMapper) {
+                                      PostRowMapper postRowMapper,
+                                      PostSummaryRowMapper postSummaryRowMapper) {
         this.jdbcTemplate = jdbcTemplate;
         this.postRowMapper = postRowMapper;
+        this.postSummaryRowMapper = postSummaryRowMapper;
     }
 
     @Override
@@ -41,48 +63,141 @@ public class PostJDBCDataAccessService implements PostDao {
     }
 
     @Override
-    public List<Post> selectPublishedPosts(int limit, int offset) {
+    public void streamAllPostSummaries(Consumer<Post> action) {
+        var sql = """
+                SELECT id, title, slug, excerpt, cover_image, author_id, published_at, scheduled_at,
+                       is_published, views, likes, comments_count, reading_time, created_at, updated_at
+                FROM posts
+                ORDER BY created_at DESC, id DESC
+                """;
+        // With autocommit off, a fetch size makes the driver read through a portal in batches
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(postSummaryRowMapper.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    public List<Post> selectPublishedPosts(PostSort sort, int limit, int offset) {
         var sql = """
                 SELECT id, title, slug, content, excerpt, cover_image, content_image, author_id, published_at,
                        scheduled_at, is_published, views, likes, comments_count, reading_time,
                        created_at, updated_at
                 FROM posts
-                WHERE is_published = true
-                ORDER BY published_at DESC
+                WHERE is_published = true AND published_at IS NOT NULL
+                ORDER BY %1$s DESC, id DESC
                 LIMIT ? OFFSET ?
-                """;
+                """.formatted(sort.getColumn());
         return jdbcTemplate.query(sql, postRowMapper, limit, offset);
     }
 
     @Override
-    public List<Post> selectPostsByAuthorId(Long authorId, int limit, int offset) {
+    public List<Post> selectPublishedPostSummaries(PostSort sort, int limit, int offset) {
         var sql = """
-                SELECT id, title, slug, content, excerpt, cover_image, content_image, author_id, published_at,
-                       scheduled_at, is_published, views, likes, comments_count, reading_time,
-                       created_at, updated_at
+                SELECT id, title, slug, excerpt, cover_image, author_id, published_at, scheduled_at,
+                       is_published, views, likes, comments_count, reading_time, created_at, updated_at
                 FROM posts
-                WHERE author_id = ? AND is_published = true
-                ORDER BY published_at DESC
+                WHERE is_published = true AND published_at IS NOT NULL
+                ORDER BY %1$s DESC, id DESC
                 LIMIT ? OFFSET ?
+                """.formatted(sort.getColumn());
+        return jdbcTemplate.query(sql, postSummaryRowMapper, limit, offset);
+    }
+
+    @Override
+    public List<Post> selectPublishedPostSummariesByIds(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        var sql = """
+                SELECT id, title, slug, excerpt, cover_image, author_id, published_at, scheduled_at,
+                       is_published, views, likes, comments_count, reading_time, created_at, updated_at
+                FROM posts
+                WHERE id = ANY(?) AND is_published = true AND published_at IS NOT NULL
                 """;
-        return jdbcTemplate.query(sql, postRowMapper, authorId, limit, offset);
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("bigint", postIds.toArray()));
+            return ps;
+        }, postSummaryRowMapper);
     }
 
     @Override
-    public List<Post> selectPostsByTagSlug(String tagSlug, int limit, int offset) {
+    public List<Post> selectPostSummariesByAuthorId(Long authorId, int limit, int offset) {
         var sql = """
-                SELECT DISTINCT p.id, p.title, p.slug, p.content, p.excerpt, p.cover_image, p.content_image,
-                       p.author_id, p.published_at, p.scheduled_at, p.is_published, p.views, p.likes,
-                       p.comments_count, p.reading_time,
+                SELECT id, title, slug, excerpt, cover_image, author_id, published_at, scheduled_at,
+                       is_published, views, likes, comments_count, reading_time, created_at, updated_at
+                FROM posts
+                WHERE author_id = ? AND is_published = true AND published_at IS NOT NULL
+                ORDER BY published_at DESC, id DESC
+                LIMIT ? OFFSET ?
+                """;
+        return jdbcTemplate.query(sql, postSummaryRowMapper, authorId, limit, offset);
+    }
+
+    @Override
+    public List<Post> selectPostSummariesByTagSlug(String tagSlug, int limit, int offset) {
+        var sql = """
+                SELECT DISTINCT p.id, p.title, p.slug, p.excerpt, p.cover_image, p.author_id, p.published_at,
+                       p.scheduled_at, p.is_published, p.views, p.likes, p.comments_count, p.reading_time,
                        p.created_at, p.updated_at
                 FROM posts p
                 INNER JOIN post_tags pt ON p.id = pt.post_id
                 INNER JOIN tags t ON pt.tag_id = t.id
-                WHERE t.slug = ? AND p.is_published = true
-                ORDER BY p.published_at DESC
+                WHERE t.slug = ? AND p.is_published = true AND p.published_at IS NOT NULL
+                ORDER BY p.published_at DESC, p.id DESC
                 LIMIT ? OFFSET ?
                 """;
-        return jdbcTemplate.query(sql, postRowMapper, tagSlug, limit, offset);
+        return jdbcTemplate.query(sql, postSummaryRowMapper, tagSlug, limit, offset);
+    }
+
+    @Override
+    public List<Post> selectPublishedPostSummariesAfter(PostCursor cursor, int limit) {
+        var sql = """
+                SELECT id, title, slug, excerpt, cover_image, author_id, published_at, scheduled_at,
+                       is_published, views, likes, comments_count, reading_time, created_at, updated_at
+                FROM posts
+                WHERE is_published = true AND published_at IS NOT NULL AND %1$s IS NOT NULL
+                  AND (%1$s, id) < (?, ?)
+                ORDER BY %1$s DESC, id DESC
+                LIMIT ?
+                """.formatted(cursor.sort().getColumn());
+        return jdbcTemplate.query(sql, postSummaryRowMapper, cursor.sqlKey(), cursor.id(), limit);
+    }
+
+    @Override
+    public List<Post> selectPostSummariesByAuthorIdAfter(Long authorId, PostCursor cursor, int limit) {
+        var sql = """
+                SELECT id, title, slug, excerpt, cover_image, author_id, published_at, scheduled_at,
+                       is_published, views, likes, comments_count, reading_time, created_at, updated_at
+                FROM posts
+                WHERE author_id = ? AND is_published = true AND published_at IS NOT NULL
+                  AND (published_at, id) < (?, ?)
+                ORDER BY published_at DESC, id DESC
+                LIMIT ?
+                """;
+        return jdbcTemplate.query(sql, postSummaryRowMapper,
+                authorId, cursor.sqlKey(), cursor.id(), limit);
+    }
+
+    @Override
+    public List<Post> selectPostSummariesByTagSlugAfter(String tagSlug, PostCursor cursor, int limit) {
+        var sql = """
+                SELECT p.id, p.title, p.slug, p.excerpt, p.cover_image, p.author_id, p.published_at,
+                       p.scheduled_at, p.is_published, p.views, p.likes, p.comments_count, p.reading_time,
+                       p.created_at, p.updated_at
+                FROM posts p
+                INNER JOIN post_tags pt ON p.id = pt.post_id
+                INNER JOIN tags t ON pt.tag_id = t.id
+                WHERE t.slug = ? AND p.is_published = true AND p.published_at IS NOT NULL
+                  AND (p.published_at, p.id) < (?, ?)
+                ORDER BY p.published_at DESC, p.id DESC
+                LIMIT ?
+                """;
+        return jdbcTemplate.query(sql, postSummaryRowMapper,
+                tagSlug, cursor.sqlKey(), cursor.id(), limit);
     }
 
     @Override
@@ -114,15 +229,55 @@ public class PostJDBCDataAccessService implements PostDao {
     }
 
     @Override
-    public Optional<Post> selectPublishedPostBySlug(String slug) {
+    public Optional<Post> selectPublishedPostSummaryBySlug(String slug) {
         var sql = """
-                SELECT id, title, slug, content, excerpt, cover_image, content_image, author_id, published_at,
+                SELECT id, title, slug, excerpt, cover_image, author_id, published_at,
                        scheduled_at, is_published, views, likes, comments_count, reading_time,
                        created_at, updated_at
                 FROM posts
                 WHERE slug = ? AND is_published = true
                 """;
-        return jdbcTemplate.query(sql, postRowMapper, slug)
+        return jdbcTemplate.query(sql, postSummaryRowMapper, slug)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<Long> resolveIdBySlug(String slug) {
+        var sql = """
+                SELECT id
+                FROM posts
+                WHERE slug = ?
+                """;
+        return jdbcTemplate.queryForList(sql, Long.class, slug)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<Long> resolvePublishedIdBySlug(String slug) {
+        var sql = """
+                SELECT id
+                FROM posts
+                WHERE slug = ? AND is_published = true
+                """;
+        return jdbcTemplate.queryForList(sql, Long.class, slug)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<ContentVersion> selectPublishedPostVersion(String slug) {
+        var sql = """
+                SELECT id, updated_at, likes, comments_count
+                FROM posts
+                WHERE slug = ? AND is_published = true
+                """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> ContentVersion.ofPost(
+                        rs.getLong("id"),
+                        rs.getTimestamp("updated_at").toLocalDateTime(),
+                        rs.getLong("likes"),
+                        rs.getInt("comments_count")), slug)
                 .stream()
                 .findFirst();
     }
@@ -194,167 +349,216 @@ public class PostJDBCDataAccessService implements PostDao {
     }
 
     @Override
-    public void updatePost(Post update) {
-        if (update.getTitle() != null) {
-            String sql = "UPDATE posts SET title = ?, updated_at = ? WHERE id = ?";
-            jdbcTemplate.update(sql,
-                    update.getTitle(),
-                    Timestamp.valueOf(LocalDateTime.now()),
-                    update.getId());
-        }
-        if (update.getSlug() != null) {
-            String sql = "UPDATE posts SET slug = ?, updated_at = ? WHERE id = ?";
-            jdbcTemplate.update(sql,
-                    update.getSlug(),
-                    Timestamp.valueOf(LocalDateTime.now()),
-                    update.getId());
+    public boolean updatePost(Post current, Post update) {
+        List<String> assignments = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        setIfChanged(assignments, args, "title", current.getTitle(), update.getTitle());
+        setIfChanged(assignments, args, "slug", current.getSlug(), update.getSlug());
+        setIfChanged(assignments, args, "content", current.getContent(), update.getContent());
+        setIfChanged(assignments, args, "excerpt", current.getExcerpt(), update.getExcerpt());
+        setIfChanged(assignments, args, "cover_image", current.getCoverImage(), update.getCoverImage());
+        setIfChanged(assignments, args, "content_image", current.getContentImage(), update.getContentImage());
+        setIfChanged(assignments, args, "author_id", authorId(current), authorId(update));
+        setIfChanged(assignments, args, "reading_time", current.getReadingTime(), update.getReadingTime());
+        setIfChanged(assignments, args, "is_published", current.getIsPublished(), update.getIsPublished());
+        setIfChanged(assignments, args, "published_at",
+                toTimestamp(current.getPublishedAt()), toTimestamp(update.getPublishedAt()));
+        setIfChanged(assignments, args, "scheduled_at",
+                toTimestamp(current.getScheduledAt()), toTimestamp(update.getScheduledAt()));
+        if (assignments.isEmpty()) {
+            // Nothing to write, and updated_at keeps identifying the unchanged version
+            update.setUpdatedAt(current.getUpdatedAt());
+            return true;
         }
-        if (update.getContent() != null) {
-            String sql = "UPDATE posts SET content = ?, updated_at = ? WHERE id = ?";
-            jdbcTemplate.update(sql,
-                    update.getContent(),
-                    Timestamp.valueOf(LocalDateTime.now()),
-                    update.getId());
-        }
-        if (update.getExcerpt() != null) {
-            String sql = "UPDATE posts SET excerpt = ?, updated_at = ? WHERE id = ?";
-            jdbcTemplate.update(sql,
-                    update.getExcerpt(),
-                    Timestamp.valueOf(LocalDateTime.now()),
-                    update.getId());
+
+        // Postgres keeps microseconds; the new version must read back equal and differ from the old one
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (current.getUpdatedAt() != null && !updatedAt.isAfter(current.getUpdatedAt())) {
+            updatedAt = current.getUpdatedAt().plus(1, ChronoUnit.MICROS);
         }
-        if (update.getCoverImage() != null) {
-            String sql = "UPDATE posts SET cover_image = ?, updated_at = ? WHERE id = ?";
-            jdbcTemplate.update(sql,
-                    update.getCoverImage(),
-                    Timestamp.valueOf(LocalDateTime.now()),
-                    update.getId());
+        assignments.add("updated_at = ?");
+        args.add(Timestamp.valueOf(updatedAt));
+
+        String sql = "UPDATE posts SET " + String.join(", ", assignments) + " WHERE id = ?";
+        args.add(current.getId());
+        if (current.getUpdatedAt() != null) {
+            sql += " AND updated_at = ?";
+            args.add(Timestamp.valueOf(current.getUpdatedAt()));
         }
-        if (update.getContentImage() != null) {
-            String sql = "UPDATE posts SET content_image = ?, updated_at = ? WHERE id = ?";
-            jdbcTemplate.update(sql,
-                    update.getContentImage(),
-                    Timestamp.valueOf(LocalDateTime.now()),
-                    update.getId());
+        if (jdbcTemplate.update(sql, args.toArray()) != 1) {
+            return false;
         }
-        if (update.getIsPublished() != null) {
-            String sql = "UPDATE posts SET is_published = ?, published_at = ?, updated_at = ? WHERE id = ?";
-            LocalDateTime publishedAt = update.getIsPublished() && update.getPublishedAt() == null 
-                    ? LocalDateTime.now() 
-                    : update.getPublishedAt();
-            jdbcTemplate.update(sql,
-                    update.getIsPublished(),
-                    publishedAt != null ? Timestamp.valueOf(publishedAt) : null,
-                    Timestamp.valueOf(LocalDateTime.now()),
-                    update.getId());
+        update.setUpdatedAt(updatedAt);
+        return true;
+    }
+
+    private static void setIfChanged(List<String> assignments, List<Object> args,
+                                     String column, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            assignments.add(column + " = ?");
+            args.add(after);
         }
-        // Handle scheduled_at - check if it was explicitly set (not just null from not being updated)
-        // We'll update it if the post object has scheduledAt set (even if null, to clear it)
-        // This is a bit tricky - we need to check if scheduledAt field was modified
-        // For now, we'll update it if isPublished is being set to true (to clear scheduled_at)
-        if (update.getIsPublished() != null && update.getIsPublished()) {
-            // Clear scheduled_at when manually publishing
-            String sql = "UPDATE posts SET scheduled_at = NULL, updated_at = ? WHERE id = ?";
-            jdbcTemplate.update(sql,
-                    Timestamp.valueOf(LocalDateTime.now()),
-                    update.getId());
-        } else if (update.getScheduledAt() != null) {
-            // Set scheduled_at
-            String sql = "UPDATE posts SET scheduled_at = ?, updated_at = ? WHERE id = ?";
-            jdbcTemplate.update(sql,
-                    Timestamp.valueOf(update.getScheduledAt()),
-                    Timestamp.valueOf(LocalDateTime.now()),
-                    update.getId());
+    }
+
+    private static Long authorId(Post post) {
+        return post.getAuthor() != null ? post.getAuthor().getId() : null;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    /**
+     * Apply accumulated view deltas in one statement per chunk instead of one UPDATE per view.
+     */
+    @Override
+    public int addViews(Map<Long, Long> viewDeltas) {
+        List<Map.Entry<Long, Long>> entries = List.copyOf(viewDeltas.entrySet());
+        int updated = 0;
+        for (int from = 0; from < entries.size(); from += ADD_VIEWS_CHUNK_SIZE) {
+            List<Map.Entry<Long, Long>> chunk =
+                    entries.subList(from, Math.min(from + ADD_VIEWS_CHUNK_SIZE, entries.size()));
+            var sql = """
+                    UPDATE posts p
+                    SET views = p.views + v.delta
+                    FROM (VALUES %s) AS v(id, delta)
+                    WHERE p.id = v.id
+                    """.formatted(String.join(", ", Collections.nCopies(chunk.size(), "(?::bigint, ?::bigint)")));
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                args[2 * i] = chunk.get(i).getKey();
+                args[2 * i + 1] = chunk.get(i).getValue();
+            }
+            updated += jdbcTemplate.update(sql, args);
         }
-        // Add more fields as needed
+        return updated;
     }
 
+    // Feed totals read the counters kept by CounterDao instead of counting posts on every request
+
     @Override
-    public void incrementViews(Long postId) {
+    public long countPublishedPosts() {
+        // Every published post counts toward exactly one author
         var sql = """
-                UPDATE posts
-                SET views = views + 1
-                WHERE id = ?
+                SELECT COALESCE(SUM(posts_count), 0)
+                FROM authors
                 """;
-        int updated = jdbcTemplate.update(sql, postId);
-        if (updated == 0) {
-            throw new IllegalArgumentException("Post not found with id: " + postId);
-        }
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0L;
     }
 
     @Override
-    public void incrementLikes(Long postId) {
+    public long countPostsByAuthorId(Long authorId) {
         var sql = """
-                UPDATE posts
-                SET likes = likes + 1
+                SELECT posts_count
+                FROM authors
                 WHERE id = ?
                 """;
-        int updated = jdbcTemplate.update(sql, postId);
-        if (updated == 0) {
-            throw new IllegalArgumentException("Post not found with id: " + postId);
-        }
+        return jdbcTemplate.queryForList(sql, Long.class, authorId).stream().findFirst().orElse(0L);
     }
 
     @Override
-    public void decrementLikes(Long postId) {
+    public long countPostsByTagSlug(String tagSlug) {
         var sql = """
-                UPDATE posts
-                SET likes = GREATEST(likes - 1, 0)
-                WHERE id = ?
+                SELECT posts_count
+                FROM tags
+                WHERE slug = ?
                 """;
-        int updated = jdbcTemplate.update(sql, postId);
-        if (updated == 0) {
-            throw new IllegalArgumentException("Post not found with id: " + postId);
-        }
+        return jdbcTemplate.queryForList(sql, Long.class, tagSlug).stream().findFirst().orElse(0L);
     }
 
+    /**
+     * Id, title, slug and popularity of every published post, without bodies.
+     */
     @Override
-    public long countPublishedPosts() {
+    public List<Post> selectPublishedPostTitles() {
         var sql = """
-                SELECT COUNT(id)
+                SELECT id, title, slug, views, likes
                 FROM posts
                 WHERE is_published = true
                 """;
-        Long count = jdbcTemplate.queryForObject(sql, Long.class);
-        return count != null ? count : 0L;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Post post = new Post();
+            post.setId(rs.getLong("id"));
+            post.setTitle(rs.getString("title"));
+            post.setSlug(rs.getString("slug"));
+            post.setViews(rs.getLong("views"));
+            post.setLikes(rs.getLong("likes"));
+            return post;
+        });
     }
 
     @Override
-    public long countPostsByAuthorId(Long authorId) {
+    public List<Post> searchPublishedPosts(String query, int limit, int offset) {
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery == null) {
+            return List.of();
+        }
+        // Rank and page on the GIN-indexed vector first; ts_headline is only computed for the page
         var sql = """
-                SELECT COUNT(id)
-                FROM posts
-                WHERE author_id = ? AND is_published = true
+                SELECT p.id, p.title, p.slug, p.excerpt, p.cover_image, p.author_id, p.published_at,
+                       p.scheduled_at, p.is_published, p.views, p.likes, p.comments_count, p.reading_time,
+                       p.created_at, p.updated_at,
+                       ts_headline('english', coalesce(p.excerpt, '') || ' ' || p.content, to_tsquery('english', ?),
+                                   'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=30, MinWords=10') AS highlight
+                FROM (
+                    SELECT id, ts_rank_cd(search_vector, q) AS rank
+                    FROM posts, to_tsquery('english', ?) q
+                    WHERE is_published = true AND search_vector @@ q
+                    ORDER BY rank DESC, published_at DESC, id DESC
+                    LIMIT ? OFFSET ?
+                ) ranked
+                INNER JOIN posts p ON p.id = ranked.id
+                ORDER BY ranked.rank DESC, p.published_at DESC, p.id DESC
                 """;
-        Long count = jdbcTemplate.queryForObject(sql, Long.class, authorId);
-        return count != null ? count : 0L;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Post post = postSummaryRowMapper.mapRow(rs, rowNum);
+            post.setSearchHighlight(rs.getString("highlight"));
+            return post;
+        }, tsQuery, tsQuery, limit, offset);
     }
 
     @Override
-    public long countPostsByTagSlug(String tagSlug) {
+    public long countSearchPublishedPosts(String query) {
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery == null) {
+            return 0L;
+        }
         var sql = """
-                SELECT COUNT(DISTINCT p.id)
-                FROM posts p
-                INNER JOIN post_tags pt ON p.id = pt.post_id
-                INNER JOIN tags t ON pt.tag_id = t.id
-                WHERE t.slug = ? AND p.is_published = true
+                SELECT COUNT(id)
+                FROM posts
+                WHERE is_published = true AND search_vector @@ to_tsquery('english', ?)
                 """;
-        Long count = jdbcTemplate.queryForObject(sql, Long.class, tagSlug);
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, tsQuery);
         return count != null ? count : 0L;
     }
 
+    /**
+     * Turn free text into an AND of prefix terms ("spring boo" -> "spring:* & boo:*") so results
+     * update as the user types. Only letters and digits survive, which keeps the tsquery syntax valid.
+     */
+    static String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        String tsQuery = Arrays.stream(query.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+        return tsQuery.isEmpty() ? null : tsQuery;
+    }
+
     @Override
-    public List<Post> selectDraftsByAuthorId(Long authorId, int limit, int offset) {
+    public List<Post> selectDraftSummariesByAuthorId(Long authorId, int limit, int offset) {
         var sql = """
-                SELECT id, title, slug, content, excerpt, cover_image, content_image, author_id, published_at,
-                       scheduled_at, is_published, views, likes, comments_count, reading_time,
-                       created_at, updated_at
+                SELECT id, title, slug, excerpt, cover_image, author_id, published_at, scheduled_at,
+                       is_published, views, likes, comments_count, reading_time, created_at, updated_at
                 FROM posts
                 WHERE author_id = ? AND is_published = false
                 ORDER BY updated_at DESC
                 LIMIT ? OFFSET ?
                 """;
-        return jdbcTemplate.query(sql, postRowMapper, authorId, limit, offset);
+        return jdbcTemplate.query(sql, postSummaryRowMapper, authorId, limit, offset);
     }
 
     @Override
@@ -396,4 +600,65 @@ public class PostJDBCDataAccessService implements PostDao {
                 Timestamp.valueOf(LocalDateTime.now()),
                 postId);
     }
+
+    @Override
+    public Optional<Post> selectPublishedPostBody(String slug) {
+        var sql = """
+                SELECT id, updated_at, content_html, content_html_gzip,
+                       CASE WHEN content_html IS NULL THEN content END AS content,
+                       CASE WHEN content_html IS NULL THEN content_image END AS content_image
+                FROM posts
+                WHERE slug = ? AND is_published = true
+                """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Post post = new Post();
+            post.setId(rs.getLong("id"));
+            post.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+            post.setContent(rs.getString("content"));
+            post.setContentImage(rs.getString("content_image"));
+            String html = rs.getString("content_html");
+            if (html != null) {
+                post.setRenderedBody(new RenderedPostBody(html, rs.getBytes("content_html_gzip")));
+            }
+            return post;
+        }, slug).stream().findFirst();
+    }
+
+    @Override
+    public void updateRenderedBody(Long postId, RenderedPostBody body) {
+        var sql = """
+                UPDATE posts
+                SET content_html = ?, content_html_gzip = ?
+                WHERE id = ?
+                """;
+        jdbcTemplate.update(sql, body.html(), body.gzip(), postId);
+    }
+
+    @Override
+    public void updateRenderedBodyIfMissing(Long postId, RenderedPostBody body) {
+        var sql = """
+                UPDATE posts
+                SET content_html = ?, content_html_gzip = ?
+                WHERE id = ? AND content_html IS NULL
+                """;
+        jdbcTemplate.update(sql, body.html(), body.gzip(), postId);
+    }
+
+    @Override
+    public List<Post> selectPublishedPostsWithoutRenderedBody(Long afterId, int limit) {
+        var sql = """
+                SELECT id, content, content_image
+                FROM posts
+                WHERE is_published = true AND content_html IS NULL AND id > ?
+                ORDER BY id
+                LIMIT ?
+                """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Post post = new Post();
+            post.setId(rs.getLong("id"));
+            post.setContent(rs.getString("content"));
+            post.setContentImage(rs.getString("content_image"));
+            return post;
+        }, afterId, limit);
+    }
 }
@@ -3,16 +3,22 @@ package com.iabdinur.repository;
 import com.iabdinur.dao.TagDao;
 import com.iabdinur.model.Tag;
 import com.iabdinur.rowmapper.TagRowMapper;
+import com.iabdinur.util.ContentVersion;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Array;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -61,6 +67,109 @@ public class TagJDBCDataAccessService implements TagDao {
                 .findFirst();
     }
 
+    @Override
+    public Optional<ContentVersion> selectTagVersion(String slug) {
+        var sql = """
+                SELECT id, updated_at, posts_count
+                FROM tags
+                WHERE slug = ?
+                """;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+                    LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+                    return ContentVersion.of(updatedAt, "tag", rs.getLong("id"), updatedAt, rs.getInt("posts_count"));
+                }, slug)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public ContentVersion selectTagsVersion() {
+        var sql = """
+                SELECT MAX(updated_at) AS last_modified,
+                       md5(string_agg(id || ':' || updated_at || ':' || posts_count, ',' ORDER BY id)) AS digest
+                FROM tags
+                """;
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            Timestamp lastModified = rs.getTimestamp("last_modified");
+            return ContentVersion.of(lastModified != null ? lastModified.toLocalDateTime() : null,
+                    "tags", rs.getString("digest"));
+        });
+    }
+
+    @Override
+    public Map<Long, List<Tag>> selectTagsByPostIds(Collection<Long> postIds) {
+        Map<Long, List<Tag>> tagsByPostId = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return tagsByPostId;
+        }
+        var sql = """
+                SELECT pt.post_id, t.id, t.name, t.slug, t.description, t.posts_count, t.created_at, t.updated_at
+                FROM post_tags pt
+                INNER JOIN tags t ON t.id = pt.tag_id
+                WHERE pt.post_id = ANY(?)
+                """;
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("bigint", postIds.toArray()));
+            return ps;
+        }, rs -> {
+            tagsByPostId.computeIfAbsent(rs.getLong("post_id"), k -> new ArrayList<>())
+                    .add(tagRowMapper.mapRow(rs, rs.getRow()));
+        });
+        return tagsByPostId;
+    }
+
+    @Override
+    public Optional<LocalDateTime> replacePostTags(Long postId, Collection<Long> tagIds) {
+        // Unknown tag ids are ignored; the counter update sees the post's state as of this transaction.
+        // updated_at moves past any value an earlier statement of this transaction gave it
+        var sql = """
+                WITH requested AS (
+                    SELECT id FROM tags WHERE id = ANY(?)
+                ),
+                removed AS (
+                    DELETE FROM post_tags
+                    WHERE post_id = ? AND tag_id <> ALL(?)
+                    RETURNING tag_id
+                ),
+                added AS (
+                    INSERT INTO post_tags(post_id, tag_id)
+                    SELECT ?, id FROM requested
+                    ON CONFLICT DO NOTHING
+                    RETURNING tag_id
+                ),
+                deltas AS (
+                    SELECT tag_id, 1 AS delta FROM added
+                    UNION ALL
+                    SELECT tag_id, -1 AS delta FROM removed
+                ),
+                counted AS (
+                    UPDATE tags t
+                    SET posts_count = t.posts_count + d.delta
+                    FROM deltas d
+                    WHERE t.id = d.tag_id
+                      AND EXISTS (SELECT 1 FROM posts WHERE id = ? AND is_published = true)
+                )
+                UPDATE posts
+                SET updated_at = GREATEST(LOCALTIMESTAMP, updated_at + interval '1 microsecond')
+                WHERE id = ?
+                  AND EXISTS (SELECT 1 FROM deltas)
+                RETURNING updated_at
+                """;
+        List<LocalDateTime> updatedAt = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            Array ids = connection.createArrayOf("bigint", tagIds.toArray());
+            ps.setArray(1, ids);
+            ps.setLong(2, postId);
+            ps.setArray(3, ids);
+            ps.setLong(4, postId);
+            ps.setLong(5, postId);
+            ps.setLong(6, postId);
+            return ps;
+        }, (rs, rowNum) -> rs.getTimestamp("updated_at").toLocalDateTime());
+        return updatedAt.stream().findFirst();
+    }
+
     @Override
     public void insertTag(Tag tag) {
         var sql = """
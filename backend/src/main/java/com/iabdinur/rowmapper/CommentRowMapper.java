@@ -1,6 +1,8 @@
 package com.iabdinur.rowmapper;
 
+import com.iabdinur.model.Author;
 import com.iabdinur.model.Comment;
+import com.iabdinur.model.Post;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 
@@ -17,10 +19,32 @@ public class CommentRowMapper implements RowMapper<Comment> {
         comment.setId(rs.getLong("id"));
         comment.setContent(rs.getString("content"));
         comment.setLikes(rs.getInt("likes"));
+        comment.setRepliesCount(rs.getInt("replies_count"));
+        comment.setPath(rs.getString("path"));
         comment.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
         comment.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-        
-        // Note: post, author, and parent will be loaded separately via joins or additional queries
+
+        // Post, author and parent are id-only references; the author is joined in where it is displayed
+        long postId = rs.getLong("post_id");
+        if (!rs.wasNull()) {
+            Post post = new Post();
+            post.setId(postId);
+            comment.setPost(post);
+        }
+
+        long authorId = rs.getLong("author_id");
+        if (!rs.wasNull()) {
+            Author author = new Author();
+            author.setId(authorId);
+            comment.setAuthor(author);
+        }
+
+        long parentId = rs.getLong("parent_id");
+        if (!rs.wasNull()) {
+            Comment parent = new Comment();
+            parent.setId(parentId);
+            comment.setParent(parent);
+        }
         return comment;
     }
 }
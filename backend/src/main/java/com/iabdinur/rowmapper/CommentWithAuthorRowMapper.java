@@ -0,0 +1,50 @@
+package com.iabdinur.rowmapper;
+
+import com.iabdinur.model.Author;
+import com.iabdinur.model.Comment;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Maps a comment row joined with its author, whose columns are prefixed with {@code author_}.
+ */
+@Component
+public class CommentWithAuthorRowMapper implements RowMapper<Comment> {
+
+    private final CommentRowMapper commentRowMapper = new CommentRowMapper();
+
+    @Override
+    public Comment mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Comment comment = commentRowMapper.mapRow(rs, rowNum);
+
+        Author author = new Author(
+                rs.getLong("author_id"),
+                rs.getString("author_name"),
+                rs.getString("author_username"),
+                rs.getString("author_email"),
+                toLocalDateTime(rs.getTimestamp("author_joined_at")),
+                toLocalDateTime(rs.getTimestamp("author_created_at")),
+                toLocalDateTime(rs.getTimestamp("author_updated_at"))
+        );
+        author.setBio(rs.getString("author_bio"));
+        author.setAvatar(rs.getString("author_avatar"));
+        author.setCoverImage(rs.getString("author_cover_image"));
+        author.setLocation(rs.getString("author_location"));
+        author.setWebsite(rs.getString("author_website"));
+        author.setGithub(rs.getString("author_github"));
+        author.setLinkedin(rs.getString("author_linkedin"));
+        author.setFollowersCount(rs.getInt("author_followers_count"));
+        author.setPostsCount(rs.getInt("author_posts_count"));
+        comment.setAuthor(author);
+        return comment;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
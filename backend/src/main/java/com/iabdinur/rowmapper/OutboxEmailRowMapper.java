@@ -0,0 +1,25 @@
+package com.iabdinur.rowmapper;
+
+import com.iabdinur.model.OutboxEmail;
+import com.iabdinur.model.RenderedEmail;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+@Component
+public class OutboxEmailRowMapper implements RowMapper<OutboxEmail> {
+    @Override
+    public OutboxEmail mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp expiresAt = rs.getTimestamp("expires_at");
+        return new OutboxEmail(
+                rs.getLong("id"),
+                rs.getString("recipient_email"),
+                new RenderedEmail(rs.getString("subject"), rs.getString("html_body"), rs.getString("email_type")),
+                rs.getInt("attempts"),
+                expiresAt != null ? expiresAt.toLocalDateTime() : null
+        );
+    }
+}
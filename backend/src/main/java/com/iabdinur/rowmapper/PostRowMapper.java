@@ -1,5 +1,6 @@
 package com.iabdinur.rowmapper;
 
+import com.iabdinur.model.Author;
 import com.iabdinur.model.Post;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
@@ -21,6 +22,14 @@ public class PostRowMapper implements RowMapper<Post> {
         post.setExcerpt(rs.getString("excerpt"));
         post.setCoverImage(rs.getString("cover_image"));
         post.setContentImage(rs.getString("content_image"));
+
+        // Only the author id is known here; callers that need the full author batch-load it
+        long authorId = rs.getLong("author_id");
+        if (!rs.wasNull()) {
+            Author author = new Author();
+            author.setId(authorId);
+            post.setAuthor(author);
+        }
         
         Timestamp publishedAt = rs.getTimestamp("published_at");
         if (publishedAt != null) {
@@ -45,7 +54,7 @@ public class PostRowMapper implements RowMapper<Post> {
         post.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
         post.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
         
-        // Note: author and tags will be loaded separately via joins or additional queries
+        // Note: full author and tags are loaded separately in batch by the service layer
         return post;
     }
 }
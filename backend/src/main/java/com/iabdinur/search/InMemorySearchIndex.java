@@ -0,0 +1,137 @@
+package com.iabdinur.search;
+
+import com.iabdinur.dto.AuthorDTO;
+import com.iabdinur.dto.TagDTO;
+import com.iabdinur.service.AuthorService;
+import com.iabdinur.service.PostService;
+import com.iabdinur.service.TagService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Optional in-process search over published posts, authors and tags.
+ * Built once the application is ready and kept current from committed {@link SearchIndexEvent}s.
+ * Until the build finishes (or when disabled) {@link #isReady()} is false and callers use the database.
+ * Posts are indexed as {@link PostSearchDocument}s and matched on title, excerpt, tags and author
+ * name; unlike the database search, words that only appear in the body do not match.
+ */
+@Component
+public class InMemorySearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemorySearchIndex.class);
+
+    private final PostService postService;
+    private final AuthorService authorService;
+    private final TagService tagService;
+    private final boolean enabled;
+
+    private final InvertedIndex<PostSearchDocument> posts = new InvertedIndex<>(
+            PostSearchDocument::id,
+            List.of(new InvertedIndex.Field<>(PostSearchDocument::title, 3),
+                    new InvertedIndex.Field<>(PostSearchDocument::excerpt, 2),
+                    new InvertedIndex.Field<>(PostSearchDocument::tags, 1),
+                    new InvertedIndex.Field<>(PostSearchDocument::author, 1)));
+    private final InvertedIndex<AuthorDTO> authors = new InvertedIndex<>(
+            author -> Long.parseLong(author.id()),
+            List.of(new InvertedIndex.Field<>(AuthorDTO::name, 2),
+                    new InvertedIndex.Field<>(AuthorDTO::username, 2),
+                    new InvertedIndex.Field<>(AuthorDTO::bio, 1)));
+    private final InvertedIndex<TagDTO> tags = new InvertedIndex<>(
+            tag -> Long.parseLong(tag.id()),
+            List.of(new InvertedIndex.Field<>(TagDTO::name, 2),
+                    new InvertedIndex.Field<>(TagDTO::slug, 2),
+                    new InvertedIndex.Field<>(TagDTO::description, 1)));
+
+    private volatile boolean ready;
+
+    public InMemorySearchIndex(PostService postService,
+                               AuthorService authorService,
+                               TagService tagService,
+                               @Value("${app.search.in-memory-index.enabled:false}") boolean enabled) {
+        this.postService = postService;
+        this.authorService = authorService;
+        this.tagService = tagService;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        posts.replaceAll(postService.getAllPublishedPosts().stream().map(PostSearchDocument::of).toList());
+        authors.replaceAll(authorService.getAllAuthors());
+        tags.replaceAll(tagService.getAllTags());
+        ready = true;
+        logger.info("Built in-memory search index in {} ms", (System.nanoTime() - start) / 1_000_000);
+        logFootprint();
+    }
+
+    @TransactionalEventListener
+    public void onChange(SearchIndexEvent event) {
+        if (!enabled) {
+            return;
+        }
+        switch (event) {
+            case SearchIndexEvent.PostUpserted e -> {
+                if (Boolean.TRUE.equals(e.post().isPublished())) {
+                    posts.upsert(PostSearchDocument.of(e.post()));
+                } else {
+                    posts.remove(Long.parseLong(e.post().id()));
+                }
+            }
+            case SearchIndexEvent.PostRemoved e -> posts.remove(e.postId());
+            case SearchIndexEvent.TagUpserted e -> tags.upsert(e.tag());
+            case SearchIndexEvent.TagRemoved e -> tags.remove(e.tagId());
+            case SearchIndexEvent.AuthorUpserted e -> authors.upsert(e.author());
+            case SearchIndexEvent.AuthorRemoved e -> authors.remove(e.authorId());
+        }
+    }
+
+    /**
+     * Ids of the best matching published posts, best first.
+     */
+    public List<Long> searchPostIds(String query, int limit) {
+        return posts.search(query, limit).stream().map(PostSearchDocument::id).toList();
+    }
+
+    public List<AuthorDTO> searchAuthors(String query, int limit) {
+        return authors.search(query, limit);
+    }
+
+    public List<TagDTO> searchTags(String query, int limit) {
+        return tags.search(query, limit);
+    }
+
+    /**
+     * Per-index memory footprint, keyed by index name.
+     */
+    public List<IndexFootprint> footprint() {
+        return List.of(
+                new IndexFootprint("posts", posts.footprint()),
+                new IndexFootprint("authors", authors.footprint()),
+                new IndexFootprint("tags", tags.footprint()));
+    }
+
+    public record IndexFootprint(String index, InvertedIndex.Footprint footprint) {}
+
+    private void logFootprint() {
+        for (IndexFootprint entry : footprint()) {
+            InvertedIndex.Footprint f = entry.footprint();
+            logger.info("Search index '{}': {} documents, {} terms, {} postings, ~{} KiB",
+                    entry.index(), f.documents(), f.terms(), f.postings(), f.estimatedBytes() / 1024);
+        }
+    }
+}
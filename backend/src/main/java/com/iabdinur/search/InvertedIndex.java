@@ -0,0 +1,292 @@
+package com.iabdinur.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory inverted index over a set of documents, scored with BM25.
+ * Documents are addressed internally by int ordinals so posting lists are plain int arrays.
+ * Every query term is matched as a prefix and all terms must match, mirroring the database search.
+ * Removed and replaced documents are tombstoned and dropped when the index compacts itself.
+ */
+public class InvertedIndex<D> {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * A searchable text of a document; the boost multiplies its term frequencies.
+     */
+    public record Field<D>(Function<D, String> text, int boost) {}
+
+    /**
+     * Approximate heap usage of the index structures, excluding the stored documents themselves.
+     */
+    public record Footprint(int documents, int tombstones, int terms, long postings, long estimatedBytes) {}
+
+    private final ToLongFunction<D> idOf;
+    private final List<Field<D>> fields;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private Map<Long, Integer> ordinalsById = new HashMap<>();
+    private Object[] documents = new Object[INITIAL_CAPACITY];
+    private int[] documentLengths = new int[INITIAL_CAPACITY];
+    private BitSet live = new BitSet();
+    private int maxDoc;
+    private long totalLength;
+
+    public InvertedIndex(ToLongFunction<D> idOf, List<Field<D>> fields) {
+        this.idOf = idOf;
+        this.fields = List.copyOf(fields);
+    }
+
+    /**
+     * Replace the whole index contents with the given documents.
+     */
+    public void replaceAll(Collection<D> newDocuments) {
+        lock.writeLock().lock();
+        try {
+            reset(newDocuments.size());
+            for (D document : newDocuments) {
+                addLocked(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(D document) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(idOf.applyAsLong(document));
+            addLocked(document);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Top documents for the query by BM25 score, best first.
+     */
+    @SuppressWarnings("unchecked")
+    public List<D> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query).stream().distinct().toList();
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int liveDocs = ordinalsById.size();
+            if (liveDocs == 0) {
+                return List.of();
+            }
+            float averageLength = (float) totalLength / liveDocs;
+            // Keyed by matched document; every term must match, so only the first term adds entries
+            Map<Integer, Score> scores = new HashMap<>();
+
+            for (int t = 0; t < queryTerms.size(); t++) {
+                String prefix = queryTerms.get(t);
+                int termMarker = t + 1;
+                for (PostingList list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                    int documentFrequency = list.liveCount(live);
+                    float idf = (float) Math.log(1 + (liveDocs - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                    for (int i = 0; i < list.size; i++) {
+                        int doc = list.docs[i];
+                        if (!live.get(doc)) {
+                            continue;
+                        }
+                        Score score = t == 0 ? scores.computeIfAbsent(doc, d -> new Score()) : scores.get(doc);
+                        if (score == null) {
+                            continue;
+                        }
+                        int tf = list.frequencies[i];
+                        float norm = K1 * (1 - B + B * documentLengths[doc] / averageLength);
+                        score.value += idf * (tf * (K1 + 1)) / (tf + norm);
+                        score.lastMatchedTerm = termMarker;
+                    }
+                }
+                scores.values().removeIf(score -> score.lastMatchedTerm != termMarker);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            PriorityQueue<Map.Entry<Integer, Score>> top = new PriorityQueue<>((a, b) -> {
+                float scoreA = a.getValue().value;
+                float scoreB = b.getValue().value;
+                return scoreA != scoreB ? Float.compare(scoreA, scoreB) : Integer.compare(a.getKey(), b.getKey());
+            });
+            for (Map.Entry<Integer, Score> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<D> results = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                results.add((D) documents[top.poll().getKey()]);
+            }
+            return results.reversed();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Footprint footprint() {
+        lock.readLock().lock();
+        try {
+            long postingEntries = 0;
+            long bytes = 0;
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                PostingList list = entry.getValue();
+                postingEntries += list.size;
+                // TreeMap entry, String with its byte array, PostingList and its two int arrays
+                bytes += 40 + 24 + 16 + entry.getKey().length() + 24 + 2L * (16 + 4L * list.docs.length);
+            }
+            // HashMap entry with boxed key and value per live document
+            bytes += 64L * ordinalsById.size();
+            bytes += 16 + 4L * documents.length + 16 + 4L * documentLengths.length + live.size() / 8;
+            return new Footprint(ordinalsById.size(), maxDoc - ordinalsById.size(), postings.size(),
+                    postingEntries, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .toList();
+    }
+
+    private void reset(int expectedDocuments) {
+        int capacity = Math.max(INITIAL_CAPACITY, expectedDocuments);
+        postings = new TreeMap<>();
+        ordinalsById = new HashMap<>();
+        documents = new Object[capacity];
+        documentLengths = new int[capacity];
+        live = new BitSet(capacity);
+        maxDoc = 0;
+        totalLength = 0;
+    }
+
+    private void addLocked(D document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (Field<D> field : fields) {
+            for (String term : tokenize(field.text().apply(document))) {
+                frequencies.merge(term, field.boost(), Integer::sum);
+                length += field.boost();
+            }
+        }
+
+        int doc = maxDoc++;
+        if (doc == documents.length) {
+            documents = Arrays.copyOf(documents, doc * 2);
+            documentLengths = Arrays.copyOf(documentLengths, doc * 2);
+        }
+        documents[doc] = document;
+        documentLengths[doc] = length;
+        live.set(doc);
+        totalLength += length;
+        ordinalsById.put(idOf.applyAsLong(document), doc);
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, k -> new PostingList()).add(doc, frequency));
+    }
+
+    private void removeLocked(long id) {
+        Integer doc = ordinalsById.remove(id);
+        if (doc != null) {
+            live.clear(doc);
+            totalLength -= documentLengths[doc];
+            documents[doc] = null;
+        }
+    }
+
+    /**
+     * Rebuild once tombstones outnumber live documents, so stale postings stay bounded.
+     */
+    @SuppressWarnings("unchecked")
+    private void compactIfSparse() {
+        int liveDocs = ordinalsById.size();
+        if (maxDoc - liveDocs <= Math.max(liveDocs, INITIAL_CAPACITY)) {
+            return;
+        }
+        List<D> remaining = new ArrayList<>(liveDocs);
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            remaining.add((D) documents[doc]);
+        }
+        reset(liveDocs);
+        for (D document : remaining) {
+            addLocked(document);
+        }
+    }
+
+    private static final class Score {
+        private float value;
+        private int lastMatchedTerm;
+    }
+
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        // Tombstoned entries must not count towards document frequency
+        int liveCount(BitSet live) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (live.get(docs[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.iabdinur.search;
+
+import com.iabdinur.dto.AuthorDTO;
+import com.iabdinur.dto.PostDTO;
+import com.iabdinur.dto.PostSummaryDTO;
+import com.iabdinur.dto.TagDTO;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * What the in-memory index keeps per post: the searchable text and nothing else. Hits are
+ * loaded from the database by id, so the index never holds post bodies or counters.
+ */
+public record PostSearchDocument(Long id, String slug, String title, String excerpt, String author, String tags) {
+
+    public static PostSearchDocument of(PostDTO post) {
+        return of(post.id(), post.slug(), post.title(), post.excerpt(), post.author(), post.tags());
+    }
+
+    public static PostSearchDocument of(PostSummaryDTO post) {
+        return of(post.id(), post.slug(), post.title(), post.excerpt(), post.author(), post.tags());
+    }
+
+    private static PostSearchDocument of(String id, String slug, String title, String excerpt,
+                                         AuthorDTO author, List<TagDTO> tags) {
+        return new PostSearchDocument(
+                Long.parseLong(id),
+                slug,
+                title,
+                excerpt,
+                author != null ? author.name() : null,
+                tags != null ? tags.stream().map(TagDTO::name).collect(Collectors.joining(" ")) : null);
+    }
+}
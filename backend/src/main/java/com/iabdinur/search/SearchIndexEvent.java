@@ -0,0 +1,24 @@
+package com.iabdinur.search;
+
+import com.iabdinur.dto.AuthorDTO;
+import com.iabdinur.dto.PostDTO;
+import com.iabdinur.dto.TagDTO;
+
+/**
+ * Published by the write paths of the post, tag and author services so the in-memory
+ * search index and the post cache can apply the change once the surrounding transaction commits.
+ */
+public sealed interface SearchIndexEvent {
+
+    record PostUpserted(PostDTO post) implements SearchIndexEvent {}
+
+    record PostRemoved(Long postId) implements SearchIndexEvent {}
+
+    record TagUpserted(TagDTO tag) implements SearchIndexEvent {}
+
+    record TagRemoved(Long tagId) implements SearchIndexEvent {}
+
+    record AuthorUpserted(AuthorDTO author) implements SearchIndexEvent {}
+
+    record AuthorRemoved(Long authorId) implements SearchIndexEvent {}
+}
@@ -0,0 +1,104 @@
+package com.iabdinur.search;
+
+import com.iabdinur.dao.AuthorDao;
+import com.iabdinur.dao.PostDao;
+import com.iabdinur.dao.TagDao;
+import com.iabdinur.dto.SuggestionDTO;
+import com.iabdinur.model.Author;
+import com.iabdinur.model.Post;
+import com.iabdinur.model.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves typeahead completions from an immutable {@link SuggestionTrie}.
+ * Requests only read the current trie; rebuilds run on the scheduler thread and swap it in whole.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionService.class);
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private final PostDao postDao;
+    private final TagDao tagDao;
+    private final AuthorDao authorDao;
+
+    private volatile SuggestionTrie trie = SuggestionTrie.empty();
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    public SuggestionService(PostDao postDao, TagDao tagDao, AuthorDao authorDao) {
+        this.postDao = postDao;
+        this.tagDao = tagDao;
+        this.authorDao = authorDao;
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        int size = limit != null ? Math.min(Math.max(limit, 1), MAX_SUGGESTIONS) : MAX_SUGGESTIONS;
+        return trie.complete(prefix, size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildIfStale();
+    }
+
+    /**
+     * Content changed; the next scheduled pass rebuilds the trie.
+     */
+    @TransactionalEventListener
+    public void onContentChange(SearchIndexEvent event) {
+        stale.set(true);
+    }
+
+    @Scheduled(fixedDelay = 10000)
+    public void rebuildIfStale() {
+        if (stale.compareAndSet(true, false)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Periodic refresh so rankings follow view and like counts, which do not raise change events.
+     */
+    @Scheduled(fixedRate = 600000, initialDelay = 600000)
+    public void refreshRankings() {
+        stale.set(true);
+    }
+
+    void rebuild() {
+        try {
+            long start = System.nanoTime();
+            List<SuggestionDTO> entries = new ArrayList<>();
+            for (Post post : postDao.selectPublishedPostTitles()) {
+                entries.add(new SuggestionDTO(post.getTitle(), "post", post.getSlug(),
+                        post.getViews() + post.getLikes()));
+            }
+            for (Tag tag : tagDao.selectAllTags()) {
+                entries.add(new SuggestionDTO(tag.getName(), "tag", tag.getSlug(),
+                        tag.getPostsCount() != null ? tag.getPostsCount().longValue() : 0L));
+            }
+            for (Author author : authorDao.selectAllAuthors()) {
+                entries.add(new SuggestionDTO(author.getUsername(), "author", author.getUsername(),
+                        author.getFollowersCount() != null ? author.getFollowersCount().longValue() : 0L));
+            }
+            SuggestionTrie rebuilt = SuggestionTrie.build(entries, MAX_SUGGESTIONS);
+            trie = rebuilt;
+            logger.debug("Rebuilt suggestion trie with {} entries and {} nodes in {} ms",
+                    rebuilt.size(), rebuilt.nodeCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            // Keep serving the previous trie and retry on the next pass
+            stale.set(true);
+            logger.error("Failed to rebuild suggestion trie", e);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.iabdinur.search;
+
+import com.iabdinur.dto.SuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, path-compressed prefix trie for typeahead. Every suggestion is reachable from the
+ * start of each of its words, and every node stores its best {@code topK} suggestion ids by
+ * weight, so a lookup costs one step per prefix character plus copying at most {@code topK}
+ * results.
+ * <p>
+ * Chains of single-child nodes are merged into one edge whose label is a slice of the normalized
+ * suggestion texts, kept once in a shared character pool. Each inserted word start adds at most
+ * two nodes, so the trie grows with the number of word starts rather than with title length.
+ * Nodes are flattened into parallel primitive arrays after the build.
+ */
+public final class SuggestionTrie {
+
+    private static final int MAX_WORD_STARTS = 8;
+
+    private final SuggestionDTO[] suggestions;
+    private final char[] pool;
+    private final int[] labelStart;
+    private final int[] labelLength;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] topOffsets;
+    private final int[] topIds;
+
+    private SuggestionTrie(SuggestionDTO[] suggestions, char[] pool, int[] labelStart, int[] labelLength,
+                           int[] firstChild, int[] nextSibling, int[] topOffsets, int[] topIds) {
+        this.suggestions = suggestions;
+        this.pool = pool;
+        this.labelStart = labelStart;
+        this.labelLength = labelLength;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.topOffsets = topOffsets;
+        this.topIds = topIds;
+    }
+
+    public static SuggestionTrie empty() {
+        return build(List.of(), 1);
+    }
+
+    public static SuggestionTrie build(List<SuggestionDTO> entries, int topK) {
+        SuggestionDTO[] suggestions = entries.stream()
+                .sorted(Comparator.comparingLong(SuggestionDTO::weight).reversed())
+                .toArray(SuggestionDTO[]::new);
+
+        StringBuilder text = new StringBuilder();
+        int[] textStart = new int[suggestions.length + 1];
+        for (int id = 0; id < suggestions.length; id++) {
+            textStart[id] = text.length();
+            text.append(normalize(suggestions[id].text()));
+        }
+        textStart[suggestions.length] = text.length();
+        char[] pool = new char[text.length()];
+        text.getChars(0, text.length(), pool, 0);
+
+        // Ids are ranks, so a smaller id always means a heavier suggestion
+        BuildNode root = new BuildNode(0, 0);
+        for (int id = 0; id < suggestions.length; id++) {
+            int end = textStart[id + 1];
+            int starts = 0;
+            for (int i = textStart[id]; i < end && starts < MAX_WORD_STARTS; i++) {
+                if (i == textStart[id] || pool[i - 1] == ' ') {
+                    root.insert(pool, i, end, id);
+                    starts++;
+                }
+            }
+        }
+        root.collectTop(topK);
+
+        List<BuildNode> nodes = new ArrayList<>();
+        root.flatten(nodes);
+        int count = nodes.size();
+        int[] labelStart = new int[count];
+        int[] labelLength = new int[count];
+        int[] firstChild = new int[count];
+        int[] nextSibling = new int[count];
+        int[] topOffsets = new int[count + 1];
+        Arrays.fill(nextSibling, -1);
+        int totalTop = 0;
+        for (int n = 0; n < count; n++) {
+            BuildNode node = nodes.get(n);
+            labelStart[n] = node.labelStart;
+            labelLength[n] = node.labelLength;
+            firstChild[n] = node.childCount == 0 ? -1 : node.children[0].index;
+            for (int c = 1; c < node.childCount; c++) {
+                nextSibling[node.children[c - 1].index] = node.children[c].index;
+            }
+            topOffsets[n] = totalTop;
+            totalTop += node.top.length;
+        }
+        topOffsets[count] = totalTop;
+        int[] topIds = new int[totalTop];
+        for (int n = 0; n < count; n++) {
+            int[] top = nodes.get(n).top;
+            System.arraycopy(top, 0, topIds, topOffsets[n], top.length);
+        }
+        return new SuggestionTrie(suggestions, pool, labelStart, labelLength, firstChild, nextSibling,
+                topOffsets, topIds);
+    }
+
+    /**
+     * Heaviest suggestions having a word that starts with the prefix, best first.
+     */
+    public List<SuggestionDTO> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int node = 0;
+        int i = 0;
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            int child = firstChild[node];
+            while (child >= 0 && pool[labelStart[child]] < c) {
+                child = nextSibling[child];
+            }
+            if (child < 0 || pool[labelStart[child]] != c) {
+                return List.of();
+            }
+            // The prefix may end inside the edge, which then leads to the matching subtree
+            int start = labelStart[child];
+            int matched = Math.min(labelLength[child], key.length() - i);
+            for (int j = 1; j < matched; j++) {
+                if (pool[start + j] != key.charAt(i + j)) {
+                    return List.of();
+                }
+            }
+            i += matched;
+            node = child;
+        }
+        int from = topOffsets[node];
+        int to = Math.min(topOffsets[node + 1], from + limit);
+        List<SuggestionDTO> results = new ArrayList<>(to - from);
+        for (int t = from; t < to; t++) {
+            results.add(suggestions[topIds[t]]);
+        }
+        return results;
+    }
+
+    public int size() {
+        return suggestions.length;
+    }
+
+    public int nodeCount() {
+        return labelStart.length;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static final class BuildNode {
+        private static final BuildNode[] NO_CHILDREN = new BuildNode[0];
+        private static final int[] NO_IDS = new int[0];
+
+        // The edge label is pool[labelStart, labelStart + labelLength)
+        private int labelStart;
+        private int labelLength;
+        // Sorted by the first character of their labels
+        private BuildNode[] children = NO_CHILDREN;
+        private int childCount;
+        private int[] terminalIds = NO_IDS;
+        private int terminalCount;
+        private int[] top = NO_IDS;
+        private int index;
+
+        BuildNode(int labelStart, int labelLength) {
+            this.labelStart = labelStart;
+            this.labelLength = labelLength;
+        }
+
+        void insert(char[] pool, int from, int end, int id) {
+            BuildNode node = this;
+            int i = from;
+            while (i < end) {
+                int slot = node.findChild(pool, pool[i]);
+                if (slot < 0) {
+                    BuildNode leaf = new BuildNode(i, end - i);
+                    leaf.addTerminal(id);
+                    node.insertChild(-slot - 1, leaf);
+                    return;
+                }
+                BuildNode child = node.children[slot];
+                int common = 1;
+                while (common < child.labelLength && i + common < end
+                        && pool[child.labelStart + common] == pool[i + common]) {
+                    common++;
+                }
+                if (common < child.labelLength) {
+                    // Split the edge where the new text leaves it
+                    BuildNode middle = new BuildNode(child.labelStart, common);
+                    child.labelStart += common;
+                    child.labelLength -= common;
+                    middle.insertChild(0, child);
+                    node.children[slot] = middle;
+                    child = middle;
+                }
+                node = child;
+                i += common;
+            }
+            node.addTerminal(id);
+        }
+
+        /**
+         * The child's slot, or {@code -(insertion slot) - 1} if no child starts with the character.
+         */
+        private int findChild(char[] pool, char c) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char label = pool[children[mid].labelStart];
+                if (label < c) {
+                    low = mid + 1;
+                } else if (label > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+
+        private void insertChild(int slot, BuildNode child) {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            System.arraycopy(children, slot, children, slot + 1, childCount - slot);
+            children[slot] = child;
+            childCount++;
+        }
+
+        private void addTerminal(int id) {
+            // Ids arrive in increasing order, so a repeat is always the last one added
+            if (terminalCount > 0 && terminalIds[terminalCount - 1] == id) {
+                return;
+            }
+            if (terminalCount == terminalIds.length) {
+                terminalIds = Arrays.copyOf(terminalIds, Math.max(1, terminalCount * 2));
+            }
+            terminalIds[terminalCount++] = id;
+        }
+
+        void collectTop(int topK) {
+            // Merge own ids with the children's top lists; lower id means heavier
+            int[] candidates = Arrays.copyOf(terminalIds, terminalCount);
+            for (int c = 0; c < childCount; c++) {
+                BuildNode child = children[c];
+                child.collectTop(topK);
+                candidates = merge(candidates, child.top, topK);
+            }
+            top = candidates.length <= topK ? candidates : Arrays.copyOf(candidates, topK);
+            terminalIds = NO_IDS;
+            children = Arrays.copyOf(children, childCount);
+        }
+
+        /**
+         * Union of two ascending id arrays, ascending and without duplicates, cut at {@code limit}.
+         */
+        private static int[] merge(int[] a, int[] b, int limit) {
+            int[] merged = new int[Math.min(limit, a.length + b.length)];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (n < merged.length && (i < a.length || j < b.length)) {
+                int next;
+                if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                    next = a[i++];
+                } else if (i >= a.length || b[j] < a[i]) {
+                    next = b[j++];
+                } else {
+                    next = a[i++];
+                    j++;
+                }
+                merged[n++] = next;
+            }
+            return n == merged.length ? merged : Arrays.copyOf(merged, n);
+        }
+
+        void flatten(List<BuildNode> nodes) {
+            index = nodes.size();
+            nodes.add(this);
+            for (int c = 0; c < childCount; c++) {
+                children[c].flatten(nodes);
+            }
+        }
+    }
+}
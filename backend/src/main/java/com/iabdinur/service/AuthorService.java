@@ -4,8 +4,12 @@ import com.iabdinur.dao.AuthorDao;
 import com.iabdinur.dto.AuthorDTO;
 import com.iabdinur.dto.CreateAuthorRequest;
 import com.iabdinur.model.Author;
+import com.iabdinur.search.SearchIndexEvent;
+import com.iabdinur.util.ContentVersion;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -18,10 +22,12 @@ import java.util.stream.Collectors;
 public class AuthorService {
     private final AuthorDao authorDao;
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AuthorService(AuthorDao authorDao, JdbcTemplate jdbcTemplate) {
+    public AuthorService(AuthorDao authorDao, JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
         this.authorDao = authorDao;
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     public Optional<AuthorDTO> getAuthorById(String id) {
@@ -124,6 +130,16 @@ public class AuthorService {
             .collect(Collectors.toList());
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ContentVersion getAuthorsVersion() {
+        return authorDao.selectAuthorsVersion();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<ContentVersion> getAuthorVersion(String idOrUsername) {
+        return authorDao.selectAuthorVersion(idOrUsername);
+    }
+
     public List<AuthorDTO> getAllAuthors() {
         List<Author> authors = authorDao.selectAllAuthors();
         return authors.stream()
@@ -151,7 +167,9 @@ public class AuthorService {
         author.setUpdatedAt(LocalDateTime.now());
 
         authorDao.insertAuthor(author);
-        return AuthorDTO.fromEntity(author);
+        AuthorDTO authorDTO = AuthorDTO.fromEntity(author);
+        eventPublisher.publishEvent(new SearchIndexEvent.AuthorUpserted(authorDTO));
+        return authorDTO;
     }
 
     @Transactional
@@ -175,7 +193,9 @@ public class AuthorService {
         author.setUpdatedAt(LocalDateTime.now());
 
         authorDao.updateAuthor(author);
-        return Optional.of(AuthorDTO.fromEntity(author));
+        AuthorDTO authorDTO = AuthorDTO.fromEntity(author);
+        eventPublisher.publishEvent(new SearchIndexEvent.AuthorUpserted(authorDTO));
+        return Optional.of(authorDTO);
     }
 
     @Transactional
@@ -185,6 +205,7 @@ public class AuthorService {
             return false;
         }
         authorDao.deleteAuthorById(authorOpt.get().getId());
+        eventPublisher.publishEvent(new SearchIndexEvent.AuthorRemoved(authorOpt.get().getId()));
         return true;
     }
 
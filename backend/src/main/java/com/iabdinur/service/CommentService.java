@@ -2,78 +2,124 @@ package com.iabdinur.service;
 
 import com.iabdinur.dao.AuthorDao;
 import com.iabdinur.dao.CommentDao;
-import com.iabdinur.dao.PostDao;
 import com.iabdinur.dto.AuthorDTO;
 import com.iabdinur.dto.CommentDTO;
+import com.iabdinur.dto.CommentPageResponse;
+import com.iabdinur.dto.CommentThreadResponse;
 import com.iabdinur.model.Author;
 import com.iabdinur.model.Comment;
 import com.iabdinur.model.Post;
+import com.iabdinur.util.CommentCursor;
 import org.springframework.http.HttpStatus;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class CommentService {
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_REPLIES_PER_THREAD = 50;
+    public static final int MAX_THREAD_SIZE = 500;
+
     private final CommentDao commentDao;
     private final AuthorDao authorDao;
-    private final PostDao postDao;
-    private final JdbcTemplate jdbcTemplate;
+    private final PostSlugResolver slugResolver;
+    private final CounterService counterService;
 
     public CommentService(CommentDao commentDao,
                          AuthorDao authorDao,
-                         PostDao postDao,
-                         JdbcTemplate jdbcTemplate) {
+                         PostSlugResolver slugResolver,
+                         CounterService counterService) {
         this.commentDao = commentDao;
         this.authorDao = authorDao;
-        this.postDao = postDao;
-        this.jdbcTemplate = jdbcTemplate;
+        this.slugResolver = slugResolver;
+        this.counterService = counterService;
     }
 
-    public List<CommentDTO> getCommentsByPostSlug(String slug) {
-        Optional<Post> postOpt = findPostBySlug(slug);
-        if (postOpt.isEmpty()) {
-            return new ArrayList<>();
+    /**
+     * A page of a post's top-level comments, newest first, each followed by up to
+     * {@code replies} of its descendants nested under their parents in display order. The page
+     * is one range scan of the materialized path per thread. Every comment carries its direct
+     * reply count, so a client can see where a thread was cut off and load it with {@link #getThread}.
+     */
+    public CommentPageResponse getComments(String slug, String cursor, Integer limit, Integer replies) {
+        validateLimit(limit);
+        if (replies == null || replies < 0 || replies > MAX_REPLIES_PER_THREAD) {
+            throw new IllegalArgumentException("replies must be between 0 and " + MAX_REPLIES_PER_THREAD);
         }
-
-        List<Comment> allComments = commentDao.selectCommentsByPostId(postOpt.get().getId());
-        
-        // Load relationships
-        loadCommentRelationships(allComments);
-        
-        // Build comment tree (top-level comments with replies)
-        List<Comment> topLevelComments = allComments.stream()
-            .filter(comment -> comment.getParent() == null)
+        CommentCursor after = cursor != null && !cursor.isEmpty() ? CommentCursor.decode(cursor) : null;
+        Optional<Long> postId = slugResolver.resolvePublished(slug);
+        if (postId.isEmpty()) {
+            return new CommentPageResponse(new ArrayList<>(), null, false);
+        }
+        // One extra thread was fetched to learn whether another page follows
+        List<Comment> threads = nest(commentDao.selectThreads(postId.get(), after, limit + 1, replies));
+        boolean hasMore = threads.size() > limit;
+        if (hasMore) {
+            threads = threads.subList(0, limit);
+        }
+        String nextCursor = hasMore ? CommentCursor.of(threads.get(threads.size() - 1)).encode() : null;
+        List<CommentDTO> dtos = threads.stream()
+            .map(this::convertToDTO)
             .collect(Collectors.toList());
-        
-        // Build reply structure
-        for (Comment comment : allComments) {
-            if (comment.getParent() != null) {
-                Comment parent = allComments.stream()
-                    .filter(c -> c.getId().equals(comment.getParent().getId()))
-                    .findFirst()
-                    .orElse(null);
-                if (parent != null) {
-                    parent.getReplies().add(comment);
-                }
+        return new CommentPageResponse(dtos, nextCursor, hasMore);
+    }
+
+    /**
+     * A comment with its replies nested in display order, read in one range scan of its
+     * materialized path and cut off after {@link #MAX_THREAD_SIZE} comments.
+     */
+    public Optional<CommentThreadResponse> getThread(String slug, Long commentId) {
+        Optional<Long> postId = slugResolver.resolvePublished(slug);
+        if (postId.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Comment> subtree = commentDao.selectSubtree(commentId, MAX_THREAD_SIZE);
+        if (subtree.isEmpty() || !postId.get().equals(subtree.get(0).getPost().getId())) {
+            return Optional.empty();
+        }
+        // Only a thread that filled the scan needs counting
+        int total = subtree.size() < MAX_THREAD_SIZE ? subtree.size() : commentDao.countSubtree(commentId);
+        Comment root = nest(subtree).get(0);
+        return Optional.of(new CommentThreadResponse(convertToDTO(root), total));
+    }
+
+    /**
+     * Attaches each comment to its parent's replies. The comments are in path order, so a parent
+     * always comes before its replies; comments whose parent is not in the list are returned.
+     */
+    private static List<Comment> nest(List<Comment> comments) {
+        Map<Long, Comment> byId = new HashMap<>();
+        List<Comment> roots = new ArrayList<>();
+        for (Comment comment : comments) {
+            Comment parent = comment.getParent() != null ? byId.get(comment.getParent().getId()) : null;
+            if (parent != null) {
+                parent.getReplies().add(comment);
+            } else {
+                roots.add(comment);
             }
+            byId.put(comment.getId(), comment);
+        }
+        return roots;
+    }
+
+    private static void validateLimit(Integer limit) {
+        if (limit == null || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-        
-        return topLevelComments.stream()
-            .map(comment -> convertToDTO(comment, true))
-            .collect(Collectors.toList());
     }
 
     @Transactional
     public CommentDTO createComment(String slug, String content, Long authorId, Long parentId) {
-        Optional<Post> postOpt = findPostBySlug(slug);
-        if (postOpt.isEmpty()) {
+        Optional<Long> postId = slugResolver.resolvePublished(slug);
+        if (postId.isEmpty()) {
             throw new RuntimeException("Post not found");
         }
 
@@ -83,7 +129,7 @@ public class CommentService {
         }
 
         Comment comment = new Comment();
-        comment.setPost(postOpt.get());
+        comment.setPost(postReference(postId.get()));
         comment.setAuthor(authorOpt.get());
         comment.setContent(content);
         comment.setLikes(0);
@@ -91,28 +137,16 @@ public class CommentService {
         comment.setUpdatedAt(java.time.LocalDateTime.now());
         
         if (parentId != null) {
-            Optional<Comment> parentOpt = commentDao.selectCommentById(parentId);
-            parentOpt.ifPresent(comment::setParent);
+            // Replies are listed per post, so a parent on another post would hide the reply
+            Comment parent = commentDao.selectCommentById(parentId)
+                .filter(c -> c.getPost() != null && postId.get().equals(c.getPost().getId()))
+                .orElseThrow(() -> new IllegalArgumentException("Parent comment not found with id: " + parentId));
+            comment.setParent(parent);
         }
 
         commentDao.insertComment(comment);
-        
-        // Increment comments count on post
-        jdbcTemplate.update(
-            "UPDATE posts SET comments_count = comments_count + 1 WHERE id = ?",
-            postOpt.get().getId());
-
-        // Load relationships for DTO
-        loadCommentRelationships(List.of(comment));
-        return convertToDTO(comment, false);
-    }
-
-    @Transactional
-    public void incrementLikes(Long commentId) {
-        if (!commentDao.existsCommentById(commentId)) {
-            throw new IllegalArgumentException("Comment not found with id: " + commentId);
-        }
-        commentDao.incrementLikes(commentId);
+        counterService.commentAdded(postId.get(), parentId);
+        return convertToDTO(comment);
     }
 
     @Transactional
@@ -124,9 +158,6 @@ public class CommentService {
 
         Comment comment = commentOpt.get();
         
-        // Load author before checking ownership
-        loadCommentRelationships(List.of(comment));
-        
         // Verify the author owns this comment
         if (comment.getAuthor() == null || !comment.getAuthor().getId().equals(authorId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only update your own comments");
@@ -136,8 +167,9 @@ public class CommentService {
         comment.setUpdatedAt(java.time.LocalDateTime.now());
         commentDao.updateComment(comment);
 
-        // Reload relationships for DTO (author already loaded)
-        return Optional.of(convertToDTO(comment, false));
+        // The row only carries the author's id; the response shows the full author
+        authorDao.selectAuthorById(authorId).ifPresent(comment::setAuthor);
+        return Optional.of(convertToDTO(comment));
     }
 
     @Transactional
@@ -149,85 +181,26 @@ public class CommentService {
 
         Comment comment = commentOpt.get();
         
-        // Load author before checking ownership
-        loadCommentRelationships(List.of(comment));
-        
         // Verify the author owns this comment
         if (comment.getAuthor() == null || !comment.getAuthor().getId().equals(authorId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only delete your own comments");
         }
 
-        Long postId = comment.getPost() != null ? comment.getPost().getId() : null;
-        
-        // Get post_id from database if not loaded
-        if (postId == null && comment.getId() != null) {
-            var postSql = "SELECT post_id FROM comments WHERE id = ?";
-            postId = jdbcTemplate.queryForObject(postSql, Long.class, comment.getId());
-        }
-
-        // Delete the comment
+        // Replies are deleted with the comment, so the whole thread leaves the post's count
+        counterService.commentDeleting(commentId);
         commentDao.deleteCommentById(commentId);
-
-        // Decrement comments count on post (ensure it doesn't go below 0)
-        if (postId != null) {
-            jdbcTemplate.update(
-                "UPDATE posts SET comments_count = GREATEST(comments_count - 1, 0) WHERE id = ?",
-                postId);
-        }
         
         return true;
     }
 
-    private void loadCommentRelationships(List<Comment> comments) {
-        for (Comment comment : comments) {
-            // Load post
-            if (comment.getId() != null) {
-                try {
-                    var postSql = "SELECT post_id FROM comments WHERE id = ?";
-                    Long postId = jdbcTemplate.queryForObject(postSql, Long.class, comment.getId());
-                    if (postId != null) {
-                        postDao.selectPostById(postId).ifPresent(comment::setPost);
-                    }
-                } catch (org.springframework.dao.EmptyResultDataAccessException e) {
-                    // Post ID not found or null - skip
-                }
-                
-                // Load author
-                try {
-                    var authorSql = "SELECT author_id FROM comments WHERE id = ?";
-                    Long authorId = jdbcTemplate.queryForObject(authorSql, Long.class, comment.getId());
-                    if (authorId != null) {
-                        authorDao.selectAuthorById(authorId).ifPresent(comment::setAuthor);
-                    }
-                } catch (org.springframework.dao.EmptyResultDataAccessException e) {
-                    // Author ID not found or null - skip
-                }
-                
-                // Load parent if exists
-                try {
-                    var parentSql = "SELECT parent_id FROM comments WHERE id = ?";
-                    Long parentId = jdbcTemplate.queryForObject(parentSql, Long.class, comment.getId());
-                    if (parentId != null) {
-                        commentDao.selectCommentById(parentId).ifPresent(comment::setParent);
-                    }
-                } catch (org.springframework.dao.EmptyResultDataAccessException e) {
-                    // Parent ID not found or null - skip
-                }
-            }
-        }
-    }
-
-    private CommentDTO convertToDTO(Comment comment, boolean includeReplies) {
+    private CommentDTO convertToDTO(Comment comment) {
         AuthorDTO authorDTO = comment.getAuthor() != null
             ? AuthorDTO.fromEntity(comment.getAuthor())
             : null;
 
-        List<CommentDTO> replies = new ArrayList<>();
-        if (includeReplies) {
-            replies = comment.getReplies().stream()
-                .map(child -> convertToDTO(child, false))
-                .collect(Collectors.toList());
-        }
+        List<CommentDTO> replies = comment.getReplies().stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList());
 
         return new CommentDTO(
             comment.getId().toString(),
@@ -236,12 +209,16 @@ public class CommentService {
             comment.getPost() != null ? comment.getPost().getId().toString() : null,
             comment.getParent() != null ? comment.getParent().getId().toString() : null,
             replies,
+            comment.getRepliesCount(),
             comment.getLikes(),
             comment.getCreatedAt().toString()
         );
     }
     
-    private Optional<Post> findPostBySlug(String slug) {
-        return postDao.selectPublishedPostBySlug(slug);
+    // Comments only expose their post's id, so there is no need to load the post row
+    private Post postReference(Long postId) {
+        Post post = new Post();
+        post.setId(postId);
+        return post;
     }
 }
@@ -0,0 +1,67 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.CounterDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the denormalized post and comment counters exact. Callers invoke these methods inside the
+ * transaction that changes the underlying rows, so a counter commits or rolls back with its change.
+ * A periodic reconciliation recomputes the counters from the source tables and corrects any drift,
+ * e.g. from rows removed by cascading deletes.
+ */
+@Service
+public class CounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterService.class);
+
+    private final CounterDao counterDao;
+
+    public CounterService(CounterDao counterDao) {
+        this.counterDao = counterDao;
+    }
+
+    /**
+     * Call once the post is published, with its author set; tags attached afterwards count themselves.
+     */
+    public void postPublished(Long postId) {
+        counterDao.adjustPublishedPostCounters(postId, 1);
+    }
+
+    /**
+     * Call while the post is still published and tagged, before unpublishing or deleting it.
+     */
+    public void postUnpublishing(Long postId) {
+        counterDao.adjustPublishedPostCounters(postId, -1);
+    }
+
+    public void commentAdded(Long postId, Long parentId) {
+        counterDao.adjustCommentsCount(postId, 1);
+        if (parentId != null) {
+            counterDao.adjustRepliesCount(parentId, 1);
+        }
+    }
+
+    /**
+     * Call before deleting the comment, while its replies can still be counted.
+     */
+    public void commentDeleting(Long commentId) {
+        counterDao.retractCommentThread(commentId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.reconcile-interval-ms:600000}",
+               initialDelayString = "${app.counters.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        // A transaction committing during a pass can leave a stale value; the next pass corrects it
+        int tags = counterDao.reconcileTagPostsCounts();
+        int authors = counterDao.reconcileAuthorPostsCounts();
+        int posts = counterDao.reconcileCommentsCounts();
+        int comments = counterDao.reconcileRepliesCounts();
+        if (tags + authors + posts + comments > 0) {
+            logger.info("Counter reconciliation corrected {} tags, {} authors, {} posts and {} comments",
+                    tags, authors, posts, comments);
+        }
+    }
+}
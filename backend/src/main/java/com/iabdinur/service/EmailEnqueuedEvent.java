@@ -0,0 +1,7 @@
+package com.iabdinur.service;
+
+/**
+ * Published when emails are added to the outbox, so idle workers pick them up without waiting
+ * for their next poll.
+ */
+public record EmailEnqueuedEvent(int count) {}
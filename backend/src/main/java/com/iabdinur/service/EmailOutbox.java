@@ -0,0 +1,40 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.EmailOutboxDao;
+import com.iabdinur.model.RenderedEmail;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queues rendered emails for delivery by {@link EmailOutboxWorker}. The rows are written in the
+ * caller's transaction, so an email is sent if and only if the work that asked for it commits.
+ */
+@Component
+public class EmailOutbox {
+
+    private final EmailOutboxDao emailOutboxDao;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EmailOutbox(EmailOutboxDao emailOutboxDao, ApplicationEventPublisher eventPublisher) {
+        this.emailOutboxDao = emailOutboxDao;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * @param expiresAt when the email stops being worth sending, or null if it never does
+     */
+    public void enqueue(String to, RenderedEmail email, LocalDateTime expiresAt) {
+        enqueue(List.of(to), email, expiresAt);
+    }
+
+    public void enqueue(List<String> recipients, RenderedEmail email, LocalDateTime expiresAt) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        emailOutboxDao.insertOutboxEmails(recipients, email, expiresAt);
+        eventPublisher.publishEvent(new EmailEnqueuedEvent(recipients.size()));
+    }
+}
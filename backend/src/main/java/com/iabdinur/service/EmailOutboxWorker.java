@@ -0,0 +1,233 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.EmailOutboxDao;
+import com.iabdinur.model.OutboxEmail;
+import com.iabdinur.model.RenderedEmail;
+import com.iabdinur.model.SentEmail;
+import com.iabdinur.ratelimit.SendRateThrottle;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers the email outbox. Each worker loop claims a batch of due rows and sends them on
+ * virtual threads, within the shared SES send rate and at most {@code maxInFlight} sends waiting
+ * on SES per node. It then moves the outcomes to {@code sent_emails} in one JDBC batch and puts
+ * each failed row back with an exponential backoff. Workers on every node share the table: claims
+ * skip rows another worker holds, and a row claimed by a worker that dies becomes due again once
+ * its lease runs out. Delivery is therefore at least once; an email is sent twice only if a
+ * worker stops between the SES call and recording its batch.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class);
+
+    private final EmailOutboxDao emailOutboxDao;
+    private final EmailService emailService;
+    private final SendRateThrottle throttle;
+    private final int workers;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    // Shared by the worker loops, so more of them never means more concurrent SES calls
+    private final Semaphore inFlight;
+
+    // Released when emails are enqueued, so idle workers start on them without waiting a poll
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final ExecutorService loops =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("email-outbox-", 0).factory());
+    private volatile boolean running;
+
+    public EmailOutboxWorker(
+            EmailOutboxDao emailOutboxDao,
+            EmailService emailService,
+            SendRateThrottle throttle,
+            @Value("${app.email.outbox.workers:2}") int workers,
+            @Value("${app.email.outbox.batch-size:10}") int batchSize,
+            @Value("${app.email.outbox.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${app.email.outbox.lease-seconds:60}") long leaseSeconds,
+            @Value("${app.email.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${app.email.outbox.backoff-base-ms:5000}") long backoffBaseMs,
+            @Value("${app.email.outbox.backoff-max-ms:300000}") long backoffMaxMs,
+            @Value("${app.email.outbox.max-in-flight:50}") int maxInFlight) {
+        if (workers < 1 || batchSize < 1 || maxAttempts < 1 || pollIntervalMs < 1 || leaseSeconds < 1
+                || maxInFlight < 1) {
+            throw new IllegalArgumentException("workers, batch-size, max-attempts, poll-interval-ms, "
+                    + "lease-seconds and max-in-flight must be positive");
+        }
+        this.emailOutboxDao = emailOutboxDao;
+        this.emailService = emailService;
+        this.throttle = throttle;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = Duration.ofMillis(backoffBaseMs);
+        this.backoffMax = Duration.ofMillis(backoffMaxMs);
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            loops.execute(this::run);
+        }
+        logger.info("Email outbox started with {} workers", workers);
+    }
+
+    // Fallback execution: an email queued outside a transaction wakes a worker straight away
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailEnqueued(EmailEnqueuedEvent event) {
+        wakeUps.release(Math.min(event.count(), workers));
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (processBatch() < batchSize) {
+                    // Drained for now: sleep until something is enqueued or the next poll is due
+                    wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Email outbox worker failed; retrying after the poll interval", e);
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims and delivers one batch of due emails, returning once every send in it has completed
+     * and its outcome has been recorded.
+     *
+     * @return the number of emails claimed
+     */
+    public int processBatch() throws InterruptedException {
+        // Taken before the claim, so it never ends later than the lease in the database
+        long leaseEnds = System.nanoTime() + lease.toNanos();
+        List<OutboxEmail> claimed = emailOutboxDao.claimDue(batchSize, lease);
+        Map<Long, SentEmail> outcomes = new ConcurrentHashMap<>();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < claimed.size(); i++) {
+                OutboxEmail outboxEmail = claimed.get(i);
+                if (expired(outboxEmail)) {
+                    outcomes.put(outboxEmail.id(), expiredOutcome(outboxEmail));
+                    continue;
+                }
+                throttle.acquire();
+                inFlight.acquire();
+                if (System.nanoTime() - leaseEnds >= 0) {
+                    inFlight.release();
+                    // The rest are due again and may already belong to another worker
+                    logger.warn("Email outbox lease ran out with {} of {} claimed emails unsent",
+                            claimed.size() - i, claimed.size());
+                    break;
+                }
+                senders.execute(() -> {
+                    try {
+                        SentEmail outcome = send(outboxEmail);
+                        if (outcome != null) {
+                            outcomes.put(outboxEmail.id(), outcome);
+                        }
+                    } catch (Exception e) {
+                        logger.error("Delivering outbox email {} failed; it is due again once its lease runs out",
+                                outboxEmail.id(), e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            // Closing the executor waited for the sends still in flight
+            complete(outcomes);
+        }
+        return claimed.size();
+    }
+
+    private boolean expired(OutboxEmail outboxEmail) {
+        return outboxEmail.expiresAt() != null && outboxEmail.expiresAt().isBefore(LocalDateTime.now());
+    }
+
+    private SentEmail expiredOutcome(OutboxEmail outboxEmail) {
+        RenderedEmail email = outboxEmail.email();
+        SentEmail expired = new SentEmail(outboxEmail.recipientEmail(), email.subject(), email.emailType(),
+                null, "expired");
+        expired.setErrorMessage("Expired before it could be sent after " + (outboxEmail.attempts() - 1)
+                + " attempts");
+        return expired;
+    }
+
+    /**
+     * Sends one claimed email.
+     *
+     * @return the outcome to record, or null if the email was put back for a retry
+     */
+    private SentEmail send(OutboxEmail outboxEmail) {
+        RenderedEmail email = outboxEmail.email();
+        SentEmail outcome = emailService.sendRendered(outboxEmail.recipientEmail(), email);
+        if (!"failed".equals(outcome.getStatus()) || outboxEmail.attempts() >= maxAttempts) {
+            return outcome;
+        }
+
+        Duration delay = backoff(outboxEmail.attempts());
+        logger.warn("Sending {} email to {} failed on attempt {} of {}; retrying in {} s",
+                email.emailType(), outboxEmail.recipientEmail(), outboxEmail.attempts(), maxAttempts,
+                delay.toSeconds());
+        emailOutboxDao.retryLater(outboxEmail.id(), delay, outcome.getErrorMessage());
+        return null;
+    }
+
+    private void complete(Map<Long, SentEmail> outcomes) {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        int recorded = emailOutboxDao.completeAll(outcomes);
+        if (recorded < outcomes.size()) {
+            logger.warn("{} outbox emails were already completed by another worker after their lease ran out",
+                    outcomes.size() - recorded);
+        }
+    }
+
+    /**
+     * The delay after a failed attempt: the base doubled for each earlier attempt, up to the maximum.
+     */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration delay = backoffBase.multipliedBy(1L << doublings);
+        return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        loops.shutdownNow();
+    }
+}
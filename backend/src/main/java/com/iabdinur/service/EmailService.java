@@ -1,8 +1,12 @@
 package com.iabdinur.service;
 
+import com.iabdinur.model.RenderedEmail;
+import com.iabdinur.model.SentEmail;
+
 public interface EmailService {
     /**
-     * Sends a verification code email to the specified recipient.
+     * Queues a verification code email to the specified recipient. It is sent by the outbox
+     * after the caller's transaction commits, and dropped if the code expires first.
      *
      * @param to      The recipient email address
      * @param code    The verification code to send
@@ -11,7 +15,7 @@ public interface EmailService {
     void sendVerificationCode(String to, String code, int expiresInMinutes);
     
     /**
-     * Sends a post notification email to newsletter subscribers when a new post is published.
+     * Queues a post notification email to a newsletter subscriber when a new post is published.
      *
      * @param to      The recipient email address
      * @param postTitle The title of the published post
@@ -19,4 +23,25 @@ public interface EmailService {
      * @param postExcerpt The excerpt of the post
      */
     void sendPostNotification(String to, String postTitle, String postSlug, String postExcerpt);
+
+    /**
+     * Renders the notification for a newly published post once, for sending to every subscriber.
+     *
+     * @param postTitle The title of the published post
+     * @param postSlug The slug of the published post (for URL generation)
+     * @param postExcerpt The excerpt of the post
+     * @return The rendered subject and HTML body
+     */
+    RenderedEmail renderPostNotification(String postTitle, String postSlug, String postExcerpt);
+
+    /**
+     * Sends an already rendered email to one recipient now, on the calling thread. The audit
+     * record is returned rather than stored, so the outbox can store it with the outcome of the
+     * delivery and bulk senders can insert the records in batches.
+     *
+     * @param to      The recipient email address
+     * @param email   The rendered email
+     * @return The audit record of the attempt, not yet stored
+     */
+    SentEmail sendRendered(String to, RenderedEmail email);
 }
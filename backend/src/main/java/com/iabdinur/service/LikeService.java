@@ -0,0 +1,132 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.LikeDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Per-user likes for posts and comments. A like is one insert into the like table, so retries
+ * and double-clicks are no-ops. The denormalized {@code likes} counters are recomputed from the
+ * like tables in batches for every target whose likes actually changed since the last pass.
+ */
+@Service
+public class LikeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeService.class);
+
+    private final LikeDao likeDao;
+    private final PostSlugResolver slugResolver;
+    private final Set<Long> dirtyPostIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyCommentIds = ConcurrentHashMap.newKeySet();
+    // Held across JDBC calls; unlike a monitor, a ReentrantLock does not pin a virtual thread
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    public LikeService(LikeDao likeDao, PostSlugResolver slugResolver) {
+        this.likeDao = likeDao;
+        this.slugResolver = slugResolver;
+    }
+
+    /**
+     * @return true if this call added the like, false if the user had already liked the post
+     */
+    public boolean likePost(String slug, String userEmail) {
+        Long postId = resolvePostId(slug);
+        boolean changed = insertLike(() -> likeDao.insertPostLike(postId, userEmail),
+                "Post not found with slug: " + slug);
+        markDirty(dirtyPostIds, postId, changed);
+        return changed;
+    }
+
+    public boolean unlikePost(String slug, String userEmail) {
+        Long postId = resolvePostId(slug);
+        boolean changed = likeDao.deletePostLike(postId, userEmail);
+        markDirty(dirtyPostIds, postId, changed);
+        return changed;
+    }
+
+    public boolean likeComment(Long commentId, String userEmail) {
+        boolean changed = insertLike(() -> likeDao.insertCommentLike(commentId, userEmail),
+                "Comment not found with id: " + commentId);
+        markDirty(dirtyCommentIds, commentId, changed);
+        return changed;
+    }
+
+    public boolean unlikeComment(Long commentId, String userEmail) {
+        boolean changed = likeDao.deleteCommentLike(commentId, userEmail);
+        markDirty(dirtyCommentIds, commentId, changed);
+        return changed;
+    }
+
+    @Scheduled(fixedDelayString = "${app.likes.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            reconcile(dirtyPostIds, likeDao::reconcilePostLikes, "post");
+            reconcile(dirtyCommentIds, likeDao::reconcileCommentLikes, "comment");
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    /**
+     * Safety net for counters touched outside this service, e.g. likes removed by a cascading delete.
+     */
+    @Scheduled(fixedRate = 3600000, initialDelay = 3600000)
+    public void reconcileAll() {
+        reconcileLock.lock();
+        try {
+            int posts = likeDao.reconcileAllPostLikes();
+            int comments = likeDao.reconcileAllCommentLikes();
+            if (posts + comments > 0) {
+                logger.info("Full like reconciliation corrected {} posts and {} comments", posts, comments);
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private Long resolvePostId(String slug) {
+        return slugResolver.resolve(slug)
+            .orElseThrow(() -> new IllegalArgumentException("Post not found with slug: " + slug));
+    }
+
+    private boolean insertLike(BooleanSupplier insert, String notFoundMessage) {
+        try {
+            return insert.getAsBoolean();
+        } catch (DataIntegrityViolationException e) {
+            // The target row does not exist (or was deleted concurrently)
+            throw new IllegalArgumentException(notFoundMessage);
+        }
+    }
+
+    private void markDirty(Set<Long> dirtyIds, Long id, boolean changed) {
+        if (changed) {
+            dirtyIds.add(id);
+        }
+    }
+
+    private void reconcile(Set<Long> dirtyIds, Function<List<Long>, Integer> reconciler, String kind) {
+        if (dirtyIds.isEmpty()) {
+            return;
+        }
+        List<Long> batch = new ArrayList<>(dirtyIds);
+        dirtyIds.removeAll(batch);
+        try {
+            reconciler.apply(batch);
+        } catch (RuntimeException e) {
+            dirtyIds.addAll(batch);
+            logger.warn("Failed to reconcile likes for {} {}s, will retry", batch.size(), kind, e);
+        }
+    }
+}
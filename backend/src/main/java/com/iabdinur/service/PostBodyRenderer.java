@@ -0,0 +1,75 @@
+package com.iabdinur.service;
+
+import com.iabdinur.model.RenderedPostBody;
+import org.commonmark.Extension;
+import org.commonmark.ext.autolink.AutolinkExtension;
+import org.commonmark.ext.gfm.strikethrough.StrikethroughExtension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.ext.task.list.items.TaskListItemsExtension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.safety.Safelist;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Renders post markdown to sanitized HTML once per write, with the same GitHub-flavored
+ * extensions and raw-HTML-then-sanitize behaviour as the frontend's markdown renderer.
+ */
+@Component
+public class PostBodyRenderer {
+
+    private static final List<Extension> EXTENSIONS = List.of(
+            TablesExtension.create(),
+            StrikethroughExtension.create(),
+            TaskListItemsExtension.create(),
+            AutolinkExtension.create());
+
+    // Code blocks keep their language class so they can still be highlighted
+    private static final Safelist SAFELIST = Safelist.relaxed()
+            .addTags("del", "hr", "input")
+            .addAttributes("code", "class")
+            .addAttributes("th", "align")
+            .addAttributes("td", "align")
+            .addAttributes("input", "type", "checked", "disabled");
+
+    private static final Document.OutputSettings OUTPUT = new Document.OutputSettings().prettyPrint(false);
+
+    private final Parser parser = Parser.builder().extensions(EXTENSIONS).build();
+    private final HtmlRenderer renderer = HtmlRenderer.builder().extensions(EXTENSIONS).build();
+
+    public RenderedPostBody render(String content, String contentImage) {
+        String markdown = injectContentImage(content, contentImage);
+        String html = markdown != null ? renderer.render(parser.parse(markdown)) : "";
+        String sanitized = Jsoup.clean(html, "", SAFELIST, OUTPUT);
+        return new RenderedPostBody(sanitized, gzip(sanitized));
+    }
+
+    /**
+     * Replaces the {{content_image}} placeholder with a markdown image of the post's content image.
+     */
+    static String injectContentImage(String content, String contentImage) {
+        if (content == null || contentImage == null || contentImage.isEmpty()) {
+            return content;
+        }
+        return content.replace("{{content_image}}", "![Content Image](" + contentImage + ")");
+    }
+
+    private static byte[] gzip(String html) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(html.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,115 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.NewsletterFanoutDao;
+import com.iabdinur.model.RenderedEmail;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Emails a newly published post to every active newsletter subscriber.
+ * <p>
+ * The notification is rendered once per post and recorded as a single fan-out row in the publish
+ * transaction, so it is sent if and only if the publish commits, without the publish writing a
+ * row per subscriber. Once the publish has committed, a coordinator thread queues the fan-out in
+ * the {@link EmailOutbox} {@code batchSize} subscribers at a time, each batch one statement in its
+ * own transaction, and {@link EmailOutboxWorker} delivers them in parallel at the SES send rate.
+ * Fan-outs left unfinished by a node that stopped are resumed by the next drain on any node.
+ */
+@Component
+public class PostNotificationFanout {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostNotificationFanout.class);
+
+    private final NewsletterFanoutDao newsletterFanoutDao;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    // Drains run one at a time; a request while one runs is folded into a single follow-up drain
+    private final ExecutorService coordinator =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("newsletter-fanout").factory());
+    private final AtomicBoolean drainPending = new AtomicBoolean();
+
+    public PostNotificationFanout(
+            NewsletterFanoutDao newsletterFanoutDao,
+            EmailService emailService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.email.newsletter.batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch-size must be positive");
+        }
+        this.newsletterFanoutDao = newsletterFanoutDao;
+        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    // Runs in the publish transaction: one insert, whatever the number of subscribers
+    @EventListener
+    public void onPostPublished(PostPublishedEvent event) {
+        RenderedEmail email = emailService.renderPostNotification(
+                event.title(), event.slug(), event.excerpt() != null ? event.excerpt() : "");
+        newsletterFanoutDao.insertFanout(event.postId(), email);
+    }
+
+    @TransactionalEventListener
+    public void onPostPublishCommitted(PostPublishedEvent event) {
+        requestDrain();
+    }
+
+    // Picks up fan-outs another node left unfinished
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${app.email.newsletter.resume-interval-ms:60000}",
+            fixedDelayString = "${app.email.newsletter.resume-interval-ms:60000}")
+    public void requestDrain() {
+        if (drainPending.compareAndSet(false, true)) {
+            coordinator.execute(() -> {
+                drainPending.set(false);
+                try {
+                    drain();
+                } catch (Exception e) {
+                    logger.error("Error queueing post notification emails; resuming on the next drain", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Queues every unfinished fan-out that no other node is working on.
+     *
+     * @return the number of emails queued
+     */
+    public int drain() {
+        int total = 0;
+        Optional<Integer> queued;
+        while ((queued = newsletterFanoutDao.queueNextBatch(batchSize)).isPresent()) {
+            if (queued.get() > 0) {
+                total += queued.get();
+                eventPublisher.publishEvent(new EmailEnqueuedEvent(queued.get()));
+            }
+        }
+        if (total > 0) {
+            logger.info("Queued {} post notification emails", total);
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+}
@@ -0,0 +1,6 @@
+package com.iabdinur.service;
+
+/**
+ * Published when a post goes live, so subscribers are notified once the publish has committed.
+ */
+public record PostPublishedEvent(Long postId, String title, String slug, String excerpt) {}
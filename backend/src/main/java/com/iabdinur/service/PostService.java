@@ -1,17 +1,27 @@
 package com.iabdinur.service;
 
+import com.iabdinur.cache.PostCache;
 import com.iabdinur.dao.AuthorDao;
 import com.iabdinur.dao.PostDao;
 import com.iabdinur.dao.TagDao;
 import com.iabdinur.dto.*;
+import com.iabdinur.exception.ConflictException;
 import com.iabdinur.model.Author;
 import com.iabdinur.model.Post;
+import com.iabdinur.model.PostSort;
+import com.iabdinur.model.RenderedPostBody;
 import com.iabdinur.model.Tag;
+import com.iabdinur.search.SearchIndexEvent;
+import com.iabdinur.util.ContentVersion;
+import com.iabdinur.util.PostCursor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -19,8 +29,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,53 +43,99 @@ import org.slf4j.LoggerFactory;
 @Transactional(readOnly = true)
 public class PostService {
     private static final Logger logger = LoggerFactory.getLogger(PostService.class);
+    private static final int STREAM_CHUNK_SIZE = 200;
     
     private final PostDao postDao;
     private final AuthorDao authorDao;
     private final TagDao tagDao;
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostSlugResolver slugResolver;
+    private final PostViewCounter viewCounter;
+    private final CounterService counterService;
+    private final PostCache postCache;
+    private final PostBodyRenderer bodyRenderer;
 
     public PostService(PostDao postDao,
                       AuthorDao authorDao,
                       TagDao tagDao,
-                      JdbcTemplate jdbcTemplate) {
+                      JdbcTemplate jdbcTemplate,
+                      ApplicationEventPublisher eventPublisher,
+                      PostSlugResolver slugResolver,
+                      PostViewCounter viewCounter,
+                      CounterService counterService,
+                      PostCache postCache,
+                      PostBodyRenderer bodyRenderer) {
         this.postDao = postDao;
         this.authorDao = authorDao;
         this.tagDao = tagDao;
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.slugResolver = slugResolver;
+        this.viewCounter = viewCounter;
+        this.counterService = counterService;
+        this.postCache = postCache;
+        this.bodyRenderer = bodyRenderer;
     }
 
     @Transactional(readOnly = true)
     public PostListResponse getAllPosts(String sort, Integer page, Integer limit, String tag, String author, String exclude) {
+        return getAllPosts(sort, page, limit, tag, author, exclude, null);
+    }
+
+    @Transactional(readOnly = true)
+    public PostListResponse getAllPosts(String sort, Integer page, Integer limit, String tag, String author, String exclude, String cursor) {
+        return getAllPosts(sort, page, limit, tag, author, exclude, cursor, true);
+    }
+
+    /**
+     * Feed query supporting both page/limit (OFFSET) and opaque cursor (keyset) pagination.
+     * When a cursor is supplied the page number is ignored and rows are read by seeking on
+     * (sort column, id). One extra row is read to tell whether another page follows, which sets
+     * hasMore and nextCursor; clients that only need that can skip the total with includeTotal=false.
+     */
+    @Transactional(readOnly = true)
+    public PostListResponse getAllPosts(String sort, Integer page, Integer limit, String tag, String author,
+                                        String exclude, String cursor, boolean includeTotal) {
         int offset = (page - 1) * limit;
+        // Tag and author feeds are always ordered by recency
+        PostSort feedSort = tag == null && author == null ? PostSort.fromParam(sort) : PostSort.LATEST;
+        PostCursor after = cursor != null && !cursor.isEmpty() ? PostCursor.decode(cursor) : null;
+        if (after != null && after.sort() != feedSort) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
         List<Post> posts;
-        long total;
+        Long total = null;
         
-        // If exclude is provided, fetch more posts to account for exclusions
-        int fetchLimit = (exclude != null && !exclude.isEmpty()) ? limit * 2 : limit;
+        // If exclude is provided, fetch more posts to account for exclusions; one more shows if a page follows
+        int fetchLimit = ((exclude != null && !exclude.isEmpty()) ? limit * 2 : limit) + 1;
 
         if (tag != null) {
-            posts = postDao.selectPostsByTagSlug(tag, fetchLimit, offset);
-            total = postDao.countPostsByTagSlug(tag);
+            posts = after != null
+                ? postDao.selectPostSummariesByTagSlugAfter(tag, after, fetchLimit)
+                : postDao.selectPostSummariesByTagSlug(tag, fetchLimit, offset);
+            if (includeTotal) {
+                total = postCache.getFeedTotal(tag, null, () -> postDao.countPostsByTagSlug(tag));
+            }
         } else if (author != null) {
             Optional<Author> authorOpt = authorDao.selectAuthorByUsername(author);
             if (authorOpt.isEmpty()) {
-                return new PostListResponse(new ArrayList<>(), 0, page, limit);
+                return new PostListResponse(new ArrayList<>(), includeTotal ? 0 : null, page, limit, null, false);
+            }
+            Long authorId = authorOpt.get().getId();
+            posts = after != null
+                ? postDao.selectPostSummariesByAuthorIdAfter(authorId, after, fetchLimit)
+                : postDao.selectPostSummariesByAuthorId(authorId, fetchLimit, offset);
+            if (includeTotal) {
+                total = postCache.getFeedTotal(null, authorId, () -> postDao.countPostsByAuthorId(authorId));
             }
-            posts = postDao.selectPostsByAuthorId(authorOpt.get().getId(), fetchLimit, offset);
-            total = postDao.countPostsByAuthorId(authorOpt.get().getId());
         } else {
-            // Handle sorting manually
-            posts = postDao.selectPublishedPosts(fetchLimit, offset);
-            total = postDao.countPublishedPosts();
-            
-            // Apply sorting
-            if ("top".equals(sort)) {
-                posts.sort((a, b) -> Long.compare(b.getLikes(), a.getLikes()));
-            } else if ("discussions".equals(sort)) {
-                posts.sort((a, b) -> Integer.compare(b.getCommentsCount(), a.getCommentsCount()));
+            posts = after != null
+                ? postDao.selectPublishedPostSummariesAfter(after, fetchLimit)
+                : postDao.selectPublishedPostSummaries(feedSort, fetchLimit, offset);
+            if (includeTotal) {
+                total = postCache.getFeedTotal(null, null, postDao::countPublishedPosts);
             }
-            // "latest" is default - already sorted by published_at DESC in query
         }
 
         // Filter out excluded posts if exclude parameter is provided
@@ -87,18 +147,31 @@ public class PostService {
         }
 
         // Limit to requested size after filtering
-        if (posts.size() > limit) {
+        boolean hasMore = posts.size() > limit;
+        if (hasMore) {
             posts = posts.subList(0, limit);
         }
 
         // Load relationships
         loadPostRelationships(posts);
 
-        List<PostDTO> postDTOs = posts.stream()
-            .map(this::convertToDTO)
+        List<PostSummaryDTO> postDTOs = posts.stream()
+            .map(this::convertToSummaryDTO)
             .collect(Collectors.toList());
 
-        return new PostListResponse(postDTOs, (int) total, page, limit);
+        // A following page is only reported together with the cursor that reaches it
+        String nextCursor = hasMore ? nextCursor(feedSort, posts) : null;
+        return new PostListResponse(postDTOs, total != null ? total.intValue() : null, page, limit,
+            nextCursor, nextCursor != null);
+    }
+
+    private String nextCursor(PostSort sort, List<Post> posts) {
+        if (posts.isEmpty()) {
+            return null;
+        }
+        // Rows arrive in (sort column, id) order, so the last one is the seek position
+        PostCursor next = PostCursor.of(sort, posts.get(posts.size() - 1));
+        return next != null ? next.encode() : null;
     }
     
     private List<Long> parseExcludeIds(String exclude) {
@@ -117,99 +190,125 @@ public class PostService {
         }
     }
 
+    /**
+     * A published post without its body, which clients load from the body endpoint.
+     */
     @Transactional(readOnly = true)
-    public Optional<PostDTO> getPostBySlug(String slug) {
-        Optional<Post> postOpt = postDao.selectPublishedPostBySlug(slug);
+    public Optional<PostSummaryDTO> getPostBySlug(String slug) {
+        Optional<Post> postOpt = postDao.selectPublishedPostSummaryBySlug(slug);
         if (postOpt.isEmpty()) {
             return Optional.empty();
         }
         
         Post post = postOpt.get();
         loadPostRelationships(List.of(post));
-        return Optional.of(convertToDTO(post));
+        return Optional.of(convertToSummaryDTO(post));
     }
 
+    /**
+     * Validators of a published post, read without loading or assembling the post itself.
+     * No transaction is opened, so answering a conditional GET costs one indexed lookup.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<ContentVersion> getPostVersion(String slug) {
+        return postDao.selectPublishedPostVersion(slug);
+    }
+
+    /**
+     * Full-text search over published posts, ranked by relevance, with a highlighted snippet per hit.
+     */
     @Transactional(readOnly = true)
     public PostListResponse searchPosts(String query, Integer page, Integer limit) {
         int offset = (page - 1) * limit;
-        
-        var sql = """
-                SELECT DISTINCT p.id, p.title, p.slug, p.content, p.excerpt, p.cover_image, p.content_image, p.author_id,
-                       p.published_at, p.scheduled_at, p.is_published, p.views, p.likes, p.comments_count, p.reading_time,
-                       p.created_at, p.updated_at
-                FROM posts p
-                WHERE p.is_published = true
-                  AND (LOWER(p.title) LIKE LOWER(CONCAT('%', ?, '%'))
-                   OR LOWER(p.excerpt) LIKE LOWER(CONCAT('%', ?, '%'))
-                   OR LOWER(p.content) LIKE LOWER(CONCAT('%', ?, '%')))
-                ORDER BY p.published_at DESC
-                LIMIT ? OFFSET ?
-                """;
-        
-        List<Post> posts = jdbcTemplate.query(sql,
-            (rs, rowNum) -> {
-                Post post = new Post();
-                post.setId(rs.getLong("id"));
-                post.setTitle(rs.getString("title"));
-                post.setSlug(rs.getString("slug"));
-                post.setContent(rs.getString("content"));
-                post.setExcerpt(rs.getString("excerpt"));
-                post.setCoverImage(rs.getString("cover_image"));
-                post.setContentImage(rs.getString("content_image"));
-                if (rs.getTimestamp("published_at") != null) {
-                    post.setPublishedAt(rs.getTimestamp("published_at").toLocalDateTime());
-                }
-                post.setIsPublished(rs.getBoolean("is_published"));
-                Timestamp scheduledAt = rs.getTimestamp("scheduled_at");
-                if (scheduledAt != null) {
-                    post.setScheduledAt(scheduledAt.toLocalDateTime());
-                }
-                post.setViews(rs.getLong("views"));
-                post.setLikes(rs.getLong("likes"));
-                post.setCommentsCount(rs.getInt("comments_count"));
-                int readingTime = rs.getInt("reading_time");
-                if (!rs.wasNull()) {
-                    post.setReadingTime(readingTime);
-                }
-                post.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-                post.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-                return post;
-            },
-            query, query, query, limit, offset);
-        
-        long total = jdbcTemplate.queryForObject(
-            "SELECT COUNT(DISTINCT p.id) FROM posts p WHERE p.is_published = true AND " +
-            "(LOWER(p.title) LIKE LOWER(CONCAT('%', ?, '%')) OR " +
-            "LOWER(p.excerpt) LIKE LOWER(CONCAT('%', ?, '%')) OR " +
-            "LOWER(p.content) LIKE LOWER(CONCAT('%', ?, '%')))",
-            Long.class, query, query, query);
-        
+        List<Post> posts = postDao.searchPublishedPosts(query, limit, offset);
+        long total = posts.size() < limit && (page == 1 || !posts.isEmpty())
+            ? offset + posts.size()
+            : postDao.countSearchPublishedPosts(query);
+
         // Load relationships
         loadPostRelationships(posts);
 
-        List<PostDTO> postDTOs = posts.stream()
-            .map(this::convertToDTO)
+        List<PostSummaryDTO> postDTOs = posts.stream()
+            .map(this::convertToSummaryDTO)
             .collect(Collectors.toList());
 
         return new PostListResponse(postDTOs, (int) total, page, limit);
     }
 
+    /**
+     * Every published post with its author and tags, without bodies, read in pages. Used to build
+     * the search index.
+     */
+    @Transactional(readOnly = true)
+    public List<PostSummaryDTO> getAllPublishedPosts() {
+        int batchSize = 500;
+        List<PostSummaryDTO> postDTOs = new ArrayList<>();
+        for (int offset = 0; ; offset += batchSize) {
+            List<Post> batch = postDao.selectPublishedPostSummaries(PostSort.LATEST, batchSize, offset);
+            loadPostRelationships(batch);
+            batch.stream().map(this::convertToSummaryDTO).forEach(postDTOs::add);
+            if (batch.size() < batchSize) {
+                return postDTOs;
+            }
+        }
+    }
+
+    /**
+     * The published posts with the given ids, in the order given; ids no longer published are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<PostSummaryDTO> getPublishedPostSummariesByIds(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        List<Post> posts = postDao.selectPublishedPostSummariesByIds(postIds);
+        loadPostRelationships(posts);
+        Map<Long, Post> postsById = posts.stream().collect(Collectors.toMap(Post::getId, Function.identity()));
+        return postIds.stream()
+            .map(postsById::get)
+            .filter(Objects::nonNull)
+            .map(this::convertToSummaryDTO)
+            .toList();
+    }
+
     @Transactional(readOnly = true)
     public PostListResponse getDraftsByAuthor(Long authorId, Integer page, Integer limit) {
         int offset = (page - 1) * limit;
-        List<Post> drafts = postDao.selectDraftsByAuthorId(authorId, limit, offset);
+        List<Post> drafts = postDao.selectDraftSummariesByAuthorId(authorId, limit, offset);
         long total = postDao.countDraftsByAuthorId(authorId);
         
         // Load relationships
         loadPostRelationships(drafts);
         
-        List<PostDTO> postDTOs = drafts.stream()
-            .map(this::convertToDTO)
+        List<PostSummaryDTO> postDTOs = drafts.stream()
+            .map(this::convertToSummaryDTO)
             .collect(Collectors.toList());
         
         return new PostListResponse(postDTOs, (int) total, page, limit);
     }
 
+    /**
+     * Every post, drafts included, handed to the action as rows arrive from the database cursor.
+     * Authors and tags are loaded per chunk of rows, so memory stays bounded by the chunk size.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllPosts(Consumer<PostSummaryDTO> action) {
+        List<Post> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        postDao.streamAllPostSummaries(post -> {
+            chunk.add(post);
+            if (chunk.size() == STREAM_CHUNK_SIZE) {
+                emitChunk(chunk, action);
+            }
+        });
+        emitChunk(chunk, action);
+    }
+
+    private void emitChunk(List<Post> chunk, Consumer<PostSummaryDTO> action) {
+        loadPostRelationships(chunk);
+        chunk.stream().map(this::convertToSummaryDTO).forEach(action);
+        chunk.clear();
+    }
+
     @Transactional
     public Optional<PostDTO> publishDraft(String slug) {
         Optional<Post> postOpt = postDao.selectPostBySlug(slug);
@@ -225,43 +324,32 @@ public class PostService {
         }
         
         // Publish the draft
+        Post current = new Post(post);
         post.setIsPublished(true);
         if (post.getPublishedAt() == null) {
             post.setPublishedAt(java.time.LocalDateTime.now());
         }
-        post.setUpdatedAt(java.time.LocalDateTime.now());
-        postDao.updatePost(post);
+        post.setScheduledAt(null);
+        if (!postDao.updatePost(current, post)) {
+            throw new ConflictException("Post was modified by another save, reload it and try again: " + slug);
+        }
+        counterService.postPublished(post.getId());
+        renderBody(post);
         
         // Load relationships for DTO
         loadPostRelationships(List.of(post));
-        return Optional.of(convertToDTO(post));
+        PostDTO postDTO = convertToDTO(post);
+        eventPublisher.publishEvent(new SearchIndexEvent.PostUpserted(postDTO));
+        return Optional.of(postDTO);
     }
 
-    @Transactional
+    /**
+     * Buffer a view in memory; {@link PostViewCounter} writes views to the database in batches.
+     */
     public void incrementViews(String slug) {
-        Optional<Post> postOpt = postDao.selectPostBySlug(slug);
-        if (postOpt.isEmpty()) {
-            throw new IllegalArgumentException("Post not found with slug: " + slug);
-        }
-        postDao.incrementViews(postOpt.get().getId());
-    }
-
-    @Transactional
-    public void incrementLikes(String slug) {
-        Optional<Post> postOpt = postDao.selectPostBySlug(slug);
-        if (postOpt.isEmpty()) {
-            throw new IllegalArgumentException("Post not found with slug: " + slug);
-        }
-        postDao.incrementLikes(postOpt.get().getId());
-    }
-
-    @Transactional
-    public void decrementLikes(String slug) {
-        Optional<Post> postOpt = postDao.selectPostBySlug(slug);
-        if (postOpt.isEmpty()) {
-            throw new IllegalArgumentException("Post not found with slug: " + slug);
-        }
-        postDao.decrementLikes(postOpt.get().getId());
+        Long postId = slugResolver.resolve(slug)
+            .orElseThrow(() -> new IllegalArgumentException("Post not found with slug: " + slug));
+        viewCounter.record(postId);
     }
 
     @Transactional
@@ -304,23 +392,22 @@ public class PostService {
         }
 
         postDao.insertPost(post);
+        renderBody(post);
+        if (post.getIsPublished()) {
+            // Counts the author; the tags below count themselves
+            counterService.postPublished(post.getId());
+        }
 
         // Handle tags separately (many-to-many relationship)
         if (request.tagIds() != null && !request.tagIds().isEmpty()) {
-            for (String tagId : request.tagIds()) {
-                Optional<Tag> tagOpt = tagDao.selectTagById(Long.parseLong(tagId));
-                if (tagOpt.isPresent()) {
-                    // Insert into post_tags junction table
-                    jdbcTemplate.update(
-                        "INSERT INTO post_tags(post_id, tag_id) VALUES (?, ?)",
-                        post.getId(), tagOpt.get().getId());
-                }
-            }
+            tagDao.replacePostTags(post.getId(), parseTagIds(request.tagIds())).ifPresent(post::setUpdatedAt);
         }
 
         // Load relationships for DTO conversion
         loadPostRelationships(List.of(post));
-        return convertToDTO(post);
+        PostDTO postDTO = convertToDTO(post);
+        eventPublisher.publishEvent(new SearchIndexEvent.PostUpserted(postDTO));
+        return postDTO;
     }
 
     @Transactional
@@ -331,6 +418,8 @@ public class PostService {
         }
 
         Post post = postOpt.get();
+        checkExpectedVersion(post, request.expectedUpdatedAt());
+        Post current = new Post(post);
         boolean wasPublished = post.getIsPublished();
         
         post.setTitle(request.title());
@@ -340,7 +429,6 @@ public class PostService {
         post.setCoverImage(request.coverImage());
         post.setContentImage(request.contentImage());
         post.setReadingTime(request.readingTime());
-        post.setUpdatedAt(java.time.LocalDateTime.now());
 
         // Update author if changed
         if (request.authorId() != null) {
@@ -376,36 +464,73 @@ public class PostService {
             }
         }
 
-        postDao.updatePost(post);
-
-        // Update tags
+        // Counters move while the post is published under the author and tags that counted it
+        boolean recount = !Objects.equals(authorId(current), authorId(post));
+        if (current.getIsPublished() && (!post.getIsPublished() || recount)) {
+            counterService.postUnpublishing(post.getId());
+        }
+        if (!postDao.updatePost(current, post)) {
+            throw new ConflictException("Post was modified by another save, reload it and try again: " + slug);
+        }
+        if (post.getIsPublished() && (!current.getIsPublished() || recount)) {
+            counterService.postPublished(post.getId());
+        }
+        if (!Objects.equals(current.getContent(), post.getContent())
+                || !Objects.equals(current.getContentImage(), post.getContentImage())
+                || (post.getIsPublished() && !current.getIsPublished())) {
+            renderBody(post);
+        }
+        // Update tags; a change moves updated_at, so a tags-only edit is a new version too
         if (request.tagIds() != null) {
-            // Delete existing tags
-            jdbcTemplate.update("DELETE FROM post_tags WHERE post_id = ?", post.getId());
-            
-            // Insert new tags
-            for (String tagId : request.tagIds()) {
-                Optional<Tag> tagOpt = tagDao.selectTagById(Long.parseLong(tagId));
-                if (tagOpt.isPresent()) {
-                    jdbcTemplate.update(
-                        "INSERT INTO post_tags(post_id, tag_id) VALUES (?, ?)",
-                        post.getId(), tagOpt.get().getId());
-                }
-            }
+            tagDao.replacePostTags(post.getId(), parseTagIds(request.tagIds())).ifPresent(post::setUpdatedAt);
         }
 
         // Load relationships for DTO conversion
         loadPostRelationships(List.of(post));
-        return Optional.of(convertToDTO(post));
+        PostDTO postDTO = convertToDTO(post);
+        eventPublisher.publishEvent(new SearchIndexEvent.PostUpserted(postDTO));
+        return Optional.of(postDTO);
+    }
+
+    private static Long authorId(Post post) {
+        return post.getAuthor() != null ? post.getAuthor().getId() : null;
+    }
+
+    private static List<Long> parseTagIds(List<String> tagIds) {
+        try {
+            return tagIds.stream().map(Long::parseLong).distinct().collect(Collectors.toList());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid tag id in: " + tagIds);
+        }
+    }
+
+    /**
+     * Rejects an update made from a stale copy of the post, so concurrent autosaves cannot overwrite each other.
+     */
+    private void checkExpectedVersion(Post post, String expectedUpdatedAt) {
+        if (expectedUpdatedAt == null || expectedUpdatedAt.isBlank()) {
+            return;
+        }
+        LocalDateTime expected;
+        try {
+            expected = LocalDateTime.parse(expectedUpdatedAt);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid expectedUpdatedAt format: " + expectedUpdatedAt);
+        }
+        if (!expected.equals(post.getUpdatedAt())) {
+            throw new ConflictException("Post was modified by another save, reload it and try again: " + post.getSlug());
+        }
     }
 
     @Transactional
     public boolean deletePost(String slug) {
-        Optional<Post> postOpt = postDao.selectPostBySlug(slug);
-        if (postOpt.isEmpty()) {
+        Optional<Long> postId = slugResolver.resolve(slug);
+        if (postId.isEmpty()) {
             return false;
         }
-        postDao.deletePostById(postOpt.get().getId());
+        counterService.postUnpublishing(postId.get());
+        postDao.deletePostById(postId.get());
+        eventPublisher.publishEvent(new SearchIndexEvent.PostRemoved(postId.get()));
         return true;
     }
 
@@ -421,53 +546,89 @@ public class PostService {
         return Optional.of(convertToDTO(post));
     }
 
-    private void loadPostRelationships(List<Post> posts) {
-        for (Post post : posts) {
-            // Load author
-            if (post.getId() != null) {
-                var authorSql = "SELECT author_id FROM posts WHERE id = ?";
-                try {
-                    Long authorId = jdbcTemplate.queryForObject(authorSql, Long.class, post.getId());
-                    if (authorId != null) {
-                        authorDao.selectAuthorById(authorId).ifPresent(post::setAuthor);
-                    }
-                } catch (org.springframework.dao.EmptyResultDataAccessException e) {
-                    // Author ID not found or null - skip
-                }
-                
-                // Load tags
-                var tagsSql = """
-                    SELECT t.id, t.name, t.slug, t.description, t.posts_count, t.created_at, t.updated_at
-                    FROM tags t
-                    INNER JOIN post_tags pt ON t.id = pt.tag_id
-                    WHERE pt.post_id = ?
-                    """;
-                List<Tag> tags = jdbcTemplate.query(tagsSql,
-                    (rs, rowNum) -> {
-                        Tag tag = new Tag(
-                            rs.getLong("id"),
-                            rs.getString("name"),
-                            rs.getString("slug"),
-                            rs.getTimestamp("created_at").toLocalDateTime(),
-                            rs.getTimestamp("updated_at").toLocalDateTime()
-                        );
-                        tag.setDescription(rs.getString("description"));
-                        tag.setPostsCount(rs.getInt("posts_count"));
-                        return tag;
-                    },
-                    post.getId());
-                post.setTags(new HashSet<>(tags));
+    /**
+     * Pre-rendered body of a published post. A post the startup backfill has not reached yet is
+     * rendered for this read only; reads never write.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Post> getPostBody(String slug) {
+        Optional<Post> postOpt = postDao.selectPublishedPostBody(slug);
+        postOpt.filter(post -> post.getRenderedBody() == null).ifPresent(post ->
+            post.setRenderedBody(bodyRenderer.render(post.getContent(), post.getContentImage())));
+        return postOpt;
+    }
+
+    /**
+     * Renders and stores the bodies of published posts written before bodies were rendered on
+     * write, so the body endpoint serves every post from storage. Runs once at startup, in
+     * batches, each post its own statement.
+     *
+     * @return the number of bodies rendered
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfillRenderedBodies() {
+        int batchSize = 100;
+        int rendered = 0;
+        Long afterId = 0L;
+        List<Post> batch;
+        do {
+            batch = postDao.selectPublishedPostsWithoutRenderedBody(afterId, batchSize);
+            for (Post post : batch) {
+                postDao.updateRenderedBodyIfMissing(post.getId(),
+                    bodyRenderer.render(post.getContent(), post.getContentImage()));
+                afterId = post.getId();
             }
+            rendered += batch.size();
+        } while (batch.size() == batchSize);
+        if (rendered > 0) {
+            logger.info("Rendered the stored bodies of {} published posts", rendered);
         }
+        return rendered;
     }
 
-    private String injectContentImage(String content, String contentImage) {
-        if (contentImage != null && !contentImage.isEmpty()) {
-            // Replace placeholder with markdown image syntax
-            return content.replace("{{content_image}}", 
-                "![Content Image](" + contentImage + ")");
+    /**
+     * Renders the post's markdown and stores the HTML and its gzip encoding with the post.
+     * Runs on every write that changes the body, and again on publish for posts that predate rendering.
+     */
+    void renderBody(Post post) {
+        RenderedPostBody body = bodyRenderer.render(post.getContent(), post.getContentImage());
+        postDao.updateRenderedBody(post.getId(), body);
+        post.setRenderedBody(body);
+    }
+
+    /**
+     * Load authors and tags for a page of posts with a fixed number of queries:
+     * one for all authors and one for all post/tag pairs, stitched together in memory.
+     */
+    private void loadPostRelationships(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+
+        Set<Long> authorIds = posts.stream()
+            .map(Post::getAuthor)
+            .filter(Objects::nonNull)
+            .map(Author::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<Long, Author> authorsById = authorDao.selectAuthorsByIds(authorIds).stream()
+            .collect(Collectors.toMap(Author::getId, Function.identity()));
+
+        List<Long> postIds = posts.stream()
+            .map(Post::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        Map<Long, List<Tag>> tagsByPostId = tagDao.selectTagsByPostIds(postIds);
+
+        for (Post post : posts) {
+            if (post.getId() == null) {
+                continue;
+            }
+            if (post.getAuthor() != null) {
+                post.setAuthor(authorsById.get(post.getAuthor().getId()));
+            }
+            post.setTags(new HashSet<>(tagsByPostId.getOrDefault(post.getId(), List.of())));
         }
-        return content;
     }
 
     private PostDTO convertToDTO(Post post) {
@@ -479,19 +640,12 @@ public class PostService {
             .map(TagDTO::fromEntity)
             .collect(Collectors.toList());
 
-        String slug = post.getSlug();
-        
-        // Inject content image if placeholder exists
-        String processedContent = injectContentImage(
-            post.getContent(), 
-            post.getContentImage()
-        );
-        
+        // The markdown as written, placeholder included: this is what the editor loads and saves
         return new PostDTO(
             post.getId().toString(),
             post.getTitle(),
-            slug,
-            processedContent,  // Use processed content instead of raw content
+            post.getSlug(),
+            post.getContent(),
             post.getExcerpt(),
             post.getCoverImage(),
             post.getContentImage(),
@@ -504,10 +658,43 @@ public class PostService {
             post.getViews(),
             post.getLikes(),
             post.getCommentsCount(),
-            post.getIsPublished()
+            post.getIsPublished(),
+            post.getSearchHighlight()
         );
     }
     
+    /**
+     * List entries are read without content, so nothing here touches the post body.
+     */
+    private PostSummaryDTO convertToSummaryDTO(Post post) {
+        AuthorDTO authorDTO = post.getAuthor() != null
+            ? AuthorDTO.fromEntity(post.getAuthor())
+            : null;
+
+        List<TagDTO> tagDTOs = (post.getTags() != null ? post.getTags() : new HashSet<Tag>()).stream()
+            .map(TagDTO::fromEntity)
+            .collect(Collectors.toList());
+
+        return new PostSummaryDTO(
+            post.getId().toString(),
+            post.getTitle(),
+            post.getSlug(),
+            post.getExcerpt(),
+            post.getCoverImage(),
+            post.getPublishedAt() != null ? post.getPublishedAt().toString() : null,
+            post.getScheduledAt() != null ? post.getScheduledAt().toString() : null,
+            post.getUpdatedAt() != null ? post.getUpdatedAt().toString() : null,
+            authorDTO,
+            tagDTOs,
+            post.getReadingTime(),
+            post.getViews(),
+            post.getLikes(),
+            post.getCommentsCount(),
+            post.getIsPublished(),
+            post.getSearchHighlight()
+        );
+    }
+
     /**
      * Parse scheduledAt string from frontend (ISO format) to LocalDateTime.
      * Handles various ISO formats including with/without timezone and milliseconds.
@@ -0,0 +1,76 @@
+package com.iabdinur.service;
+
+import com.iabdinur.cache.LruCache;
+import com.iabdinur.dao.PostDao;
+import com.iabdinur.search.SearchIndexEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Resolves post slugs to ids through an id-only projection, cached in bounded LRU maps,
+ * so like, view, comment and delete paths never load the post row just to find its id.
+ * Entries are dropped once a committed {@link SearchIndexEvent} shows a post's slug or publication
+ * state may have changed, or that it was deleted; the TTL bounds how long a missed one can live.
+ */
+@Component
+public class PostSlugResolver {
+
+    static final int MAX_ENTRIES = 10_000;
+
+    private final PostDao postDao;
+    private final LruCache<String, Long> idsBySlug;
+    private final LruCache<String, Long> publishedIdsBySlug;
+
+    public PostSlugResolver(PostDao postDao,
+                            @Value("${app.cache.slugs.ttl-seconds:300}") long ttlSeconds) {
+        this.postDao = postDao;
+        this.idsBySlug = new LruCache<>(MAX_ENTRIES, Duration.ofSeconds(ttlSeconds));
+        this.publishedIdsBySlug = new LruCache<>(MAX_ENTRIES, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public Optional<Long> resolve(String slug) {
+        // Unknown slugs are not cached, so a post created later resolves immediately
+        return idsBySlug.get(slug, () -> postDao.resolveIdBySlug(slug));
+    }
+
+    /**
+     * Same as {@link #resolve(String)} but only for published posts.
+     */
+    public Optional<Long> resolvePublished(String slug) {
+        return publishedIdsBySlug.get(slug, () -> postDao.resolvePublishedIdBySlug(slug));
+    }
+
+    public void invalidate(String slug) {
+        idsBySlug.invalidate(slug);
+        publishedIdsBySlug.invalidate(slug);
+    }
+
+    @TransactionalEventListener
+    public void onChange(SearchIndexEvent event) {
+        switch (event) {
+            // The old slug is found through the id when the update renamed the post
+            case SearchIndexEvent.PostUpserted e -> invalidateIf(e.post().slug(), Long.valueOf(e.post().id()));
+            case SearchIndexEvent.PostRemoved e -> invalidateIf(null, e.postId());
+            default -> { }
+        }
+    }
+
+    private void invalidateIf(String slug, Long postId) {
+        idsBySlug.invalidateIf((cachedSlug, id) -> cachedSlug.equals(slug) || id.equals(postId));
+        publishedIdsBySlug.invalidateIf((cachedSlug, id) -> cachedSlug.equals(slug) || id.equals(postId));
+    }
+
+    public Stats stats() {
+        LruCache.Stats all = idsBySlug.stats();
+        LruCache.Stats published = publishedIdsBySlug.stats();
+        return new Stats(all.size() + published.size(), all.hits() + published.hits(),
+                all.misses() + published.misses(), all.evictions() + published.evictions(),
+                all.expirations() + published.expirations());
+    }
+
+    public record Stats(long size, long hits, long misses, long evictions, long expirations) {}
+}
@@ -0,0 +1,122 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.PostDao;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for post views. Views are counted in memory per post and flushed
+ * to the database in one batched UPDATE on a fixed delay, so a popular post no longer
+ * takes a row lock per view. At most one flush interval of views is lost on a crash;
+ * pending views are flushed on a clean shutdown and re-queued when a flush fails.
+ */
+@Service
+public class PostViewCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostViewCounter.class);
+
+    private final PostDao postDao;
+    // Adders are never removed, so a concurrent record() can never increment a detached counter
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+
+    // Wall-clock time of the oldest view not yet written, or 0 when nothing is pending
+    private final AtomicLong oldestPendingAt = new AtomicLong();
+    private final AtomicLong lastFlushAt = new AtomicLong();
+    private final AtomicLong lastFlushDurationMs = new AtomicLong();
+    private final AtomicLong lastFlushLagMs = new AtomicLong();
+    private final AtomicLong flushedViews = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    // A lock rather than synchronized, so a virtual thread waiting on the database does not pin its carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public PostViewCounter(PostDao postDao) {
+        this.postDao = postDao;
+    }
+
+    public void record(Long postId) {
+        pendingViews.computeIfAbsent(postId, id -> new LongAdder()).increment();
+        oldestPendingAt.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void doFlush() {
+        long pendingSince = oldestPendingAt.getAndSet(0);
+        Map<Long, Long> deltas = new HashMap<>();
+        pendingViews.forEach((postId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.put(postId, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            postDao.addViews(deltas);
+            long finishedAt = System.currentTimeMillis();
+            flushedViews.addAndGet(deltas.values().stream().mapToLong(Long::longValue).sum());
+            lastFlushAt.set(finishedAt);
+            lastFlushDurationMs.set(finishedAt - start);
+            lastFlushLagMs.set(pendingSince > 0 ? finishedAt - pendingSince : 0);
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            deltas.forEach((postId, delta) ->
+                    pendingViews.computeIfAbsent(postId, id -> new LongAdder()).add(delta));
+            oldestPendingAt.compareAndSet(0, pendingSince > 0 ? pendingSince : start);
+            logger.warn("Failed to flush {} post view counters, will retry", deltas.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public Metrics metrics() {
+        long pending = pendingViews.values().stream().mapToLong(LongAdder::sum).sum();
+        long pendingSince = oldestPendingAt.get();
+        return new Metrics(
+                pending,
+                pendingSince > 0 ? System.currentTimeMillis() - pendingSince : 0,
+                lastFlushLagMs.get(),
+                lastFlushDurationMs.get(),
+                lastFlushAt.get(),
+                flushedViews.get(),
+                failedFlushes.get()
+        );
+    }
+
+    /**
+     * Flush lag is the age of the oldest view not yet written to the database.
+     */
+    public record Metrics(
+            long pendingViews,
+            long currentFlushLagMs,
+            long lastFlushLagMs,
+            long lastFlushDurationMs,
+            long lastFlushAtEpochMs,
+            long flushedViews,
+            long failedFlushes
+    ) {}
+}
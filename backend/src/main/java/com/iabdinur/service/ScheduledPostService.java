@@ -1,11 +1,11 @@
 package com.iabdinur.service;
 
 import com.iabdinur.dao.PostDao;
-import com.iabdinur.dao.NewsletterSubscriptionDao;
 import com.iabdinur.model.Post;
-import com.iabdinur.model.NewsletterSubscription;
+import com.iabdinur.search.SearchIndexEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,24 +19,24 @@ public class ScheduledPostService {
     private static final Logger logger = LoggerFactory.getLogger(ScheduledPostService.class);
     
     private final PostDao postDao;
-    private final NewsletterSubscriptionDao newsletterSubscriptionDao;
-    private final EmailService emailService;
     private final PostService postService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CounterService counterService;
     
     public ScheduledPostService(
             PostDao postDao,
-            NewsletterSubscriptionDao newsletterSubscriptionDao,
-            EmailService emailService,
-            PostService postService) {
+            PostService postService,
+            ApplicationEventPublisher eventPublisher,
+            CounterService counterService) {
         this.postDao = postDao;
-        this.newsletterSubscriptionDao = newsletterSubscriptionDao;
-        this.emailService = emailService;
         this.postService = postService;
+        this.eventPublisher = eventPublisher;
+        this.counterService = counterService;
     }
     
     /**
      * Check for scheduled posts every minute and publish them if their scheduled time has arrived.
-     * Also sends email notifications to newsletter subscribers.
+     * Newsletter subscribers are then notified by {@link PostNotificationFanout}.
      */
     @Scheduled(fixedRate = 60000) // Run every minute
     @Transactional
@@ -58,11 +58,16 @@ public class ScheduledPostService {
                         true,
                         post.getScheduledAt() != null ? post.getScheduledAt() : LocalDateTime.now()
                     );
+                    counterService.postPublished(post.getId());
+                    postService.renderBody(post);
                     
                     logger.info("Published scheduled post: {} (slug: {})", post.getTitle(), post.getSlug());
+                    postService.getPostBySlugForAdmin(post.getSlug()).ifPresent(postDTO ->
+                            eventPublisher.publishEvent(new SearchIndexEvent.PostUpserted(postDTO)));
                     
-                    // Send email notifications to newsletter subscribers
-                    sendPostNotificationEmails(post);
+                    // One fan-out row is recorded in this transaction; subscribers are queued once it commits
+                    eventPublisher.publishEvent(new PostPublishedEvent(
+                        post.getId(), post.getTitle(), post.getSlug(), post.getExcerpt()));
                     
                 } catch (Exception e) {
                     logger.error("Failed to publish scheduled post: {} (slug: {})", 
@@ -73,45 +78,4 @@ public class ScheduledPostService {
             logger.error("Error in scheduled post publishing task", e);
         }
     }
-    
-    private void sendPostNotificationEmails(Post post) {
-        try {
-            // Get all active newsletter subscribers
-            List<NewsletterSubscription> subscribers = newsletterSubscriptionDao.selectActiveSubscriptions();
-            
-            if (subscribers.isEmpty()) {
-                logger.info("No active newsletter subscribers to notify for post: {}", post.getSlug());
-                return;
-            }
-            
-            logger.info("Sending post notification emails to {} subscribers for post: {}", 
-                       subscribers.size(), post.getSlug());
-            
-            int successCount = 0;
-            int failureCount = 0;
-            
-            for (NewsletterSubscription subscriber : subscribers) {
-                try {
-                    emailService.sendPostNotification(
-                        subscriber.getEmail(),
-                        post.getTitle(),
-                        post.getSlug(),
-                        post.getExcerpt() != null ? post.getExcerpt() : ""
-                    );
-                    successCount++;
-                } catch (Exception e) {
-                    logger.error("Failed to send post notification email to: {}", 
-                               subscriber.getEmail(), e);
-                    failureCount++;
-                }
-            }
-            
-            logger.info("Post notification emails sent: {} successful, {} failed for post: {}", 
-                       successCount, failureCount, post.getSlug());
-            
-        } catch (Exception e) {
-            logger.error("Error sending post notification emails for post: {}", 
-                        post.getSlug(), e);
-        }
-    }
 }
@@ -1,6 +1,7 @@
 package com.iabdinur.service;
 
 import com.iabdinur.dto.*;
+import com.iabdinur.search.InMemorySearchIndex;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -11,17 +12,24 @@ public class SearchService {
     private final PostService postService;
     private final AuthorService authorService;
     private final TagService tagService;
+    private final InMemorySearchIndex searchIndex;
 
     public SearchService(PostService postService,
                         AuthorService authorService,
-                        TagService tagService) {
+                        TagService tagService,
+                        InMemorySearchIndex searchIndex) {
         this.postService = postService;
         this.authorService = authorService;
         this.tagService = tagService;
+        this.searchIndex = searchIndex;
     }
 
     public SearchResponse search(String query, String type, Integer limit) {
-        List<PostDTO> posts = new ArrayList<>();
+        if (searchIndex.isReady()) {
+            return searchInMemory(query, type, limit);
+        }
+
+        List<PostSummaryDTO> posts = new ArrayList<>();
         List<AuthorDTO> authors = new ArrayList<>();
         List<TagDTO> tags = new ArrayList<>();
 
@@ -48,5 +56,23 @@ public class SearchService {
 
         return new SearchResponse(posts, authors, tags, total);
     }
-}
 
+    /**
+     * Same result shape as the database path, answered from the in-memory index.
+     */
+    private SearchResponse searchInMemory(String query, String type, Integer limit) {
+        boolean all = type == null || type.equals("all");
+        List<PostSummaryDTO> posts = all || type.equals("posts")
+            ? postService.getPublishedPostSummariesByIds(
+                searchIndex.searchPostIds(query, limit != null ? limit : 10))
+            : List.of();
+        List<AuthorDTO> authors = all || type.equals("authors")
+            ? searchIndex.searchAuthors(query, limit != null ? limit : Integer.MAX_VALUE)
+            : List.of();
+        List<TagDTO> tags = all || type.equals("tags")
+            ? searchIndex.searchTags(query, limit != null ? limit : Integer.MAX_VALUE)
+            : List.of();
+
+        return new SearchResponse(posts, authors, tags, posts.size() + authors.size() + tags.size());
+    }
+}
@@ -1,6 +1,6 @@
 package com.iabdinur.service;
 
-import com.iabdinur.dao.SentEmailDao;
+import com.iabdinur.model.RenderedEmail;
 import com.iabdinur.model.SentEmail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +20,7 @@ import software.amazon.awssdk.services.ses.model.*;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 @Service
 public class SesEmailService implements EmailService {
@@ -31,7 +32,7 @@ public class SesEmailService implements EmailService {
     private final String awsSecretAccessKey;
     private final String awsRegion;
     private final boolean enabled;
-    private final SentEmailDao sentEmailDao;
+    private final EmailOutbox emailOutbox;
     
     private SesClient sesClient;
     private TemplateEngine templateEngine;
@@ -42,13 +43,23 @@ public class SesEmailService implements EmailService {
             @Value("${aws.secret-access-key:}") String awsSecretAccessKey,
             @Value("${aws.region:us-east-1}") String awsRegion,
             @Value("${app.email.enabled:false}") boolean enabled,
-            SentEmailDao sentEmailDao) {
+            EmailOutbox emailOutbox) {
         this.fromEmail = fromEmail;
         this.awsAccessKeyId = awsAccessKeyId;
         this.awsSecretAccessKey = awsSecretAccessKey;
         this.awsRegion = awsRegion;
         this.enabled = enabled;
-        this.sentEmailDao = sentEmailDao;
+        this.emailOutbox = emailOutbox;
+    }
+    
+    /**
+     * A sender using the given client, such as a local stand-in for SES in benchmarks.
+     */
+    static SesEmailService withClient(String fromEmail, SesClient sesClient, EmailOutbox emailOutbox) {
+        SesEmailService service = new SesEmailService(fromEmail, "", "", "us-east-1", true, emailOutbox);
+        service.templateEngine = service.initializeTemplateEngine();
+        service.sesClient = sesClient;
+        return service;
     }
     
     @PostConstruct
@@ -94,7 +105,8 @@ public class SesEmailService implements EmailService {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode(TemplateMode.HTML);
         templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
-        templateResolver.setCacheable(false); // Set to true in production for better performance
+        // Parsed templates are cached; they only change with a redeploy
+        templateResolver.setCacheable(true);
         
         SpringTemplateEngine engine = new SpringTemplateEngine();
         engine.setTemplateResolver(templateResolver);
@@ -110,64 +122,25 @@ public class SesEmailService implements EmailService {
     
     @Override
     public void sendVerificationCode(String to, String code, int expiresInMinutes) {
-        String subject = "Your Verification Code";
-        String body = buildVerificationEmailBody(code, expiresInMinutes);
+        RenderedEmail email = renderVerificationCode(code, expiresInMinutes);
         
         if (sesClient == null || !enabled) {
-            // Fallback to console logging if SES is not configured
+            // Without SES the code is only ever visible here, so log it for local development
             logger.info("=== EMAIL (Not Sent - SES Disabled) ===");
             logger.info("To: {}", to);
-            logger.info("Subject: {}", subject);
+            logger.info("Subject: {}", email.subject());
             logger.info("Verification Code: {}", code);
             logger.info("Code expires in: {} minutes", expiresInMinutes);
-            logger.info("(Full HTML email body would be sent if SES was enabled)");
             logger.info("========================================");
-            
-            // Store email record even when disabled (for audit trail)
-            SentEmail sentEmail = new SentEmail(to, subject, "verification_code", null, "disabled");
-            sentEmail.setErrorMessage("SES is disabled or not configured");
-            sentEmailDao.insertSentEmail(sentEmail);
-            return;
         }
         
-        try {
-            SendEmailRequest emailRequest = SendEmailRequest.builder()
-                .source(fromEmail)
-                .destination(Destination.builder()
-                    .toAddresses(to)
-                    .build())
-                .message(Message.builder()
-                    .subject(Content.builder()
-                        .data(subject)
-                        .charset("UTF-8")
-                        .build())
-                    .body(Body.builder()
-                        .html(Content.builder()
-                            .data(body)
-                            .charset("UTF-8")
-                            .build())
-                        .build())
-                    .build())
-                .build();
-            
-            SendEmailResponse response = sesClient.sendEmail(emailRequest);
-            String messageId = response.messageId();
-            
-            logger.info("Verification code email sent successfully to {}. MessageId: {}", 
-                       to, messageId);
-            
-            // Store successful email record
-            SentEmail sentEmail = new SentEmail(to, subject, "verification_code", messageId, "sent");
-            sentEmailDao.insertSentEmail(sentEmail);
-            
-        } catch (Exception e) {
-            logger.error("Failed to send verification code email to {}", to, e);
-            
-            // Store failed email record
-            SentEmail sentEmail = new SentEmail(to, subject, "verification_code", null, "failed");
-            sentEmail.setErrorMessage(e.getMessage());
-            sentEmailDao.insertSentEmail(sentEmail);
-        }
+        // An email that arrives after the code has expired is useless, so it expires with the code
+        emailOutbox.enqueue(to, email, LocalDateTime.now().plusMinutes(expiresInMinutes));
+    }
+    
+    RenderedEmail renderVerificationCode(String code, int expiresInMinutes) {
+        return new RenderedEmail("Your Verification Code", buildVerificationEmailBody(code, expiresInMinutes),
+                "verification_code");
     }
     
     private String buildVerificationEmailBody(String code, int expiresInMinutes) {
@@ -180,6 +153,11 @@ public class SesEmailService implements EmailService {
     
     @Override
     public void sendPostNotification(String to, String postTitle, String postSlug, String postExcerpt) {
+        emailOutbox.enqueue(to, renderPostNotification(postTitle, postSlug, postExcerpt), null);
+    }
+
+    @Override
+    public RenderedEmail renderPostNotification(String postTitle, String postSlug, String postExcerpt) {
         String subject = "New Post: " + postTitle;
         
         // Get base URL from environment or use default
@@ -191,20 +169,22 @@ public class SesEmailService implements EmailService {
         String unsubscribeUrl = baseUrl + "/newsletter?unsubscribe=true";
         
         String body = buildPostNotificationEmailBody(postTitle, postExcerpt, postUrl, unsubscribeUrl);
-        
+        return new RenderedEmail(subject, body, "post_notification");
+    }
+
+    @Override
+    public SentEmail sendRendered(String to, RenderedEmail email) {
         if (sesClient == null || !enabled) {
             // Fallback to console logging if SES is not configured
-            logger.info("=== POST NOTIFICATION EMAIL (Not Sent - SES Disabled) ===");
+            logger.info("=== EMAIL (Not Sent - SES Disabled) ===");
             logger.info("To: {}", to);
-            logger.info("Subject: {}", subject);
-            logger.info("Post: {} - {}", postTitle, postUrl);
-            logger.info("=========================================================");
+            logger.info("Subject: {}", email.subject());
+            logger.info("=======================================");
             
-            // Store email record even when disabled
-            SentEmail sentEmail = new SentEmail(to, subject, "post_notification", null, "disabled");
+            // Record the email even when disabled
+            SentEmail sentEmail = new SentEmail(to, email.subject(), email.emailType(), null, "disabled");
             sentEmail.setErrorMessage("SES is disabled or not configured");
-            sentEmailDao.insertSentEmail(sentEmail);
-            return;
+            return sentEmail;
         }
         
         try {
@@ -215,12 +195,12 @@ public class SesEmailService implements EmailService {
                     .build())
                 .message(Message.builder()
                     .subject(Content.builder()
-                        .data(subject)
+                        .data(email.subject())
                         .charset("UTF-8")
                         .build())
                     .body(Body.builder()
                         .html(Content.builder()
-                            .data(body)
+                            .data(email.html())
                             .charset("UTF-8")
                             .build())
                         .build())
@@ -230,20 +210,17 @@ public class SesEmailService implements EmailService {
             SendEmailResponse response = sesClient.sendEmail(emailRequest);
             String messageId = response.messageId();
             
-            logger.info("Post notification email sent successfully to {}. MessageId: {}", 
-                       to, messageId);
+            // Debug level: bulk sends log a summary instead of a line per recipient
+            logger.debug("{} email sent successfully to {}. MessageId: {}", email.emailType(), to, messageId);
             
-            // Store successful email record
-            SentEmail sentEmail = new SentEmail(to, subject, "post_notification", messageId, "sent");
-            sentEmailDao.insertSentEmail(sentEmail);
+            return new SentEmail(to, email.subject(), email.emailType(), messageId, "sent");
             
         } catch (Exception e) {
-            logger.error("Failed to send post notification email to {}", to, e);
+            logger.error("Failed to send {} email to {}", email.emailType(), to, e);
             
-            // Store failed email record
-            SentEmail sentEmail = new SentEmail(to, subject, "post_notification", null, "failed");
+            SentEmail sentEmail = new SentEmail(to, email.subject(), email.emailType(), null, "failed");
             sentEmail.setErrorMessage(e.getMessage());
-            sentEmailDao.insertSentEmail(sentEmail);
+            return sentEmail;
         }
     }
     
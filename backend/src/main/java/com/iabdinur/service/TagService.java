@@ -4,8 +4,12 @@ import com.iabdinur.dao.TagDao;
 import com.iabdinur.dto.CreateTagRequest;
 import com.iabdinur.dto.TagDTO;
 import com.iabdinur.model.Tag;
+import com.iabdinur.search.SearchIndexEvent;
+import com.iabdinur.util.ContentVersion;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -18,10 +22,12 @@ import java.util.stream.Collectors;
 public class TagService {
     private final TagDao tagDao;
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TagService(TagDao tagDao, JdbcTemplate jdbcTemplate) {
+    public TagService(TagDao tagDao, JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
         this.tagDao = tagDao;
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<TagDTO> getAllTags() {
@@ -36,6 +42,16 @@ public class TagService {
             .map(TagDTO::fromEntity);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ContentVersion getTagsVersion() {
+        return tagDao.selectTagsVersion();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<ContentVersion> getTagVersion(String slug) {
+        return tagDao.selectTagVersion(slug);
+    }
+
     public List<TagDTO> searchTags(String query) {
         // Manual search implementation
         var sql = """
@@ -76,7 +92,9 @@ public class TagService {
         tag.setUpdatedAt(LocalDateTime.now());
         
         tagDao.insertTag(tag);
-        return TagDTO.fromEntity(tag);
+        TagDTO tagDTO = TagDTO.fromEntity(tag);
+        eventPublisher.publishEvent(new SearchIndexEvent.TagUpserted(tagDTO));
+        return tagDTO;
     }
 
     @Transactional
@@ -93,7 +111,9 @@ public class TagService {
         tag.setUpdatedAt(LocalDateTime.now());
 
         tagDao.updateTag(tag);
-        return Optional.of(TagDTO.fromEntity(tag));
+        TagDTO tagDTO = TagDTO.fromEntity(tag);
+        eventPublisher.publishEvent(new SearchIndexEvent.TagUpserted(tagDTO));
+        return Optional.of(tagDTO);
     }
 
     @Transactional
@@ -103,6 +123,7 @@ public class TagService {
             return false;
         }
         tagDao.deleteTagById(tagOpt.get().getId());
+        eventPublisher.publishEvent(new SearchIndexEvent.TagRemoved(tagOpt.get().getId()));
         return true;
     }
 }
@@ -0,0 +1,143 @@
+package com.iabdinur.util;
+
+import com.iabdinur.dto.PostDTO;
+import com.iabdinur.dto.PostListResponse;
+import com.iabdinur.dto.PostSummaryDTO;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Validators for HTTP conditional GET: an ETag hashed from the fields a response depends on,
+ * and the Last-Modified time. Post and feed versions are weak: they cover the post's own edits
+ * (tag changes included, which move updated_at), likes and comment counts, but not views or the
+ * author's profile, so flushing view counters does not defeat revalidation and a revalidated copy
+ * is equivalent rather than byte-identical.
+ */
+public record ContentVersion(String etag, LocalDateTime lastModified) {
+
+    public static ContentVersion of(LocalDateTime lastModified, Object... parts) {
+        String joined = Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("|"));
+        String hash = DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8));
+        return new ContentVersion("\"" + hash + "\"", lastModified);
+    }
+
+    public static ContentVersion weak(LocalDateTime lastModified, Object... parts) {
+        ContentVersion strong = of(lastModified, parts);
+        return new ContentVersion("W/" + strong.etag(), lastModified);
+    }
+
+    public static ContentVersion ofPost(Long id, LocalDateTime updatedAt, Long likes, Integer commentsCount) {
+        return weak(updatedAt, "post", id, updatedAt, likes, commentsCount);
+    }
+
+    /**
+     * Same version as the database lookup of this post yields, computed from its DTO.
+     */
+    public static ContentVersion ofPost(PostDTO post) {
+        return ofPost(Long.parseLong(post.id()), LocalDateTime.parse(post.updatedAt()),
+                post.likes(), post.commentsCount());
+    }
+
+    public static ContentVersion ofPost(PostSummaryDTO post) {
+        return ofPost(Long.parseLong(post.id()), LocalDateTime.parse(post.updatedAt()),
+                post.likes(), post.commentsCount());
+    }
+
+    /**
+     * Each content encoding of a body is its own representation, so it gets its own strong ETag.
+     */
+    public static ContentVersion ofPostBody(Long id, LocalDateTime updatedAt, String contentEncoding) {
+        return of(updatedAt, "body", id, updatedAt, contentEncoding);
+    }
+
+    public static ContentVersion ofFeed(PostListResponse response) {
+        LocalDateTime lastModified = null;
+        StringBuilder parts = new StringBuilder();
+        for (PostSummaryDTO post : response.posts()) {
+            ContentVersion version = ofPost(post);
+            parts.append(version.etag());
+            if (lastModified == null || version.lastModified().isAfter(lastModified)) {
+                lastModified = version.lastModified();
+            }
+        }
+        return weak(lastModified, "feed", parts, response.total(), response.nextCursor(), response.hasMore());
+    }
+
+    /**
+     * Whether the client's cached copy, described by If-None-Match or else If-Modified-Since, is
+     * current. If-None-Match uses the weak comparison, which ignores the W/ prefix on either side.
+     */
+    public boolean isNotModified(WebRequest request) {
+        HttpHeaders headers = conditionalHeaders(request);
+        if (!headers.getIfNoneMatch().isEmpty()) {
+            String opaqueTag = opaque(etag);
+            return headers.getIfNoneMatch().stream()
+                    .anyMatch(tag -> tag.equals("*") || opaque(tag).equals(opaqueTag));
+        }
+        long ifModifiedSince = headers.getIfModifiedSince();
+        // HTTP dates have second precision
+        return ifModifiedSince >= 0 && lastModified != null
+                && lastModifiedMillis() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    public <T> ResponseEntity<T> notModified() {
+        return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED)).build();
+    }
+
+    public <T> ResponseEntity<T> ok(T body) {
+        return ok().body(body);
+    }
+
+    /**
+     * A 200 builder carrying the validators, for responses that need further headers.
+     */
+    public ResponseEntity.BodyBuilder ok() {
+        return withValidators(ResponseEntity.ok());
+    }
+
+    private ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder) {
+        // Storable, but revalidated on every use; this also replaces Spring Security's no-store default
+        builder.cacheControl(CacheControl.noCache()).eTag(etag);
+        if (lastModified != null) {
+            builder.lastModified(lastModifiedMillis());
+        }
+        return builder;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private long lastModifiedMillis() {
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static HttpHeaders conditionalHeaders(WebRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        String ifModifiedSince = request.getHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        if (ifModifiedSince != null) {
+            try {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince);
+                headers.getIfModifiedSince();
+            } catch (IllegalArgumentException e) {
+                // An unparseable date is ignored, as RFC 9110 requires
+                headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,50 @@
+package com.iabdinur.util;
+
+import com.iabdinur.model.Post;
+import com.iabdinur.model.PostSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a published post feed.
+ * Encodes the feed ordering plus the (sort key, id) of the last post a client has seen.
+ */
+public record PostCursor(PostSort sort, String key, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Cursor positioned after the given post, or null if the post has no value for the sort column.
+     */
+    public static PostCursor of(PostSort sort, Post post) {
+        String key = sort.keyOf(post);
+        return key != null ? new PostCursor(sort, key, post.getId()) : null;
+    }
+
+    public Object sqlKey() {
+        return sort.toSqlValue(key);
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            PostCursor decoded = new PostCursor(PostSort.valueOf(parts[0]), parts[1], Long.parseLong(parts[2]));
+            // Fail fast on a key that cannot be bound for its sort column
+            decoded.sqlKey();
+            return decoded;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- authors.posts_count was only ever set at insert time, and deleting a comment did not subtract
+-- its replies from comments_count; recount both so they can be maintained incrementally.
+UPDATE authors a
+SET posts_count = (
+    SELECT COUNT(*)
+    FROM posts p
+    WHERE p.author_id = a.id AND p.is_published = true
+);
+
+UPDATE posts p
+SET comments_count = (
+    SELECT COUNT(*)
+    FROM comments c
+    WHERE c.post_id = p.id
+);
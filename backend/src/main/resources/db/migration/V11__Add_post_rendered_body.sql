@@ -0,0 +1,6 @@
+-- Post bodies rendered from markdown to sanitized HTML when a post is written, stored alongside
+-- their gzip encoding so the body endpoint serves bytes without rendering or compressing per read.
+-- Rows written before this migration are rendered on first read.
+ALTER TABLE posts
+    ADD COLUMN content_html TEXT,
+    ADD COLUMN content_html_gzip BYTEA;
@@ -0,0 +1,21 @@
+-- Keyset pagination of comment threads: top-level comments of a post (parent_id IS NULL) and the
+-- replies to one comment are each a range scan of this index in (created_at, id) order.
+-- It supersedes the plain idx_comments_post_id index; idx_comments_parent_id stays for the
+-- cascading delete of replies.
+CREATE INDEX idx_comments_thread ON comments (post_id, parent_id, created_at, id);
+
+DROP INDEX IF EXISTS idx_comments_post_id;
+
+-- Direct replies per comment, maintained with the comment writes, so a page of comments can show
+-- its reply counts without counting every thread
+ALTER TABLE comments ADD COLUMN replies_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE comments c
+SET replies_count = r.actual
+FROM (
+    SELECT parent_id, COUNT(*) AS actual
+    FROM comments
+    WHERE parent_id IS NOT NULL
+    GROUP BY parent_id
+) r
+WHERE c.id = r.parent_id;
@@ -0,0 +1,62 @@
+-- Materialized path of each comment: the ids from its thread's top-level comment down to itself,
+-- each zero-padded to 19 digits (the width of a BIGINT) and joined with '/'. Under the "C"
+-- collation the paths sort depth-first with replies in id order, so the subtree of a comment is
+-- the contiguous range [path, path || '0'): '/' sorts just below '0' and every descendant continues
+-- its ancestor's path with '/'. Plain text keeps the key usable by a B-tree without the ltree extension.
+ALTER TABLE comments ADD COLUMN path TEXT COLLATE "C";
+
+WITH RECURSIVE tree AS (
+    SELECT id, lpad(id::text, 19, '0') AS path
+    FROM comments
+    WHERE parent_id IS NULL
+    UNION ALL
+    SELECT c.id, t.path || '/' || lpad(c.id::text, 19, '0')
+    FROM comments c
+    INNER JOIN tree t ON c.parent_id = t.id
+)
+UPDATE comments c
+SET path = tree.path
+FROM tree
+WHERE c.id = tree.id;
+
+ALTER TABLE comments ALTER COLUMN path SET NOT NULL;
+
+-- Paths are derived from parent_id on insert. Comments are never moved to another parent, so the
+-- path of a stored comment, and of everything under it, never changes.
+CREATE FUNCTION comments_set_path() RETURNS trigger AS $$
+BEGIN
+    IF NEW.parent_id IS NULL THEN
+        NEW.path := lpad(NEW.id::text, 19, '0');
+    ELSE
+        SELECT path || '/' || lpad(NEW.id::text, 19, '0')
+        INTO NEW.path
+        FROM comments
+        WHERE id = NEW.parent_id;
+        -- Let the foreign key, rather than the NOT NULL, report a missing parent
+        IF NOT FOUND THEN
+            NEW.path := lpad(NEW.id::text, 19, '0');
+        END IF;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER comments_set_path
+    BEFORE INSERT ON comments
+    FOR EACH ROW
+EXECUTE FUNCTION comments_set_path();
+
+CREATE FUNCTION comments_reject_move() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'comment % cannot change its parent or path', OLD.id;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER comments_freeze_path
+    BEFORE UPDATE OF parent_id, path ON comments
+    FOR EACH ROW
+    WHEN (NEW.parent_id IS DISTINCT FROM OLD.parent_id OR NEW.path IS DISTINCT FROM OLD.path)
+EXECUTE FUNCTION comments_reject_move();
+
+-- Subtrees, whole threads in display order and subtree deletes are range scans of this index
+CREATE UNIQUE INDEX idx_comments_path ON comments (post_id, path);
@@ -0,0 +1,21 @@
+-- Transactional outbox for email: senders insert a row in their own transaction, and workers on
+-- any node claim due rows with FOR UPDATE SKIP LOCKED, send them, and move the outcome to
+-- sent_emails. A row is claimable once next_attempt_at has passed. Claiming pushes it forward
+-- by a lease, so a claim abandoned by a crashed node becomes due again; a failed send pushes it
+-- forward by the retry backoff.
+CREATE TABLE email_outbox
+(
+    id              BIGSERIAL PRIMARY KEY,
+    recipient_email TEXT NOT NULL,
+    subject         TEXT NOT NULL,
+    html_body       TEXT NOT NULL,
+    email_type      TEXT NOT NULL,
+    attempts        INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Past this time the email is dropped instead of sent, e.g. a verification code that has expired
+    expires_at      TIMESTAMP WITHOUT TIME ZONE,
+    last_error      TEXT,
+    created_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_email_outbox_next_attempt_at ON email_outbox (next_attempt_at);
@@ -0,0 +1,7 @@
+-- Published feeds order and seek on published_at and skip rows without it, as do the V4 partial
+-- indexes. Give published posts saved without a publication date their creation time so they
+-- stay in the feeds.
+UPDATE posts
+SET published_at = created_at
+WHERE is_published = true
+  AND published_at IS NULL;
@@ -0,0 +1,18 @@
+-- Post notification fan-outs: publishing a post inserts one row holding the rendered email in the
+-- publish transaction, and the fan-out then queues it in email_outbox for every active subscriber
+-- in batches, each its own transaction. A batch locks the row with FOR UPDATE SKIP LOCKED and moves
+-- last_subscription_id past the subscribers it queued, so nodes never queue the same subscriber
+-- twice and a fan-out interrupted by a crash resumes where it stopped.
+CREATE TABLE newsletter_fanouts
+(
+    id                   BIGSERIAL PRIMARY KEY,
+    post_id              BIGINT NOT NULL REFERENCES posts (id) ON DELETE CASCADE,
+    subject              TEXT NOT NULL,
+    html_body            TEXT NOT NULL,
+    email_type           TEXT NOT NULL,
+    last_subscription_id BIGINT NOT NULL DEFAULT 0,
+    created_at           TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at         TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX idx_newsletter_fanouts_pending ON newsletter_fanouts (id) WHERE completed_at IS NULL;
@@ -0,0 +1,9 @@
+-- Composite partial indexes backing keyset (cursor) pagination of published feeds.
+-- Queries seek on (published_at, id) so each page reads only LIMIT rows from the index.
+CREATE INDEX idx_posts_published_feed
+    ON posts (published_at DESC, id DESC)
+    WHERE is_published = true AND published_at IS NOT NULL;
+
+CREATE INDEX idx_posts_author_published_feed
+    ON posts (author_id, published_at DESC, id DESC)
+    WHERE is_published = true AND published_at IS NOT NULL;
@@ -0,0 +1,9 @@
+-- Partial indexes backing the "top" and "discussions" feeds so sorting happens in the
+-- index rather than in the application. id breaks ties for stable keyset pagination.
+CREATE INDEX idx_posts_published_top
+    ON posts (likes DESC, id DESC)
+    WHERE is_published = true;
+
+CREATE INDEX idx_posts_published_discussions
+    ON posts (comments_count DESC, id DESC)
+    WHERE is_published = true;
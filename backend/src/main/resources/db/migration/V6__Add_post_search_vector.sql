@@ -0,0 +1,11 @@
+-- Weighted full-text search vector for posts: title ranks above excerpt, excerpt above content.
+-- Generated so it can never drift from the source columns; GIN index serves @@ lookups.
+ALTER TABLE posts
+    ADD COLUMN search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+            setweight(to_tsvector('english', coalesce(excerpt, '')), 'B') ||
+            setweight(to_tsvector('english', coalesce(content, '')), 'C')
+        ) STORED;
+
+CREATE INDEX idx_posts_search_vector ON posts USING GIN (search_vector);
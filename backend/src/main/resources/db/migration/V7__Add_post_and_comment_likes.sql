@@ -0,0 +1,31 @@
+-- One row per (target, user) makes likes idempotent: a retried or double-clicked like is a no-op.
+-- posts.likes / comments.likes stay as denormalized counters, recomputed by the like reconciler
+-- as base_likes (anonymous likes recorded before this table existed) plus the per-user rows.
+CREATE TABLE post_likes
+(
+    post_id    BIGINT NOT NULL,
+    user_id    BIGINT NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (post_id, user_id),
+    CONSTRAINT post_likes_post_id_fkey FOREIGN KEY (post_id) REFERENCES posts(id) ON DELETE CASCADE,
+    CONSTRAINT post_likes_user_id_fkey FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE comment_likes
+(
+    comment_id BIGINT NOT NULL,
+    user_id    BIGINT NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (comment_id, user_id),
+    CONSTRAINT comment_likes_comment_id_fkey FOREIGN KEY (comment_id) REFERENCES comments(id) ON DELETE CASCADE,
+    CONSTRAINT comment_likes_user_id_fkey FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_post_likes_user_id ON post_likes(user_id);
+CREATE INDEX idx_comment_likes_user_id ON comment_likes(user_id);
+
+ALTER TABLE posts ADD COLUMN base_likes BIGINT NOT NULL DEFAULT 0;
+UPDATE posts SET base_likes = likes;
+
+ALTER TABLE comments ADD COLUMN base_likes INTEGER NOT NULL DEFAULT 0;
+UPDATE comments SET base_likes = likes;
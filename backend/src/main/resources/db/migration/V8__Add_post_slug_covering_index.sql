@@ -0,0 +1,6 @@
+-- Covering index for slug -> id resolution, so PostDao.resolveIdBySlug and
+-- resolvePublishedIdBySlug are answered by an index-only scan that never touches the heap
+-- (or the TOASTed content). It supersedes the plain idx_posts_slug index.
+CREATE INDEX idx_posts_slug_resolve ON posts (slug) INCLUDE (id, is_published);
+
+DROP INDEX IF EXISTS idx_posts_slug;
@@ -0,0 +1,9 @@
+-- tags.posts_count was only ever set by the seed; recount it as the number of published posts
+-- per tag so that tag reassignment can maintain it incrementally from here on.
+UPDATE tags t
+SET posts_count = (
+    SELECT COUNT(*)
+    FROM post_tags pt
+    INNER JOIN posts p ON p.id = pt.post_id
+    WHERE pt.tag_id = t.id AND p.is_published = true
+);
@@ -1,5 +1,7 @@
 package com.iabdinur;
 
+import com.iabdinur.model.RenderedEmail;
+import com.iabdinur.model.SentEmail;
 import com.iabdinur.service.EmailService;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -8,6 +10,7 @@ import org.springframework.context.annotation.Primary;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -57,6 +60,17 @@ public class TestConfig {
                              "' sent to " + to);
             return null;
         }).when(mock).sendPostNotification(anyString(), anyString(), anyString(), anyString());
+
+        // Mock the bulk post notification path used by the newsletter fan-out
+        doAnswer(invocation -> new RenderedEmail("New Post: " + invocation.getArgument(0),
+                "<p>" + invocation.getArgument(0) + "</p>", "post_notification"))
+                .when(mock).renderPostNotification(anyString(), anyString(), anyString());
+        doAnswer(invocation -> {
+            String to = invocation.getArgument(0);
+            RenderedEmail email = invocation.getArgument(1);
+            System.out.println("MOCK EMAIL: " + email.subject() + " sent to " + to);
+            return new SentEmail(to, email.subject(), email.emailType(), null, "disabled");
+        }).when(mock).sendRendered(anyString(), any(RenderedEmail.class));
         
         return mock;
     }
@@ -0,0 +1,99 @@
+package com.iabdinur.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LruCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final LruCache<String, String> underTest = new LruCache<>(2, Duration.ofSeconds(10), now::get);
+
+    @Test
+    void itShouldLoadOnceAndThenHit() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        underTest.get("a", () -> Optional.of("A" + loads.incrementAndGet()));
+        Optional<String> actual = underTest.get("a", () -> Optional.of("A" + loads.incrementAndGet()));
+
+        // Then
+        assertThat(actual).contains("A1");
+        assertThat(underTest.stats().hits()).isEqualTo(1);
+        assertThat(underTest.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldNotCacheEmptyResults() {
+        // When
+        underTest.get("a", Optional::empty);
+        Optional<String> actual = underTest.get("a", () -> Optional.of("A"));
+
+        // Then
+        assertThat(actual).contains("A");
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldEvictLeastRecentlyUsedEntry() {
+        // Given
+        underTest.get("a", () -> Optional.of("A"));
+        underTest.get("b", () -> Optional.of("B"));
+        underTest.get("a", () -> Optional.of("stale"));
+
+        // When
+        underTest.get("c", () -> Optional.of("C"));
+
+        // Then
+        assertThat(underTest.get("a", () -> Optional.of("reloaded"))).contains("A");
+        assertThat(underTest.get("b", () -> Optional.of("reloaded"))).contains("reloaded");
+        assertThat(underTest.stats().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldExpireEntriesAfterTtl() {
+        // Given
+        underTest.get("a", () -> Optional.of("A"));
+
+        // When
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        Optional<String> actual = underTest.get("a", () -> Optional.of("fresh"));
+
+        // Then
+        assertThat(actual).contains("fresh");
+        assertThat(underTest.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldNotStoreValueLoadedAcrossAnInvalidation() {
+        // When
+        Optional<String> actual = underTest.get("a", () -> {
+            underTest.invalidate("a");
+            return Optional.of("pre-write");
+        });
+
+        // Then
+        assertThat(actual).contains("pre-write");
+        assertThat(underTest.size()).isZero();
+    }
+
+    @Test
+    void itShouldInvalidateMatchingEntries() {
+        // Given
+        underTest.get("a", () -> Optional.of("keep"));
+        underTest.get("b", () -> Optional.of("drop"));
+
+        // When
+        underTest.invalidateIf((key, value) -> value.equals("drop"));
+
+        // Then
+        assertThat(underTest.size()).isEqualTo(1);
+        assertThat(underTest.get("a", () -> Optional.of("reloaded"))).contains("keep");
+    }
+}
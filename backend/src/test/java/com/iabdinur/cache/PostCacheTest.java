@@ -0,0 +1,168 @@
+package com.iabdinur.cache;
+
+import com.iabdinur.dto.AuthorDTO;
+import com.iabdinur.dto.PostDTO;
+import com.iabdinur.dto.PostListResponse;
+import com.iabdinur.dto.PostSummaryDTO;
+import com.iabdinur.dto.TagDTO;
+import com.iabdinur.search.SearchIndexEvent;
+import com.iabdinur.util.ContentVersion;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostCacheTest {
+
+    private final PostCache underTest = new PostCache(100, 100, 3, 100, 60);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static PostDTO post(String id, String slug, String username, String... tagSlugs) {
+        AuthorDTO author = new AuthorDTO("1", "Author", username, null, null, null, null, null, null,
+                Map.of(), 0, 0, null);
+        List<TagDTO> tags = Arrays.stream(tagSlugs)
+                .map(tagSlug -> new TagDTO(tagSlug, tagSlug, tagSlug, null, 0))
+                .toList();
+        return new PostDTO(id, "Title " + id, slug, "content", null, null, null, null, null, null,
+                author, tags, 1, 0L, 0L, 0, true, null);
+    }
+
+    private PostListResponse feed(String sort, Integer page, String tag, String author, PostDTO... posts) {
+        return underTest.getFeedPage(sort, page, 10, tag, author, null, null, true, () -> {
+            loads.incrementAndGet();
+            return new PostListResponse(Arrays.stream(posts).map(PostSummaryDTO::fromPost).toList(), posts.length, page, 10);
+        });
+    }
+
+    @Test
+    void itShouldServeRepeatedPostReadsFromCache() {
+        // Given
+        PostSummaryDTO post = PostSummaryDTO.fromPost(post("1", "hello", "alice"));
+
+        // When
+        underTest.getPost("hello", () -> { loads.incrementAndGet(); return Optional.of(post); });
+        Optional<PostSummaryDTO> actual = underTest.getPost("hello", () -> { loads.incrementAndGet(); return Optional.of(post); });
+
+        // Then
+        assertThat(actual).contains(post);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void itShouldReloadACachedPostWhoseVersionHasMoved() {
+        // Given
+        String updatedAt = "2026-01-01T10:00:00.123456";
+        PostSummaryDTO cached = new PostSummaryDTO("1", "Title", "hello", null, null, null, null, updatedAt,
+                null, List.of(), 1, 0L, 4L, 0, true, null);
+        PostSummaryDTO liked = new PostSummaryDTO("1", "Title", "hello", null, null, null, null, updatedAt,
+                null, List.of(), 1, 0L, 5L, 0, true, null);
+        underTest.getPost("hello", () -> Optional.of(cached));
+
+        // When
+        Optional<PostSummaryDTO> current = underTest.getPost("hello", ContentVersion.ofPost(cached),
+                () -> { loads.incrementAndGet(); return Optional.of(liked); });
+        Optional<PostSummaryDTO> afterLike = underTest.getPost("hello", ContentVersion.ofPost(liked),
+                () -> { loads.incrementAndGet(); return Optional.of(liked); });
+
+        // Then
+        assertThat(current).contains(cached);
+        assertThat(afterLike).contains(liked);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void itShouldInvalidateRenamedPostByIdOnUpsert() {
+        // Given
+        underTest.getPost("old-slug", () -> Optional.of(PostSummaryDTO.fromPost(post("1", "old-slug", "alice"))));
+
+        // When
+        underTest.onChange(new SearchIndexEvent.PostUpserted(post("1", "new-slug", "alice")));
+
+        // Then
+        assertThat(underTest.stats().posts().size()).isZero();
+    }
+
+    @Test
+    void itShouldNotCacheCursorOrDeepPages() {
+        // When
+        feed(null, 4, null, null);
+        feed(null, 4, null, null);
+        underTest.getFeedPage(null, 1, 10, null, null, null, "abc", true,
+                () -> { loads.incrementAndGet(); return new PostListResponse(List.of(), 0, 1, 10); });
+
+        // Then
+        assertThat(loads).hasValue(3);
+        assertThat(underTest.stats().feedPages().size()).isZero();
+    }
+
+    @Test
+    void itShouldCacheFeedTotalsUntilAPostChanges() {
+        // Given
+        underTest.getFeedTotal("java", null, () -> { loads.incrementAndGet(); return 4L; });
+        underTest.getFeedTotal("java", null, () -> { loads.incrementAndGet(); return 4L; });
+
+        // When
+        underTest.onChange(new SearchIndexEvent.PostUpserted(post("1", "hello", "alice")));
+        long total = underTest.getFeedTotal("java", null, () -> { loads.incrementAndGet(); return 5L; });
+
+        // Then
+        assertThat(total).isEqualTo(5L);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void itShouldInvalidateOnlyFeedsThePostBelongsTo() {
+        // Given
+        feed(null, 1, null, null);
+        feed(null, 1, "java", null);
+        feed(null, 1, "go", null);
+        feed(null, 1, null, "bob");
+        feed(null, 1, null, "alice");
+
+        // When
+        underTest.onChange(new SearchIndexEvent.PostUpserted(post("9", "new-post", "alice", "java")));
+
+        // Then
+        loads.set(0);
+        feed(null, 1, "go", null);
+        feed(null, 1, null, "bob");
+        assertThat(loads).hasValue(0);
+        feed("latest", 1, null, null);
+        feed(null, 1, "java", null);
+        feed(null, 1, null, "alice");
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void itShouldInvalidatePagesStillShowingAPostMovedOutOfTheirFeed() {
+        // Given
+        feed(null, 1, "go", null, post("5", "moved", "alice", "go"));
+
+        // When
+        underTest.onChange(new SearchIndexEvent.PostUpserted(post("5", "moved", "alice", "java")));
+
+        // Then
+        loads.set(0);
+        feed(null, 1, "go", null);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void itShouldDropEverythingWhenATagChanges() {
+        // Given
+        underTest.getPost("hello", () -> Optional.of(PostSummaryDTO.fromPost(post("1", "hello", "alice", "java"))));
+        feed(null, 1, null, null);
+
+        // When
+        underTest.onChange(new SearchIndexEvent.TagRemoved(1L));
+
+        // Then
+        assertThat(underTest.stats().posts().size()).isZero();
+        assertThat(underTest.stats().feedPages().size()).isZero();
+    }
+}
@@ -0,0 +1,175 @@
+package com.iabdinur.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class AdmissionLimitingDataSourceTest {
+
+    private AutoCloseable autoCloseable;
+
+    @Mock
+    private DataSource target;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    // Permits belong to threads, so holders other than the test thread each need their own
+    private static Connection connectOnAnotherThread(AdmissionLimitingDataSource dataSource) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executor.submit(() -> dataSource.getConnection()).get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    @Test
+    void itShouldReleaseThePermitExactlyOnceWhenTheConnectionIsClosed() throws Exception {
+        // Given
+        AdmissionLimitingDataSource underTest = new AdmissionLimitingDataSource(target, 1, 50);
+        Connection connection = underTest.getConnection();
+
+        // When
+        connection.close();
+        connection.close();
+
+        // Then
+        assertThat(underTest.stats().active()).isZero();
+        connectOnAnotherThread(underTest);
+        assertThat(underTest.stats().active()).isEqualTo(1);
+        assertThatThrownBy(() -> connectOnAnotherThread(underTest))
+                .isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    void itShouldRejectCallersThatWaitLongerThanTheTimeout() throws Exception {
+        // Given
+        AdmissionLimitingDataSource underTest = new AdmissionLimitingDataSource(target, 2, 20);
+        connectOnAnotherThread(underTest);
+        connectOnAnotherThread(underTest);
+
+        // When / Then
+        assertThatThrownBy(underTest::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("20ms");
+        assertThat(underTest.stats().rejected()).isEqualTo(1);
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void itShouldReleaseThePermitWhenTheTargetFailsToConnect() throws SQLException {
+        // Given
+        AdmissionLimitingDataSource underTest = new AdmissionLimitingDataSource(target, 1, 50);
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        // When / Then
+        assertThatThrownBy(underTest::getConnection).hasMessage("pool exhausted");
+        assertThat(underTest.stats().active()).isZero();
+    }
+
+    @Test
+    void itShouldNeverHoldMoreConnectionsThanPermits() throws Exception {
+        // Given
+        int permits = 4;
+        AdmissionLimitingDataSource underTest = new AdmissionLimitingDataSource(target, permits, 5000);
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try (Connection ignored = underTest.getConnection()) {
+                        maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+                        Thread.sleep(1);
+                        open.decrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        // Then
+        assertThat(maxOpen.get()).isLessThanOrEqualTo(permits);
+        assertThat(underTest.stats().active()).isZero();
+        verify(target, times(200)).getConnection();
+    }
+
+    @Test
+    void itShouldGiveAThreadHoldingAPermitFurtherConnectionsWithoutWaiting() throws Exception {
+        // Given
+        AdmissionLimitingDataSource underTest = new AdmissionLimitingDataSource(target, 2, 20);
+        Connection outer = underTest.getConnection();
+        connectOnAnotherThread(underTest);
+
+        // When
+        Connection nested = underTest.getConnection();
+
+        // Then
+        assertThat(underTest.stats().active()).isEqualTo(2);
+        assertThat(underTest.stats().rejected()).isZero();
+        verify(target, times(3)).getConnection();
+        nested.close();
+        outer.close();
+    }
+
+    @Test
+    void itShouldReleaseAThreadsPermitWhenItsLastConnectionIsClosed() throws Exception {
+        // Given
+        AdmissionLimitingDataSource underTest = new AdmissionLimitingDataSource(target, 1, 20);
+        Connection outer = underTest.getConnection();
+        Connection nested = underTest.getConnection();
+
+        // When
+        outer.close();
+
+        // Then
+        assertThat(underTest.stats().active()).isEqualTo(1);
+        assertThatThrownBy(() -> connectOnAnotherThread(underTest))
+                .isInstanceOf(SQLTransientConnectionException.class);
+        nested.close();
+        assertThat(underTest.stats().active()).isZero();
+        connectOnAnotherThread(underTest);
+    }
+
+    @Test
+    void itShouldRejectNonPositiveLimits() {
+        assertThatThrownBy(() -> new AdmissionLimitingDataSource(target, 0, 50))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
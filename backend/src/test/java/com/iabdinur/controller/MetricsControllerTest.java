@@ -0,0 +1,90 @@
+package com.iabdinur.controller;
+
+import com.iabdinur.cache.PostCache;
+import com.iabdinur.dto.AuthorDTO;
+import com.iabdinur.search.InMemorySearchIndex;
+import com.iabdinur.service.AuthorService;
+import com.iabdinur.service.PostSlugResolver;
+import com.iabdinur.service.PostViewCounter;
+import com.iabdinur.util.JWTUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class MetricsControllerTest {
+
+    @Mock
+    private PostViewCounter viewCounter;
+    @Mock
+    private PostSlugResolver slugResolver;
+    @Mock
+    private PostCache postCache;
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private InMemorySearchIndex searchIndex;
+    @Mock
+    private AuthorService authorService;
+    @Mock
+    private JWTUtil jwtUtil;
+    private AutoCloseable autoCloseable;
+    private MetricsController underTest;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        underTest = new MetricsController(viewCounter, slugResolver, postCache, dataSource, searchIndex,
+                authorService, jwtUtil);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void itShouldRejectAnonymousReads() {
+        assertThatThrownBy(() -> underTest.getPostCacheStats(null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+        verifyNoInteractions(postCache);
+    }
+
+    @Test
+    void itShouldRejectReadersWithoutAnAuthorProfile() {
+        // Given
+        when(jwtUtil.getSubject("token")).thenReturn("reader@example.com");
+        when(authorService.getAuthorByEmail("reader@example.com")).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThatThrownBy(() -> underTest.getSearchIndexFootprint("Bearer token"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN));
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void itShouldServeAuthors() {
+        // Given
+        when(jwtUtil.getSubject("token")).thenReturn("author@example.com");
+        when(authorService.getAuthorByEmail("author@example.com")).thenReturn(Optional.of(mock(AuthorDTO.class)));
+
+        // When
+        var response = underTest.getPostCacheStats("Bearer token");
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(postCache).stats();
+    }
+}
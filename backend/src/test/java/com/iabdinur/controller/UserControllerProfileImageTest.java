@@ -15,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
@@ -78,8 +79,8 @@ class UserControllerProfileImageTest {
         }
 
         @Bean
-        AuthorService authorService(AuthorDao authorDao, JdbcTemplate jdbcTemplate) {
-            return new AuthorService(authorDao, jdbcTemplate);
+        AuthorService authorService(AuthorDao authorDao, JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+            return new AuthorService(authorDao, jdbcTemplate, eventPublisher);
         }
 
         @Bean
@@ -339,14 +339,14 @@ class BlogAppIT extends AbstractTestcontainers {
         // When - Get comments
         String commentsJson = mockMvc.perform(get("/api/v1/posts/{slug}/comments", postSlug))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].content").value(commentContent))
+                .andExpect(jsonPath("$.comments").isArray())
+                .andExpect(jsonPath("$.comments[0].content").value(commentContent))
+                .andExpect(jsonPath("$.hasMore").value(false))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
 
-        List<CommentDTO> comments = objectMapper.readValue(commentsJson,
-                objectMapper.getTypeFactory().constructCollectionType(List.class, CommentDTO.class));
+        List<CommentDTO> comments = objectMapper.readValue(commentsJson, CommentPageResponse.class).comments();
 
         // Then - Verify comments were retrieved
         assertThat(comments).hasSize(1);
@@ -366,7 +366,7 @@ class BlogAppIT extends AbstractTestcontainers {
                 .getContentAsString();
 
         List<CommentDTO> commentsAfterLike = objectMapper.readValue(commentsAfterLikeJson,
-                objectMapper.getTypeFactory().constructCollectionType(List.class, CommentDTO.class));
+                CommentPageResponse.class).comments();
         assertThat(commentsAfterLike.get(0).likes()).isGreaterThan(0);
 
         // ========== STEP 10: Create Nested Comment (Reply) ==========
@@ -391,6 +391,18 @@ class BlogAppIT extends AbstractTestcontainers {
         assertThat(createdReply.content()).isEqualTo(replyContent);
         assertThat(createdReply.parentId()).isEqualTo(createdComment.id());
 
+        // And - The thread shows a reply count and the reply loads on demand
+        mockMvc.perform(get("/api/v1/posts/{slug}/comments", postSlug))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()").value(1))
+                .andExpect(jsonPath("$.comments[0].replyCount").value(1))
+                .andExpect(jsonPath("$.comments[0].replies").isEmpty());
+        mockMvc.perform(get("/api/v1/posts/{slug}/comments/{commentId}/replies",
+                        postSlug, createdComment.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].id").value(createdReply.id()))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
         // Verify comments count was incremented again
         String postAfterReplyJson = mockMvc.perform(get("/api/v1/posts/{slug}", postSlug))
                 .andExpect(status().isOk())
@@ -1129,7 +1141,7 @@ class BlogAppIT extends AbstractTestcontainers {
                 .getContentAsString();
         
         List<CommentDTO> commentsAfterDelete = objectMapper.readValue(commentsAfterDeleteJson,
-                objectMapper.getTypeFactory().constructCollectionType(List.class, CommentDTO.class));
+                CommentPageResponse.class).comments();
         boolean stillContainsComment = commentsAfterDelete.stream()
                 .anyMatch(c -> c.id().equals(createdComment.id()));
         assertThat(stillContainsComment).isFalse();
@@ -1175,7 +1187,7 @@ class BlogAppIT extends AbstractTestcontainers {
         com.iabdinur.dto.SearchResponse searchResponse = objectMapper.readValue(searchResultsJson, com.iabdinur.dto.SearchResponse.class);
         assertThat(searchResponse.posts()).isNotEmpty();
         boolean containsSearchedPost = searchResponse.posts().stream()
-                .anyMatch(p -> p.title().contains("UniqueSearchTerm") || p.content().contains("UniqueSearchTerm"));
+                .anyMatch(p -> p.title().contains("UniqueSearchTerm") || (p.highlight() != null && p.highlight().contains("UniqueSearchTerm")));
         assertThat(containsSearchedPost).isTrue();
     }
 
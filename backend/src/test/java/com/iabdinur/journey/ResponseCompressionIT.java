@@ -0,0 +1,106 @@
+package com.iabdinur.journey;
+
+import com.iabdinur.AbstractTestcontainers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compression happens in the servlet container, so it is checked over a real connection with a
+ * client that does not decode responses itself.
+ */
+@SpringBootTest(classes = com.iabdinur.BlogApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(com.iabdinur.TestConfig.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ResponseCompressionIT extends AbstractTestcontainers {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM post_tags");
+        jdbcTemplate.execute("DELETE FROM comments");
+        jdbcTemplate.execute("DELETE FROM posts");
+        jdbcTemplate.execute("DELETE FROM authors");
+        Long authorId = jdbcTemplate.queryForObject("""
+                INSERT INTO authors(name, username, email, created_at, updated_at)
+                VALUES ('Compression Author', 'compression-author', 'compression@example.com', now(), now())
+                RETURNING id
+                """, Long.class);
+        jdbcTemplate.update("""
+                INSERT INTO posts(title, slug, content, excerpt, author_id, published_at, is_published,
+                                  views, likes, comments_count, created_at, updated_at)
+                SELECT 'Post ' || g, 'compression-post-' || g, 'Body', repeat('A longer excerpt. ', 10),
+                       ?, now() - (g || ' minutes')::interval, true, 0, 0, 0, now(), now()
+                FROM generate_series(1, 50) g
+                """, authorId);
+    }
+
+    @Test
+    void itShouldGzipLargeJsonResponsesWhenAccepted() throws Exception {
+        // When
+        HttpResponse<byte[]> response = get("/api/v1/posts?limit=50", "gzip");
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).contains("gzip");
+        assertThat(gunzip(response.body())).startsWith("{\"posts\":[");
+    }
+
+    @Test
+    void itShouldNotCompressWhenClientDoesNotAcceptGzip() throws Exception {
+        // When
+        HttpResponse<byte[]> response = get("/api/v1/posts?limit=50", "identity");
+
+        // Then
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).startsWith("{\"posts\":[");
+    }
+
+    @Test
+    void itShouldNotCompressResponsesUnderTheThreshold() throws Exception {
+        // When
+        HttpResponse<byte[]> response = get("/api/v1/health", "gzip");
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
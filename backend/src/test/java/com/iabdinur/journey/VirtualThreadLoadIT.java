@@ -0,0 +1,156 @@
+package com.iabdinur.journey;
+
+import com.iabdinur.AbstractTestcontainers;
+import com.iabdinur.BlogApp;
+import com.iabdinur.TestConfig;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load-test harness comparing the platform-thread and virtual-thread modes. Each request blocks
+ * the way an S3 upload or SES send does, then runs a query, so request threads are held far
+ * longer than connections. Both modes get the same small Tomcat pool and 10-connection Hikari
+ * pool; throughput and latency percentiles are logged, only correctness is asserted.
+ */
+class VirtualThreadLoadIT extends AbstractTestcontainers {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadIT.class);
+    private static final int TOMCAT_THREADS = 32;
+    private static final int CONCURRENCY = 256;
+    private static final int WARMUP_REQUESTS = 200;
+    private static final int MEASURED_REQUESTS = 2000;
+    private static final long BLOCKING_CALL_MS = 50;
+
+    @Test
+    void itShouldServeBlockingRequestsInBothThreadModes() throws Exception {
+        // When
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        // Then
+        log.info("Platform threads: {}", platform);
+        log.info("Virtual threads:  {}", virtual);
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+        assertThat(platform.servedOnVirtualThread()).isFalse();
+        assertThat(virtual.servedOnVirtualThread()).isTrue();
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                BlogApp.class, TestConfig.class, BlockingRoute.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                        "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                        "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                        "spring.datasource.hikari.maximum-pool-size=10")
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/load-test/blocking");
+            fire(uri, WARMUP_REQUESTS);
+            return fire(uri, MEASURED_REQUESTS);
+        }
+    }
+
+    private static LoadResult fire(URI uri, int requests) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        long[] latencies = new long[requests];
+        List<Future<HttpResponse<String>>> responses = new ArrayList<>(requests);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                responses.add(executor.submit(() -> {
+                    inFlight.acquire();
+                    try {
+                        long sent = System.nanoTime();
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        latencies[index] = System.nanoTime() - sent;
+                        return response;
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int failures = 0;
+        boolean virtual = true;
+        for (Future<HttpResponse<String>> future : responses) {
+            HttpResponse<String> response = future.get();
+            if (response.statusCode() != 200) {
+                failures++;
+            }
+            virtual &= Boolean.parseBoolean(response.body());
+        }
+        Arrays.sort(latencies);
+        return new LoadResult(
+                requests * 1_000_000_000.0 / elapsed,
+                latencies[requests / 2] / 1_000_000.0,
+                latencies[(int) Math.ceil(requests * 0.99) - 1] / 1_000_000.0,
+                failures,
+                virtual);
+    }
+
+    record LoadResult(double requestsPerSecond, double p50Ms, double p99Ms, int failures,
+                      boolean servedOnVirtualThread) {
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.1f ms, p99 %.1f ms, %d failures",
+                    requestsPerSecond, p50Ms, p99Ms, failures);
+        }
+    }
+
+    /**
+     * Registered only by this harness, and deliberately not a component so the rest of the
+     * test suite never picks it up. Outside /api/v1, so the rate limiter does not throttle it.
+     */
+    static class BlockingRoute {
+
+        @Bean
+        RouterFunction<ServerResponse> blockingRoute(JdbcTemplate jdbcTemplate) {
+            return RouterFunctions.route()
+                    .GET("/load-test/blocking", request -> {
+                        // Stands in for a blocking S3 or SES call made while handling the request
+                        Thread.sleep(BLOCKING_CALL_MS);
+                        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                        return ServerResponse.ok().body(String.valueOf(Thread.currentThread().isVirtual()));
+                    })
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.iabdinur.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code preHandle} under 64-thread contention. With one client key every thread races on the
+ * same bucket, which soon runs dry, so this mostly measures the abusive-client denial path;
+ * spread over many keys, every call is admitted and pays for its CAS. Not part of the test run;
+ * run {@link #main} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class RateLimitingInterceptorBenchmark {
+
+    @Param({"1", "10000"})
+    public int clients;
+
+    private RateLimitingInterceptor interceptor;
+    private MockHttpServletRequest[] requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        interceptor = new RateLimitingInterceptor(new TokenBucketRateLimiter(
+                new RateLimitProfile("benchmark", 2_000, 1_000_000), 100_000));
+        requests = new MockHttpServletRequest[clients];
+        for (int i = 0; i < clients; i++) {
+            requests[i] = new MockHttpServletRequest("GET", "/api/v1/posts");
+            requests[i].setRemoteAddr("10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadResponse {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public boolean preHandle(ThreadResponse state) {
+        MockHttpServletRequest request = requests[ThreadLocalRandom.current().nextInt(requests.length)];
+        return interceptor.preHandle(request, state.response, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimitingInterceptorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.iabdinur.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitingInterceptorTest {
+
+    private final RateLimitingInterceptor underTest = new RateLimitingInterceptor(
+            new TokenBucketRateLimiter(new RateLimitProfile("test", 2, 6), 100));
+
+    @Test
+    void itShouldReportRemainingTokens() {
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean allowed = underTest.preHandle(request("10.0.0.1"), response, null);
+
+        // Then
+        assertThat(allowed).isTrue();
+        assertThat(response.getHeader("X-RateLimit-Limit")).isEqualTo("2");
+        assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("1");
+    }
+
+    @Test
+    void itShouldRejectWithRetryAfterOnceTheBucketIsEmpty() {
+        // Given
+        underTest.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), null);
+        underTest.preHandle(request("10.0.0.1"), new MockHttpServletResponse(), null);
+
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        boolean allowed = underTest.preHandle(request("10.0.0.1"), response, null);
+
+        // Then
+        assertThat(allowed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("0");
+        assertThat(response.getHeader("Retry-After")).isEqualTo("10");
+    }
+
+    @Test
+    void itShouldKeyOnTheFirstForwardedAddress() {
+        // Given
+        MockHttpServletRequest forwarded = request("10.0.0.1");
+        forwarded.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.1");
+        underTest.preHandle(forwarded, new MockHttpServletResponse(), null);
+
+        // When
+        MockHttpServletResponse direct = new MockHttpServletResponse();
+        underTest.preHandle(request("10.0.0.1"), direct, null);
+
+        // Then
+        assertThat(direct.getHeader("X-RateLimit-Remaining")).isEqualTo("1");
+        assertThat(underTest.limiter().size()).isEqualTo(2);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/posts");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,68 @@
+package com.iabdinur.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SendRateThrottleTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void itShouldSpaceSlotsEvenly() {
+        // Given ten sends per second
+        SendRateThrottle underTest = new SendRateThrottle(10, clock::get);
+
+        // When
+        long first = underTest.reserve();
+        long second = underTest.reserve();
+        long third = underTest.reserve();
+
+        // Then
+        assertThat(first).isZero();
+        assertThat(second).isEqualTo(100_000_000L);
+        assertThat(third).isEqualTo(200_000_000L);
+    }
+
+    @Test
+    void itShouldCountWaitFromTheCurrentTime() {
+        // Given
+        SendRateThrottle underTest = new SendRateThrottle(10, clock::get);
+        underTest.reserve();
+        underTest.reserve();
+
+        // When
+        clock.addAndGet(150_000_000L);
+        long wait = underTest.reserve();
+
+        // Then
+        assertThat(wait).isEqualTo(50_000_000L);
+    }
+
+    @Test
+    void itShouldNotBankSlotsWhileIdle() {
+        // Given
+        SendRateThrottle underTest = new SendRateThrottle(10, clock::get);
+        underTest.reserve();
+
+        // When
+        clock.addAndGet(5_000_000_000L);
+        long afterIdle = underTest.reserve();
+        long next = underTest.reserve();
+
+        // Then
+        assertThat(afterIdle).isZero();
+        assertThat(next).isEqualTo(100_000_000L);
+    }
+
+    @Test
+    void itShouldRejectNonPositiveRates() {
+        assertThatThrownBy(() -> new SendRateThrottle(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SendRateThrottle(Double.NaN))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,172 @@
+package com.iabdinur.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @Test
+    void itShouldAllowABurstUpToCapacityThenDeny() {
+        // Given
+        TokenBucketRateLimiter underTest = limiter(3, 60, 100);
+
+        // When / Then
+        assertThat(underTest.tryAcquire("1.1.1.1")).isEqualTo(2);
+        assertThat(underTest.tryAcquire("1.1.1.1")).isEqualTo(1);
+        assertThat(underTest.tryAcquire("1.1.1.1")).isEqualTo(0);
+        assertThat(underTest.tryAcquire("1.1.1.1")).isEqualTo(-1);
+        assertThat(underTest.tryAcquire("2.2.2.2")).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldRefillAtTheConfiguredRate() {
+        // Given
+        TokenBucketRateLimiter underTest = limiter(2, 60, 100);
+        underTest.tryAcquire("ip");
+        underTest.tryAcquire("ip");
+
+        // When
+        clock.addAndGet(999);
+        int beforeOneSecond = underTest.tryAcquire("ip");
+        clock.addAndGet(1);
+        int atOneSecond = underTest.tryAcquire("ip");
+
+        // Then
+        assertThat(beforeOneSecond).isEqualTo(-1);
+        assertThat(atOneSecond).isEqualTo(0);
+    }
+
+    @Test
+    void itShouldAccrueSlowRefillAcrossFrequentRequests() {
+        // Given one token every 12 seconds, polled every 10 ms
+        TokenBucketRateLimiter underTest = limiter(1, 5, 100);
+        underTest.tryAcquire("ip");
+        int admitted = 0;
+
+        // When
+        for (int i = 0; i < 1_200; i++) {
+            clock.addAndGet(10);
+            if (underTest.tryAcquire("ip") >= 0) {
+                admitted++;
+            }
+        }
+
+        // Then
+        assertThat(admitted).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldNotRefillPastCapacity() {
+        // Given
+        TokenBucketRateLimiter underTest = limiter(2, 60, 100);
+        underTest.tryAcquire("ip");
+
+        // When
+        clock.addAndGet(TimeUnit.HOURS.toMillis(1));
+
+        // Then
+        assertThat(underTest.tryAcquire("ip")).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldEvictOnlyBucketsThatHaveRefilled() {
+        // Given
+        TokenBucketRateLimiter underTest = limiter(2, 60, 100);
+        underTest.tryAcquire("idle");
+        clock.addAndGet(1_000);
+        underTest.tryAcquire("busy");
+
+        // When
+        underTest.evictIdle();
+
+        // Then
+        assertThat(underTest.size()).isEqualTo(1);
+        assertThat(underTest.tryAcquire("busy")).isEqualTo(0);
+    }
+
+    @Test
+    void itShouldShareAnOverflowBucketOnceMaxKeysAreActive() {
+        // Given
+        TokenBucketRateLimiter underTest = limiter(2, 60, 2);
+        underTest.tryAcquire("a");
+        underTest.tryAcquire("b");
+
+        // When
+        int first = underTest.tryAcquire("c");
+        int second = underTest.tryAcquire("d");
+        int third = underTest.tryAcquire("e");
+
+        // Then
+        assertThat(underTest.size()).isEqualTo(2);
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(0);
+        assertThat(third).isEqualTo(-1);
+    }
+
+    @Test
+    void itShouldLeaveIdleBucketsToTheSweepWhenMaxKeysAreActive() {
+        // Given
+        TokenBucketRateLimiter underTest = limiter(2, 60, 1);
+        underTest.tryAcquire("idle");
+        clock.addAndGet(60_000);
+
+        // When
+        int beforeSweep = underTest.tryAcquire("new");
+        underTest.evictIdle();
+        int afterSweep = underTest.tryAcquire("other");
+
+        // Then
+        assertThat(beforeSweep).isEqualTo(1);
+        assertThat(afterSweep).isEqualTo(1);
+        assertThat(underTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldAdmitExactlyCapacityUnderContention() throws InterruptedException {
+        // Given
+        TokenBucketRateLimiter underTest = limiter(500, 1, 100);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // When
+        for (int i = 0; i < 2_000; i++) {
+            executor.submit(() -> {
+                start.await();
+                if (underTest.tryAcquire("shared") >= 0) {
+                    admitted.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(admitted.get()).isEqualTo(500);
+    }
+
+    @Test
+    void itShouldRejectProfilesThatDoNotFitTheBucketState() {
+        assertThatThrownBy(() -> new RateLimitProfile("huge", TokenBucketRateLimiter.MAX_CAPACITY + 1, 60))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimitProfile("stalled", 10, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TokenBucketRateLimiter limiter(int capacity, int refillPerMinute, int maxKeys) {
+        return new TokenBucketRateLimiter(new RateLimitProfile("test", capacity, refillPerMinute), maxKeys, clock::get);
+    }
+}
@@ -101,6 +101,29 @@ class AuthorJDBCDataAccessServiceTest extends AbstractTestcontainers {
         });
     }
 
+    @Test
+    void itShouldSelectAuthorsByIds() {
+        // Given
+        Author first = createTestAuthor();
+        Author second = createTestAuthor();
+
+        // When
+        List<Author> actual = underTest.selectAuthorsByIds(List.of(first.getId(), second.getId()));
+
+        // Then
+        assertThat(actual).extracting(Author::getId)
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+    }
+
+    @Test
+    void itShouldReturnEmptyWhenSelectAuthorsByIdsWithNoIds() {
+        // When
+        List<Author> actual = underTest.selectAuthorsByIds(List.of());
+
+        // Then
+        assertThat(actual).isEmpty();
+    }
+
     @Test
     void itShouldSelectAuthorByUsername() {
         // Given
@@ -6,7 +6,10 @@ import com.iabdinur.model.Comment;
 import com.iabdinur.model.Post;
 import com.iabdinur.rowmapper.AuthorRowMapper;
 import com.iabdinur.rowmapper.CommentRowMapper;
+import com.iabdinur.rowmapper.CommentWithAuthorRowMapper;
 import com.iabdinur.rowmapper.PostRowMapper;
+import com.iabdinur.rowmapper.PostSummaryRowMapper;
+import com.iabdinur.util.CommentCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -23,8 +26,10 @@ class CommentJDBCDataAccessServiceTest extends AbstractTestcontainers {
     private AuthorJDBCDataAccessService authorService;
     private PostJDBCDataAccessService postService;
     private final CommentRowMapper commentRowMapper = new CommentRowMapper();
+    private final CommentWithAuthorRowMapper commentWithAuthorRowMapper = new CommentWithAuthorRowMapper();
     private final AuthorRowMapper authorRowMapper = new AuthorRowMapper();
     private final PostRowMapper postRowMapper = new PostRowMapper();
+    private final PostSummaryRowMapper postSummaryRowMapper = new PostSummaryRowMapper();
 
     @BeforeEach
     void setUp() {
@@ -35,10 +40,11 @@ class CommentJDBCDataAccessServiceTest extends AbstractTestcontainers {
         getJdbcTemplate().execute("DELETE FROM authors");
         
         authorService = new AuthorJDBCDataAccessService(getJdbcTemplate(), authorRowMapper);
-        postService = new PostJDBCDataAccessService(getJdbcTemplate(), postRowMapper);
+        postService = new PostJDBCDataAccessService(getJdbcTemplate(), postRowMapper, postSummaryRowMapper);
         underTest = new CommentJDBCDataAccessService(
                 getJdbcTemplate(),
-                commentRowMapper
+                commentRowMapper,
+                commentWithAuthorRowMapper
         );
     }
 
@@ -95,6 +101,13 @@ class CommentJDBCDataAccessServiceTest extends AbstractTestcontainers {
                 .orElseThrow();
     }
 
+    private Comment insertComment(Post post, Author author, Comment parent, String content) {
+        Comment comment = new Comment(post, author, content);
+        comment.setParent(parent);
+        underTest.insertComment(comment);
+        return comment;
+    }
+
     @Test
     void itShouldSelectAllComments() {
         // Given
@@ -109,24 +122,117 @@ class CommentJDBCDataAccessServiceTest extends AbstractTestcontainers {
     }
 
     @Test
-    void itShouldSelectCommentsByPostId() {
+    void itShouldSelectRepliesWithTheirParentIdsAndAuthors() {
         // Given
         Post post = createTestPost();
         Author author = createTestAuthor();
-        String content = FAKER.lorem().paragraph();
-        Comment comment = new Comment(post, author, content);
-        comment.setLikes(0);
-        comment.setCreatedAt(LocalDateTime.now());
-        comment.setUpdatedAt(LocalDateTime.now());
-        underTest.insertComment(comment);
+        Comment parent = new Comment(post, author, FAKER.lorem().sentence());
+        underTest.insertComment(parent);
+        Comment reply = new Comment(post, createTestAuthor(), FAKER.lorem().sentence());
+        reply.setParent(parent);
+        reply.setCreatedAt(parent.getCreatedAt().plusSeconds(1));
+        underTest.insertComment(reply);
 
         // When
-        List<Comment> actual = underTest.selectCommentsByPostId(post.getId());
+        List<Comment> actual = underTest.selectSubtree(parent.getId(), 10);
 
         // Then
-        assertThat(actual).isNotEmpty();
-        // Note: post relationship is not loaded by CommentRowMapper, so we verify by content
-        assertThat(actual).anyMatch(c -> c.getContent().equals(content));
+        assertThat(actual).extracting(Comment::getId).containsExactly(parent.getId(), reply.getId());
+        assertThat(actual.get(1)).satisfies(c -> {
+            assertThat(c.getId()).isEqualTo(reply.getId());
+            assertThat(c.getParent().getId()).isEqualTo(parent.getId());
+            assertThat(c.getAuthor().getUsername()).isEqualTo(reply.getAuthor().getUsername());
+        });
+    }
+
+    @Test
+    void itShouldAssignMaterializedPathOnInsert() {
+        // Given
+        Post post = createTestPost();
+        Author author = createTestAuthor();
+
+        // When
+        Comment root = insertComment(post, author, null, "root");
+        Comment reply = insertComment(post, author, root, "reply");
+
+        // Then
+        assertThat(root.getPath()).isEqualTo(String.format("%019d", root.getId()));
+        assertThat(reply.getPath()).isEqualTo(root.getPath() + "/" + String.format("%019d", reply.getId()));
+        assertThat(underTest.selectCommentById(reply.getId()))
+                .hasValueSatisfying(c -> assertThat(c.getDepth()).isEqualTo(1));
+    }
+
+    @Test
+    void itShouldSelectSubtreeDepthFirst() {
+        // Given
+        Post post = createTestPost();
+        Author author = createTestAuthor();
+        Comment root = insertComment(post, author, null, "root");
+        Comment first = insertComment(post, author, root, "first");
+        Comment second = insertComment(post, author, root, "second");
+        Comment nested = insertComment(post, author, first, "nested");
+        insertComment(post, author, null, "other thread");
+
+        // When
+        List<Comment> actual = underTest.selectSubtree(root.getId(), 10);
+        List<Comment> firstThree = underTest.selectSubtree(root.getId(), 3);
+
+        // Then
+        assertThat(actual).extracting(Comment::getId)
+                .containsExactly(root.getId(), first.getId(), nested.getId(), second.getId());
+        assertThat(actual.get(2).getAuthor().getUsername()).isEqualTo(author.getUsername());
+        assertThat(firstThree).extracting(Comment::getId)
+                .containsExactly(root.getId(), first.getId(), nested.getId());
+        assertThat(underTest.countSubtree(root.getId())).isEqualTo(4);
+        assertThat(underTest.countSubtree(first.getId())).isEqualTo(2);
+        assertThat(underTest.countSubtree(-1L)).isZero();
+    }
+
+    @Test
+    void itShouldSelectThreadsWithTheirFirstReplies() {
+        // Given
+        Post post = createTestPost();
+        Author author = createTestAuthor();
+        LocalDateTime base = LocalDateTime.of(2025, 5, 1, 12, 0);
+        Comment older = new Comment(post, author, "older");
+        older.setCreatedAt(base);
+        underTest.insertComment(older);
+        Comment newer = new Comment(post, author, "newer");
+        newer.setCreatedAt(base.plusMinutes(1));
+        underTest.insertComment(newer);
+        Comment first = insertComment(post, author, newer, "first");
+        Comment nested = insertComment(post, author, first, "nested");
+        insertComment(post, author, newer, "second");
+        Comment olderReply = insertComment(post, author, older, "older reply");
+
+        // When
+        List<Comment> firstPage = underTest.selectThreads(post.getId(), null, 1, 2);
+        List<Comment> secondPage = underTest.selectThreads(post.getId(), CommentCursor.of(newer), 1, 2);
+
+        // Then
+        assertThat(firstPage).extracting(Comment::getId)
+                .containsExactly(newer.getId(), first.getId(), nested.getId());
+        assertThat(secondPage).extracting(Comment::getId)
+                .containsExactly(older.getId(), olderReply.getId());
+    }
+
+    @Test
+    void itShouldDeleteCommentWithItsSubtree() {
+        // Given
+        Post post = createTestPost();
+        Author author = createTestAuthor();
+        Comment root = insertComment(post, author, null, "root");
+        Comment reply = insertComment(post, author, root, "reply");
+        insertComment(post, author, reply, "nested");
+        Comment sibling = insertComment(post, author, null, "sibling");
+
+        // When
+        underTest.deleteCommentById(root.getId());
+
+        // Then
+        assertThat(getJdbcTemplate().queryForList("SELECT id FROM comments WHERE post_id = ?", Long.class,
+                post.getId()))
+                .containsExactly(sibling.getId());
     }
 
     @Test
@@ -168,9 +274,9 @@ class CommentJDBCDataAccessServiceTest extends AbstractTestcontainers {
         underTest.insertComment(comment);
 
         // Then
-        List<Comment> comments = underTest.selectCommentsByPostId(post.getId());
-        assertThat(comments).isNotEmpty();
-        assertThat(comments).anyMatch(c -> c.getContent().equals(content));
+        assertThat(comment.getId()).isNotNull();
+        assertThat(underTest.selectCommentById(comment.getId()))
+                .hasValueSatisfying(c -> assertThat(c.getContent()).isEqualTo(content));
     }
 
     @Test
@@ -230,20 +336,4 @@ class CommentJDBCDataAccessServiceTest extends AbstractTestcontainers {
             assertThat(c.getContent()).isEqualTo(newContent);
         });
     }
-
-    @Test
-    void itShouldIncrementLikes() {
-        // Given
-        Comment comment = createTestComment();
-        Integer initialLikes = comment.getLikes();
-
-        // When
-        underTest.incrementLikes(comment.getId());
-
-        // Then
-        Optional<Comment> actual = underTest.selectCommentById(comment.getId());
-        assertThat(actual).isPresent().hasValueSatisfying(c -> {
-            assertThat(c.getLikes()).isEqualTo(initialLikes + 1);
-        });
-    }
 }
@@ -0,0 +1,171 @@
+package com.iabdinur.repository;
+
+import com.iabdinur.AbstractTestcontainers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CounterJDBCDataAccessServiceTest extends AbstractTestcontainers {
+
+    private CounterJDBCDataAccessService underTest;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up after each test (order matters due to foreign keys)
+        getJdbcTemplate().execute("DELETE FROM post_tags");
+        getJdbcTemplate().execute("DELETE FROM comments");
+        getJdbcTemplate().execute("DELETE FROM posts");
+        getJdbcTemplate().execute("DELETE FROM tags");
+        getJdbcTemplate().execute("DELETE FROM authors");
+        underTest = new CounterJDBCDataAccessService(getJdbcTemplate());
+    }
+
+    private Long createTestAuthor() {
+        return getJdbcTemplate().queryForObject(
+                "INSERT INTO authors(name, username, email) VALUES (?, ?, ?) RETURNING id",
+                Long.class,
+                FAKER.name().fullName(), FAKER.name().username() + FAKER.random().hex(6),
+                FAKER.random().hex(10) + "@" + FAKER.internet().domainName());
+    }
+
+    private Long createTestTag() {
+        String slug = "tag-" + FAKER.random().hex(10);
+        return getJdbcTemplate().queryForObject(
+                "INSERT INTO tags(name, slug) VALUES (?, ?) RETURNING id", Long.class, slug, slug);
+    }
+
+    private Long createTestPost(Long authorId, boolean isPublished, Long... tagIds) {
+        Long postId = getJdbcTemplate().queryForObject(
+                "INSERT INTO posts(title, slug, content, author_id, is_published) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Long.class,
+                FAKER.lorem().sentence(), "counted-" + FAKER.random().hex(12), FAKER.lorem().paragraph(),
+                authorId, isPublished);
+        for (Long tagId : tagIds) {
+            getJdbcTemplate().update("INSERT INTO post_tags(post_id, tag_id) VALUES (?, ?)", postId, tagId);
+        }
+        return postId;
+    }
+
+    private Long createTestComment(Long postId, Long parentId) {
+        return getJdbcTemplate().queryForObject(
+                "INSERT INTO comments(post_id, author_id, content, parent_id) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class,
+                postId, createTestAuthor(), FAKER.lorem().sentence(), parentId);
+    }
+
+    private int countOf(String table, String column, Long id) {
+        return getJdbcTemplate().queryForObject(
+                "SELECT " + column + " FROM " + table + " WHERE id = ?", Integer.class, id);
+    }
+
+    @Test
+    void itShouldAdjustAuthorAndTagCountsOfPublishedPost() {
+        // Given
+        Long authorId = createTestAuthor();
+        Long tagId = createTestTag();
+        Long postId = createTestPost(authorId, true, tagId);
+
+        // When
+        underTest.adjustPublishedPostCounters(postId, 1);
+
+        // Then
+        assertThat(countOf("authors", "posts_count", authorId)).isEqualTo(1);
+        assertThat(countOf("tags", "posts_count", tagId)).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldNotAdjustCountsOfDraft() {
+        // Given
+        Long authorId = createTestAuthor();
+        Long tagId = createTestTag();
+        Long postId = createTestPost(authorId, false, tagId);
+
+        // When
+        underTest.adjustPublishedPostCounters(postId, 1);
+
+        // Then
+        assertThat(countOf("authors", "posts_count", authorId)).isZero();
+        assertThat(countOf("tags", "posts_count", tagId)).isZero();
+    }
+
+    @Test
+    void itShouldRetractCommentWithItsReplies() {
+        // Given
+        Long postId = createTestPost(createTestAuthor(), true);
+        Long root = createTestComment(postId, null);
+        Long reply = createTestComment(postId, root);
+        createTestComment(postId, reply);
+        createTestComment(postId, null);
+        getJdbcTemplate().update("UPDATE posts SET comments_count = 4 WHERE id = ?", postId);
+
+        // When
+        underTest.retractCommentThread(root);
+
+        // Then
+        assertThat(countOf("posts", "comments_count", postId)).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldDecrementParentRepliesCountWhenRetractingReply() {
+        // Given
+        Long postId = createTestPost(createTestAuthor(), true);
+        Long root = createTestComment(postId, null);
+        Long reply = createTestComment(postId, root);
+        createTestComment(postId, root);
+        underTest.adjustRepliesCount(root, 2);
+        getJdbcTemplate().update("UPDATE posts SET comments_count = 3 WHERE id = ?", postId);
+
+        // When
+        underTest.retractCommentThread(reply);
+
+        // Then
+        assertThat(countOf("comments", "replies_count", root)).isEqualTo(1);
+        assertThat(countOf("posts", "comments_count", postId)).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldReconcileDriftedCounters() {
+        // Given
+        Long authorId = createTestAuthor();
+        Long tagId = createTestTag();
+        Long publishedId = createTestPost(authorId, true, tagId);
+        createTestPost(authorId, false, tagId);
+        createTestComment(publishedId, null);
+        getJdbcTemplate().update("UPDATE authors SET posts_count = 7 WHERE id = ?", authorId);
+        getJdbcTemplate().update("UPDATE tags SET posts_count = 7 WHERE id = ?", tagId);
+        getJdbcTemplate().update("UPDATE posts SET comments_count = 7 WHERE id = ?", publishedId);
+
+        // When
+        int tags = underTest.reconcileTagPostsCounts();
+        int authors = underTest.reconcileAuthorPostsCounts();
+        int posts = underTest.reconcileCommentsCounts();
+
+        // Then
+        assertThat(tags).isEqualTo(1);
+        assertThat(authors).isEqualTo(1);
+        assertThat(posts).isEqualTo(1);
+        assertThat(countOf("authors", "posts_count", authorId)).isEqualTo(1);
+        assertThat(countOf("tags", "posts_count", tagId)).isEqualTo(1);
+        assertThat(countOf("posts", "comments_count", publishedId)).isEqualTo(1);
+        assertThat(underTest.reconcileTagPostsCounts()).isZero();
+    }
+
+    @Test
+    void itShouldReconcileDriftedRepliesCounts() {
+        // Given
+        Long postId = createTestPost(createTestAuthor(), true);
+        Long root = createTestComment(postId, null);
+        createTestComment(postId, root);
+        Long leaf = createTestComment(postId, null);
+        underTest.adjustRepliesCount(leaf, 3);
+
+        // When
+        int updated = underTest.reconcileRepliesCounts();
+
+        // Then
+        assertThat(updated).isEqualTo(2);
+        assertThat(countOf("comments", "replies_count", root)).isEqualTo(1);
+        assertThat(countOf("comments", "replies_count", leaf)).isZero();
+    }
+}
@@ -0,0 +1,153 @@
+package com.iabdinur.repository;
+
+import com.iabdinur.AbstractTestcontainers;
+import com.iabdinur.model.OutboxEmail;
+import com.iabdinur.model.RenderedEmail;
+import com.iabdinur.model.SentEmail;
+import com.iabdinur.rowmapper.OutboxEmailRowMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailOutboxJDBCDataAccessServiceTest extends AbstractTestcontainers {
+
+    private static final RenderedEmail EMAIL =
+            new RenderedEmail("Your Verification Code", "<p>123456</p>", "verification_code");
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    private EmailOutboxJDBCDataAccessService underTest;
+
+    @BeforeEach
+    void setUp() {
+        getJdbcTemplate().execute("DELETE FROM email_outbox");
+        getJdbcTemplate().execute("DELETE FROM sent_emails");
+        underTest = new EmailOutboxJDBCDataAccessService(getJdbcTemplate(), new OutboxEmailRowMapper());
+    }
+
+    @Test
+    void itShouldClaimQueuedEmailsOnce() {
+        // Given
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10).withNano(0);
+        underTest.insertOutboxEmails(List.of("a@example.com", "b@example.com"), EMAIL, expiresAt);
+
+        // When
+        List<OutboxEmail> claimed = underTest.claimDue(10, LEASE);
+
+        // Then
+        assertThat(claimed).extracting(OutboxEmail::recipientEmail)
+                .containsExactlyInAnyOrder("a@example.com", "b@example.com");
+        assertThat(claimed).allSatisfy(email -> {
+            assertThat(email.email()).isEqualTo(EMAIL);
+            assertThat(email.attempts()).isEqualTo(1);
+            assertThat(email.expiresAt()).isEqualTo(expiresAt);
+        });
+        // Leased: not due again until the lease runs out
+        assertThat(underTest.claimDue(10, LEASE)).isEmpty();
+    }
+
+    @Test
+    void itShouldReclaimEmailsWhoseLeaseRanOut() {
+        // Given
+        underTest.insertOutboxEmails(List.of("a@example.com"), EMAIL, null);
+        underTest.claimDue(10, Duration.ZERO);
+
+        // When
+        List<OutboxEmail> claimed = underTest.claimDue(10, LEASE);
+
+        // Then
+        assertThat(claimed).singleElement().satisfies(email -> assertThat(email.attempts()).isEqualTo(2));
+    }
+
+    @Test
+    void itShouldSkipRowsClaimedInAnotherOpenTransaction() throws Exception {
+        // Given
+        underTest.insertOutboxEmails(List.of("a@example.com", "b@example.com", "c@example.com"), EMAIL, null);
+        TransactionTemplate transaction =
+                new TransactionTemplate(new DataSourceTransactionManager(getJdbcTemplate().getDataSource()));
+
+        // When
+        List<OutboxEmail> otherWorker = transaction.execute(status -> {
+            List<OutboxEmail> first = underTest.claimDue(2, LEASE);
+            // Still holding the row locks of the first claim
+            List<OutboxEmail> second = CompletableFuture.supplyAsync(() -> underTest.claimDue(10, LEASE))
+                    .orTimeout(10, TimeUnit.SECONDS)
+                    .join();
+            assertThat(first).hasSize(2);
+            return second;
+        });
+
+        // Then
+        assertThat(otherWorker).singleElement().satisfies(email ->
+                assertThat(email.recipientEmail()).isEqualTo("c@example.com"));
+    }
+
+    @Test
+    void itShouldPostponeRetries() {
+        // Given
+        underTest.insertOutboxEmails(List.of("a@example.com"), EMAIL, null);
+        Long id = underTest.claimDue(10, Duration.ZERO).getFirst().id();
+
+        // When
+        underTest.retryLater(id, LEASE, "Throttling");
+
+        // Then
+        assertThat(underTest.claimDue(10, LEASE)).isEmpty();
+        assertThat(getJdbcTemplate().queryForObject(
+                "SELECT last_error FROM email_outbox WHERE id = ?", String.class, id)).isEqualTo("Throttling");
+    }
+
+    @Test
+    void itShouldMoveCompletedEmailsToSentEmails() {
+        // Given
+        underTest.insertOutboxEmails(List.of("a@example.com"), EMAIL, null);
+        Long id = underTest.claimDue(10, LEASE).getFirst().id();
+        SentEmail outcome = new SentEmail("a@example.com", EMAIL.subject(), EMAIL.emailType(), "message-1", "sent");
+
+        // When
+        boolean completed = underTest.complete(id, outcome);
+        boolean completedAgain = underTest.complete(id, outcome);
+
+        // Then
+        assertThat(completed).isTrue();
+        assertThat(completedAgain).isFalse();
+        assertThat(getJdbcTemplate().queryForObject("SELECT count(*) FROM email_outbox", Integer.class)).isZero();
+        assertThat(getJdbcTemplate().queryForList(
+                "SELECT recipient_email, email_type, ses_message_id, status FROM sent_emails"))
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row.get("recipient_email")).isEqualTo("a@example.com");
+                    assertThat(row.get("email_type")).isEqualTo("verification_code");
+                    assertThat(row.get("ses_message_id")).isEqualTo("message-1");
+                    assertThat(row.get("status")).isEqualTo("sent");
+                });
+    }
+
+    @Test
+    void itShouldCompleteABatchAndCountOnlyRowsStillQueued() {
+        // Given
+        underTest.insertOutboxEmails(List.of("a@example.com", "b@example.com"), EMAIL, null);
+        List<OutboxEmail> claimed = underTest.claimDue(10, LEASE);
+        Long first = claimed.get(0).id();
+        Long second = claimed.get(1).id();
+        SentEmail outcome = new SentEmail("a@example.com", EMAIL.subject(), EMAIL.emailType(), "message-1", "sent");
+        underTest.complete(first, outcome);
+
+        // When
+        int completed = underTest.completeAll(Map.of(first, outcome, second, outcome));
+
+        // Then
+        assertThat(completed).isEqualTo(1);
+        assertThat(getJdbcTemplate().queryForObject("SELECT count(*) FROM email_outbox", Integer.class)).isZero();
+        assertThat(getJdbcTemplate().queryForObject("SELECT count(*) FROM sent_emails", Integer.class)).isEqualTo(2);
+    }
+}
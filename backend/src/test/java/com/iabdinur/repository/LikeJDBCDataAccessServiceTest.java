@@ -0,0 +1,175 @@
+package com.iabdinur.repository;
+
+import com.iabdinur.AbstractTestcontainers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikeJDBCDataAccessServiceTest extends AbstractTestcontainers {
+
+    private LikeJDBCDataAccessService underTest;
+
+    @BeforeEach
+    void setUp() {
+        // Clean up after each test (order matters due to foreign keys)
+        getJdbcTemplate().execute("DELETE FROM post_likes");
+        getJdbcTemplate().execute("DELETE FROM comment_likes");
+        getJdbcTemplate().execute("DELETE FROM post_tags");
+        getJdbcTemplate().execute("DELETE FROM comments");
+        getJdbcTemplate().execute("DELETE FROM posts");
+        getJdbcTemplate().execute("DELETE FROM authors");
+        underTest = new LikeJDBCDataAccessService(getJdbcTemplate());
+    }
+
+    private Long createTestAuthor() {
+        return getJdbcTemplate().queryForObject(
+                "INSERT INTO authors(name, username, email) VALUES (?, ?, ?) RETURNING id",
+                Long.class,
+                FAKER.name().fullName(), FAKER.name().username() + FAKER.random().hex(6),
+                FAKER.internet().emailAddress());
+    }
+
+    private Long createTestPost(long baseLikes) {
+        return getJdbcTemplate().queryForObject(
+                "INSERT INTO posts(title, slug, content, author_id, likes, base_likes) VALUES (?, ?, ?, ?, ?, ?) RETURNING id",
+                Long.class,
+                FAKER.lorem().sentence(), "like-" + FAKER.random().hex(12), FAKER.lorem().paragraph(),
+                createTestAuthor(), baseLikes, baseLikes);
+    }
+
+    private Long createTestComment(Long postId) {
+        return getJdbcTemplate().queryForObject(
+                "INSERT INTO comments(post_id, author_id, content) VALUES (?, ?, ?) RETURNING id",
+                Long.class,
+                postId, createTestAuthor(), FAKER.lorem().sentence());
+    }
+
+    private String createTestUser() {
+        String email = FAKER.random().hex(10) + "@" + FAKER.internet().domainName();
+        getJdbcTemplate().update(
+                "INSERT INTO users(name, email, password) VALUES (?, ?, ?)",
+                FAKER.name().fullName(), email, FAKER.internet().password());
+        return email;
+    }
+
+    private long likesOf(String table, Long id) {
+        return getJdbcTemplate().queryForObject("SELECT likes FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+
+    @Test
+    void itShouldInsertPostLikeOnlyOncePerUser() {
+        // Given
+        Long postId = createTestPost(0);
+        String email = createTestUser();
+
+        // When
+        boolean first = underTest.insertPostLike(postId, email);
+        boolean second = underTest.insertPostLike(postId, email);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        Integer rows = getJdbcTemplate().queryForObject(
+                "SELECT COUNT(*) FROM post_likes WHERE post_id = ?", Integer.class, postId);
+        assertThat(rows).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldNotInsertPostLikeForUnknownUser() {
+        // Given
+        Long postId = createTestPost(0);
+
+        // When
+        boolean inserted = underTest.insertPostLike(postId, "nobody@example.com");
+
+        // Then
+        assertThat(inserted).isFalse();
+    }
+
+    @Test
+    void itShouldDeletePostLikeOnlyWhenPresent() {
+        // Given
+        Long postId = createTestPost(0);
+        String email = createTestUser();
+        underTest.insertPostLike(postId, email);
+
+        // When
+        boolean first = underTest.deletePostLike(postId, email);
+        boolean second = underTest.deletePostLike(postId, email);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+    }
+
+    @Test
+    void itShouldReconcilePostLikesOnTopOfBaseLikes() {
+        // Given
+        Long postId = createTestPost(5);
+        Long untouchedId = createTestPost(2);
+        underTest.insertPostLike(postId, createTestUser());
+        underTest.insertPostLike(postId, createTestUser());
+
+        // When
+        int updated = underTest.reconcilePostLikes(List.of(postId, untouchedId));
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(likesOf("posts", postId)).isEqualTo(7);
+        assertThat(likesOf("posts", untouchedId)).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldReconcileAllPostLikes() {
+        // Given
+        Long postId = createTestPost(1);
+        String email = createTestUser();
+        underTest.insertPostLike(postId, email);
+        underTest.reconcilePostLikes(List.of(postId));
+        underTest.deletePostLike(postId, email);
+
+        // When
+        int updated = underTest.reconcileAllPostLikes();
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(likesOf("posts", postId)).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldInsertAndReconcileCommentLikes() {
+        // Given
+        Long commentId = createTestComment(createTestPost(0));
+        String email = createTestUser();
+
+        // When
+        boolean first = underTest.insertCommentLike(commentId, email);
+        boolean second = underTest.insertCommentLike(commentId, email);
+        underTest.reconcileCommentLikes(List.of(commentId));
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(likesOf("comments", commentId)).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldDeleteCommentLikeAndReconcileAll() {
+        // Given
+        Long commentId = createTestComment(createTestPost(0));
+        String email = createTestUser();
+        underTest.insertCommentLike(commentId, email);
+        underTest.reconcileCommentLikes(List.of(commentId));
+
+        // When
+        boolean deleted = underTest.deleteCommentLike(commentId, email);
+        underTest.reconcileAllCommentLikes();
+
+        // Then
+        assertThat(deleted).isTrue();
+        assertThat(likesOf("comments", commentId)).isZero();
+    }
+}
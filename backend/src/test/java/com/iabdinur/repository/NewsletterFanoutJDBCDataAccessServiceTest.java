@@ -0,0 +1,114 @@
+package com.iabdinur.repository;
+
+import com.iabdinur.AbstractTestcontainers;
+import com.iabdinur.model.RenderedEmail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NewsletterFanoutJDBCDataAccessServiceTest extends AbstractTestcontainers {
+
+    private static final RenderedEmail EMAIL =
+            new RenderedEmail("New Post: Title", "<p>Title</p>", "post_notification");
+
+    private NewsletterFanoutJDBCDataAccessService underTest;
+
+    @BeforeEach
+    void setUp() {
+        getJdbcTemplate().execute("DELETE FROM newsletter_fanouts");
+        getJdbcTemplate().execute("DELETE FROM email_outbox");
+        getJdbcTemplate().execute("DELETE FROM newsletter_subscriptions");
+        underTest = new NewsletterFanoutJDBCDataAccessService(getJdbcTemplate());
+    }
+
+    private Long createTestPost() {
+        Long authorId = getJdbcTemplate().queryForObject(
+                "INSERT INTO authors(name, username, email) VALUES (?, ?, ?) RETURNING id",
+                Long.class,
+                FAKER.name().fullName(), FAKER.name().username() + FAKER.random().hex(6),
+                FAKER.internet().emailAddress());
+        return getJdbcTemplate().queryForObject(
+                "INSERT INTO posts(title, slug, content, author_id) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class,
+                FAKER.lorem().sentence(), "fanout-" + FAKER.random().hex(12), FAKER.lorem().paragraph(), authorId);
+    }
+
+    private void createSubscription(String email, String status) {
+        getJdbcTemplate().update(
+                "INSERT INTO newsletter_subscriptions(email, status) VALUES (?, ?)", email, status);
+    }
+
+    private int outboxRows() {
+        return getJdbcTemplate().queryForObject("SELECT count(*) FROM email_outbox", Integer.class);
+    }
+
+    @Test
+    void itShouldQueueActiveSubscribersInBatchesAndThenComplete() {
+        // Given
+        createSubscription("a@example.com", "active");
+        createSubscription("b@example.com", "unsubscribed");
+        createSubscription("c@example.com", "active");
+        createSubscription("d@example.com", "active");
+        underTest.insertFanout(createTestPost(), EMAIL);
+
+        // When
+        Optional<Integer> first = underTest.queueNextBatch(2);
+        Optional<Integer> second = underTest.queueNextBatch(2);
+        Optional<Integer> none = underTest.queueNextBatch(2);
+
+        // Then
+        assertThat(first).contains(2);
+        assertThat(second).contains(1);
+        assertThat(none).isEmpty();
+        assertThat(getJdbcTemplate().queryForList(
+                "SELECT recipient_email FROM email_outbox WHERE subject = ? AND html_body = ? AND email_type = ?",
+                String.class, EMAIL.subject(), EMAIL.html(), EMAIL.emailType()))
+                .containsExactlyInAnyOrder("a@example.com", "c@example.com", "d@example.com");
+        assertThat(getJdbcTemplate().queryForObject(
+                "SELECT completed_at IS NOT NULL FROM newsletter_fanouts", Boolean.class)).isTrue();
+    }
+
+    @Test
+    void itShouldCompleteAFanoutWithoutSubscribers() {
+        // Given
+        underTest.insertFanout(createTestPost(), EMAIL);
+
+        // When
+        Optional<Integer> queued = underTest.queueNextBatch(10);
+
+        // Then
+        assertThat(queued).contains(0);
+        assertThat(underTest.queueNextBatch(10)).isEmpty();
+        assertThat(outboxRows()).isZero();
+    }
+
+    @Test
+    void itShouldSkipAFanoutAnotherNodeIsQueueing() {
+        // Given
+        createSubscription("a@example.com", "active");
+        underTest.insertFanout(createTestPost(), EMAIL);
+        TransactionTemplate transaction =
+                new TransactionTemplate(new DataSourceTransactionManager(getJdbcTemplate().getDataSource()));
+
+        // When
+        Optional<Integer> otherNode = transaction.execute(status -> {
+            getJdbcTemplate().queryForList("SELECT id FROM newsletter_fanouts FOR UPDATE");
+            // Still holding the fan-out's row lock
+            return CompletableFuture.supplyAsync(() -> underTest.queueNextBatch(10))
+                    .orTimeout(10, TimeUnit.SECONDS)
+                    .join();
+        });
+
+        // Then
+        assertThat(otherNode).isEmpty();
+        assertThat(outboxRows()).isZero();
+        assertThat(underTest.queueNextBatch(10)).contains(1);
+    }
+}
@@ -3,13 +3,19 @@ package com.iabdinur.repository;
 import com.iabdinur.AbstractTestcontainers;
 import com.iabdinur.model.Author;
 import com.iabdinur.model.Post;
+import com.iabdinur.model.PostSort;
+import com.iabdinur.model.RenderedPostBody;
 import com.iabdinur.repository.AuthorJDBCDataAccessService;
 import com.iabdinur.rowmapper.AuthorRowMapper;
 import com.iabdinur.rowmapper.PostRowMapper;
+import com.iabdinur.rowmapper.PostSummaryRowMapper;
+import com.iabdinur.util.ContentVersion;
+import com.iabdinur.util.PostCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -21,6 +27,7 @@ class PostJDBCDataAccessServiceTest extends AbstractTestcontainers {
     private PostJDBCDataAccessService underTest;
     private AuthorJDBCDataAccessService authorService;
     private final PostRowMapper postRowMapper = new PostRowMapper();
+    private final PostSummaryRowMapper postSummaryRowMapper = new PostSummaryRowMapper();
     private final AuthorRowMapper authorRowMapper = new AuthorRowMapper();
 
     @BeforeEach
@@ -34,7 +41,8 @@ class PostJDBCDataAccessServiceTest extends AbstractTestcontainers {
         authorService = new AuthorJDBCDataAccessService(getJdbcTemplate(), authorRowMapper);
         underTest = new PostJDBCDataAccessService(
                 getJdbcTemplate(),
-                postRowMapper
+                postRowMapper,
+                postSummaryRowMapper
         );
     }
 
@@ -103,6 +111,187 @@ class PostJDBCDataAccessServiceTest extends AbstractTestcontainers {
         assertThat(actual).anyMatch(p -> p.getSlug().equals(post.getSlug()));
     }
 
+    @Test
+    void itShouldStreamAllPostSummariesNewestFirst() {
+        // Given
+        Post older = createTestPost();
+        Post newer = createTestPost();
+        getJdbcTemplate().update("UPDATE posts SET created_at = now() - interval '1 day' WHERE id = ?", older.getId());
+        getJdbcTemplate().update("UPDATE posts SET created_at = now() WHERE id = ?", newer.getId());
+        List<Post> streamed = new java.util.ArrayList<>();
+
+        // When
+        underTest.streamAllPostSummaries(streamed::add);
+
+        // Then
+        assertThat(streamed).extracting(Post::getId).containsExactly(newer.getId(), older.getId());
+        assertThat(streamed).extracting(Post::getContent).containsOnlyNulls();
+    }
+
+    @Test
+    void itShouldSeekPublishedPostsAfterCursor() {
+        // Given
+        Author author = createTestAuthor();
+        LocalDateTime publishedAt = LocalDateTime.now().withNano(0);
+        List<Post> inserted = new java.util.ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Post post = new Post(FAKER.lorem().sentence(), "keyset-" + i + "-" + System.nanoTime(),
+                    FAKER.lorem().paragraph(), author);
+            post.setIsPublished(true);
+            // Two posts share a timestamp so the id tie-break is exercised
+            post.setPublishedAt(publishedAt.minusMinutes(i / 2));
+            post.setCreatedAt(LocalDateTime.now());
+            post.setUpdatedAt(LocalDateTime.now());
+            underTest.insertPost(post);
+            inserted.add(post);
+        }
+        List<Post> firstPage = underTest.selectPublishedPostSummaries(PostSort.LATEST, 2, 0);
+
+        // When
+        List<Post> secondPage = underTest.selectPublishedPostSummariesAfter(PostCursor.of(PostSort.LATEST, firstPage.get(1)), 2);
+
+        // Then
+        assertThat(secondPage).hasSize(2);
+        assertThat(secondPage).extracting(Post::getId)
+                .doesNotContainAnyElementsOf(firstPage.stream().map(Post::getId).toList());
+        assertThat(secondPage).extracting(Post::getId)
+                .containsExactlyInAnyOrder(inserted.get(2).getId(), inserted.get(3).getId());
+        // Feed rows never carry the body
+        assertThat(secondPage).extracting(Post::getContent).containsOnlyNulls();
+    }
+
+    @Test
+    void itShouldSortAndSeekTopPostsByLikes() {
+        // Given
+        Author author = createTestAuthor();
+        long[] likes = {5L, 40L, 5L, 12L};
+        for (int i = 0; i < likes.length; i++) {
+            Post post = new Post(FAKER.lorem().sentence(), "top-" + i + "-" + System.nanoTime(),
+                    FAKER.lorem().paragraph(), author);
+            post.setIsPublished(true);
+            post.setPublishedAt(LocalDateTime.now().minusDays(i));
+            post.setLikes(likes[i]);
+            post.setCreatedAt(LocalDateTime.now());
+            post.setUpdatedAt(LocalDateTime.now());
+            underTest.insertPost(post);
+        }
+        List<Post> firstPage = underTest.selectPublishedPostSummaries(PostSort.TOP, 2, 0);
+
+        // When
+        List<Post> secondPage = underTest.selectPublishedPostSummariesAfter(
+                PostCursor.of(PostSort.TOP, firstPage.get(1)), 2);
+
+        // Then
+        assertThat(firstPage).extracting(Post::getLikes).containsExactly(40L, 12L);
+        assertThat(secondPage).extracting(Post::getLikes).containsExactly(5L, 5L);
+        assertThat(secondPage.get(0).getId()).isGreaterThan(secondPage.get(1).getId());
+    }
+
+    @Test
+    void itShouldRankTitleMatchesAboveContentMatches() {
+        // Given
+        Author author = createTestAuthor();
+        Post contentMatch = new Post("Weekend notes", "content-match-" + System.nanoTime(),
+                "Some thoughts about kubernetes operators and more.", author);
+        contentMatch.setIsPublished(true);
+        contentMatch.setPublishedAt(LocalDateTime.now());
+        underTest.insertPost(contentMatch);
+        Post titleMatch = new Post("Kubernetes operators explained", "title-match-" + System.nanoTime(),
+                "A long walkthrough.", author);
+        titleMatch.setIsPublished(true);
+        titleMatch.setPublishedAt(LocalDateTime.now().minusDays(1));
+        underTest.insertPost(titleMatch);
+        Post draft = new Post("Kubernetes draft", "draft-match-" + System.nanoTime(), "kubernetes", author);
+        underTest.insertPost(draft);
+
+        // When
+        List<Post> actual = underTest.searchPublishedPosts("kubernet", 10, 0);
+
+        // Then
+        assertThat(actual).extracting(Post::getId)
+                .containsExactly(titleMatch.getId(), contentMatch.getId());
+        assertThat(actual.get(1).getSearchHighlight()).contains("<mark>");
+        assertThat(underTest.countSearchPublishedPosts("kubernet")).isEqualTo(2L);
+    }
+
+    @Test
+    void itShouldReturnNothingForQueryWithoutSearchableTerms() {
+        // When
+        List<Post> actual = underTest.searchPublishedPosts("  %&! ", 10, 0);
+
+        // Then
+        assertThat(actual).isEmpty();
+        assertThat(underTest.countSearchPublishedPosts("  %&! ")).isZero();
+    }
+
+    @Test
+    void itShouldBuildPrefixTsQueryFromFreeText() {
+        assertThat(PostJDBCDataAccessService.toPrefixTsQuery("Spring  Boot")).isEqualTo("spring:* & boot:*");
+        assertThat(PostJDBCDataAccessService.toPrefixTsQuery("a|b & !c")).isEqualTo("a:* & b:* & c:*");
+        assertThat(PostJDBCDataAccessService.toPrefixTsQuery("---")).isNull();
+    }
+
+    @Test
+    void itShouldAddBufferedViewsInOneStatement() {
+        // Given
+        Post first = createTestPost();
+        Post second = createTestPost();
+
+        // When
+        int updated = underTest.addViews(java.util.Map.of(first.getId(), 5L, second.getId(), 2L, -1L, 9L));
+
+        // Then
+        assertThat(updated).isEqualTo(2);
+        assertThat(underTest.selectPostById(first.getId()).orElseThrow().getViews()).isEqualTo(5L);
+        assertThat(underTest.selectPostById(second.getId()).orElseThrow().getViews()).isEqualTo(2L);
+    }
+
+    @Test
+    void itShouldResolveIdBySlug() {
+        // Given
+        Post post = createTestPost();
+
+        // When / Then
+        assertThat(underTest.resolveIdBySlug(post.getSlug())).contains(post.getId());
+        assertThat(underTest.resolveIdBySlug("missing-" + System.nanoTime())).isEmpty();
+    }
+
+    @Test
+    void itShouldSelectPublishedPostVersionMatchingThePost() {
+        // Given
+        Post post = createTestPost();
+        underTest.updatePostPublishedStatus(post.getId(), true, LocalDateTime.now());
+        Post published = underTest.selectPostById(post.getId()).orElseThrow();
+
+        // When
+        Optional<ContentVersion> actual = underTest.selectPublishedPostVersion(post.getSlug());
+
+        // Then
+        assertThat(actual).contains(ContentVersion.ofPost(published.getId(), published.getUpdatedAt(),
+                published.getLikes(), published.getCommentsCount()));
+        assertThat(underTest.selectPublishedPostVersion("missing-" + System.nanoTime())).isEmpty();
+    }
+
+    @Test
+    void itShouldReadContentForPostBodyOnlyUntilItIsRendered() {
+        // Given
+        Post post = createTestPost();
+        underTest.updatePostPublishedStatus(post.getId(), true, LocalDateTime.now());
+
+        // When
+        Post unrendered = underTest.selectPublishedPostBody(post.getSlug()).orElseThrow();
+        underTest.updateRenderedBody(post.getId(), new RenderedPostBody("<p>Body</p>", new byte[]{1, 2, 3}));
+        Post rendered = underTest.selectPublishedPostBody(post.getSlug()).orElseThrow();
+
+        // Then
+        assertThat(unrendered.getRenderedBody()).isNull();
+        assertThat(unrendered.getContent()).isEqualTo(post.getContent());
+        assertThat(rendered.getContent()).isNull();
+        assertThat(rendered.getRenderedBody().html()).isEqualTo("<p>Body</p>");
+        assertThat(rendered.getRenderedBody().gzip()).containsExactly(1, 2, 3);
+        assertThat(rendered.getUpdatedAt()).isEqualTo(unrendered.getUpdatedAt());
+    }
+
     @Test
     void itShouldSelectPostById() {
         // Given
@@ -134,7 +323,7 @@ class PostJDBCDataAccessServiceTest extends AbstractTestcontainers {
     }
 
     @Test
-    void itShouldSelectPublishedPostBySlug() {
+    void itShouldSelectPublishedPostSummaryBySlug() {
         // Given
         Author author = createTestAuthor();
         String title = FAKER.lorem().sentence();
@@ -150,12 +339,42 @@ class PostJDBCDataAccessServiceTest extends AbstractTestcontainers {
         underTest.insertPost(post);
 
         // When
-        Optional<Post> actual = underTest.selectPublishedPostBySlug(slug);
+        Optional<Post> actual = underTest.selectPublishedPostSummaryBySlug(slug);
 
         // Then
         assertThat(actual).isPresent().hasValueSatisfying(p -> {
             assertThat(p.getSlug()).isEqualTo(slug);
             assertThat(p.getIsPublished()).isTrue();
+            assertThat(p.getContent()).isNull();
+        });
+    }
+
+    @Test
+    void itShouldSelectOnlyPublishedPostSummariesByIds() {
+        // Given
+        Author author = createTestAuthor();
+        List<Long> ids = new ArrayList<>();
+        for (boolean published : List.of(true, false)) {
+            String slug = String.join("-", FAKER.lorem().words(3)).toLowerCase() + "-" + published;
+            Post post = new Post(FAKER.lorem().sentence(), slug, FAKER.lorem().paragraph(), author);
+            post.setIsPublished(published);
+            post.setPublishedAt(published ? LocalDateTime.now() : null);
+            post.setViews(0L);
+            post.setLikes(0L);
+            post.setCommentsCount(0);
+            post.setCreatedAt(LocalDateTime.now());
+            post.setUpdatedAt(LocalDateTime.now());
+            underTest.insertPost(post);
+            ids.add(underTest.resolveIdBySlug(slug).orElseThrow());
+        }
+
+        // When
+        List<Post> actual = underTest.selectPublishedPostSummariesByIds(ids);
+
+        // Then
+        assertThat(actual).singleElement().satisfies(p -> {
+            assertThat(p.getId()).isEqualTo(ids.get(0));
+            assertThat(p.getContent()).isNull();
         });
     }
 
@@ -262,84 +481,79 @@ class PostJDBCDataAccessServiceTest extends AbstractTestcontainers {
         Post post = createTestPost();
         String newTitle = FAKER.lorem().sentence();
 
-        Post update = new Post();
-        update.setId(post.getId());
+        Post update = new Post(post);
         update.setTitle(newTitle);
 
         // When
-        underTest.updatePost(update);
+        boolean updated = underTest.updatePost(post, update);
 
         // Then
+        assertThat(updated).isTrue();
         Optional<Post> actual = underTest.selectPostById(post.getId());
         assertThat(actual).isPresent().hasValueSatisfying(p -> {
             assertThat(p.getId()).isEqualTo(post.getId());
             assertThat(p.getTitle()).isEqualTo(newTitle);
+            assertThat(p.getContent()).isEqualTo(post.getContent());
+            assertThat(p.getUpdatedAt()).isEqualTo(update.getUpdatedAt()).isAfter(post.getUpdatedAt());
         });
     }
 
     @Test
-    void itShouldIncrementViews() {
+    void itShouldClearColumnsSetToNull() {
         // Given
         Post post = createTestPost();
-        Long initialViews = post.getViews();
 
-        // When
-        underTest.incrementViews(post.getId());
-
-        // Then
-        Optional<Post> actual = underTest.selectPostById(post.getId());
-        assertThat(actual).isPresent().hasValueSatisfying(p -> {
-            assertThat(p.getViews()).isEqualTo(initialViews + 1);
-        });
-    }
-
-    @Test
-    void itShouldIncrementLikes() {
-        // Given
-        Post post = createTestPost();
-        Long initialLikes = post.getLikes();
+        Post update = new Post(post);
+        update.setExcerpt(null);
+        update.setScheduledAt(null);
 
         // When
-        underTest.incrementLikes(post.getId());
+        underTest.updatePost(post, update);
 
         // Then
         Optional<Post> actual = underTest.selectPostById(post.getId());
         assertThat(actual).isPresent().hasValueSatisfying(p -> {
-            assertThat(p.getLikes()).isEqualTo(initialLikes + 1);
+            assertThat(p.getExcerpt()).isNull();
+            assertThat(p.getTitle()).isEqualTo(post.getTitle());
         });
     }
 
     @Test
-    void itShouldDecrementLikes() {
+    void itShouldNotWriteAnythingWhenNothingChanged() {
         // Given
         Post post = createTestPost();
-        // Manually update likes in database
-        getJdbcTemplate().update("UPDATE posts SET likes = ? WHERE id = ?", 5L, post.getId());
+        Post update = new Post(post);
 
         // When
-        underTest.decrementLikes(post.getId());
+        boolean updated = underTest.updatePost(post, update);
 
         // Then
+        assertThat(updated).isTrue();
         Optional<Post> actual = underTest.selectPostById(post.getId());
-        assertThat(actual).isPresent().hasValueSatisfying(p -> {
-            assertThat(p.getLikes()).isEqualTo(4L);
-        });
+        assertThat(actual).isPresent().hasValueSatisfying(p ->
+                assertThat(p.getUpdatedAt()).isEqualTo(post.getUpdatedAt()));
     }
 
     @Test
-    void itShouldDecrementLikesNotGoBelowZero() {
+    void itShouldRejectUpdateFromStaleVersion() {
         // Given
         Post post = createTestPost();
-        // Manually update likes in database
-        getJdbcTemplate().update("UPDATE posts SET likes = ? WHERE id = ?", 0L, post.getId());
+        Post firstSave = new Post(post);
+        firstSave.setTitle("First " + FAKER.lorem().sentence());
+        underTest.updatePost(post, firstSave);
+
+        Post secondSave = new Post(post);
+        secondSave.setContent(FAKER.lorem().paragraph());
 
         // When
-        underTest.decrementLikes(post.getId());
+        boolean updated = underTest.updatePost(post, secondSave);
 
         // Then
+        assertThat(updated).isFalse();
         Optional<Post> actual = underTest.selectPostById(post.getId());
         assertThat(actual).isPresent().hasValueSatisfying(p -> {
-            assertThat(p.getLikes()).isEqualTo(0L);
+            assertThat(p.getTitle()).isEqualTo(firstSave.getTitle());
+            assertThat(p.getContent()).isEqualTo(post.getContent());
         });
     }
 
@@ -371,11 +585,13 @@ class PostJDBCDataAccessServiceTest extends AbstractTestcontainers {
         post2.setCreatedAt(LocalDateTime.now());
         post2.setUpdatedAt(LocalDateTime.now());
         underTest.insertPost(post2);
+        new CounterJDBCDataAccessService(getJdbcTemplate()).reconcileAuthorPostsCounts();
 
         // When
         long count = underTest.countPublishedPosts();
 
         // Then
-        assertThat(count).isGreaterThanOrEqualTo(1);
+        assertThat(count).isEqualTo(1);
+        assertThat(underTest.countPostsByAuthorId(author.getId())).isEqualTo(1);
     }
 }
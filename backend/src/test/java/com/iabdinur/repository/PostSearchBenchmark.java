@@ -0,0 +1,145 @@
+package com.iabdinur.repository;
+
+import com.iabdinur.model.Author;
+import com.iabdinur.rowmapper.AuthorRowMapper;
+import com.iabdinur.rowmapper.PostRowMapper;
+import com.iabdinur.rowmapper.PostSummaryRowMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-text search through the tsvector/GIN path against the former LIKE scan, each a page of ten
+ * results plus the total, over {@code corpusSize} published posts in a Postgres container. Setup
+ * fails unless both find the same posts and the plan uses the GIN index. Not part of the test
+ * run; run {@link #main} with the test classpath and Docker available.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostSearchBenchmark {
+
+    private static final String TERM = "observability";
+
+    private static final String LIKE_SEARCH_SQL = """
+            SELECT p.id
+            FROM posts p
+            WHERE p.is_published = true
+              AND (LOWER(p.title) LIKE LOWER(CONCAT('%', ?, '%'))
+               OR LOWER(p.excerpt) LIKE LOWER(CONCAT('%', ?, '%'))
+               OR LOWER(p.content) LIKE LOWER(CONCAT('%', ?, '%')))
+            ORDER BY p.published_at DESC
+            LIMIT 10
+            """;
+
+    private static final String LIKE_COUNT_SQL = """
+            SELECT COUNT(DISTINCT p.id) FROM posts p WHERE p.is_published = true AND
+            (LOWER(p.title) LIKE LOWER(CONCAT('%', ?, '%')) OR
+             LOWER(p.excerpt) LIKE LOWER(CONCAT('%', ?, '%')) OR
+             LOWER(p.content) LIKE LOWER(CONCAT('%', ?, '%')))
+            """;
+
+    @Param({"100000"})
+    public int corpusSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private PostJDBCDataAccessService postDao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:latest")
+                .withDatabaseName("blog-bench")
+                .withUsername("iabdinur")
+                .withPassword("password");
+        postgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Author author = new Author("Bench Author", "bench-author", "bench@example.com");
+        new AuthorJDBCDataAccessService(jdbcTemplate, new AuthorRowMapper()).insertAuthor(author);
+
+        // One post in 500 mentions the term in its title and one in 250 in its content; every
+        // post carries several paragraphs of filler
+        jdbcTemplate.update("""
+                INSERT INTO posts(title, slug, content, excerpt, author_id, published_at, is_published,
+                                  views, likes, comments_count, created_at, updated_at)
+                SELECT 'Post ' || g || CASE WHEN g % 500 = 0 THEN ' about observability' ELSE '' END,
+                       'bench-post-' || g,
+                       repeat('Lorem ipsum dolor sit amet, consectetur adipiscing elit. ', 40) ||
+                           CASE WHEN g % 250 = 0 THEN ' Tracing and observability in practice.' ELSE '' END,
+                       'Excerpt for post ' || g,
+                       ?, now() - (g || ' minutes')::interval, true, 0, 0, 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, author.getId(), corpusSize);
+        jdbcTemplate.execute("ANALYZE posts");
+        postDao = new PostJDBCDataAccessService(jdbcTemplate, new PostRowMapper(), new PostSummaryRowMapper());
+
+        long likeTotal = jdbcTemplate.queryForObject(LIKE_COUNT_SQL, Long.class, TERM, TERM, TERM);
+        long fullTextTotal = postDao.countSearchPublishedPosts(TERM);
+        if (likeTotal != fullTextTotal || fullTextTotal != corpusSize / 250) {
+            throw new IllegalStateException("LIKE found " + likeTotal + " posts and full-text search "
+                    + fullTextTotal + ", expected " + corpusSize / 250);
+        }
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT id FROM posts WHERE is_published = true AND search_vector @@ to_tsquery('english', ?)",
+                String.class, TERM + ":*");
+        if (!String.join("\n", plan).contains("idx_posts_search_vector")) {
+            throw new IllegalStateException("Full-text search does not use the GIN index:\n" + String.join("\n", plan));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long fullText() {
+        return postDao.searchPublishedPosts(TERM, 10, 0).size() + postDao.countSearchPublishedPosts(TERM);
+    }
+
+    @Benchmark
+    public long like() {
+        return jdbcTemplate.queryForList(LIKE_SEARCH_SQL, Long.class, TERM, TERM, TERM).size()
+                + jdbcTemplate.queryForObject(LIKE_COUNT_SQL, Long.class, TERM, TERM, TERM);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PostSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
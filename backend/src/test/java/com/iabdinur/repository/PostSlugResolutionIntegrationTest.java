@@ -0,0 +1,119 @@
+package com.iabdinur.repository;
+
+import com.iabdinur.AbstractTestcontainers;
+import com.iabdinur.model.Author;
+import com.iabdinur.rowmapper.AuthorRowMapper;
+import com.iabdinur.rowmapper.PostRowMapper;
+import com.iabdinur.rowmapper.PostSummaryRowMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures how much data a slug lookup reads with the id-only projection compared to the full
+ * post row it replaced on the like, view, comment and delete paths. Sizes are logged and the
+ * assertions cover the expected reduction and index-only access.
+ */
+class PostSlugResolutionIntegrationTest extends AbstractTestcontainers {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSlugResolutionIntegrationTest.class);
+    private static final int CORPUS_SIZE = 2_000;
+    private static final String SLUG = "resolve-post-1000";
+    private static final Pattern BUFFERS = Pattern.compile("(?:hit|read)=(\\d+)");
+
+    private static PostJDBCDataAccessService postDao;
+
+    @BeforeAll
+    static void seedCorpus() {
+        getJdbcTemplate().execute("DELETE FROM post_tags");
+        getJdbcTemplate().execute("DELETE FROM comments");
+        getJdbcTemplate().execute("DELETE FROM posts");
+        getJdbcTemplate().execute("DELETE FROM authors");
+
+        AuthorJDBCDataAccessService authorDao =
+                new AuthorJDBCDataAccessService(getJdbcTemplate(), new AuthorRowMapper());
+        Author author = new Author("Resolve Author", "resolve-" + System.nanoTime(), "resolve@example.com");
+        authorDao.insertAuthor(author);
+
+        // Bodies of a typical long-form post, large enough to be TOASTed
+        getJdbcTemplate().update("""
+                INSERT INTO posts(title, slug, content, excerpt, author_id, published_at, is_published)
+                SELECT 'Post ' || g, 'resolve-post-' || g,
+                       repeat('Lorem ipsum dolor sit amet, consectetur adipiscing elit. ', 200) || g,
+                       'Excerpt for post ' || g, ?, now(), true
+                FROM generate_series(1, ?) g
+                """, author.getId(), CORPUS_SIZE);
+        getJdbcTemplate().execute("VACUUM ANALYZE posts");
+
+        postDao = new PostJDBCDataAccessService(getJdbcTemplate(), new PostRowMapper(),
+                new PostSummaryRowMapper());
+    }
+
+    @Test
+    void itShouldReadFarFewerBytesThanTheFullRow() {
+        // When
+        Long fullRowBytes = getJdbcTemplate().queryForObject("""
+                SELECT pg_column_size(id) + pg_column_size(title) + pg_column_size(slug)
+                       + pg_column_size(content) + COALESCE(pg_column_size(excerpt), 0)
+                       + COALESCE(pg_column_size(cover_image), 0) + COALESCE(pg_column_size(content_image), 0)
+                       + pg_column_size(author_id) + COALESCE(pg_column_size(published_at), 0)
+                       + COALESCE(pg_column_size(scheduled_at), 0) + pg_column_size(is_published)
+                       + pg_column_size(views) + pg_column_size(likes) + pg_column_size(comments_count)
+                       + COALESCE(pg_column_size(reading_time), 0) + pg_column_size(created_at)
+                       + pg_column_size(updated_at)
+                FROM posts WHERE slug = ?
+                """, Long.class, SLUG);
+        Long projectionBytes = getJdbcTemplate().queryForObject(
+                "SELECT pg_column_size(id) FROM posts WHERE slug = ?", Long.class, SLUG);
+        long fullRowBuffers = sharedBuffers("""
+                SELECT id, title, slug, content, excerpt, cover_image, content_image, author_id, published_at,
+                       scheduled_at, is_published, views, likes, comments_count, reading_time,
+                       created_at, updated_at
+                FROM posts WHERE slug = 'resolve-post-1000'
+                """);
+        long projectionBuffers = sharedBuffers("SELECT id FROM posts WHERE slug = 'resolve-post-1000'");
+
+        // Then
+        log.info("Slug lookup: full row {} bytes / {} buffers, id projection {} bytes / {} buffers",
+                fullRowBytes, fullRowBuffers, projectionBytes, projectionBuffers);
+        assertThat(projectionBytes).isEqualTo(8);
+        assertThat(fullRowBytes).isGreaterThan(projectionBytes * 100);
+        assertThat(projectionBuffers).isLessThanOrEqualTo(fullRowBuffers);
+    }
+
+    @Test
+    void itShouldResolveWithAnIndexOnlyScan() {
+        // When
+        List<String> plan = getJdbcTemplate().queryForList(
+                "EXPLAIN SELECT id FROM posts WHERE slug = ? AND is_published = true",
+                String.class, SLUG);
+
+        // Then
+        assertThat(String.join("\n", plan)).contains("Index Only Scan using idx_posts_slug_resolve");
+        assertThat(postDao.resolvePublishedIdBySlug(SLUG)).isPresent();
+        assertThat(postDao.resolveIdBySlug("missing-slug")).isEmpty();
+    }
+
+    private static long sharedBuffers(String sql) {
+        // Plain EXPLAIN ANALYZE does not detoast output columns, so force it with the text cast
+        List<String> plan = getJdbcTemplate().queryForList(
+                "EXPLAIN (ANALYZE, BUFFERS) SELECT length(t::text) FROM (" + sql + ") t", String.class);
+        // Top plan node reports the totals, e.g. "Buffers: shared hit=12 read=3"
+        long buffers = 0;
+        Matcher matcher = BUFFERS.matcher(plan.stream()
+                .filter(line -> line.contains("Buffers: shared"))
+                .findFirst()
+                .orElse(""));
+        while (matcher.find()) {
+            buffers += Long.parseLong(matcher.group(1));
+        }
+        return buffers;
+    }
+}
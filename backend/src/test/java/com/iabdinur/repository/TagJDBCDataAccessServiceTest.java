@@ -2,7 +2,10 @@ package com.iabdinur.repository;
 
 import com.iabdinur.AbstractTestcontainers;
 import com.iabdinur.model.Tag;
+import com.iabdinur.rowmapper.PostRowMapper;
+import com.iabdinur.rowmapper.PostSummaryRowMapper;
 import com.iabdinur.rowmapper.TagRowMapper;
+import com.iabdinur.util.ContentVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -23,6 +26,8 @@ class TagJDBCDataAccessServiceTest extends AbstractTestcontainers {
         // Clean up after each test
         getJdbcTemplate().execute("DELETE FROM post_tags");
         getJdbcTemplate().execute("DELETE FROM tags");
+        getJdbcTemplate().execute("DELETE FROM posts");
+        getJdbcTemplate().execute("DELETE FROM authors");
         underTest = new TagJDBCDataAccessService(
                 getJdbcTemplate(),
                 tagRowMapper
@@ -52,6 +57,100 @@ class TagJDBCDataAccessServiceTest extends AbstractTestcontainers {
                 .orElseThrow();
     }
 
+    @Test
+    void itShouldChangeTagVersionsWhenPostsCountChanges() {
+        // Given
+        Tag tag = createTestTag();
+        ContentVersion tagBefore = underTest.selectTagVersion(tag.getSlug()).orElseThrow();
+        ContentVersion allBefore = underTest.selectTagsVersion();
+
+        // When
+        getJdbcTemplate().update("UPDATE tags SET posts_count = posts_count + 1 WHERE id = ?", tag.getId());
+
+        // Then
+        assertThat(underTest.selectTagVersion(tag.getSlug()).orElseThrow().etag()).isNotEqualTo(tagBefore.etag());
+        assertThat(underTest.selectTagsVersion().etag()).isNotEqualTo(allBefore.etag());
+        assertThat(underTest.selectTagVersion("missing-" + System.nanoTime())).isEmpty();
+    }
+
+    private Long createTestPost(boolean isPublished) {
+        Long authorId = getJdbcTemplate().queryForObject(
+                "INSERT INTO authors(name, username, email) VALUES (?, ?, ?) RETURNING id",
+                Long.class,
+                FAKER.name().fullName(), FAKER.name().username() + FAKER.random().hex(6),
+                FAKER.random().hex(10) + "@" + FAKER.internet().domainName());
+        return getJdbcTemplate().queryForObject(
+                "INSERT INTO posts(title, slug, content, author_id, is_published) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Long.class,
+                FAKER.lorem().sentence(), "tagged-" + FAKER.random().hex(12), FAKER.lorem().paragraph(),
+                authorId, isPublished);
+    }
+
+    private int postsCountOf(Tag tag) {
+        return underTest.selectTagById(tag.getId()).orElseThrow().getPostsCount();
+    }
+
+    @Test
+    void itShouldReplacePostTagsAndMaintainPostsCount() {
+        // Given
+        Tag kept = createTestTag();
+        Tag removed = createTestTag();
+        Tag added = createTestTag();
+        Long postId = createTestPost(true);
+        underTest.replacePostTags(postId, List.of(kept.getId(), removed.getId()));
+
+        // When
+        underTest.replacePostTags(postId, List.of(kept.getId(), added.getId(), -1L));
+
+        // Then
+        assertThat(underTest.selectTagsByPostIds(List.of(postId)).get(postId))
+                .extracting(Tag::getId)
+                .containsExactlyInAnyOrder(kept.getId(), added.getId());
+        assertThat(postsCountOf(kept)).isEqualTo(kept.getPostsCount() + 1);
+        assertThat(postsCountOf(removed)).isEqualTo(removed.getPostsCount());
+        assertThat(postsCountOf(added)).isEqualTo(added.getPostsCount() + 1);
+    }
+
+    @Test
+    void itShouldChangeThePostVersionWhenOnlyItsTagsChange() {
+        // Given
+        Tag first = createTestTag();
+        Tag second = createTestTag();
+        Long postId = createTestPost(true);
+        underTest.replacePostTags(postId, List.of(first.getId()));
+        PostJDBCDataAccessService postDao =
+                new PostJDBCDataAccessService(getJdbcTemplate(), new PostRowMapper(), new PostSummaryRowMapper());
+        String slug = getJdbcTemplate().queryForObject("SELECT slug FROM posts WHERE id = ?", String.class, postId);
+        ContentVersion before = postDao.selectPublishedPostVersion(slug).orElseThrow();
+
+        // When
+        Optional<LocalDateTime> unchanged = underTest.replacePostTags(postId, List.of(first.getId()));
+        Optional<LocalDateTime> changed = underTest.replacePostTags(postId, List.of(first.getId(), second.getId()));
+
+        // Then
+        assertThat(unchanged).isEmpty();
+        assertThat(changed).isPresent();
+        ContentVersion after = postDao.selectPublishedPostVersion(slug).orElseThrow();
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(after.lastModified()).isEqualTo(changed.get());
+    }
+
+    @Test
+    void itShouldNotCountDraftsWhenReplacingPostTags() {
+        // Given
+        Tag tag = createTestTag();
+        Long postId = createTestPost(false);
+
+        // When
+        underTest.replacePostTags(postId, List.of(tag.getId()));
+
+        // Then
+        assertThat(underTest.selectTagsByPostIds(List.of(postId)).get(postId))
+                .extracting(Tag::getId)
+                .containsExactly(tag.getId());
+        assertThat(postsCountOf(tag)).isEqualTo(tag.getPostsCount());
+    }
+
     @Test
     void itShouldSelectAllTags() {
         // Given
@@ -54,15 +54,38 @@ class CommentRowMapperTest {
         when(resultSet.getInt("likes")).thenReturn(expectedLikes);
         when(resultSet.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(expectedCreatedAt));
         when(resultSet.getTimestamp("updated_at")).thenReturn(Timestamp.valueOf(expectedUpdatedAt));
+        when(resultSet.getString("path")).thenReturn("0000000000000000001/0000000000000000002");
 
         // When
         Comment actual = commentRowMapper.mapRow(resultSet, 1);
 
         // Then
+        assertThat(actual.getPath()).isEqualTo("0000000000000000001/0000000000000000002");
+        assertThat(actual.getDepth()).isEqualTo(1);
         assertThat(actual.getId()).isEqualTo(expectedId);
         assertThat(actual.getContent()).isEqualTo(expectedContent);
         assertThat(actual.getLikes()).isEqualTo(expectedLikes);
         assertThat(actual.getCreatedAt()).isEqualTo(expectedCreatedAt);
         assertThat(actual.getUpdatedAt()).isEqualTo(expectedUpdatedAt);
     }
+
+    @Test
+    void itShouldMapRelationshipsAsIdReferences() throws SQLException {
+        // Given
+        CommentRowMapper commentRowMapper = new CommentRowMapper();
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+        when(resultSet.getTimestamp("updated_at")).thenReturn(Timestamp.valueOf(LocalDateTime.now()));
+        when(resultSet.getLong("post_id")).thenReturn(10L);
+        when(resultSet.getLong("author_id")).thenReturn(20L);
+        when(resultSet.getLong("parent_id")).thenReturn(30L);
+
+        // When
+        Comment actual = commentRowMapper.mapRow(resultSet, 1);
+
+        // Then
+        assertThat(actual.getPost().getId()).isEqualTo(10L);
+        assertThat(actual.getAuthor().getId()).isEqualTo(20L);
+        assertThat(actual.getParent().getId()).isEqualTo(30L);
+    }
 }
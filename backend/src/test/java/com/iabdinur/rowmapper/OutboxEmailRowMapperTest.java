@@ -0,0 +1,53 @@
+package com.iabdinur.rowmapper;
+
+import com.iabdinur.model.OutboxEmail;
+import com.iabdinur.model.RenderedEmail;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxEmailRowMapperTest {
+
+    private final OutboxEmailRowMapper rowMapper = new OutboxEmailRowMapper();
+
+    private ResultSet resultSet(Timestamp expiresAt) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(7L);
+        when(resultSet.getString("recipient_email")).thenReturn("reader@example.com");
+        when(resultSet.getString("subject")).thenReturn("Your Verification Code");
+        when(resultSet.getString("html_body")).thenReturn("<p>123456</p>");
+        when(resultSet.getString("email_type")).thenReturn("verification_code");
+        when(resultSet.getInt("attempts")).thenReturn(2);
+        when(resultSet.getTimestamp("expires_at")).thenReturn(expiresAt);
+        return resultSet;
+    }
+
+    @Test
+    void itShouldMapRow() throws SQLException {
+        // Given
+        LocalDateTime expiresAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+        // When
+        OutboxEmail actual = rowMapper.mapRow(resultSet(Timestamp.valueOf(expiresAt)), 1);
+
+        // Then
+        assertThat(actual).isEqualTo(new OutboxEmail(7L, "reader@example.com",
+                new RenderedEmail("Your Verification Code", "<p>123456</p>", "verification_code"), 2, expiresAt));
+    }
+
+    @Test
+    void itShouldMapMissingExpiryToNull() throws SQLException {
+        // When
+        OutboxEmail actual = rowMapper.mapRow(resultSet(null), 1);
+
+        // Then
+        assertThat(actual.expiresAt()).isNull();
+    }
+}
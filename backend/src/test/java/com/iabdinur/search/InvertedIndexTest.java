@@ -0,0 +1,89 @@
+package com.iabdinur.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    record Doc(long id, String title, String body) {}
+
+    private InvertedIndex<Doc> underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new InvertedIndex<>(Doc::id, List.of(
+                new InvertedIndex.Field<>(Doc::title, 3),
+                new InvertedIndex.Field<>(Doc::body, 1)));
+        underTest.replaceAll(List.of(
+                new Doc(1, "Getting started with Spring", "Controllers, services and repositories."),
+                new Doc(2, "Postgres indexing", "Why a GIN index helps full-text search in Spring apps."),
+                new Doc(3, "Weekend notes", "Nothing about frameworks at all.")));
+    }
+
+    @Test
+    void itShouldRankTitleMatchesFirst() {
+        // When
+        List<Doc> actual = underTest.search("spring", 10);
+
+        // Then
+        assertThat(actual).extracting(Doc::id).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void itShouldRequireEveryTermAndMatchPrefixes() {
+        // When
+        List<Doc> actual = underTest.search("post ind", 10);
+
+        // Then
+        assertThat(actual).extracting(Doc::id).containsExactly(2L);
+        assertThat(underTest.search("spring weekend", 10)).isEmpty();
+    }
+
+    @Test
+    void itShouldRequireEveryTermWhenAPrefixMatchesSeveralTermsOfADocument() {
+        // "in" matches "in", "index" and "indexing" in document 2, "weekend" only document 3
+        // When
+        List<Doc> actual = underTest.search("in weekend", 10);
+
+        // Then
+        assertThat(actual).isEmpty();
+        assertThat(underTest.search("in spring", 10)).extracting(Doc::id).containsExactly(2L);
+    }
+
+    @Test
+    void itShouldApplyIncrementalUpdates() {
+        // When
+        underTest.upsert(new Doc(3, "Spring weekend notes", "Updated."));
+        underTest.remove(1);
+
+        // Then
+        assertThat(underTest.search("spring", 10)).extracting(Doc::id).containsExactly(3L, 2L);
+        assertThat(underTest.search("nothing", 10)).isEmpty();
+        assertThat(underTest.size()).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldCompactAfterManyUpdates() {
+        // When
+        for (int i = 0; i < 100; i++) {
+            underTest.upsert(new Doc(3, "Revision " + i, "body"));
+        }
+
+        // Then
+        InvertedIndex.Footprint footprint = underTest.footprint();
+        assertThat(footprint.documents()).isEqualTo(3);
+        assertThat(footprint.tombstones()).isLessThanOrEqualTo(16);
+        assertThat(underTest.search("revision 99", 10)).extracting(Doc::id).containsExactly(3L);
+        assertThat(footprint.estimatedBytes()).isPositive();
+    }
+
+    @Test
+    void itShouldHonourLimitAndIgnoreBlankQueries() {
+        assertThat(underTest.search("s", 1)).hasSize(1);
+        assertThat(underTest.search("  ?! ", 10)).isEmpty();
+    }
+}
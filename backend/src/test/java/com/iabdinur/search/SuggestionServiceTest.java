@@ -0,0 +1,99 @@
+package com.iabdinur.search;
+
+import com.iabdinur.dao.AuthorDao;
+import com.iabdinur.dao.PostDao;
+import com.iabdinur.dao.TagDao;
+import com.iabdinur.dto.SuggestionDTO;
+import com.iabdinur.model.Author;
+import com.iabdinur.model.Post;
+import com.iabdinur.model.Tag;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SuggestionServiceTest {
+
+    private SuggestionService underTest;
+    private AutoCloseable autoCloseable;
+
+    @Mock
+    private PostDao postDao;
+    @Mock
+    private TagDao tagDao;
+    @Mock
+    private AuthorDao authorDao;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        underTest = new SuggestionService(postDao, tagDao, authorDao);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void itShouldServeSuggestionsFromRebuiltTrie() {
+        // Given
+        Post post = new Post();
+        post.setTitle("Java records in practice");
+        post.setSlug("java-records");
+        post.setViews(50L);
+        post.setLikes(5L);
+        Tag tag = new Tag("Java", "java");
+        tag.setPostsCount(3);
+        Author author = new Author("Jane Doe", "javajane", "jane@example.com");
+        when(postDao.selectPublishedPostTitles()).thenReturn(List.of(post));
+        when(tagDao.selectAllTags()).thenReturn(List.of(tag));
+        when(authorDao.selectAllAuthors()).thenReturn(List.of(author));
+
+        // When
+        underTest.rebuildIfStale();
+        List<SuggestionDTO> actual = underTest.suggest("jav", null);
+
+        // Then
+        assertThat(actual).extracting(SuggestionDTO::type).containsExactly("post", "tag", "author");
+        assertThat(actual.get(0).weight()).isEqualTo(55L);
+    }
+
+    @Test
+    void itShouldOnlyRebuildWhenContentChanged() {
+        // When
+        underTest.rebuildIfStale();
+        underTest.rebuildIfStale();
+        underTest.onContentChange(new SearchIndexEvent.TagRemoved(1L));
+        underTest.rebuildIfStale();
+
+        // Then
+        verify(postDao, times(2)).selectPublishedPostTitles();
+    }
+
+    @Test
+    void itShouldKeepServingPreviousTrieWhenRebuildFails() {
+        // Given
+        Post post = new Post();
+        post.setTitle("Kotlin coroutines");
+        post.setSlug("kotlin");
+        post.setViews(1L);
+        post.setLikes(0L);
+        when(postDao.selectPublishedPostTitles()).thenReturn(List.of(post));
+        underTest.rebuildIfStale();
+        when(postDao.selectPublishedPostTitles()).thenThrow(new RuntimeException("database down"));
+
+        // When
+        underTest.onContentChange(new SearchIndexEvent.PostRemoved(2L));
+        underTest.rebuildIfStale();
+
+        // Then
+        assertThat(underTest.suggest("kot", 5)).extracting(SuggestionDTO::key).containsExactly("kotlin");
+    }
+}
@@ -0,0 +1,81 @@
+package com.iabdinur.search;
+
+import com.iabdinur.dto.SuggestionDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead lookups and full rebuilds over {@code entries} generated post titles. {@code complete}
+ * cycles through short, multi-word and missing prefixes; its sample-time percentiles are the
+ * per-keystroke latency. Not part of the test run; run {@link #main} with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuggestionTrieBenchmark {
+
+    private static final String[] WORDS =
+            {"spring", "java", "postgres", "index", "cache", "react", "docker", "kafka", "search", "trie"};
+    private static final String[] PREFIXES =
+            {"s", "sp", "spr", "java p", "postgres index", "part 19", "k", "tr", "react doc", "x"};
+
+    @Param({"20000"})
+    public int entries;
+
+    private List<SuggestionDTO> suggestions;
+    private SuggestionTrie trie;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        suggestions = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " part " + i;
+            suggestions.add(new SuggestionDTO(title, "post", "post-" + i, (long) random.nextInt(10_000)));
+        }
+        trie = SuggestionTrie.build(suggestions, 10);
+        System.out.printf("%n%d entries in %d nodes%n", trie.size(), trie.nodeCount());
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> complete() {
+        next = (next + 1) % PREFIXES.length;
+        return trie.complete(PREFIXES[next], 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SuggestionTrie build() {
+        return SuggestionTrie.build(suggestions, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SuggestionTrieBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.iabdinur.search;
+
+import com.iabdinur.dto.SuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+    private final SuggestionTrie underTest = SuggestionTrie.build(List.of(
+            new SuggestionDTO("Getting started with Spring Boot", "post", "spring-boot", 120L),
+            new SuggestionDTO("Spring Security deep dive", "post", "spring-security", 900L),
+            new SuggestionDTO("spring", "tag", "spring", 40L),
+            new SuggestionDTO("Postgres tips", "post", "postgres-tips", 10L),
+            new SuggestionDTO("iabdinur", "author", "iabdinur", 5L)
+    ), 3);
+
+    @Test
+    void itShouldRankCompletionsByWeight() {
+        // When
+        List<SuggestionDTO> actual = underTest.complete("spr", 10);
+
+        // Then
+        assertThat(actual).extracting(SuggestionDTO::key)
+                .containsExactly("spring-security", "spring-boot", "spring");
+    }
+
+    @Test
+    void itShouldMatchFromAnyWordStart() {
+        assertThat(underTest.complete("BOOT", 10)).extracting(SuggestionDTO::key).containsExactly("spring-boot");
+        assertThat(underTest.complete("spring  sec", 10)).extracting(SuggestionDTO::key)
+                .containsExactly("spring-security");
+        assertThat(underTest.complete("tarted", 10)).isEmpty();
+    }
+
+    @Test
+    void itShouldHonourLimitAndIgnoreEmptyPrefix() {
+        assertThat(underTest.complete("s", 1)).extracting(SuggestionDTO::key).containsExactly("spring-security");
+        assertThat(underTest.complete("  ", 10)).isEmpty();
+        assertThat(SuggestionTrie.empty().complete("spring", 10)).isEmpty();
+    }
+
+    @Test
+    void itShouldMatchPrefixesEndingInsideACompressedEdge() {
+        // Given
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+                new SuggestionDTO("postgres", "tag", "postgres", 2L),
+                new SuggestionDTO("postman", "tag", "postman", 1L)
+        ), 5);
+
+        // When / Then
+        assertThat(trie.complete("po", 10)).extracting(SuggestionDTO::key).containsExactly("postgres", "postman");
+        assertThat(trie.complete("postg", 10)).extracting(SuggestionDTO::key).containsExactly("postgres");
+        assertThat(trie.complete("postgres", 10)).extracting(SuggestionDTO::key).containsExactly("postgres");
+        assertThat(trie.complete("postgresql", 10)).isEmpty();
+        assertThat(trie.complete("posx", 10)).isEmpty();
+    }
+
+    @Test
+    void itShouldGrowWithWordStartsNotTitleLength() {
+        // Given
+        String longTitle = "a " + "very".repeat(500) + " long title";
+
+        // When
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+                new SuggestionDTO(longTitle, "post", "long", 1L)), 5);
+
+        // Then
+        // Root plus one edge per word start
+        assertThat(trie.nodeCount()).isEqualTo(5);
+        assertThat(trie.complete("veryvery", 10)).extracting(SuggestionDTO::key).containsExactly("long");
+        assertThat(trie.complete("long t", 10)).extracting(SuggestionDTO::key).containsExactly("long");
+    }
+
+    @Test
+    void itShouldKeepOnlyTheHeaviestIdsPerNode() {
+        // Given
+        List<SuggestionDTO> entries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            entries.add(new SuggestionDTO("java part " + i, "post", "post-" + i, (long) i));
+        }
+
+        // When
+        SuggestionTrie trie = SuggestionTrie.build(entries, 3);
+
+        // Then
+        assertThat(trie.complete("java", 10)).extracting(SuggestionDTO::key)
+                .containsExactly("post-49", "post-48", "post-47");
+        assertThat(trie.complete("part 1", 10)).extracting(SuggestionDTO::key)
+                .containsExactly("post-19", "post-18", "post-17");
+    }
+}
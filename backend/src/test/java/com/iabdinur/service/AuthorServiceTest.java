@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDateTime;
@@ -32,13 +33,15 @@ class AuthorServiceTest {
     private AuthorDao authorDao;
     @Mock
     private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private final Faker FAKER = new Faker();
 
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        underTest = new AuthorService(authorDao, jdbcTemplate);
+        underTest = new AuthorService(authorDao, jdbcTemplate, eventPublisher);
     }
 
     @AfterEach
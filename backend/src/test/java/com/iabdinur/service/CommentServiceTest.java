@@ -3,18 +3,19 @@ package com.iabdinur.service;
 import com.github.javafaker.Faker;
 import com.iabdinur.dao.AuthorDao;
 import com.iabdinur.dao.CommentDao;
-import com.iabdinur.dao.PostDao;
 import com.iabdinur.dto.CommentDTO;
+import com.iabdinur.dto.CommentPageResponse;
+import com.iabdinur.dto.CommentThreadResponse;
 import com.iabdinur.model.Author;
 import com.iabdinur.model.Comment;
 import com.iabdinur.model.Post;
+import com.iabdinur.util.CommentCursor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -37,16 +38,16 @@ class CommentServiceTest {
     @Mock
     private AuthorDao authorDao;
     @Mock
-    private PostDao postDao;
+    private PostSlugResolver slugResolver;
     @Mock
-    private JdbcTemplate jdbcTemplate;
+    private CounterService counterService;
 
     private final Faker FAKER = new Faker();
 
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        underTest = new CommentService(commentDao, authorDao, postDao, jdbcTemplate);
+        underTest = new CommentService(commentDao, authorDao, slugResolver, counterService);
     }
 
     @AfterEach
@@ -73,46 +74,169 @@ class CommentServiceTest {
         return author;
     }
 
-    @Test
-    void itShouldGetCommentsByPostSlug() {
-        // Given
-        Post post = createTestPost();
-        List<Comment> comments = new ArrayList<>();
+    private Comment comment(Long id, Long parentId, Author author) {
         Comment comment = new Comment();
-        comment.setId(FAKER.random().nextLong());
+        comment.setId(id);
+        comment.setAuthor(author);
         comment.setContent(FAKER.lorem().sentence());
-        comment.setCreatedAt(LocalDateTime.now());
         comment.setLikes(0);
-        comments.add(comment);
-        
-        when(postDao.selectPublishedPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
-        when(commentDao.selectCommentsByPostId(post.getId())).thenReturn(comments);
-        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(post.getId(), post.getId());
+        comment.setCreatedAt(LocalDateTime.now());
+        if (parentId != null) {
+            Comment parent = new Comment();
+            parent.setId(parentId);
+            comment.setParent(parent);
+        }
+        return comment;
+    }
+
+    @Test
+    void itShouldReturnFirstPageOfThreadsWithCursor() {
+        // Given
+        Post post = createTestPost();
+        Author author = createTestAuthor();
+        Comment newest = comment(3L, null, author);
+        newest.setRepliesCount(4);
+        Comment reply = comment(4L, 3L, author);
+        Comment nested = comment(6L, 4L, author);
+        Comment older = comment(2L, null, author);
+        Comment oldest = comment(1L, null, author);
+        when(slugResolver.resolvePublished(post.getSlug())).thenReturn(Optional.of(post.getId()));
+        when(commentDao.selectThreads(post.getId(), null, 3, 2))
+                .thenReturn(List.of(newest, reply, nested, older, oldest));
 
         // When
-        List<CommentDTO> result = underTest.getCommentsByPostSlug(post.getSlug());
+        CommentPageResponse result = underTest.getComments(post.getSlug(), null, 2, 2);
 
         // Then
-        verify(postDao).selectPublishedPostBySlug(post.getSlug());
-        verify(commentDao).selectCommentsByPostId(post.getId());
-        assertThat(result).isNotEmpty();
+        assertThat(result.comments()).extracting(CommentDTO::id).containsExactly("3", "2");
+        CommentDTO thread = result.comments().get(0);
+        assertThat(thread.replyCount()).isEqualTo(4);
+        assertThat(thread.replies()).extracting(CommentDTO::id).containsExactly("4");
+        assertThat(thread.replies().get(0).replies()).extracting(CommentDTO::id).containsExactly("6");
+        assertThat(result.comments().get(1).replies()).isEmpty();
+        assertThat(result.hasMore()).isTrue();
+        assertThat(CommentCursor.decode(result.nextCursor())).isEqualTo(CommentCursor.of(older));
+        verifyNoInteractions(authorDao);
     }
 
     @Test
-    void itShouldReturnEmptyListWhenPostNotFound() {
+    void itShouldContinueFromCursorOnLastPage() {
         // Given
-        String slug = String.join("-", FAKER.lorem().words(3)).toLowerCase();
-        when(postDao.selectPublishedPostBySlug(slug)).thenReturn(Optional.empty());
+        Post post = createTestPost();
+        Comment last = comment(1L, null, createTestAuthor());
+        CommentCursor cursor = new CommentCursor(LocalDateTime.of(2025, 5, 1, 12, 0), 2L);
+        when(slugResolver.resolvePublished(post.getSlug())).thenReturn(Optional.of(post.getId()));
+        when(commentDao.selectThreads(post.getId(), cursor, 21, 3)).thenReturn(List.of(last));
+
+        // When
+        CommentPageResponse result = underTest.getComments(post.getSlug(), cursor.encode(), 20, 3);
+
+        // Then
+        assertThat(result.comments()).extracting(CommentDTO::id).containsExactly("1");
+        assertThat(result.hasMore()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void itShouldNestAThreadFromOneSubtreeScan() {
+        // Given
+        Post post = createTestPost();
+        Author author = createTestAuthor();
+        List<Comment> subtree = List.of(comment(7L, 1L, author), comment(8L, 7L, author),
+                comment(10L, 8L, author), comment(9L, 7L, author));
+        subtree.forEach(c -> c.setPost(post));
+        when(slugResolver.resolvePublished(post.getSlug())).thenReturn(Optional.of(post.getId()));
+        when(commentDao.selectSubtree(7L, CommentService.MAX_THREAD_SIZE)).thenReturn(subtree);
+
+        // When
+        Optional<CommentThreadResponse> result = underTest.getThread(post.getSlug(), 7L);
+
+        // Then
+        assertThat(result).hasValueSatisfying(thread -> {
+            assertThat(thread.totalComments()).isEqualTo(4);
+            assertThat(thread.comment().id()).isEqualTo("7");
+            assertThat(thread.comment().replies()).extracting(CommentDTO::id).containsExactly("8", "9");
+            assertThat(thread.comment().replies().get(0).replies()).extracting(CommentDTO::id)
+                    .containsExactly("10");
+        });
+        verify(commentDao, never()).countSubtree(anyLong());
+    }
+
+    @Test
+    void itShouldCountAThreadThatFillsTheScan() {
+        // Given
+        Post post = createTestPost();
+        Author author = createTestAuthor();
+        List<Comment> subtree = new ArrayList<>();
+        subtree.add(comment(1L, null, author));
+        for (long id = 2; id <= CommentService.MAX_THREAD_SIZE; id++) {
+            subtree.add(comment(id, 1L, author));
+        }
+        subtree.forEach(c -> c.setPost(post));
+        when(slugResolver.resolvePublished(post.getSlug())).thenReturn(Optional.of(post.getId()));
+        when(commentDao.selectSubtree(1L, CommentService.MAX_THREAD_SIZE)).thenReturn(subtree);
+        when(commentDao.countSubtree(1L)).thenReturn(750);
+
+        // When
+        Optional<CommentThreadResponse> result = underTest.getThread(post.getSlug(), 1L);
+
+        // Then
+        assertThat(result).hasValueSatisfying(thread -> {
+            assertThat(thread.totalComments()).isEqualTo(750);
+            assertThat(thread.comment().replies()).hasSize(CommentService.MAX_THREAD_SIZE - 1);
+        });
+    }
+
+    @Test
+    void itShouldNotReturnAThreadOfAnotherPost() {
+        // Given
+        Post post = createTestPost();
+        Post otherPost = createTestPost();
+        Comment comment = comment(7L, null, createTestAuthor());
+        comment.setPost(otherPost);
+        when(slugResolver.resolvePublished(post.getSlug())).thenReturn(Optional.of(post.getId()));
+        when(commentDao.selectSubtree(7L, CommentService.MAX_THREAD_SIZE)).thenReturn(List.of(comment));
 
         // When
-        List<CommentDTO> result = underTest.getCommentsByPostSlug(slug);
+        Optional<CommentThreadResponse> result = underTest.getThread(post.getSlug(), 7L);
 
         // Then
-        verify(postDao).selectPublishedPostBySlug(slug);
-        verify(commentDao, never()).selectCommentsByPostId(anyLong());
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void itShouldRejectOutOfRangePageSizes() {
+        assertThatThrownBy(() -> underTest.getComments("slug", null, 0, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> underTest.getComments("slug", null, CommentService.MAX_PAGE_SIZE + 1, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> underTest.getComments("slug", null, 20, CommentService.MAX_REPLIES_PER_THREAD + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(commentDao);
+    }
+
+    @Test
+    void itShouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> underTest.getComments("slug", "not-a-cursor", 20, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void itShouldReturnEmptyPageWhenPostNotFound() {
+        // Given
+        String slug = String.join("-", FAKER.lorem().words(3)).toLowerCase();
+        when(slugResolver.resolvePublished(slug)).thenReturn(Optional.empty());
+
+        // When
+        CommentPageResponse result = underTest.getComments(slug, null, 20, 3);
+
+        // Then
+        verify(slugResolver).resolvePublished(slug);
+        verifyNoInteractions(commentDao);
+        assertThat(result.comments()).isEmpty();
+        assertThat(result.hasMore()).isFalse();
+    }
+
     @Test
     void itShouldCreateComment() {
         // Given
@@ -120,12 +244,8 @@ class CommentServiceTest {
         Author author = createTestAuthor();
         String content = FAKER.lorem().sentence();
         
-        when(postDao.selectPublishedPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(slugResolver.resolvePublished(post.getSlug())).thenReturn(Optional.of(post.getId()));
         when(authorDao.selectAuthorById(author.getId())).thenReturn(Optional.of(author));
-        when(postDao.selectPostById(post.getId())).thenReturn(Optional.of(post));
-        // Mock loadCommentRelationships calls: post_id, author_id, parent_id (null)
-        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(post.getId(), author.getId(), null);
-        when(jdbcTemplate.update(anyString(), anyLong())).thenReturn(1);
         
         // Mock insertComment to set an ID on the comment
         doAnswer(invocation -> {
@@ -145,7 +265,7 @@ class CommentServiceTest {
         assertEquals(content, capturedComment.getContent());
         assertEquals(post.getId(), capturedComment.getPost().getId());
         assertEquals(author.getId(), capturedComment.getAuthor().getId());
-        verify(jdbcTemplate).update(anyString(), eq(post.getId()));
+        verify(counterService).commentAdded(post.getId(), null);
         assertThat(result).isNotNull();
         assertThat(result.id()).isNotNull();
     }
@@ -157,14 +277,11 @@ class CommentServiceTest {
         Author author = createTestAuthor();
         Comment parent = new Comment();
         parent.setId(FAKER.random().nextLong());
+        parent.setPost(post);
         
-        when(postDao.selectPublishedPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(slugResolver.resolvePublished(post.getSlug())).thenReturn(Optional.of(post.getId()));
         when(authorDao.selectAuthorById(author.getId())).thenReturn(Optional.of(author));
         when(commentDao.selectCommentById(parent.getId())).thenReturn(Optional.of(parent));
-        when(postDao.selectPostById(post.getId())).thenReturn(Optional.of(post));
-        // Mock loadCommentRelationships calls: post_id, author_id, parent_id
-        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(post.getId(), author.getId(), parent.getId());
-        when(jdbcTemplate.update(anyString(), anyLong())).thenReturn(1);
         
         // Mock insertComment to set an ID on the comment
         doAnswer(invocation -> {
@@ -182,16 +299,36 @@ class CommentServiceTest {
         Comment capturedComment = commentArgumentCaptor.getValue();
         
         assertEquals(parent.getId(), capturedComment.getParent().getId());
+        verify(counterService).commentAdded(post.getId(), parent.getId());
         assertThat(result).isNotNull();
         assertThat(result.id()).isNotNull();
     }
 
+    @Test
+    void itShouldRejectParentFromAnotherPost() {
+        // Given
+        Post post = createTestPost();
+        Author author = createTestAuthor();
+        Comment parent = comment(5L, null, author);
+        parent.setPost(createTestPost());
+        when(slugResolver.resolvePublished(post.getSlug())).thenReturn(Optional.of(post.getId()));
+        when(authorDao.selectAuthorById(author.getId())).thenReturn(Optional.of(author));
+        when(commentDao.selectCommentById(5L)).thenReturn(Optional.of(parent));
+
+        // When / Then
+        assertThatThrownBy(() -> underTest.createComment(post.getSlug(), "reply", author.getId(), 5L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Parent comment not found");
+        verify(commentDao, never()).insertComment(any());
+        verifyNoInteractions(counterService);
+    }
+
     @Test
     void itShouldThrowWhenPostNotFoundWhileCreatingComment() {
         // Given
         String slug = String.join("-", FAKER.lorem().words(3)).toLowerCase();
         Long authorId = FAKER.random().nextLong();
-        when(postDao.selectPublishedPostBySlug(slug)).thenReturn(Optional.empty());
+        when(slugResolver.resolvePublished(slug)).thenReturn(Optional.empty());
 
         // When
         assertThatThrownBy(() -> underTest.createComment(slug, FAKER.lorem().sentence(), authorId, null))
@@ -208,7 +345,7 @@ class CommentServiceTest {
         Post post = createTestPost();
         Long authorId = FAKER.random().nextLong();
         
-        when(postDao.selectPublishedPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(slugResolver.resolvePublished(post.getSlug())).thenReturn(Optional.of(post.getId()));
         when(authorDao.selectAuthorById(authorId)).thenReturn(Optional.empty());
 
         // When
@@ -220,35 +357,6 @@ class CommentServiceTest {
         verify(commentDao, never()).insertComment(any());
     }
 
-    @Test
-    void itShouldIncrementLikes() {
-        // Given
-        Long commentId = FAKER.random().nextLong();
-        when(commentDao.existsCommentById(commentId)).thenReturn(true);
-
-        // When
-        underTest.incrementLikes(commentId);
-
-        // Then
-        verify(commentDao).existsCommentById(commentId);
-        verify(commentDao).incrementLikes(commentId);
-    }
-
-    @Test
-    void itShouldThrowWhenIncrementingLikesForNonExistentComment() {
-        // Given
-        Long commentId = FAKER.random().nextLong();
-        when(commentDao.existsCommentById(commentId)).thenReturn(false);
-
-        // When
-        assertThatThrownBy(() -> underTest.incrementLikes(commentId))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("Comment not found");
-
-        // Then
-        verify(commentDao, never()).incrementLikes(anyLong());
-    }
-
     @Test
     void itShouldDeleteComment() {
         // Given
@@ -265,15 +373,14 @@ class CommentServiceTest {
         comment.setAuthor(author);
         
         when(commentDao.selectCommentById(commentId)).thenReturn(Optional.of(comment));
-        when(jdbcTemplate.update(anyString(), anyLong())).thenReturn(1);
 
         // When
         boolean result = underTest.deleteComment(commentId, authorId);
 
         // Then
         verify(commentDao).selectCommentById(commentId);
+        verify(counterService).commentDeleting(commentId);
         verify(commentDao).deleteCommentById(commentId);
-        verify(jdbcTemplate).update(anyString(), eq(postId));
         assertThat(result).isTrue();
     }
 
@@ -0,0 +1,61 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.EmailOutboxDao;
+import com.iabdinur.model.RenderedEmail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class EmailOutboxTest {
+
+    private static final RenderedEmail EMAIL =
+            new RenderedEmail("New Post: Title", "<p>Title</p>", "post_notification");
+
+    @Mock
+    private EmailOutboxDao emailOutboxDao;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private AutoCloseable autoCloseable;
+    private EmailOutbox underTest;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        underTest = new EmailOutbox(emailOutboxDao, eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void itShouldInsertRowsAndWakeTheWorkers() {
+        // Given
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+
+        // When
+        underTest.enqueue(List.of("a@example.com", "b@example.com"), EMAIL, expiresAt);
+
+        // Then
+        verify(emailOutboxDao).insertOutboxEmails(List.of("a@example.com", "b@example.com"), EMAIL, expiresAt);
+        verify(eventPublisher).publishEvent(new EmailEnqueuedEvent(2));
+    }
+
+    @Test
+    void itShouldIgnoreAnEmptyRecipientList() {
+        // When
+        underTest.enqueue(List.of(), EMAIL, null);
+
+        // Then
+        verifyNoInteractions(emailOutboxDao, eventPublisher);
+    }
+}
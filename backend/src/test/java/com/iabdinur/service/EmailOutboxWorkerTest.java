@@ -0,0 +1,184 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.EmailOutboxDao;
+import com.iabdinur.model.OutboxEmail;
+import com.iabdinur.model.RenderedEmail;
+import com.iabdinur.model.SentEmail;
+import com.iabdinur.ratelimit.SendRateThrottle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxWorkerTest {
+
+    private static final RenderedEmail EMAIL =
+            new RenderedEmail("Your Verification Code", "<p>123456</p>", "verification_code");
+
+    @Mock
+    private EmailOutboxDao emailOutboxDao;
+    @Mock
+    private EmailService emailService;
+    private AutoCloseable autoCloseable;
+    private EmailOutboxWorker underTest;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        when(emailOutboxDao.completeAll(anyMap())).thenAnswer(invocation -> invocation.<Map<?, ?>>getArgument(0).size());
+        // 3 attempts, backing off 1 s, 2 s, ... up to 4 s; up to 10 sends in flight
+        underTest = new EmailOutboxWorker(emailOutboxDao, emailService, new SendRateThrottle(1_000_000),
+                1, 10, 1000, 60, 3, 1000, 4000, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        underTest.shutdown();
+        autoCloseable.close();
+    }
+
+    private void givenClaimed(OutboxEmail... emails) {
+        when(emailOutboxDao.claimDue(10, Duration.ofSeconds(60))).thenReturn(List.of(emails));
+    }
+
+    private void givenSendReturns(String status, String error) {
+        when(emailService.sendRendered(anyString(), eq(EMAIL))).thenAnswer(invocation -> {
+            SentEmail sentEmail = new SentEmail(invocation.getArgument(0), EMAIL.subject(), EMAIL.emailType(),
+                    "sent".equals(status) ? "message-1" : null, status);
+            sentEmail.setErrorMessage(error);
+            return sentEmail;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, SentEmail> completedOutcomes() {
+        ArgumentCaptor<Map<Long, SentEmail>> outcomes = ArgumentCaptor.forClass(Map.class);
+        verify(emailOutboxDao).completeAll(outcomes.capture());
+        return outcomes.getValue();
+    }
+
+    @Test
+    void itShouldCompleteSentEmails() throws InterruptedException {
+        // Given
+        givenClaimed(new OutboxEmail(1L, "reader@example.com", EMAIL, 1, null));
+        givenSendReturns("sent", null);
+
+        // When
+        int claimed = underTest.processBatch();
+
+        // Then
+        assertThat(claimed).isEqualTo(1);
+        SentEmail outcome = completedOutcomes().get(1L);
+        assertThat(outcome.getStatus()).isEqualTo("sent");
+        assertThat(outcome.getSesMessageId()).isEqualTo("message-1");
+        verify(emailOutboxDao, never()).retryLater(any(), any(), any());
+    }
+
+    @Test
+    void itShouldRetryFailedSendsWithExponentialBackoff() throws InterruptedException {
+        // Given
+        givenClaimed(
+                new OutboxEmail(1L, "first@example.com", EMAIL, 1, null),
+                new OutboxEmail(2L, "second@example.com", EMAIL, 2, null));
+        givenSendReturns("failed", "Throttling");
+
+        // When
+        underTest.processBatch();
+
+        // Then
+        verify(emailOutboxDao).retryLater(1L, Duration.ofSeconds(1), "Throttling");
+        verify(emailOutboxDao).retryLater(2L, Duration.ofSeconds(2), "Throttling");
+        verify(emailOutboxDao, never()).completeAll(anyMap());
+    }
+
+    @Test
+    void itShouldRecordFailureAfterTheLastAttempt() throws InterruptedException {
+        // Given
+        givenClaimed(new OutboxEmail(1L, "reader@example.com", EMAIL, 3, null));
+        givenSendReturns("failed", "Email address is not verified");
+
+        // When
+        underTest.processBatch();
+
+        // Then
+        SentEmail outcome = completedOutcomes().get(1L);
+        assertThat(outcome.getStatus()).isEqualTo("failed");
+        assertThat(outcome.getErrorMessage()).contains("not verified");
+        verify(emailOutboxDao, never()).retryLater(any(), any(), any());
+    }
+
+    @Test
+    void itShouldDropEmailsThatExpiredWhileQueued() throws InterruptedException {
+        // Given
+        givenClaimed(new OutboxEmail(1L, "reader@example.com", EMAIL, 2, LocalDateTime.now().minusMinutes(1)));
+
+        // When
+        underTest.processBatch();
+
+        // Then
+        verifyNoInteractions(emailService);
+        SentEmail outcome = completedOutcomes().get(1L);
+        assertThat(outcome.getStatus()).isEqualTo("expired");
+        assertThat(outcome.getEmailType()).isEqualTo("verification_code");
+    }
+
+    @Test
+    void itShouldSendABatchInParallelAndRecordItInOneCall() throws InterruptedException {
+        // Given
+        givenClaimed(
+                new OutboxEmail(1L, "first@example.com", EMAIL, 1, null),
+                new OutboxEmail(2L, "second@example.com", EMAIL, 1, null),
+                new OutboxEmail(3L, "third@example.com", EMAIL, 1, null));
+        // Each send waits until all three are in flight, so a serial loop would never finish
+        CountDownLatch allInFlight = new CountDownLatch(3);
+        when(emailService.sendRendered(anyString(), eq(EMAIL))).thenAnswer(invocation -> {
+            allInFlight.countDown();
+            if (!allInFlight.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("sends did not overlap");
+            }
+            return new SentEmail(invocation.getArgument(0), EMAIL.subject(), EMAIL.emailType(), "message", "sent");
+        });
+
+        // When
+        underTest.processBatch();
+
+        // Then
+        assertThat(completedOutcomes()).containsOnlyKeys(1L, 2L, 3L);
+        verify(emailOutboxDao, never()).complete(any(), any());
+    }
+
+    @Test
+    void itShouldCapTheBackoff() {
+        // When / Then
+        assertThat(underTest.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(underTest.backoff(3)).isEqualTo(Duration.ofSeconds(4));
+        assertThat(underTest.backoff(64)).isEqualTo(Duration.ofSeconds(4));
+    }
+
+    @Test
+    void itShouldRejectNonPositiveSettings() {
+        assertThatThrownBy(() -> new EmailOutboxWorker(emailOutboxDao, emailService, new SendRateThrottle(1),
+                0, 10, 1000, 60, 3, 1000, 4000, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new EmailOutboxWorker(emailOutboxDao, emailService, new SendRateThrottle(1),
+                1, 10, 1000, 60, 3, 1000, 4000, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,6 +1,5 @@
 package com.iabdinur.service;
 
-import com.iabdinur.dao.SentEmailDao;
 import com.iabdinur.util.EmailTestUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,7 +22,7 @@ class EmailTemplateRenderingTest {
     private SesEmailService underTest;
     
     @Mock
-    private SentEmailDao sentEmailDao;
+    private EmailOutbox emailOutbox;
     
     private TemplateEngine templateEngine;
 
@@ -36,7 +35,7 @@ class EmailTemplateRenderingTest {
             "",
             "us-east-2",
             false, // disabled - so we can capture template output
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
         
@@ -0,0 +1,125 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.LikeDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LikeServiceTest {
+
+    private static final String EMAIL = "reader@example.com";
+
+    private LikeService underTest;
+    private AutoCloseable autoCloseable;
+
+    @Mock
+    private LikeDao likeDao;
+    @Mock
+    private PostSlugResolver slugResolver;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        underTest = new LikeService(likeDao, slugResolver);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void itShouldLikePostWithSingleInsert() {
+        // Given
+        when(slugResolver.resolve("my-post")).thenReturn(Optional.of(7L));
+        when(likeDao.insertPostLike(7L, EMAIL)).thenReturn(true);
+
+        // When
+        boolean changed = underTest.likePost("my-post", EMAIL);
+
+        // Then
+        assertThat(changed).isTrue();
+        verify(likeDao).insertPostLike(7L, EMAIL);
+        verifyNoMoreInteractions(likeDao);
+    }
+
+    @Test
+    void itShouldThrowWhenLikingUnknownPost() {
+        // Given
+        when(slugResolver.resolve("missing")).thenReturn(Optional.empty());
+
+        // When
+        assertThatThrownBy(() -> underTest.likePost("missing", EMAIL))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Post not found");
+
+        // Then
+        verify(likeDao, never()).insertPostLike(anyLong(), anyString());
+    }
+
+    @Test
+    void itShouldThrowWhenLikingUnknownComment() {
+        // Given
+        when(likeDao.insertCommentLike(9L, EMAIL)).thenThrow(new DataIntegrityViolationException("fk"));
+
+        // When / Then
+        assertThatThrownBy(() -> underTest.likeComment(9L, EMAIL))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Comment not found");
+    }
+
+    @Test
+    void itShouldReconcileOnlyTargetsWhoseLikesChanged() {
+        // Given
+        when(slugResolver.resolve("a")).thenReturn(Optional.of(1L));
+        when(slugResolver.resolve("b")).thenReturn(Optional.of(2L));
+        when(likeDao.insertPostLike(1L, EMAIL)).thenReturn(true);
+        when(likeDao.insertPostLike(2L, EMAIL)).thenReturn(false);
+        when(likeDao.deleteCommentLike(3L, EMAIL)).thenReturn(true);
+        underTest.likePost("a", EMAIL);
+        underTest.likePost("a", EMAIL);
+        underTest.likePost("b", EMAIL);
+        underTest.unlikeComment(3L, EMAIL);
+
+        // When
+        underTest.reconcile();
+        underTest.reconcile();
+
+        // Then
+        verify(likeDao, times(1)).reconcilePostLikes(List.of(1L));
+        verify(likeDao, times(1)).reconcileCommentLikes(List.of(3L));
+    }
+
+    @Test
+    void itShouldRetryReconcileAfterFailure() {
+        // Given
+        when(slugResolver.resolve("a")).thenReturn(Optional.of(1L));
+        when(likeDao.insertPostLike(1L, EMAIL)).thenReturn(true);
+        when(likeDao.reconcilePostLikes(anyCollection()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(1);
+        underTest.likePost("a", EMAIL);
+
+        // When
+        underTest.reconcile();
+        underTest.reconcile();
+
+        // Then
+        verify(likeDao, times(2)).reconcilePostLikes(List.of(1L));
+        verify(likeDao, never()).reconcileCommentLikes(any());
+    }
+}
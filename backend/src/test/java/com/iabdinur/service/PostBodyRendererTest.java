@@ -0,0 +1,90 @@
+package com.iabdinur.service;
+
+import com.iabdinur.model.RenderedPostBody;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostBodyRendererTest {
+
+    private final PostBodyRenderer underTest = new PostBodyRenderer();
+
+    @Test
+    void itShouldRenderGithubFlavoredMarkdown() {
+        // Given
+        String content = """
+                | Name | Value |
+                |------|-------|
+                | a    | ~~1~~ |
+
+                - [x] done
+                """;
+
+        // When
+        String html = underTest.render(content, null).html();
+
+        // Then
+        assertThat(html).contains("<table>", "<th>Name</th>", "<del>1</del>");
+        assertThat(html).contains("<input type=\"checkbox\" disabled checked>");
+    }
+
+    @Test
+    void itShouldKeepCodeBlockLanguage() {
+        // Given
+        String content = """
+                ```java
+                var x = 1 < 2;
+                ```
+                """;
+
+        // When
+        String html = underTest.render(content, null).html();
+
+        // Then
+        assertThat(html).isEqualTo("<pre><code class=\"language-java\">var x = 1 &lt; 2;\n</code></pre>\n");
+    }
+
+    @Test
+    void itShouldStripUnsafeRawHtml() {
+        // Given
+        String content = """
+                <script>alert(1)</script>
+
+                [click](javascript:alert(1)) <img src="https://cdn.example.com/a.png" onerror="alert(1)">
+                """;
+
+        // When
+        String html = underTest.render(content, null).html();
+
+        // Then
+        assertThat(html).doesNotContain("<script", "javascript:", "onerror");
+        assertThat(html).contains("<img src=\"https://cdn.example.com/a.png\">");
+    }
+
+    @Test
+    void itShouldInjectContentImage() {
+        // When
+        String html = underTest.render("Intro\n\n{{content_image}}", "https://cdn.example.com/c.png").html();
+
+        // Then
+        assertThat(html).contains("<img src=\"https://cdn.example.com/c.png\" alt=\"Content Image\">");
+        assertThat(html).doesNotContain("{{content_image}}");
+    }
+
+    @Test
+    void itShouldStoreGzipOfTheRenderedHtml() throws IOException {
+        // When
+        RenderedPostBody body = underTest.render("# Title\n\n" + "Body text. ".repeat(200), null);
+
+        // Then
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body.gzip()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(body.html());
+        }
+        assertThat(body.gzip().length).isLessThan(body.html().length());
+    }
+}
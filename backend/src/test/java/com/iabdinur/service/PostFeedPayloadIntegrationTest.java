@@ -0,0 +1,131 @@
+package com.iabdinur.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iabdinur.AbstractTestcontainers;
+import com.iabdinur.cache.PostCache;
+import com.iabdinur.dto.PostDTO;
+import com.iabdinur.dto.PostListResponse;
+import com.iabdinur.dto.PostSummaryDTO;
+import com.iabdinur.model.Author;
+import com.iabdinur.model.PostSort;
+import com.iabdinur.repository.AuthorJDBCDataAccessService;
+import com.iabdinur.repository.CounterJDBCDataAccessService;
+import com.iabdinur.repository.PostJDBCDataAccessService;
+import com.iabdinur.repository.TagJDBCDataAccessService;
+import com.iabdinur.rowmapper.AuthorRowMapper;
+import com.iabdinur.rowmapper.PostRowMapper;
+import com.iabdinur.rowmapper.PostSummaryRowMapper;
+import com.iabdinur.rowmapper.TagRowMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares feed pages built from summary rows against the same posts with their full bodies,
+ * on posts whose content is large enough to be TOASTed. Sizes are asserted; timings are logged.
+ */
+class PostFeedPayloadIntegrationTest extends AbstractTestcontainers {
+
+    private static final Logger log = LoggerFactory.getLogger(PostFeedPayloadIntegrationTest.class);
+    private static final int POST_COUNT = 200;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 15;
+
+    private static PostJDBCDataAccessService postDao;
+    private static PostService postService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void seedPosts() {
+        getJdbcTemplate().execute("DELETE FROM post_tags");
+        getJdbcTemplate().execute("DELETE FROM comments");
+        getJdbcTemplate().execute("DELETE FROM posts");
+        getJdbcTemplate().execute("DELETE FROM authors");
+
+        AuthorJDBCDataAccessService authorDao =
+                new AuthorJDBCDataAccessService(getJdbcTemplate(), new AuthorRowMapper());
+        Author author = new Author("Payload Author", "payload-" + System.nanoTime(), "payload@example.com");
+        authorDao.insertAuthor(author);
+
+        // Roughly 30 KB of markdown per post, the size of a long article
+        getJdbcTemplate().update("""
+                INSERT INTO posts(title, slug, content, excerpt, author_id, published_at, is_published,
+                                  views, likes, comments_count, created_at, updated_at)
+                SELECT 'Post ' || g, 'payload-post-' || g,
+                       repeat('Lorem ipsum dolor sit amet, consectetur adipiscing elit. ', 500),
+                       'Excerpt for post ' || g,
+                       ?, now() - (g || ' minutes')::interval, true, 0, 0, 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, author.getId(), POST_COUNT);
+        getJdbcTemplate().execute("ANALYZE posts");
+
+        postDao = new PostJDBCDataAccessService(getJdbcTemplate(), new PostRowMapper(),
+                new PostSummaryRowMapper());
+        postService = new PostService(
+                postDao,
+                authorDao,
+                new TagJDBCDataAccessService(getJdbcTemplate(), new TagRowMapper()),
+                getJdbcTemplate(),
+                event -> { },
+                new PostSlugResolver(postDao, 300),
+                new PostViewCounter(postDao),
+                new CounterService(new CounterJDBCDataAccessService(getJdbcTemplate())),
+                new PostCache(0, 0, 0, 0, 0),
+                new PostBodyRenderer()
+        );
+    }
+
+    @Test
+    void itShouldServeFeedPagesWithoutPostBodies() throws Exception {
+        // Given
+        PostListResponse page = postService.getAllPosts("latest", 1, PAGE_SIZE, null, null, null);
+        List<PostDTO> fullPosts = page.posts().stream()
+                .map(post -> postService.getPostBySlugForAdmin(post.slug()).orElseThrow())
+                .toList();
+
+        // When
+        int summaryBytes = objectMapper.writeValueAsBytes(page.posts()).length;
+        int fullBytes = objectMapper.writeValueAsBytes(fullPosts).length;
+
+        // Then
+        log.info("Feed page of {} posts: {} bytes as summaries, {} bytes with bodies",
+                PAGE_SIZE, summaryBytes, fullBytes);
+        assertThat(page.posts()).hasSize(PAGE_SIZE);
+        assertThat(objectMapper.writeValueAsString(page)).doesNotContain("\"content\"");
+        assertThat(summaryBytes * 10).isLessThan(fullBytes);
+        assertThat(page.posts()).extracting(PostSummaryDTO::excerpt).doesNotContainNull();
+    }
+
+    @Test
+    void itShouldCompareSummaryAndFullFeedQueryLatency() {
+        // When
+        long fullMedian = medianNanos(() -> postDao.selectPublishedPosts(PostSort.LATEST, PAGE_SIZE, 0));
+        long summaryMedian = medianNanos(() -> postDao.selectPublishedPostSummaries(PostSort.LATEST, PAGE_SIZE, 0));
+
+        // Then
+        log.info("Feed query of {} posts: full rows median {} ms, summary rows median {} ms",
+                PAGE_SIZE, fullMedian / 1_000_000.0, summaryMedian / 1_000_000.0);
+        assertThat(summaryMedian).isPositive();
+    }
+
+    private static long medianNanos(Runnable query) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            query.run();
+        }
+        long[] samples = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[MEASURED_RUNS / 2];
+    }
+}
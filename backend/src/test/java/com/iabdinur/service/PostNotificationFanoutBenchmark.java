@@ -0,0 +1,320 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.EmailOutboxDao;
+import com.iabdinur.dao.NewsletterFanoutDao;
+import com.iabdinur.dao.SentEmailDao;
+import com.iabdinur.model.OutboxEmail;
+import com.iabdinur.model.RenderedEmail;
+import com.iabdinur.model.SentEmail;
+import com.iabdinur.ratelimit.SendRateThrottle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.SendEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendEmailResponse;
+import software.amazon.awssdk.services.ses.model.SesException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * A post notification to {@code recipients} subscribers against a local stand-in for SES that
+ * answers after {@code sesLatencyMillis} and rejects sends over its maximum send rate, with a
+ * stand-in database charging {@code dbRoundTripMillis} per statement. {@code fanout} is the
+ * pipeline from the fan-out row to the last recorded outcome: the fan-out queues the subscribers
+ * in the outbox and the outbox workers deliver them. {@code serial} is the former loop of render,
+ * send and insert per subscriber, which needs recipients x (latency + round trip) and is run by
+ * {@link #main} on 1,000 recipients only. Not part of the test run; run {@link #main} with the
+ * test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(1)
+public class PostNotificationFanoutBenchmark {
+
+    private static final int WORKERS = 2;
+
+    @Param({"100000"})
+    public int recipients;
+
+    @Param({"50"})
+    public int sesLatencyMillis;
+
+    @Param({"2000"})
+    public int sendRatePerSecond;
+
+    @Param({"1"})
+    public int dbRoundTripMillis;
+
+    private StubSesClient ses;
+    private StubOutboxDao outboxDao;
+    private CountingSentEmailDao sentEmailDao;
+    private SesEmailService emailService;
+    private List<String> subscribers;
+    private PostPublishedEvent event;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ses = new StubSesClient(sesLatencyMillis, sendRatePerSecond);
+        outboxDao = new StubOutboxDao(dbRoundTripMillis);
+        sentEmailDao = new CountingSentEmailDao(dbRoundTripMillis);
+        emailService = SesEmailService.withClient("noreply@example.com", ses, mock(EmailOutbox.class));
+        subscribers = IntStream.range(0, recipients).mapToObj(i -> "reader" + i + "@example.com").toList();
+        event = new PostPublishedEvent(1L, "Benchmark Post", "benchmark-post", "An excerpt");
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%n%d sends, %d throttled by SES, %d outcomes recorded in %d outbox statements, "
+                        + "%d rows inserted one at a time%n",
+                ses.accepted.get(), ses.throttled.get(), outboxDao.completed.get(), outboxDao.statements.get(),
+                sentEmailDao.rows.get());
+    }
+
+    @Benchmark
+    public int fanout() throws Exception {
+        // In flight to cover the SES latency at the full send rate, and claims large enough to fill it
+        int maxInFlight = Math.max(1, sendRatePerSecond * sesLatencyMillis / 1000 * 2);
+        EmailOutboxWorker worker = new EmailOutboxWorker(outboxDao, emailService,
+                new SendRateThrottle(sendRatePerSecond), WORKERS, maxInFlight, 1000, 600, 6, 5000, 300000,
+                maxInFlight);
+        StubFanoutDao fanoutDao = new StubFanoutDao(subscribers, outboxDao, dbRoundTripMillis);
+        PostNotificationFanout fanout = new PostNotificationFanout(fanoutDao, emailService, event -> {}, 1000);
+        try {
+            fanout.onPostPublished(event);
+            int queued = fanout.drain();
+            try (ExecutorService loops = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> running = new ArrayList<>();
+                for (int i = 0; i < WORKERS; i++) {
+                    running.add(loops.submit(() -> {
+                        while (worker.processBatch() > 0) {
+                            // Until the outbox is drained
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> loop : running) {
+                    loop.get();
+                }
+            }
+            return queued;
+        } finally {
+            fanout.shutdown();
+            worker.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int serial() {
+        int sent = 0;
+        for (String subscriber : subscribers) {
+            RenderedEmail email = emailService.renderPostNotification(event.title(), event.slug(), event.excerpt());
+            sentEmailDao.insertSentEmail(emailService.sendRendered(subscriber, email));
+            sent++;
+        }
+        return sent;
+    }
+
+    private static void roundTrip(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Answers after a fixed latency and, like SES, rejects sends beyond its maximum send rate
+     * within any one second.
+     */
+    static final class StubSesClient implements SesClient {
+        private final long latencyMillis;
+        private final int maxSendRate;
+        private final AtomicLong windowSecond = new AtomicLong();
+        private final AtomicInteger windowCount = new AtomicInteger();
+        final AtomicInteger accepted = new AtomicInteger();
+        final AtomicInteger throttled = new AtomicInteger();
+
+        StubSesClient(long latencyMillis, int maxSendRate) {
+            this.latencyMillis = latencyMillis;
+            this.maxSendRate = maxSendRate;
+        }
+
+        @Override
+        public SendEmailResponse sendEmail(SendEmailRequest request) {
+            long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+            long current = windowSecond.get();
+            if (second != current && windowSecond.compareAndSet(current, second)) {
+                windowCount.set(0);
+            }
+            roundTrip(latencyMillis);
+            if (windowCount.incrementAndGet() > maxSendRate) {
+                throttled.incrementAndGet();
+                throw SesException.builder().message("Throttling: Maximum sending rate exceeded").build();
+            }
+            return SendEmailResponse.builder().messageId("stub-" + accepted.incrementAndGet()).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "ses";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * The outbox as a queue; claims never time out and a failed send is due again straight away.
+     */
+    static final class StubOutboxDao implements EmailOutboxDao {
+        private final long roundTripMillis;
+        private final AtomicLong ids = new AtomicLong();
+        private final ConcurrentLinkedQueue<OutboxEmail> due = new ConcurrentLinkedQueue<>();
+        private final Map<Long, OutboxEmail> claimed = new ConcurrentHashMap<>();
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger statements = new AtomicInteger();
+
+        StubOutboxDao(long roundTripMillis) {
+            this.roundTripMillis = roundTripMillis;
+        }
+
+        @Override
+        public void insertOutboxEmails(List<String> recipients, RenderedEmail email, LocalDateTime expiresAt) {
+            for (String recipient : recipients) {
+                due.add(new OutboxEmail(ids.incrementAndGet(), recipient, email, 0, expiresAt));
+            }
+        }
+
+        @Override
+        public List<OutboxEmail> claimDue(int limit, Duration lease) {
+            roundTrip(roundTripMillis);
+            statements.incrementAndGet();
+            List<OutboxEmail> batch = new ArrayList<>(limit);
+            OutboxEmail next;
+            while (batch.size() < limit && (next = due.poll()) != null) {
+                OutboxEmail claim = new OutboxEmail(next.id(), next.recipientEmail(), next.email(),
+                        next.attempts() + 1, next.expiresAt());
+                claimed.put(claim.id(), claim);
+                batch.add(claim);
+            }
+            return batch;
+        }
+
+        @Override
+        public void retryLater(Long id, Duration delay, String error) {
+            roundTrip(roundTripMillis);
+            statements.incrementAndGet();
+            due.add(claimed.remove(id));
+        }
+
+        @Override
+        public boolean complete(Long id, SentEmail outcome) {
+            return completeAll(Map.of(id, outcome)) > 0;
+        }
+
+        @Override
+        public int completeAll(Map<Long, SentEmail> outcomes) {
+            roundTrip(roundTripMillis);
+            statements.incrementAndGet();
+            outcomes.keySet().forEach(claimed::remove);
+            completed.addAndGet(outcomes.size());
+            return outcomes.size();
+        }
+    }
+
+    /**
+     * Queues subscribers from a list, one round trip per batch like the single-statement query.
+     */
+    static final class StubFanoutDao implements NewsletterFanoutDao {
+        private final List<String> subscribers;
+        private final EmailOutboxDao outboxDao;
+        private final long roundTripMillis;
+        private RenderedEmail email;
+        private int next;
+
+        StubFanoutDao(List<String> subscribers, EmailOutboxDao outboxDao, long roundTripMillis) {
+            this.subscribers = subscribers;
+            this.outboxDao = outboxDao;
+            this.roundTripMillis = roundTripMillis;
+        }
+
+        @Override
+        public void insertFanout(Long postId, RenderedEmail email) {
+            this.email = email;
+        }
+
+        @Override
+        public Optional<Integer> queueNextBatch(int batchSize) {
+            if (email == null) {
+                return Optional.empty();
+            }
+            roundTrip(roundTripMillis);
+            List<String> batch = subscribers.subList(next, Math.min(next + batchSize, subscribers.size()));
+            outboxDao.insertOutboxEmails(batch, email, null);
+            next += batch.size();
+            if (batch.size() < batchSize) {
+                email = null;
+            }
+            return Optional.of(batch.size());
+        }
+    }
+
+    static final class CountingSentEmailDao implements SentEmailDao {
+        private final long roundTripMillis;
+        final AtomicInteger rows = new AtomicInteger();
+
+        CountingSentEmailDao(long roundTripMillis) {
+            this.roundTripMillis = roundTripMillis;
+        }
+
+        @Override
+        public void insertSentEmail(SentEmail sentEmail) {
+            roundTrip(roundTripMillis);
+            rows.incrementAndGet();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PostNotificationFanoutBenchmark.class.getSimpleName() + ".fanout")
+                .build()).run();
+        new Runner(new OptionsBuilder()
+                .include(PostNotificationFanoutBenchmark.class.getSimpleName() + ".serial")
+                .param("recipients", "1000")
+                .build()).run();
+    }
+}
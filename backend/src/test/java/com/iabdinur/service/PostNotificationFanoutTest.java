@@ -0,0 +1,94 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.NewsletterFanoutDao;
+import com.iabdinur.model.RenderedEmail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class PostNotificationFanoutTest {
+
+    private static final RenderedEmail EMAIL =
+            new RenderedEmail("New Post: Title", "<p>Title</p>", "post_notification");
+    private static final PostPublishedEvent EVENT =
+            new PostPublishedEvent(1L, "Title", "title", null);
+
+    @Mock
+    private NewsletterFanoutDao newsletterFanoutDao;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private AutoCloseable autoCloseable;
+    private PostNotificationFanout underTest;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        when(emailService.renderPostNotification("Title", "title", "")).thenReturn(EMAIL);
+        underTest = new PostNotificationFanout(newsletterFanoutDao, emailService, eventPublisher, 500);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        underTest.shutdown();
+        autoCloseable.close();
+    }
+
+    @Test
+    void itShouldRenderOnceAndRecordOneFanoutInThePublishTransaction() {
+        // When
+        underTest.onPostPublished(EVENT);
+
+        // Then
+        verify(emailService, times(1)).renderPostNotification(any(), any(), any());
+        verify(newsletterFanoutDao).insertFanout(1L, EMAIL);
+        verify(newsletterFanoutDao, never()).queueNextBatch(anyInt());
+        verify(emailService, never()).sendRendered(any(), any());
+    }
+
+    @Test
+    void itShouldFailThePublishWhenRecordingTheFanoutFails() {
+        // Given
+        doThrow(new RuntimeException("database down")).when(newsletterFanoutDao).insertFanout(any(), any());
+
+        // When / Then
+        assertThatThrownBy(() -> underTest.onPostPublished(EVENT))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("database down");
+    }
+
+    @Test
+    void itShouldQueueBatchesUntilNoFanoutIsLeftAndWakeTheWorkers() {
+        // Given
+        when(newsletterFanoutDao.queueNextBatch(500)).thenReturn(
+                Optional.of(500), Optional.of(200), Optional.of(0), Optional.empty());
+
+        // When
+        int queued = underTest.drain();
+
+        // Then
+        assertThat(queued).isEqualTo(700);
+        verify(newsletterFanoutDao, times(4)).queueNextBatch(500);
+        verify(eventPublisher).publishEvent(new EmailEnqueuedEvent(500));
+        verify(eventPublisher).publishEvent(new EmailEnqueuedEvent(200));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void itShouldRejectANonPositiveBatchSize() {
+        assertThatThrownBy(() -> new PostNotificationFanout(newsletterFanoutDao, emailService, eventPublisher, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,177 @@
+package com.iabdinur.service;
+
+import com.iabdinur.AbstractTestcontainers;
+import com.iabdinur.cache.PostCache;
+import com.iabdinur.dto.PostListResponse;
+import com.iabdinur.model.Author;
+import com.iabdinur.model.Post;
+import com.iabdinur.model.Tag;
+import com.iabdinur.repository.AuthorJDBCDataAccessService;
+import com.iabdinur.repository.CounterJDBCDataAccessService;
+import com.iabdinur.repository.PostJDBCDataAccessService;
+import com.iabdinur.repository.TagJDBCDataAccessService;
+import com.iabdinur.rowmapper.AuthorRowMapper;
+import com.iabdinur.rowmapper.PostRowMapper;
+import com.iabdinur.rowmapper.PostSummaryRowMapper;
+import com.iabdinur.rowmapper.TagRowMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that loading authors and tags for a page of posts issues a fixed number
+ * of statements regardless of how many posts are on the page.
+ */
+class PostRelationshipLoadingIntegrationTest extends AbstractTestcontainers {
+
+    private final AtomicInteger statementCount = new AtomicInteger();
+    private PostService underTest;
+
+    @BeforeEach
+    void setUp() {
+        getJdbcTemplate().execute("DELETE FROM post_tags");
+        getJdbcTemplate().execute("DELETE FROM comments");
+        getJdbcTemplate().execute("DELETE FROM posts");
+        getJdbcTemplate().execute("DELETE FROM authors");
+
+        JdbcTemplate countingJdbcTemplate = new JdbcTemplate(
+                new StatementCountingDataSource(getJdbcTemplate().getDataSource(), statementCount));
+        PostJDBCDataAccessService postDao = new PostJDBCDataAccessService(countingJdbcTemplate, new PostRowMapper(),
+                new PostSummaryRowMapper());
+        underTest = new PostService(
+                postDao,
+                new AuthorJDBCDataAccessService(countingJdbcTemplate, new AuthorRowMapper()),
+                new TagJDBCDataAccessService(countingJdbcTemplate, new TagRowMapper()),
+                countingJdbcTemplate,
+                event -> { },
+                new PostSlugResolver(postDao, 300),
+                new PostViewCounter(postDao),
+                new CounterService(new CounterJDBCDataAccessService(countingJdbcTemplate)),
+                new PostCache(0, 0, 0, 0, 0),
+                new PostBodyRenderer()
+        );
+
+        seedPublishedPosts(60);
+    }
+
+    @Test
+    void itShouldIssueConstantStatementCountAsPageSizeGrows() {
+        // When
+        int smallPageStatements = countStatementsForPage(1);
+        int mediumPageStatements = countStatementsForPage(10);
+        int largePageStatements = countStatementsForPage(50);
+
+        // Then
+        assertThat(smallPageStatements).isEqualTo(mediumPageStatements);
+        assertThat(mediumPageStatements).isEqualTo(largePageStatements);
+    }
+
+    @Test
+    void itShouldStitchAuthorsAndTagsOntoEveryPost() {
+        // When
+        PostListResponse response = underTest.getAllPosts("latest", 1, 50, null, null, null);
+
+        // Then
+        assertThat(response.posts()).hasSize(50);
+        assertThat(response.posts()).allSatisfy(post -> {
+            assertThat(post.author()).isNotNull();
+            assertThat(post.author().username()).isNotBlank();
+            assertThat(post.tags()).hasSize(2);
+        });
+    }
+
+    private int countStatementsForPage(int limit) {
+        statementCount.set(0);
+        PostListResponse response = underTest.getAllPosts("latest", 1, limit, null, null, null);
+        assertThat(response.posts()).hasSize(limit);
+        return statementCount.get();
+    }
+
+    private void seedPublishedPosts(int count) {
+        AuthorJDBCDataAccessService authorDao =
+                new AuthorJDBCDataAccessService(getJdbcTemplate(), new AuthorRowMapper());
+        TagJDBCDataAccessService tagDao =
+                new TagJDBCDataAccessService(getJdbcTemplate(), new TagRowMapper());
+        PostJDBCDataAccessService postDao =
+                new PostJDBCDataAccessService(getJdbcTemplate(), new PostRowMapper(),
+                new PostSummaryRowMapper());
+
+        List<Author> authors = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Author author = new Author(FAKER.name().fullName(), "loader-author-" + i + "-" + System.nanoTime(),
+                    "loader-" + i + "-" + System.nanoTime() + "@example.com");
+            authorDao.insertAuthor(author);
+            authors.add(author);
+        }
+
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String slug = "loader-tag-" + i + "-" + System.nanoTime();
+            Tag tag = new Tag(slug, slug);
+            tagDao.insertTag(tag);
+            tags.add(tag);
+        }
+
+        for (int i = 0; i < count; i++) {
+            Post post = new Post(FAKER.lorem().sentence(), "loader-post-" + i + "-" + System.nanoTime(),
+                    FAKER.lorem().paragraph(), authors.get(i % authors.size()));
+            post.setIsPublished(true);
+            post.setPublishedAt(LocalDateTime.now().minusMinutes(i));
+            post.setViews(0L);
+            post.setLikes(0L);
+            post.setCommentsCount(0);
+            post.setCreatedAt(LocalDateTime.now());
+            post.setUpdatedAt(LocalDateTime.now());
+            postDao.insertPost(post);
+            for (Tag tag : tags) {
+                getJdbcTemplate().update("INSERT INTO post_tags(post_id, tag_id) VALUES (?, ?)",
+                        post.getId(), tag.getId());
+            }
+        }
+    }
+
+    /**
+     * Counts every statement prepared or created on connections handed out by the delegate.
+     */
+    private static class StatementCountingDataSource extends DelegatingDataSource {
+        private final AtomicInteger counter;
+
+        StatementCountingDataSource(DataSource delegate, AtomicInteger counter) {
+            super(delegate);
+            this.counter = counter;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("prepareStatement") || name.equals("createStatement")
+                                || name.equals("prepareCall")) {
+                            counter.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
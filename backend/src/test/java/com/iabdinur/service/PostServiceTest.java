@@ -1,27 +1,38 @@
 package com.iabdinur.service;
 
 import com.github.javafaker.Faker;
+import com.iabdinur.cache.PostCache;
 import com.iabdinur.dao.AuthorDao;
 import com.iabdinur.dao.PostDao;
 import com.iabdinur.dao.TagDao;
 import com.iabdinur.dto.CreatePostRequest;
 import com.iabdinur.dto.PostDTO;
 import com.iabdinur.dto.PostListResponse;
+import com.iabdinur.dto.PostSummaryDTO;
+import com.iabdinur.exception.ConflictException;
 import com.iabdinur.model.Author;
 import com.iabdinur.model.Post;
+import com.iabdinur.model.PostSort;
+import com.iabdinur.model.RenderedPostBody;
 import com.iabdinur.model.Tag;
+import com.iabdinur.util.ContentVersion;
+import com.iabdinur.util.PostCursor;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -42,13 +53,21 @@ class PostServiceTest {
     private TagDao tagDao;
     @Mock
     private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PostViewCounter viewCounter;
+    @Mock
+    private CounterService counterService;
 
     private final Faker FAKER = new Faker();
 
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        underTest = new PostService(postDao, authorDao, tagDao, jdbcTemplate);
+        underTest = new PostService(postDao, authorDao, tagDao, jdbcTemplate, eventPublisher,
+                new PostSlugResolver(postDao, 300), viewCounter, counterService, new PostCache(100, 100, 3, 100, 60),
+                new PostBodyRenderer());
     }
 
     @AfterEach
@@ -92,7 +111,7 @@ class PostServiceTest {
         Post post = createTestPost();
         posts.add(post);
 
-        when(postDao.selectPublishedPosts(anyInt(), anyInt())).thenReturn(posts);
+        when(postDao.selectPublishedPostSummaries(any(PostSort.class), anyInt(), anyInt())).thenReturn(posts);
         when(postDao.countPublishedPosts()).thenReturn(1L);
         when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(1L);
         when(jdbcTemplate.query(anyString(), isA(org.springframework.jdbc.core.RowMapper.class), anyLong())).thenReturn(new ArrayList<>());
@@ -101,9 +120,213 @@ class PostServiceTest {
         PostListResponse result = underTest.getAllPosts("latest", 1, 10, null, null, null);
 
         // Then
-        verify(postDao).selectPublishedPosts(10, 0);
+        verify(postDao).selectPublishedPostSummaries(PostSort.LATEST, 11, 0);
         verify(postDao).countPublishedPosts();
         assertThat(result.posts()).isNotEmpty();
+        assertThat(result.hasMore()).isFalse();
+    }
+
+    @Test
+    void itShouldReturnSearchHitsInRankOrderAndSkipUnpublishedOnes() {
+        // Given
+        Post first = createTestPost();
+        Post second = createTestPost();
+        Long unpublishedId = FAKER.random().nextLong();
+        List<Long> ranked = List.of(second.getId(), unpublishedId, first.getId());
+        when(postDao.selectPublishedPostSummariesByIds(ranked)).thenReturn(new ArrayList<>(List.of(first, second)));
+
+        // When
+        List<PostSummaryDTO> result = underTest.getPublishedPostSummariesByIds(ranked);
+
+        // Then
+        assertThat(result).extracting(PostSummaryDTO::id)
+                .containsExactly(second.getId().toString(), first.getId().toString());
+    }
+
+    @Test
+    void itShouldLoadRelationshipsForWholePageInOneBatch() {
+        // Given
+        Author author = createTestAuthor();
+        Tag tag = new Tag(FAKER.lorem().word(), FAKER.lorem().word());
+        tag.setId(FAKER.random().nextLong());
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Post post = createTestPost();
+            Author authorRef = new Author();
+            authorRef.setId(author.getId());
+            post.setAuthor(authorRef);
+            posts.add(post);
+        }
+
+        when(postDao.selectPublishedPostSummaries(any(PostSort.class), anyInt(), anyInt())).thenReturn(posts);
+        when(postDao.countPublishedPosts()).thenReturn(3L);
+        when(authorDao.selectAuthorsByIds(anyCollection())).thenReturn(List.of(author));
+        when(tagDao.selectTagsByPostIds(anyCollection())).thenReturn(
+                Map.of(posts.get(0).getId(), List.of(tag)));
+
+        // When
+        PostListResponse result = underTest.getAllPosts("latest", 1, 10, null, null, null);
+
+        // Then
+        verify(authorDao, times(1)).selectAuthorsByIds(Set.of(author.getId()));
+        verify(tagDao, times(1)).selectTagsByPostIds(anyCollection());
+        verify(authorDao, never()).selectAuthorById(anyLong());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), anyLong());
+        assertThat(result.posts()).allSatisfy(dto ->
+                assertThat(dto.author().username()).isEqualTo(author.getUsername()));
+        assertThat(result.posts().get(0).tags()).hasSize(1);
+        assertThat(result.posts().get(1).tags()).isEmpty();
+    }
+
+    @Test
+    void itShouldSeekWithCursorInsteadOfOffset() {
+        // Given
+        Post post = createTestPost();
+        PostCursor cursor = new PostCursor(PostSort.LATEST, LocalDateTime.now().toString(), 99L);
+        when(postDao.selectPublishedPostSummariesAfter(cursor, 2)).thenReturn(new ArrayList<>(List.of(post, createTestPost())));
+        when(postDao.countPublishedPosts()).thenReturn(5L);
+
+        // When
+        PostListResponse result = underTest.getAllPosts("latest", 1, 1, null, null, null, cursor.encode());
+
+        // Then
+        verify(postDao).selectPublishedPostSummariesAfter(cursor, 2);
+        verify(postDao, never()).selectPublishedPostSummaries(any(PostSort.class), anyInt(), anyInt());
+        assertThat(result.posts()).hasSize(1);
+        assertThat(PostCursor.decode(result.nextCursor())).isEqualTo(PostCursor.of(PostSort.LATEST, post));
+    }
+
+    @Test
+    void itShouldSortTopPostsInQuery() {
+        // Given
+        Post popular = createTestPost();
+        popular.setLikes(50L);
+        Post lessPopular = createTestPost();
+        lessPopular.setLikes(3L);
+        when(postDao.selectPublishedPostSummaries(PostSort.TOP, 3, 0))
+                .thenReturn(new ArrayList<>(List.of(popular, lessPopular, createTestPost())));
+        when(postDao.countPublishedPosts()).thenReturn(4L);
+
+        // When
+        PostListResponse result = underTest.getAllPosts("top", 1, 2, null, null, null);
+
+        // Then
+        verify(postDao).selectPublishedPostSummaries(PostSort.TOP, 3, 0);
+        assertThat(result.posts()).extracting(PostSummaryDTO::id)
+                .containsExactly(popular.getId().toString(), lessPopular.getId().toString());
+        assertThat(PostCursor.decode(result.nextCursor()))
+                .isEqualTo(new PostCursor(PostSort.TOP, "3", lessPopular.getId()));
+    }
+
+    @Test
+    void itShouldNotReportMorePostsWithoutACursor() {
+        // Given
+        Post undated = createTestPost();
+        undated.setPublishedAt(null);
+        when(postDao.selectPublishedPostSummaries(PostSort.LATEST, 2, 0))
+                .thenReturn(new ArrayList<>(List.of(undated, createTestPost())));
+        when(postDao.countPublishedPosts()).thenReturn(2L);
+
+        // When
+        PostListResponse result = underTest.getAllPosts("latest", 1, 1, null, null, null);
+
+        // Then
+        assertThat(result.nextCursor()).isNull();
+        assertThat(result.hasMore()).isFalse();
+    }
+
+    @Test
+    void itShouldRejectCursorFromDifferentSort() {
+        // Given
+        String cursor = new PostCursor(PostSort.TOP, "10", 5L).encode();
+
+        // When / Then
+        assertThatThrownBy(() -> underTest.getAllPosts("latest", 1, 10, null, null, null, cursor))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cursor does not match");
+        verifyNoInteractions(postDao);
+    }
+
+    @Test
+    void itShouldSearchPostsWithHighlights() {
+        // Given
+        Post post = createTestPost();
+        post.setSearchHighlight("all about <mark>spring</mark>");
+        when(postDao.searchPublishedPosts("spring", 10, 0)).thenReturn(new ArrayList<>(List.of(post)));
+
+        // When
+        PostListResponse result = underTest.searchPosts("spring", 1, 10);
+
+        // Then
+        assertThat(result.total()).isEqualTo(1);
+        assertThat(result.posts().get(0).highlight()).isEqualTo("all about <mark>spring</mark>");
+        // A partial first page already tells us the total
+        verify(postDao, never()).countSearchPublishedPosts(anyString());
+    }
+
+    @Test
+    void itShouldCountSearchResultsWhenPageIsFull() {
+        // Given
+        when(postDao.searchPublishedPosts("spring", 1, 0))
+                .thenReturn(new ArrayList<>(List.of(createTestPost())));
+        when(postDao.countSearchPublishedPosts("spring")).thenReturn(7L);
+
+        // When
+        PostListResponse result = underTest.searchPosts("spring", 1, 1);
+
+        // Then
+        assertThat(result.total()).isEqualTo(7);
+    }
+
+    @Test
+    void itShouldNotReturnNextCursorOnLastPage() {
+        // Given
+        List<Post> fullLastPage = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            fullLastPage.add(createTestPost());
+        }
+        when(postDao.selectPublishedPostSummaries(PostSort.LATEST, 11, 0)).thenReturn(fullLastPage);
+        when(postDao.countPublishedPosts()).thenReturn(10L);
+
+        // When
+        PostListResponse result = underTest.getAllPosts("latest", 1, 10, null, null, null);
+
+        // Then
+        assertThat(result.posts()).hasSize(10);
+        assertThat(result.hasMore()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void itShouldSkipTotalAndReportHasMoreWhenAsked() {
+        // Given
+        when(postDao.selectPublishedPostSummaries(PostSort.LATEST, 3, 0)).thenReturn(
+                new ArrayList<>(List.of(createTestPost(), createTestPost(), createTestPost())));
+
+        // When
+        PostListResponse result = underTest.getAllPosts("latest", 1, 2, null, null, null, null, false);
+
+        // Then
+        assertThat(result.posts()).hasSize(2);
+        assertThat(result.hasMore()).isTrue();
+        assertThat(result.total()).isNull();
+        assertThat(result.nextCursor()).isNotNull();
+        verify(postDao, never()).countPublishedPosts();
+    }
+
+    @Test
+    void itShouldCacheFeedTotals() {
+        // Given
+        when(postDao.selectPublishedPostSummaries(any(PostSort.class), anyInt(), anyInt())).thenReturn(new ArrayList<>());
+        when(postDao.countPublishedPosts()).thenReturn(42L);
+
+        // When
+        underTest.getAllPosts("latest", 1, 10, null, null, null);
+        PostListResponse result = underTest.getAllPosts("latest", 5, 10, null, null, null);
+
+        // Then
+        assertThat(result.total()).isEqualTo(42);
+        verify(postDao, times(1)).countPublishedPosts();
     }
 
     @Test
@@ -111,14 +334,14 @@ class PostServiceTest {
         // Given
         String tagSlug = String.join("-", FAKER.lorem().words(2)).toLowerCase();
         List<Post> posts = new ArrayList<>();
-        when(postDao.selectPostsByTagSlug(tagSlug, 10, 0)).thenReturn(posts);
+        when(postDao.selectPostSummariesByTagSlug(tagSlug, 11, 0)).thenReturn(posts);
         when(postDao.countPostsByTagSlug(tagSlug)).thenReturn(0L);
 
         // When
         PostListResponse result = underTest.getAllPosts("latest", 1, 10, tagSlug, null, null);
 
         // Then
-        verify(postDao).selectPostsByTagSlug(tagSlug, 10, 0);
+        verify(postDao).selectPostSummariesByTagSlug(tagSlug, 11, 0);
         verify(postDao).countPostsByTagSlug(tagSlug);
     }
 
@@ -129,7 +352,7 @@ class PostServiceTest {
         List<Post> posts = new ArrayList<>();
         
         when(authorDao.selectAuthorByUsername(author.getUsername())).thenReturn(Optional.of(author));
-        when(postDao.selectPostsByAuthorId(author.getId(), 10, 0)).thenReturn(posts);
+        when(postDao.selectPostSummariesByAuthorId(author.getId(), 11, 0)).thenReturn(posts);
         when(postDao.countPostsByAuthorId(author.getId())).thenReturn(0L);
 
         // When
@@ -137,7 +360,7 @@ class PostServiceTest {
 
         // Then
         verify(authorDao).selectAuthorByUsername(author.getUsername());
-        verify(postDao).selectPostsByAuthorId(author.getId(), 10, 0);
+        verify(postDao).selectPostSummariesByAuthorId(author.getId(), 11, 0);
     }
 
     @Test
@@ -151,7 +374,7 @@ class PostServiceTest {
 
         // Then
         verify(authorDao).selectAuthorByUsername(username);
-        verify(postDao, never()).selectPostsByAuthorId(anyLong(), anyInt(), anyInt());
+        verify(postDao, never()).selectPostSummariesByAuthorId(anyLong(), anyInt(), anyInt());
         assertThat(result.posts()).isEmpty();
         assertEquals(0, result.total());
     }
@@ -161,15 +384,15 @@ class PostServiceTest {
         // Given
         Post post = createTestPost();
         
-        when(postDao.selectPublishedPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.selectPublishedPostSummaryBySlug(post.getSlug())).thenReturn(Optional.of(post));
         when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(post.getId());
         when(jdbcTemplate.query(anyString(), isA(org.springframework.jdbc.core.RowMapper.class), anyLong())).thenReturn(new ArrayList<>());
 
         // When
-        Optional<PostDTO> result = underTest.getPostBySlug(post.getSlug());
+        Optional<PostSummaryDTO> result = underTest.getPostBySlug(post.getSlug());
 
         // Then
-        verify(postDao).selectPublishedPostBySlug(post.getSlug());
+        verify(postDao).selectPublishedPostSummaryBySlug(post.getSlug());
         assertThat(result).isPresent();
         assertEquals(post.getSlug(), result.get().slug());
     }
@@ -178,13 +401,13 @@ class PostServiceTest {
     void itShouldReturnEmptyWhenPostNotFound() {
         // Given
         String slug = String.join("-", FAKER.lorem().words(3)).toLowerCase();
-        when(postDao.selectPublishedPostBySlug(slug)).thenReturn(Optional.empty());
+        when(postDao.selectPublishedPostSummaryBySlug(slug)).thenReturn(Optional.empty());
 
         // When
-        Optional<PostDTO> result = underTest.getPostBySlug(slug);
+        Optional<PostSummaryDTO> result = underTest.getPostBySlug(slug);
 
         // Then
-        verify(postDao).selectPublishedPostBySlug(slug);
+        verify(postDao).selectPublishedPostSummaryBySlug(slug);
         assertThat(result).isEmpty();
     }
 
@@ -192,16 +415,13 @@ class PostServiceTest {
     void itShouldSearchPosts() {
         // Given
         String query = FAKER.lorem().word();
-        List<Post> posts = new ArrayList<>();
-        when(jdbcTemplate.query(anyString(), isA(org.springframework.jdbc.core.RowMapper.class), anyString(), anyString(), anyString(), anyInt(), anyInt())).thenReturn(posts);
-        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyString(), anyString(), anyString())).thenReturn(0L);
+        when(postDao.searchPublishedPosts(anyString(), anyInt(), anyInt())).thenReturn(new ArrayList<>());
 
         // When
         PostListResponse result = underTest.searchPosts(query, 1, 10);
 
         // Then
-        verify(jdbcTemplate).query(anyString(), isA(org.springframework.jdbc.core.RowMapper.class), eq(query), eq(query), eq(query), eq(10), eq(0));
-        verify(jdbcTemplate).queryForObject(anyString(), eq(Long.class), eq(query), eq(query), eq(query));
+        verify(postDao).searchPublishedPosts(query, 10, 0);
         assertThat(result).isNotNull();
         assertThat(result.total()).isEqualTo(0);
     }
@@ -228,7 +448,6 @@ class PostServiceTest {
         );
 
         when(authorDao.selectAuthorById(author.getId())).thenReturn(Optional.of(author));
-        when(tagDao.selectTagById(tag.getId())).thenReturn(Optional.of(tag));
         
         // Mock insertPost to set an ID on the post
         doAnswer(invocation -> {
@@ -237,7 +456,6 @@ class PostServiceTest {
             return null;
         }).when(postDao).insertPost(any(Post.class));
         
-        when(jdbcTemplate.update(anyString(), anyLong(), anyLong())).thenReturn(1);
         when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(author.getId());
         when(jdbcTemplate.query(anyString(), isA(org.springframework.jdbc.core.RowMapper.class), anyLong())).thenReturn(new ArrayList<>());
 
@@ -252,7 +470,8 @@ class PostServiceTest {
         assertEquals(request.title(), capturedPost.getTitle());
         assertEquals(request.slug(), capturedPost.getSlug());
         assertThat(capturedPost.getIsPublished()).isTrue();
-        verify(jdbcTemplate).update(anyString(), eq(capturedPost.getId()), eq(tag.getId()));
+        verify(tagDao).replacePostTags(capturedPost.getId(), List.of(tag.getId()));
+        verify(postDao).updateRenderedBody(eq(capturedPost.getId()), any(RenderedPostBody.class));
     }
 
     @Test
@@ -304,7 +523,9 @@ class PostServiceTest {
                 null // scheduledAt
         );
 
+        String oldTitle = post.getTitle();
         when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.updatePost(any(), any())).thenReturn(true);
         when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(1L);
         when(jdbcTemplate.query(anyString(), isA(org.springframework.jdbc.core.RowMapper.class), anyLong())).thenReturn(new ArrayList<>());
 
@@ -312,14 +533,330 @@ class PostServiceTest {
         Optional<PostDTO> result = underTest.updatePost(post.getSlug(), request);
 
         // Then
+        ArgumentCaptor<Post> currentArgumentCaptor = ArgumentCaptor.forClass(Post.class);
         ArgumentCaptor<Post> postArgumentCaptor = ArgumentCaptor.forClass(Post.class);
-        verify(postDao).updatePost(postArgumentCaptor.capture());
+        verify(postDao).updatePost(currentArgumentCaptor.capture(), postArgumentCaptor.capture());
         Post capturedPost = postArgumentCaptor.getValue();
         
+        assertEquals(oldTitle, currentArgumentCaptor.getValue().getTitle());
         assertEquals(newTitle, capturedPost.getTitle());
         assertEquals(10, capturedPost.getReadingTime());
     }
 
+    @Test
+    void itShouldReplacePostTagsInOneCallWhenUpdating() {
+        // Given
+        Post post = createTestPost();
+        CreatePostRequest request = new CreatePostRequest(
+                post.getTitle(),
+                post.getSlug(),
+                post.getContent(),
+                post.getExcerpt(),
+                null, // coverImage
+                null, // contentImage
+                null, // authorId
+                List.of("3", "7", "3"),
+                true,
+                5,
+                null // scheduledAt
+        );
+
+        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.updatePost(any(), any())).thenReturn(true);
+
+        // When
+        underTest.updatePost(post.getSlug(), request);
+
+        // Then
+        verify(tagDao).replacePostTags(post.getId(), List.of(3L, 7L));
+        verify(tagDao, never()).selectTagById(anyLong());
+    }
+
+    @Test
+    void itShouldReturnTheVersionATagsOnlyEditMovedTo() {
+        // Given
+        Post post = createTestPost();
+        LocalDateTime savedAt = post.getUpdatedAt();
+        LocalDateTime tagsChangedAt = savedAt.plusSeconds(1);
+        CreatePostRequest request = new CreatePostRequest(
+                post.getTitle(),
+                post.getSlug(),
+                post.getContent(),
+                post.getExcerpt(),
+                null, // coverImage
+                null, // contentImage
+                null, // authorId
+                List.of("3"),
+                true,
+                post.getReadingTime(),
+                null // scheduledAt
+        );
+
+        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.updatePost(any(), any())).thenReturn(true);
+        when(tagDao.replacePostTags(post.getId(), List.of(3L))).thenReturn(Optional.of(tagsChangedAt));
+
+        // When
+        PostDTO actual = underTest.updatePost(post.getSlug(), request).orElseThrow();
+
+        // Then
+        assertEquals(tagsChangedAt, LocalDateTime.parse(actual.updatedAt()));
+        assertThat(ContentVersion.ofPost(actual).etag())
+                .isNotEqualTo(ContentVersion.ofPost(post.getId(), savedAt, 0L, 0).etag());
+    }
+
+    @Test
+    void itShouldStreamAllPostsLoadingRelationshipsPerChunk() {
+        // Given
+        List<Post> rows = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            rows.add(createTestPost());
+        }
+        doAnswer(invocation -> {
+            java.util.function.Consumer<Post> action = invocation.getArgument(0);
+            rows.forEach(action);
+            return null;
+        }).when(postDao).streamAllPostSummaries(any());
+        List<PostSummaryDTO> streamed = new ArrayList<>();
+
+        // When
+        underTest.streamAllPosts(streamed::add);
+
+        // Then
+        assertThat(streamed).extracting(PostSummaryDTO::id)
+                .containsExactlyElementsOf(rows.stream().map(post -> post.getId().toString()).toList());
+        // Chunks of 200, 200 and 50 rows
+        verify(tagDao, times(3)).selectTagsByPostIds(anyList());
+    }
+
+    @Test
+    void itShouldRenderBodyWhenContentChanges() {
+        // Given
+        Post post = createTestPost();
+        CreatePostRequest request = new CreatePostRequest(
+                post.getTitle(),
+                post.getSlug(),
+                "## Rewritten\n\nNew body",
+                post.getExcerpt(),
+                null, // coverImage
+                null, // contentImage
+                null, // authorId
+                null, // tagIds
+                true,
+                5,
+                null // scheduledAt
+        );
+
+        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.updatePost(any(), any())).thenReturn(true);
+
+        // When
+        underTest.updatePost(post.getSlug(), request);
+
+        // Then
+        ArgumentCaptor<RenderedPostBody> bodyCaptor = ArgumentCaptor.forClass(RenderedPostBody.class);
+        verify(postDao).updateRenderedBody(eq(post.getId()), bodyCaptor.capture());
+        assertThat(bodyCaptor.getValue().html()).isEqualTo("<h2>Rewritten</h2>\n<p>New body</p>\n");
+    }
+
+    @Test
+    void itShouldNotRenderBodyWhenContentIsUnchanged() {
+        // Given
+        Post post = createTestPost();
+        CreatePostRequest request = new CreatePostRequest(
+                "A new title",
+                post.getSlug(),
+                post.getContent(),
+                post.getExcerpt(),
+                null, // coverImage
+                null, // contentImage
+                null, // authorId
+                null, // tagIds
+                true,
+                5,
+                null // scheduledAt
+        );
+
+        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.updatePost(any(), any())).thenReturn(true);
+
+        // When
+        underTest.updatePost(post.getSlug(), request);
+
+        // Then
+        verify(postDao, never()).updateRenderedBody(anyLong(), any());
+    }
+
+    @Test
+    void itShouldRenderBodyForTheReadOnlyUntilTheBackfillReachesThePost() {
+        // Given
+        Post post = new Post();
+        post.setId(42L);
+        post.setUpdatedAt(LocalDateTime.now());
+        post.setContent("Hello *world*");
+        when(postDao.selectPublishedPostBody("legacy")).thenReturn(Optional.of(post));
+
+        // When
+        Optional<Post> actual = underTest.getPostBody("legacy");
+
+        // Then
+        assertThat(actual).isPresent();
+        assertThat(actual.get().getRenderedBody().html()).isEqualTo("<p>Hello <em>world</em></p>\n");
+        verify(postDao, never()).updateRenderedBody(anyLong(), any());
+        verify(postDao, never()).updateRenderedBodyIfMissing(anyLong(), any());
+    }
+
+    @Test
+    void itShouldBackfillBodiesOfPublishedPostsInBatches() {
+        // Given
+        List<Post> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            Post post = new Post();
+            post.setId(id);
+            post.setContent("Post " + id);
+            firstBatch.add(post);
+        }
+        Post last = new Post();
+        last.setId(205L);
+        last.setContent("Hello *world*");
+        when(postDao.selectPublishedPostsWithoutRenderedBody(0L, 100)).thenReturn(firstBatch);
+        when(postDao.selectPublishedPostsWithoutRenderedBody(100L, 100)).thenReturn(List.of(last));
+
+        // When
+        int rendered = underTest.backfillRenderedBodies();
+
+        // Then
+        assertEquals(101, rendered);
+        ArgumentCaptor<RenderedPostBody> body = ArgumentCaptor.forClass(RenderedPostBody.class);
+        verify(postDao).updateRenderedBodyIfMissing(eq(205L), body.capture());
+        assertThat(body.getValue().html()).isEqualTo("<p>Hello <em>world</em></p>\n");
+        verify(postDao, times(101)).updateRenderedBodyIfMissing(anyLong(), any());
+        verify(postDao, never()).selectPublishedPostsWithoutRenderedBody(eq(205L), anyInt());
+    }
+
+    @Test
+    void itShouldServeStoredBodyWithoutRendering() {
+        // Given
+        Post post = new Post();
+        post.setId(42L);
+        post.setUpdatedAt(LocalDateTime.now());
+        post.setRenderedBody(new RenderedPostBody("<p>Stored</p>", new byte[0]));
+        when(postDao.selectPublishedPostBody("rendered")).thenReturn(Optional.of(post));
+
+        // When
+        Optional<Post> actual = underTest.getPostBody("rendered");
+
+        // Then
+        assertThat(actual.map(Post::getRenderedBody).map(RenderedPostBody::html)).contains("<p>Stored</p>");
+        verify(postDao, never()).updateRenderedBody(anyLong(), any());
+    }
+
+    @Test
+    void itShouldRetractCountersBeforeUnpublishingPost() {
+        // Given
+        Post post = createTestPost();
+        CreatePostRequest request = new CreatePostRequest(
+                post.getTitle(),
+                post.getSlug(),
+                post.getContent(),
+                post.getExcerpt(),
+                null, // coverImage
+                null, // contentImage
+                null, // authorId
+                null, // tagIds
+                false,
+                5,
+                null // scheduledAt
+        );
+
+        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.updatePost(any(), any())).thenReturn(true);
+
+        // When
+        underTest.updatePost(post.getSlug(), request);
+
+        // Then
+        InOrder inOrder = inOrder(counterService, postDao);
+        inOrder.verify(counterService).postUnpublishing(post.getId());
+        inOrder.verify(postDao).updatePost(any(), any());
+        verify(counterService, never()).postPublished(anyLong());
+    }
+
+    @Test
+    void itShouldCountPostWhenPublishingDraft() {
+        // Given
+        Post post = createTestPost();
+        post.setIsPublished(false);
+        post.setPublishedAt(null);
+        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.updatePost(any(), any())).thenReturn(true);
+
+        // When
+        underTest.publishDraft(post.getSlug());
+
+        // Then
+        InOrder inOrder = inOrder(postDao, counterService);
+        inOrder.verify(postDao).updatePost(any(), any());
+        inOrder.verify(counterService).postPublished(post.getId());
+        verify(counterService, never()).postUnpublishing(anyLong());
+    }
+
+    @Test
+    void itShouldRejectUpdateWhenPostChangedConcurrently() {
+        // Given
+        Post post = createTestPost();
+        CreatePostRequest request = new CreatePostRequest(
+                FAKER.lorem().sentence(),
+                post.getSlug(),
+                FAKER.lorem().paragraph(),
+                FAKER.lorem().sentence(),
+                null, // coverImage
+                null, // contentImage
+                null, // authorId
+                null, // tagIds
+                true,
+                5,
+                null // scheduledAt
+        );
+
+        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.updatePost(any(), any())).thenReturn(false);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.updatePost(post.getSlug(), request))
+                .isInstanceOf(ConflictException.class);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void itShouldRejectUpdateFromStaleExpectedVersion() {
+        // Given
+        Post post = createTestPost();
+        CreatePostRequest request = new CreatePostRequest(
+                FAKER.lorem().sentence(),
+                post.getSlug(),
+                FAKER.lorem().paragraph(),
+                FAKER.lorem().sentence(),
+                null, // coverImage
+                null, // contentImage
+                null, // authorId
+                null, // tagIds
+                true,
+                5,
+                null, // scheduledAt
+                post.getUpdatedAt().minusMinutes(1).toString()
+        );
+
+        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.updatePost(post.getSlug(), request))
+                .isInstanceOf(ConflictException.class);
+        verify(postDao, never()).updatePost(any(), any());
+    }
+
     @Test
     void itShouldReturnEmptyWhenUpdatingNonExistentPost() {
         // Given
@@ -345,7 +882,7 @@ class PostServiceTest {
 
         // Then
         verify(postDao).selectPostBySlug(slug);
-        verify(postDao, never()).updatePost(any());
+        verify(postDao, never()).updatePost(any(), any());
         assertThat(result).isEmpty();
     }
 
@@ -353,14 +890,17 @@ class PostServiceTest {
     void itShouldDeletePost() {
         // Given
         Post post = createTestPost();
-        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.resolveIdBySlug(post.getSlug())).thenReturn(Optional.of(post.getId()));
 
         // When
         boolean result = underTest.deletePost(post.getSlug());
 
         // Then
-        verify(postDao).selectPostBySlug(post.getSlug());
-        verify(postDao).deletePostById(post.getId());
+        verify(postDao).resolveIdBySlug(post.getSlug());
+        verify(postDao, never()).selectPostBySlug(anyString());
+        InOrder inOrder = inOrder(counterService, postDao);
+        inOrder.verify(counterService).postUnpublishing(post.getId());
+        inOrder.verify(postDao).deletePostById(post.getId());
         assertThat(result).isTrue();
     }
 
@@ -368,13 +908,13 @@ class PostServiceTest {
     void itShouldReturnFalseWhenDeletingNonExistentPost() {
         // Given
         String slug = String.join("-", FAKER.lorem().words(3)).toLowerCase();
-        when(postDao.selectPostBySlug(slug)).thenReturn(Optional.empty());
+        when(postDao.resolveIdBySlug(slug)).thenReturn(Optional.empty());
 
         // When
         boolean result = underTest.deletePost(slug);
 
         // Then
-        verify(postDao).selectPostBySlug(slug);
+        verify(postDao).resolveIdBySlug(slug);
         verify(postDao, never()).deletePostById(anyLong());
         assertThat(result).isFalse();
     }
@@ -383,21 +923,25 @@ class PostServiceTest {
     void itShouldIncrementViews() {
         // Given
         Post post = createTestPost();
-        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(postDao.resolveIdBySlug(post.getSlug())).thenReturn(Optional.of(post.getId()));
 
         // When
         underTest.incrementViews(post.getSlug());
+        underTest.incrementViews(post.getSlug());
 
         // Then
-        verify(postDao).selectPostBySlug(post.getSlug());
-        verify(postDao).incrementViews(post.getId());
+        verify(viewCounter, times(2)).record(post.getId());
+        // The slug is resolved once and then served from the resolver cache
+        verify(postDao, times(1)).resolveIdBySlug(post.getSlug());
+        verify(postDao, never()).selectPostBySlug(anyString());
+        verify(postDao, never()).addViews(anyMap());
     }
 
     @Test
     void itShouldThrowWhenIncrementingViewsForNonExistentPost() {
         // Given
         String slug = String.join("-", FAKER.lorem().words(3)).toLowerCase();
-        when(postDao.selectPostBySlug(slug)).thenReturn(Optional.empty());
+        when(postDao.resolveIdBySlug(slug)).thenReturn(Optional.empty());
 
         // When
         assertThatThrownBy(() -> underTest.incrementViews(slug))
@@ -405,21 +949,7 @@ class PostServiceTest {
                 .hasMessageContaining("Post not found");
 
         // Then
-        verify(postDao, never()).incrementViews(anyLong());
-    }
-
-    @Test
-    void itShouldIncrementLikes() {
-        // Given
-        Post post = createTestPost();
-        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
-
-        // When
-        underTest.incrementLikes(post.getSlug());
-
-        // Then
-        verify(postDao).selectPostBySlug(post.getSlug());
-        verify(postDao).incrementLikes(post.getId());
+        verify(viewCounter, never()).record(anyLong());
     }
 
     @Test
@@ -442,51 +972,23 @@ class PostServiceTest {
     }
 
     @Test
-    void itShouldReplaceContentImagePlaceholder() {
+    void itShouldGiveTheEditorTheMarkdownAsWritten() {
         // Given
         Post post = createTestPost();
         Author author = createTestAuthor();
         post.setAuthor(author);
         String contentWithPlaceholder = "Some content {{content_image}} more content";
-        String contentImageUrl = FAKER.internet().image();
         post.setContent(contentWithPlaceholder);
-        post.setContentImage(contentImageUrl);
-        
-        when(postDao.selectPublishedPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
-        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(author.getId());
-        when(jdbcTemplate.query(anyString(), isA(org.springframework.jdbc.core.RowMapper.class), anyLong())).thenReturn(new ArrayList<>());
-
-        // When
-        Optional<PostDTO> result = underTest.getPostBySlug(post.getSlug());
-
-        // Then
-        assertThat(result).isPresent();
-        String processedContent = result.get().content();
-        assertThat(processedContent).contains("![Content Image](" + contentImageUrl + ")");
-        assertThat(processedContent).doesNotContain("{{content_image}}");
-    }
+        post.setContentImage(FAKER.internet().image());
 
-    @Test
-    void itShouldNotReplacePlaceholderWhenContentImageIsNull() {
-        // Given
-        Post post = createTestPost();
-        Author author = createTestAuthor();
-        post.setAuthor(author);
-        String contentWithPlaceholder = "Some content {{content_image}} more content";
-        post.setContent(contentWithPlaceholder);
-        post.setContentImage(null);
-        
-        when(postDao.selectPublishedPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
-        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), anyLong())).thenReturn(author.getId());
-        when(jdbcTemplate.query(anyString(), isA(org.springframework.jdbc.core.RowMapper.class), anyLong())).thenReturn(new ArrayList<>());
+        when(postDao.selectPostBySlug(post.getSlug())).thenReturn(Optional.of(post));
+        when(authorDao.selectAuthorsByIds(any())).thenReturn(List.of(author));
 
         // When
-        Optional<PostDTO> result = underTest.getPostBySlug(post.getSlug());
+        Optional<PostDTO> result = underTest.getPostBySlugForAdmin(post.getSlug());
 
         // Then
         assertThat(result).isPresent();
-        String processedContent = result.get().content();
-        assertThat(processedContent).contains("{{content_image}}");
-        assertThat(processedContent).doesNotContain("![Content Image]");
+        assertThat(result.get().content()).isEqualTo(contentWithPlaceholder);
     }
 }
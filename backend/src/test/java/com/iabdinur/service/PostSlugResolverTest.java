@@ -0,0 +1,154 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.PostDao;
+import com.iabdinur.dto.PostDTO;
+import com.iabdinur.search.SearchIndexEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PostSlugResolverTest {
+
+    private PostSlugResolver underTest;
+    private AutoCloseable autoCloseable;
+
+    @Mock
+    private PostDao postDao;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        underTest = new PostSlugResolver(postDao, 300);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void itShouldQueryOnlyOncePerSlug() {
+        // Given
+        when(postDao.resolveIdBySlug("hello")).thenReturn(Optional.of(1L));
+
+        // When
+        underTest.resolve("hello");
+        Optional<Long> actual = underTest.resolve("hello");
+
+        // Then
+        assertThat(actual).contains(1L);
+        verify(postDao, times(1)).resolveIdBySlug("hello");
+        assertThat(underTest.stats().hits()).isEqualTo(1);
+        assertThat(underTest.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldNotCacheUnknownSlugs() {
+        // Given
+        when(postDao.resolveIdBySlug("later")).thenReturn(Optional.empty(), Optional.of(2L));
+
+        // When
+        Optional<Long> first = underTest.resolve("later");
+        Optional<Long> second = underTest.resolve("later");
+
+        // Then
+        assertThat(first).isEmpty();
+        assertThat(second).contains(2L);
+    }
+
+    @Test
+    void itShouldReloadAfterInvalidate() {
+        // Given
+        when(postDao.resolveIdBySlug("hello")).thenReturn(Optional.of(1L), Optional.of(3L));
+        when(postDao.resolvePublishedIdBySlug("hello")).thenReturn(Optional.of(1L), Optional.empty());
+        underTest.resolve("hello");
+        underTest.resolvePublished("hello");
+
+        // When
+        underTest.invalidate("hello");
+
+        // Then
+        assertThat(underTest.resolve("hello")).contains(3L);
+        assertThat(underTest.resolvePublished("hello")).isEmpty();
+    }
+
+    @Test
+    void itShouldEvictLeastRecentlyUsedSlugWhenFull() {
+        // Given
+        when(postDao.resolveIdBySlug(anyString())).thenAnswer(invocation ->
+                Optional.of((long) invocation.<String>getArgument(0).hashCode()));
+        underTest.resolve("hot");
+        for (int i = 0; i < PostSlugResolver.MAX_ENTRIES; i++) {
+            underTest.resolve("post-" + i);
+            underTest.resolve("hot");
+        }
+
+        // When
+        underTest.resolve("hot");
+        underTest.resolve("post-0");
+
+        // Then
+        verify(postDao, times(1)).resolveIdBySlug("hot");
+        verify(postDao, times(2)).resolveIdBySlug("post-0");
+        assertThat(underTest.stats().evictions()).isPositive();
+        assertThat(underTest.stats().size()).isLessThanOrEqualTo(PostSlugResolver.MAX_ENTRIES);
+    }
+
+    @Test
+    void itShouldDropTheOldSlugOnceARenameCommits() {
+        // Given
+        when(postDao.resolveIdBySlug("old-slug")).thenReturn(Optional.of(1L), Optional.empty());
+        when(postDao.resolvePublishedIdBySlug("old-slug")).thenReturn(Optional.of(1L), Optional.empty());
+        underTest.resolve("old-slug");
+        underTest.resolvePublished("old-slug");
+
+        // When
+        underTest.onChange(new SearchIndexEvent.PostUpserted(post("1", "new-slug")));
+
+        // Then
+        assertThat(underTest.resolve("old-slug")).isEmpty();
+        assertThat(underTest.resolvePublished("old-slug")).isEmpty();
+    }
+
+    @Test
+    void itShouldDropTheSlugOfARemovedPost() {
+        // Given
+        when(postDao.resolvePublishedIdBySlug("hello")).thenReturn(Optional.of(1L), Optional.empty());
+        underTest.resolvePublished("hello");
+
+        // When
+        underTest.onChange(new SearchIndexEvent.PostRemoved(1L));
+
+        // Then
+        assertThat(underTest.resolvePublished("hello")).isEmpty();
+    }
+
+    @Test
+    void itShouldReloadEntriesPastTheirTtl() {
+        // Given
+        PostSlugResolver expiring = new PostSlugResolver(postDao, 0);
+        when(postDao.resolveIdBySlug("hello")).thenReturn(Optional.of(1L));
+
+        // When
+        expiring.resolve("hello");
+        expiring.resolve("hello");
+
+        // Then
+        verify(postDao, times(2)).resolveIdBySlug("hello");
+        assertThat(expiring.stats().expirations()).isEqualTo(1);
+    }
+
+    private static PostDTO post(String id, String slug) {
+        return new PostDTO(id, "Title " + id, slug, "content", null, null, null, null, null, null,
+                null, List.of(), 1, 0L, 0L, 0, true, null);
+    }
+}
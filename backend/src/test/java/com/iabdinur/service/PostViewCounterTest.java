@@ -0,0 +1,84 @@
+package com.iabdinur.service;
+
+import com.iabdinur.dao.PostDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class PostViewCounterTest {
+
+    private PostViewCounter underTest;
+    private AutoCloseable autoCloseable;
+
+    @Mock
+    private PostDao postDao;
+
+    @BeforeEach
+    void setUp() {
+        autoCloseable = MockitoAnnotations.openMocks(this);
+        underTest = new PostViewCounter(postDao);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        autoCloseable.close();
+    }
+
+    @Test
+    void itShouldFlushAccumulatedViewsInOneBatch() throws InterruptedException {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            long postId = i % 2 == 0 ? 1L : 2L;
+            executor.submit(() -> underTest.record(postId));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        underTest.flush();
+
+        // Then
+        verify(postDao, times(1)).addViews(Map.of(1L, 500L, 2L, 500L));
+        assertThat(underTest.metrics().flushedViews()).isEqualTo(1000L);
+        assertThat(underTest.metrics().pendingViews()).isZero();
+    }
+
+    @Test
+    void itShouldSkipFlushWhenNothingIsPending() {
+        // When
+        underTest.flush();
+
+        // Then
+        verify(postDao, never()).addViews(anyMap());
+    }
+
+    @Test
+    void itShouldRequeueViewsWhenFlushFails() {
+        // Given
+        underTest.record(7L);
+        underTest.record(7L);
+        when(postDao.addViews(anyMap())).thenThrow(new RuntimeException("database down")).thenReturn(1);
+
+        // When
+        underTest.flush();
+        underTest.record(7L);
+        underTest.flush();
+
+        // Then
+        verify(postDao).addViews(Map.of(7L, 3L));
+        assertThat(underTest.metrics().failedFlushes()).isEqualTo(1L);
+        assertThat(underTest.metrics().flushedViews()).isEqualTo(3L);
+    }
+}
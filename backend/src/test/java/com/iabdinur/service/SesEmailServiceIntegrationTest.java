@@ -1,6 +1,7 @@
 package com.iabdinur.service;
 
 import com.iabdinur.dao.SentEmailDao;
+import com.iabdinur.model.RenderedEmail;
 import com.iabdinur.model.SentEmail;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import software.amazon.awssdk.services.ses.model.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +28,9 @@ class SesEmailServiceIntegrationTest {
     
     @Mock
     private SentEmailDao sentEmailDao;
+    
+    @Mock
+    private EmailOutbox emailOutbox;
 
     @BeforeEach
     void setUp() {
@@ -36,12 +41,18 @@ class SesEmailServiceIntegrationTest {
             "secretKey123",
             "us-east-2",
             true, // ENABLED
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
         
         // Inject mocked SesClient using reflection
         ReflectionTestUtils.setField(underTest, "sesClient", sesClient);
+        
+        // Deliver queued emails straight away and record them, as the outbox worker would
+        doAnswer(invocation -> {
+            sentEmailDao.insertSentEmail(underTest.sendRendered(invocation.getArgument(0), invocation.getArgument(1)));
+            return null;
+        }).when(emailOutbox).enqueue(anyString(), any(RenderedEmail.class), any());
     }
 
     @Test
@@ -1,22 +1,31 @@
 package com.iabdinur.service;
 
-import com.iabdinur.dao.SentEmailDao;
+import com.iabdinur.model.RenderedEmail;
 import com.iabdinur.model.SentEmail;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.SendEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendEmailResponse;
+import software.amazon.awssdk.services.ses.model.SesException;
+
+import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class SesEmailServiceTest {
 
     @Mock
-    private SentEmailDao sentEmailDao;
+    private EmailOutbox emailOutbox;
 
     @Test
     void shouldInitializeServiceWhenDisabled() {
@@ -27,7 +36,7 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
 
         // When
@@ -46,7 +55,7 @@ class SesEmailServiceTest {
             "secretKey123",
             "us-east-2",
             true,
-            sentEmailDao
+            emailOutbox
         );
 
         // When
@@ -65,7 +74,7 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             true,
-            sentEmailDao
+            emailOutbox
         );
 
         // When
@@ -76,7 +85,7 @@ class SesEmailServiceTest {
     }
 
     @Test
-    void shouldLogToConsoleWhenSendingVerificationCodeAndServiceDisabled() {
+    void shouldQueueVerificationCodeExpiringWithTheCode() {
         // Given
         SesEmailService underTest = new SesEmailService(
             "noreply@test.com",
@@ -84,28 +93,29 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
 
-        ArgumentCaptor<SentEmail> sentEmailCaptor = ArgumentCaptor.forClass(SentEmail.class);
+        ArgumentCaptor<RenderedEmail> emailCaptor = ArgumentCaptor.forClass(RenderedEmail.class);
+        ArgumentCaptor<LocalDateTime> expiresAtCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        LocalDateTime before = LocalDateTime.now();
 
         // When
         underTest.sendVerificationCode("test@example.com", "123456", 10);
 
         // Then
-        verify(sentEmailDao).insertSentEmail(sentEmailCaptor.capture());
-        SentEmail captured = sentEmailCaptor.getValue();
+        verify(emailOutbox).enqueue(eq("test@example.com"), emailCaptor.capture(), expiresAtCaptor.capture());
+        RenderedEmail captured = emailCaptor.getValue();
         
-        assertThat(captured.getRecipientEmail()).isEqualTo("test@example.com");
-        assertThat(captured.getSubject()).isEqualTo("Your Verification Code");
-        assertThat(captured.getEmailType()).isEqualTo("verification_code");
-        assertThat(captured.getStatus()).isEqualTo("disabled");
-        assertThat(captured.getErrorMessage()).contains("SES is disabled");
+        assertThat(captured.subject()).isEqualTo("Your Verification Code");
+        assertThat(captured.emailType()).isEqualTo("verification_code");
+        assertThat(captured.html()).contains("123456");
+        assertThat(expiresAtCaptor.getValue()).isBetween(before.plusMinutes(10), LocalDateTime.now().plusMinutes(10));
     }
 
     @Test
-    void shouldLogToConsoleWhenSendingPostNotificationAndServiceDisabled() {
+    void shouldQueuePostNotificationWithoutExpiry() {
         // Given
         SesEmailService underTest = new SesEmailService(
             "noreply@test.com",
@@ -113,11 +123,11 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
 
-        ArgumentCaptor<SentEmail> sentEmailCaptor = ArgumentCaptor.forClass(SentEmail.class);
+        ArgumentCaptor<RenderedEmail> emailCaptor = ArgumentCaptor.forClass(RenderedEmail.class);
 
         // When
         underTest.sendPostNotification(
@@ -128,13 +138,37 @@ class SesEmailServiceTest {
         );
 
         // Then
-        verify(sentEmailDao).insertSentEmail(sentEmailCaptor.capture());
-        SentEmail captured = sentEmailCaptor.getValue();
+        verify(emailOutbox).enqueue(eq("test@example.com"), emailCaptor.capture(), isNull());
+        RenderedEmail captured = emailCaptor.getValue();
         
-        assertThat(captured.getRecipientEmail()).isEqualTo("test@example.com");
-        assertThat(captured.getSubject()).isEqualTo("New Post: New Blog Post");
-        assertThat(captured.getEmailType()).isEqualTo("post_notification");
-        assertThat(captured.getStatus()).isEqualTo("disabled");
+        assertThat(captured.subject()).isEqualTo("New Post: New Blog Post");
+        assertThat(captured.emailType()).isEqualTo("post_notification");
+        assertThat(captured.html()).contains("This is a great post");
+    }
+
+    @Test
+    void shouldRecordRenderedEmailAsDisabledWhenServiceDisabled() {
+        // Given
+        SesEmailService underTest = new SesEmailService(
+            "noreply@test.com",
+            "",
+            "",
+            "us-east-2",
+            false,
+            emailOutbox
+        );
+        underTest.init();
+        RenderedEmail email = underTest.renderVerificationCode("123456", 10);
+
+        // When
+        SentEmail record = underTest.sendRendered("test@example.com", email);
+
+        // Then
+        assertThat(record.getRecipientEmail()).isEqualTo("test@example.com");
+        assertThat(record.getSubject()).isEqualTo("Your Verification Code");
+        assertThat(record.getEmailType()).isEqualTo("verification_code");
+        assertThat(record.getStatus()).isEqualTo("disabled");
+        assertThat(record.getErrorMessage()).contains("SES is disabled");
     }
 
     @Test
@@ -146,7 +180,7 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
 
         // When
@@ -166,7 +200,7 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
 
         // When
@@ -185,7 +219,7 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
 
@@ -205,7 +239,7 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
 
@@ -214,7 +248,7 @@ class SesEmailServiceTest {
         underTest.sendVerificationCode("test@example.com", "111111", 15);
 
         // Then
-        verify(sentEmailDao, times(2)).insertSentEmail(any(SentEmail.class));
+        verify(emailOutbox, times(2)).enqueue(anyString(), any(RenderedEmail.class), any());
     }
 
     @Test
@@ -226,7 +260,7 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
 
@@ -239,7 +273,7 @@ class SesEmailServiceTest {
         );
 
         // Then
-        verify(sentEmailDao).insertSentEmail(any(SentEmail.class));
+        verify(emailOutbox).enqueue(anyString(), any(RenderedEmail.class), any());
     }
 
     @Test
@@ -251,11 +285,11 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
 
-        ArgumentCaptor<SentEmail> sentEmailCaptor = ArgumentCaptor.forClass(SentEmail.class);
+        ArgumentCaptor<RenderedEmail> emailCaptor = ArgumentCaptor.forClass(RenderedEmail.class);
 
         // When
         underTest.sendPostNotification(
@@ -266,8 +300,8 @@ class SesEmailServiceTest {
         );
 
         // Then
-        verify(sentEmailDao).insertSentEmail(sentEmailCaptor.capture());
-        assertThat(sentEmailCaptor.getValue().getSubject()).isEqualTo("New Post: Post Title");
+        verify(emailOutbox).enqueue(eq("test@example.com"), emailCaptor.capture(), isNull());
+        assertThat(emailCaptor.getValue().subject()).isEqualTo("New Post: Post Title");
     }
 
     @Test
@@ -279,7 +313,7 @@ class SesEmailServiceTest {
             "",
             "us-east-1",
             false,
-            sentEmailDao
+            emailOutbox
         );
         
         SesEmailService underTest2 = new SesEmailService(
@@ -288,7 +322,7 @@ class SesEmailServiceTest {
             "",
             "eu-west-1",
             false,
-            sentEmailDao
+            emailOutbox
         );
 
         // When
@@ -309,7 +343,7 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
 
@@ -319,7 +353,7 @@ class SesEmailServiceTest {
         }
 
         // Then
-        verify(sentEmailDao, times(5)).insertSentEmail(any(SentEmail.class));
+        verify(emailOutbox, times(5)).enqueue(anyString(), any(RenderedEmail.class), any());
     }
 
     @Test
@@ -331,7 +365,7 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
 
@@ -346,7 +380,7 @@ class SesEmailServiceTest {
         }
 
         // Then
-        verify(sentEmailDao, times(3)).insertSentEmail(any(SentEmail.class));
+        verify(emailOutbox, times(3)).enqueue(anyString(), any(RenderedEmail.class), any());
     }
 
     @Test
@@ -358,7 +392,7 @@ class SesEmailServiceTest {
             "",
             "us-east-2",
             false,
-            sentEmailDao
+            emailOutbox
         );
         underTest.init();
 
@@ -366,6 +400,68 @@ class SesEmailServiceTest {
         underTest.sendVerificationCode("test@example.com", "ABC123", 10);
 
         // Then
-        verify(sentEmailDao).insertSentEmail(any(SentEmail.class));
+        verify(emailOutbox).enqueue(anyString(), any(RenderedEmail.class), any());
+    }
+
+    @Test
+    void shouldRenderPostNotificationOnceForAnyRecipient() {
+        // Given
+        SesEmailService underTest = new SesEmailService(
+            "noreply@test.com",
+            "",
+            "",
+            "us-east-2",
+            false,
+            emailOutbox
+        );
+        underTest.init();
+
+        // When
+        RenderedEmail email = underTest.renderPostNotification("Post Title", "post-slug", "An excerpt");
+
+        // Then
+        assertThat(email.subject()).isEqualTo("New Post: Post Title");
+        assertThat(email.emailType()).isEqualTo("post_notification");
+        assertThat(email.html()).contains("Post Title", "An excerpt", "/post/post-slug");
+        verifyNoInteractions(emailOutbox);
+    }
+
+    @Test
+    void shouldSendRenderedEmailWithoutRecordingIt() {
+        // Given
+        SesClient sesClient = mock(SesClient.class);
+        when(sesClient.sendEmail(any(SendEmailRequest.class)))
+            .thenReturn(SendEmailResponse.builder().messageId("message-1").build());
+        SesEmailService underTest = SesEmailService.withClient("noreply@test.com", sesClient, emailOutbox);
+        RenderedEmail email = new RenderedEmail("New Post: Title", "<p>Body</p>", "post_notification");
+
+        // When
+        SentEmail record = underTest.sendRendered("reader@example.com", email);
+
+        // Then
+        ArgumentCaptor<SendEmailRequest> request = ArgumentCaptor.forClass(SendEmailRequest.class);
+        verify(sesClient).sendEmail(request.capture());
+        assertThat(request.getValue().destination().toAddresses()).containsExactly("reader@example.com");
+        assertThat(request.getValue().message().body().html().data()).isEqualTo("<p>Body</p>");
+        assertThat(record.getStatus()).isEqualTo("sent");
+        assertThat(record.getSesMessageId()).isEqualTo("message-1");
+        verifyNoInteractions(emailOutbox);
+    }
+
+    @Test
+    void shouldReturnFailedRecordWhenSesRejectsRenderedEmail() {
+        // Given
+        SesClient sesClient = mock(SesClient.class);
+        when(sesClient.sendEmail(any(SendEmailRequest.class)))
+            .thenThrow(SesException.builder().message("Throttling").build());
+        SesEmailService underTest = SesEmailService.withClient("noreply@test.com", sesClient, emailOutbox);
+        RenderedEmail email = new RenderedEmail("New Post: Title", "<p>Body</p>", "post_notification");
+
+        // When
+        SentEmail record = underTest.sendRendered("reader@example.com", email);
+
+        // Then
+        assertThat(record.getStatus()).isEqualTo("failed");
+        assertThat(record.getErrorMessage()).contains("Throttling");
     }
 }
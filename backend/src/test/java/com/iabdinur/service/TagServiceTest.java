@@ -5,12 +5,14 @@ import com.iabdinur.dao.TagDao;
 import com.iabdinur.dto.CreateTagRequest;
 import com.iabdinur.dto.TagDTO;
 import com.iabdinur.model.Tag;
+import com.iabdinur.search.SearchIndexEvent;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDateTime;
@@ -32,13 +34,15 @@ class TagServiceTest {
     private TagDao tagDao;
     @Mock
     private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private final Faker FAKER = new Faker();
 
     @BeforeEach
     void setUp() {
         autoCloseable = MockitoAnnotations.openMocks(this);
-        underTest = new TagService(tagDao, jdbcTemplate);
+        underTest = new TagService(tagDao, jdbcTemplate, eventPublisher);
     }
 
     @AfterEach
@@ -149,6 +153,7 @@ class TagServiceTest {
         assertEquals(0, capturedTag.getPostsCount());
         assertThat(result).isNotNull();
         assertThat(result.id()).isNotNull();
+        verify(eventPublisher).publishEvent(new SearchIndexEvent.TagUpserted(result));
     }
 
     @Test
@@ -144,7 +144,10 @@ class UserServiceTest {
         var authorDao = new com.iabdinur.dao.AuthorDao() {
             @Override public java.util.List<com.iabdinur.model.Author> selectAllAuthors() { return java.util.List.of(); }
             @Override public java.util.Optional<com.iabdinur.model.Author> selectAuthorById(Long authorId) { return java.util.Optional.empty(); }
+            @Override public java.util.List<com.iabdinur.model.Author> selectAuthorsByIds(java.util.Collection<Long> authorIds) { return java.util.List.of(); }
             @Override public java.util.Optional<com.iabdinur.model.Author> selectAuthorByUsername(String username) { return java.util.Optional.empty(); }
+            @Override public java.util.Optional<com.iabdinur.util.ContentVersion> selectAuthorVersion(String idOrUsername) { return java.util.Optional.empty(); }
+            @Override public com.iabdinur.util.ContentVersion selectAuthorsVersion() { return null; }
             @Override public void insertAuthor(com.iabdinur.model.Author author) { }
             @Override public boolean existsAuthorWithUsername(String username) { return false; }
             @Override public boolean existsAuthorWithEmail(String email) { return false; }
@@ -152,7 +155,7 @@ class UserServiceTest {
             @Override public void deleteAuthorById(Long authorId) { }
             @Override public void updateAuthor(com.iabdinur.model.Author update) { }
         };
-        this.authorService = new AuthorService(authorDao, jdbcTemplate) {
+        this.authorService = new AuthorService(authorDao, jdbcTemplate, event -> { }) {
             @Override
             public java.util.Optional<com.iabdinur.dto.AuthorDTO> getAuthorByEmail(String email) {
                 return java.util.Optional.empty();
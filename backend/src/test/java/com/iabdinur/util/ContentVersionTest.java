@@ -0,0 +1,104 @@
+package com.iabdinur.util;
+
+import com.iabdinur.dto.PostDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentVersionTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static PostDTO post(Long likes) {
+        return new PostDTO("42", "Title", "title", "content", null, null, null, null, null,
+                UPDATED_AT.toString(), null, List.of(), 1, 100L, likes, 3, true, null);
+    }
+
+    private static ServletWebRequest request(String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/posts/title");
+        request.addHeader(header, value);
+        return new ServletWebRequest(request);
+    }
+
+    @Test
+    void itShouldDeriveTheSameVersionFromTheDtoAsFromTheRow() {
+        // When
+        ContentVersion fromRow = ContentVersion.ofPost(42L, UPDATED_AT, 5L, 3);
+        ContentVersion fromDto = ContentVersion.ofPost(post(5L));
+
+        // Then
+        assertThat(fromDto).isEqualTo(fromRow);
+        assertThat(fromRow.etag()).startsWith("W/\"").endsWith("\"");
+    }
+
+    @Test
+    void itShouldKeepBodyEtagsStrong() {
+        // When
+        ContentVersion version = ContentVersion.ofPostBody(42L, UPDATED_AT, "gzip");
+
+        // Then
+        assertThat(version.etag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void itShouldChangeEtagWhenLikesChange() {
+        // When
+        ContentVersion before = ContentVersion.ofPost(post(5L));
+        ContentVersion after = ContentVersion.ofPost(post(6L));
+
+        // Then
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+    }
+
+    @Test
+    void itShouldMatchIfNoneMatchIncludingWeakComparison() {
+        // Given
+        ContentVersion version = ContentVersion.ofPost(post(5L));
+
+        // Then
+        assertThat(version.isNotModified(request(HttpHeaders.IF_NONE_MATCH, version.etag()))).isTrue();
+        assertThat(version.isNotModified(request(HttpHeaders.IF_NONE_MATCH, "\"other\", " + version.etag().substring(2)))).isTrue();
+        assertThat(version.isNotModified(request(HttpHeaders.IF_NONE_MATCH, "\"other\""))).isFalse();
+    }
+
+    @Test
+    void itShouldFallBackToIfModifiedSince() {
+        // Given
+        ContentVersion version = ContentVersion.ofPost(post(5L));
+        ZonedDateTime lastModified = UPDATED_AT.atZone(ZoneId.systemDefault());
+        String sameSecond = DateTimeFormatter.RFC_1123_DATE_TIME.format(lastModified.withZoneSameInstant(ZoneId.of("GMT")));
+        String before = DateTimeFormatter.RFC_1123_DATE_TIME.format(lastModified.minusMinutes(1).withZoneSameInstant(ZoneId.of("GMT")));
+
+        // Then
+        assertThat(version.isNotModified(request(HttpHeaders.IF_MODIFIED_SINCE, sameSecond))).isTrue();
+        assertThat(version.isNotModified(request(HttpHeaders.IF_MODIFIED_SINCE, before))).isFalse();
+        assertThat(version.isNotModified(request(HttpHeaders.IF_MODIFIED_SINCE, "not a date"))).isFalse();
+    }
+
+    @Test
+    void itShouldBuildNotModifiedResponseWithValidators() {
+        // Given
+        ContentVersion version = ContentVersion.ofPost(post(5L));
+
+        // When
+        ResponseEntity<PostDTO> response = version.notModified();
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        assertThat(response.getHeaders().getETag()).isEqualTo(version.etag());
+        assertThat(response.getHeaders().getLastModified()).isPositive();
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache");
+    }
+}
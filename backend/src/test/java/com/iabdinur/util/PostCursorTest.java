@@ -0,0 +1,75 @@
+package com.iabdinur.util;
+
+import com.iabdinur.model.Post;
+import com.iabdinur.model.PostSort;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostCursorTest {
+
+    @Test
+    void itShouldRoundTripEncodedCursor() {
+        // Given
+        PostCursor cursor = PostCursor.of(PostSort.LATEST, publishedAt(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000), 42L));
+
+        // When
+        PostCursor actual = PostCursor.decode(cursor.encode());
+
+        // Then
+        assertThat(actual).isEqualTo(cursor);
+    }
+
+    @Test
+    void itShouldRoundTripCursorWithZeroSeconds() {
+        // Given
+        PostCursor cursor = PostCursor.of(PostSort.LATEST, publishedAt(LocalDateTime.of(2025, 1, 1, 0, 0), 7L));
+
+        // When
+        PostCursor actual = PostCursor.decode(cursor.encode());
+
+        // Then
+        assertThat(actual).isEqualTo(cursor);
+    }
+
+    @Test
+    void itShouldRoundTripTopCursor() {
+        // Given
+        Post post = publishedAt(LocalDateTime.now(), 3L);
+        post.setLikes(128L);
+        PostCursor cursor = PostCursor.of(PostSort.TOP, post);
+
+        // When
+        PostCursor actual = PostCursor.decode(cursor.encode());
+
+        // Then
+        assertThat(actual).isEqualTo(cursor);
+        assertThat(actual.sqlKey()).isEqualTo(128L);
+    }
+
+    @Test
+    void itShouldRejectCursorWithUnparseableKey() {
+        String cursor = new PostCursor(PostSort.DISCUSSIONS, "many", 1L).encode();
+
+        assertThatThrownBy(() -> PostCursor.decode(cursor))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void itShouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> PostCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    private static Post publishedAt(LocalDateTime publishedAt, Long id) {
+        Post post = new Post();
+        post.setId(id);
+        post.setPublishedAt(publishedAt);
+        return post;
+    }
+}
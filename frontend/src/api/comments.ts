@@ -1,10 +1,16 @@
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query'
+import { useInfiniteQuery, useMutation, useQuery, useQueryClient } from '@tanstack/react-query'
 import { apiClient } from './client'
-import { Comment } from '@/types'
+import { Comment, CommentPage, CommentThread } from '@/types'
 
 export const commentsApi = {
-  getByPost: async (slug: string) => {
-    const { data } = await apiClient.get<Comment[]>(`/posts/${slug}/comments`)
+  getByPost: async (slug: string, cursor?: string) => {
+    const { data } = await apiClient.get<CommentPage>(`/posts/${slug}/comments`, {
+      params: { cursor },
+    })
+    return data
+  },
+  getThread: async (slug: string, commentId: string) => {
+    const { data } = await apiClient.get<CommentThread>(`/posts/${slug}/comments/${commentId}/thread`)
     return data
   },
   create: async (slug: string, content: string, parentId?: string) => {
@@ -27,13 +33,23 @@ export const commentsApi = {
 }
 
 export const useComments = (slug: string) => {
-  return useQuery({
+  return useInfiniteQuery({
     queryKey: ['comments', slug],
-    queryFn: () => commentsApi.getByPost(slug),
+    queryFn: ({ pageParam }) => commentsApi.getByPost(slug, pageParam),
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: (lastPage) => (lastPage.hasMore ? lastPage.nextCursor : undefined),
     enabled: !!slug,
   })
 }
 
+export const useThread = (slug: string, commentId: string, enabled: boolean) => {
+  return useQuery({
+    queryKey: ['comments', slug, 'thread', commentId],
+    queryFn: () => commentsApi.getThread(slug, commentId),
+    enabled: !!slug && enabled,
+  })
+}
+
 export const useCreateComment = () => {
   const queryClient = useQueryClient()
   return useMutation({
@@ -41,6 +57,7 @@ export const useCreateComment = () => {
       commentsApi.create(slug, content, parentId),
     onSuccess: (_, variables) => {
       queryClient.invalidateQueries({ queryKey: ['comments', variables.slug] })
+      queryClient.invalidateQueries({ queryKey: ['post', variables.slug], exact: true })
     },
   })
 }
@@ -63,6 +80,7 @@ export const useDeleteComment = () => {
       commentsApi.delete(slug, commentId),
     onSuccess: (_, variables) => {
       queryClient.invalidateQueries({ queryKey: ['comments', variables.slug] })
+      queryClient.invalidateQueries({ queryKey: ['post', variables.slug], exact: true })
     },
   })
 }
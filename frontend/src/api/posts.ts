@@ -15,10 +15,16 @@ export const postsApi = {
     })
     return response.data
   },
+  // The post without its body, which getBody serves
   getBySlug: async (slug: string) => {
     const response = await apiClient.get(`/posts/${slug}`)
     return response.data
   },
+  // Body pre-rendered to sanitized HTML on the server
+  getBody: async (slug: string): Promise<string> => {
+    const response = await apiClient.get(`/posts/${slug}/body`, { responseType: 'text' })
+    return response.data
+  },
   getByAuthor: async (authorId: string, params?: { page?: number; limit?: number }) => {
     const response = await apiClient.get('/posts', {
       params: {
@@ -110,6 +116,14 @@ export const usePost = (slug: string) => {
   })
 }
 
+export const usePostBody = (slug: string) => {
+  return useQuery({
+    queryKey: ['post', slug, 'body'],
+    queryFn: () => postsApi.getBody(slug),
+    enabled: !!slug,
+  })
+}
+
 export const usePostSearch = (query: string, params?: { page?: number; limit?: number }) => {
   return useQuery({
     queryKey: ['posts', 'search', query, params],
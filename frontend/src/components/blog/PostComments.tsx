@@ -1,7 +1,7 @@
 import { Box, VStack, Heading, Textarea, Button, HStack, Text, useToast, IconButton, useDisclosure, AlertDialog, AlertDialogBody, AlertDialogFooter, AlertDialogHeader, AlertDialogContent, AlertDialogOverlay } from '@chakra-ui/react'
 import { useState, useRef } from 'react'
 import { Comment } from '@/types'
-import { useComments, useCreateComment, useUpdateComment, useDeleteComment } from '@/api/comments'
+import { useComments, useThread, useCreateComment, useUpdateComment, useDeleteComment } from '@/api/comments'
 import { PostAuthor } from './PostAuthor'
 import { formatRelativeTime } from '@/utils/date'
 import { LoginRegisterModal } from '@/components/ui/LoginRegisterModal'
@@ -10,6 +10,7 @@ import { FaEdit, FaTrash } from 'react-icons/fa'
 
 export interface PostCommentsProps {
   slug: string
+  commentsCount?: number
 }
 
 const CommentItem = ({ 
@@ -25,6 +26,13 @@ const CommentItem = ({
 }) => {
   const [isEditing, setIsEditing] = useState(false)
   const [editContent, setEditContent] = useState(comment.content)
+  const [showReplies, setShowReplies] = useState(true)
+  const [loadThread, setLoadThread] = useState(false)
+  const replyCount = comment.replyCount || 0
+  // Threads arrive with their first replies nested; the rest of a thread is loaded in one request
+  const { data: thread, isFetching: isFetchingThread } = useThread(slug, comment.id, loadThread)
+  const replies = thread?.comment.replies ?? comment.replies ?? []
+  const hiddenReplies = replyCount - replies.length
   const { isOpen: isDeleteOpen, onOpen: onDeleteOpen, onClose: onDeleteClose } = useDisclosure()
   const cancelRef = useRef<HTMLButtonElement>(null)
   const token = localStorage.getItem('auth_token')
@@ -99,9 +107,14 @@ const CommentItem = ({
           {comment.content}
         </Text>
       )}
-      {comment.replies && comment.replies.length > 0 && (
+      {replies.length > 0 && (
+        <Button size="xs" variant="link" onClick={() => setShowReplies(!showReplies)}>
+          {showReplies ? 'Hide replies' : `View ${replyCount} ${replyCount === 1 ? 'reply' : 'replies'}`}
+        </Button>
+      )}
+      {showReplies && replies.length > 0 && (
         <VStack align="stretch" pl={4} mt={2}>
-          {comment.replies.map((reply) => (
+          {replies.map((reply) => (
             <CommentItem 
               key={reply.id} 
               comment={reply} 
@@ -112,6 +125,20 @@ const CommentItem = ({
           ))}
         </VStack>
       )}
+      {(showReplies || replies.length === 0) && hiddenReplies > 0 && (
+        <Button
+          size="xs"
+          variant="ghost"
+          mt={1}
+          isLoading={isFetchingThread}
+          onClick={() => {
+            setShowReplies(true)
+            setLoadThread(true)
+          }}
+        >
+          {`View ${hiddenReplies} more ${hiddenReplies === 1 ? 'reply' : 'replies'}`}
+        </Button>
+      )}
 
       <AlertDialog
         isOpen={isDeleteOpen}
@@ -141,8 +168,8 @@ const CommentItem = ({
   )
 }
 
-export const PostComments = ({ slug }: PostCommentsProps) => {
-  const { data: comments, isLoading } = useComments(slug)
+export const PostComments = ({ slug, commentsCount }: PostCommentsProps) => {
+  const { data, isLoading, fetchNextPage, hasNextPage, isFetchingNextPage } = useComments(slug)
   const createComment = useCreateComment()
   const updateComment = useUpdateComment()
   const deleteComment = useDeleteComment()
@@ -235,12 +262,13 @@ export const PostComments = ({ slug }: PostCommentsProps) => {
     }
   }
 
-  const topLevelComments = comments?.filter((c) => !c.parentId) || []
+  // Pages hold top-level comments, each with its first replies nested
+  const topLevelComments = data?.pages.flatMap((page) => page.comments) || []
 
   return (
     <Box mt={8} id="comments-section">
       <Heading size="md" mb={4}>
-        Comments ({comments?.length || 0})
+        Comments ({commentsCount ?? topLevelComments.length})
       </Heading>
 
       <Box mb={6}>
@@ -291,6 +319,11 @@ export const PostComments = ({ slug }: PostCommentsProps) => {
               />
             ))
           )}
+          {hasNextPage && (
+            <Button variant="outline" isLoading={isFetchingNextPage} onClick={() => fetchNextPage()}>
+              Load more comments
+            </Button>
+          )}
         </VStack>
       )}
     </Box>
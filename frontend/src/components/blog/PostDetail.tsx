@@ -9,7 +9,7 @@ import { PostTags } from './PostTags'
 import { Avatar } from '../ui/Avatar'
 import { formatDate } from '@/utils/date'
 import { getFirstSentence } from '@/utils/text'
-import { usePosts } from '@/api/posts'
+import { usePosts, usePostBody } from '@/api/posts'
 import { useUIStore } from '@/store/useUIStore'
 
 export interface PostDetailProps {
@@ -19,6 +19,7 @@ export interface PostDetailProps {
 export const PostDetail = ({ post }: PostDetailProps) => {
   const [activeTab, setActiveTab] = useState<'latest' | 'top' | 'discussions'>('latest')
   const { setSearchPopupOpen } = useUIStore()
+  const { data: bodyHtml, isError: isBodyError } = usePostBody(post.slug)
 
   // Fetch posts based on active tab excluding the current one
   const { data: tabPostsData, isLoading: isLoadingTab, isError: isErrorTab } = usePosts({ 
@@ -99,7 +100,13 @@ export const PostDetail = ({ post }: PostDetailProps) => {
       )}
 
       <Box>
-        <MarkdownRenderer content={post.content} />
+        {bodyHtml !== undefined ? (
+          <MarkdownRenderer html={bodyHtml} />
+        ) : isBodyError ? (
+          <Text color="gray.600" _dark={{ color: 'gray.400' }}>
+            This post could not be loaded. Please try again later.
+          </Text>
+        ) : null}
       </Box>
 
       {/* Divider after main content */}
@@ -1,8 +1,10 @@
 import { HStack, VStack, IconButton, Text, useToast, Box, useColorModeValue } from '@chakra-ui/react'
 import { FaRegHeart, FaRegComment } from 'react-icons/fa'
 import { FaUsersViewfinder } from 'react-icons/fa6'
+import { useState } from 'react'
 import { Post } from '@/types'
 import { useLikePost } from '@/api/reactions'
+import { LoginRegisterModal } from '@/components/ui/LoginRegisterModal'
 
 export interface PostReactionsProps {
   post: Post
@@ -14,11 +16,17 @@ export const PostReactions = ({ post, commentsCount }: PostReactionsProps) => {
   const toast = useToast()
   const borderColor = useColorModeValue('gray.200', 'gray.700')
   const displayCommentsCount = commentsCount !== undefined ? commentsCount : (post.commentsCount || 0)
+  const [showLoginModal, setShowLoginModal] = useState(false)
 
-  const handleLike = async () => {
+  const like = async () => {
     try {
       await likePost.mutateAsync(post.id)
-    } catch (error) {
+    } catch (error: any) {
+      // The token may have expired since the page loaded
+      if (error?.response?.status === 401) {
+        setShowLoginModal(true)
+        return
+      }
       toast({
         title: 'Failed to like post',
         status: 'error',
@@ -27,112 +35,129 @@ export const PostReactions = ({ post, commentsCount }: PostReactionsProps) => {
     }
   }
 
+  const handleLike = () => {
+    // Liking requires an account; ask to log in first and like once that succeeds
+    if (!localStorage.getItem('auth_token')) {
+      setShowLoginModal(true)
+      return
+    }
+    like()
+  }
+
   return (
-    <HStack spacing={4}>
-      <Box
-        onClick={handleLike}
-        cursor="pointer"
-        border="1px solid"
-        borderColor={borderColor}
-        borderRadius="xl"
-        px={1}
-        py={1.5}
-        display="flex"
-        flexDirection="column"
-        alignItems="center"
-        justifyContent="center"
-        _hover={{ opacity: 0.7 }}
-        role="button"
-        tabIndex={0}
-        onKeyDown={(e) => {
-          if (e.key === 'Enter' || e.key === ' ') {
-            e.preventDefault()
-            handleLike()
-          }
-        }}
-      >
-        <VStack spacing={0} align="center">
-          <IconButton
-            aria-label="Like post"
-            icon={<FaRegHeart />}
-            variant="ghost"
-            color="#145F95"
-            isLoading={likePost.isPending}
-            size="lg"
-            _hover={{ color: '#145F95', bg: 'transparent' }}
-            pointerEvents="none"
-          />
-          <Text fontSize="sm" fontWeight="medium" mt="-1">{post.likes}</Text>
-        </VStack>
-      </Box>
-      <Box
-        onClick={() => {
-          const commentsSection = document.getElementById('comments-section')
-          if (commentsSection) {
-            commentsSection.scrollIntoView({ behavior: 'smooth' })
-          }
-        }}
-        cursor="pointer"
-        border="1px solid"
-        borderColor={borderColor}
-        borderRadius="xl"
-        px={1}
-        py={1.5}
-        display="flex"
-        flexDirection="column"
-        alignItems="center"
-        justifyContent="center"
-        _hover={{ opacity: 0.7 }}
-        role="button"
-        tabIndex={0}
-        onKeyDown={(e) => {
-          if (e.key === 'Enter' || e.key === ' ') {
-            e.preventDefault()
+    <>
+      <HStack spacing={4}>
+        <Box
+          onClick={handleLike}
+          cursor="pointer"
+          border="1px solid"
+          borderColor={borderColor}
+          borderRadius="xl"
+          px={1}
+          py={1.5}
+          display="flex"
+          flexDirection="column"
+          alignItems="center"
+          justifyContent="center"
+          _hover={{ opacity: 0.7 }}
+          role="button"
+          tabIndex={0}
+          onKeyDown={(e) => {
+            if (e.key === 'Enter' || e.key === ' ') {
+              e.preventDefault()
+              handleLike()
+            }
+          }}
+        >
+          <VStack spacing={0} align="center">
+            <IconButton
+              aria-label="Like post"
+              icon={<FaRegHeart />}
+              variant="ghost"
+              color="#145F95"
+              isLoading={likePost.isPending}
+              size="lg"
+              _hover={{ color: '#145F95', bg: 'transparent' }}
+              pointerEvents="none"
+            />
+            <Text fontSize="sm" fontWeight="medium" mt="-1">{post.likes}</Text>
+          </VStack>
+        </Box>
+        <Box
+          onClick={() => {
             const commentsSection = document.getElementById('comments-section')
             if (commentsSection) {
               commentsSection.scrollIntoView({ behavior: 'smooth' })
             }
-          }
-        }}
-      >
-        <VStack spacing={0} align="center">
-          <IconButton
-            aria-label="Comments"
-            icon={<FaRegComment />}
-            variant="ghost"
-            color="#145F95"
-            size="lg"
-            pointerEvents="none"
-            _hover={{ color: '#145F95', bg: 'transparent' }}
-          />
-          <Text fontSize="sm" fontWeight="medium" mt="-1">{displayCommentsCount}</Text>
-        </VStack>
-      </Box>
-      <Box
-        border="1px solid"
-        borderColor={borderColor}
-        borderRadius="xl"
-        px={1}
-        py={1.5}
-        display="flex"
-        flexDirection="column"
-        alignItems="center"
-        justifyContent="center"
-      >
-        <VStack spacing={0} align="center">
-          <IconButton
-            aria-label="Views"
-            icon={<FaUsersViewfinder />}
-            variant="ghost"
-            color="#145F95"
-            size="lg"
-            pointerEvents="none"
-            _hover={{ color: '#145F95', bg: 'transparent' }}
-          />
-          <Text fontSize="sm" fontWeight="medium" mt="-1">{post.views || 0}</Text>
-        </VStack>
-      </Box>
-    </HStack>
+          }}
+          cursor="pointer"
+          border="1px solid"
+          borderColor={borderColor}
+          borderRadius="xl"
+          px={1}
+          py={1.5}
+          display="flex"
+          flexDirection="column"
+          alignItems="center"
+          justifyContent="center"
+          _hover={{ opacity: 0.7 }}
+          role="button"
+          tabIndex={0}
+          onKeyDown={(e) => {
+            if (e.key === 'Enter' || e.key === ' ') {
+              e.preventDefault()
+              const commentsSection = document.getElementById('comments-section')
+              if (commentsSection) {
+                commentsSection.scrollIntoView({ behavior: 'smooth' })
+              }
+            }
+          }}
+        >
+          <VStack spacing={0} align="center">
+            <IconButton
+              aria-label="Comments"
+              icon={<FaRegComment />}
+              variant="ghost"
+              color="#145F95"
+              size="lg"
+              pointerEvents="none"
+              _hover={{ color: '#145F95', bg: 'transparent' }}
+            />
+            <Text fontSize="sm" fontWeight="medium" mt="-1">{displayCommentsCount}</Text>
+          </VStack>
+        </Box>
+        <Box
+          border="1px solid"
+          borderColor={borderColor}
+          borderRadius="xl"
+          px={1}
+          py={1.5}
+          display="flex"
+          flexDirection="column"
+          alignItems="center"
+          justifyContent="center"
+        >
+          <VStack spacing={0} align="center">
+            <IconButton
+              aria-label="Views"
+              icon={<FaUsersViewfinder />}
+              variant="ghost"
+              color="#145F95"
+              size="lg"
+              pointerEvents="none"
+              _hover={{ color: '#145F95', bg: 'transparent' }}
+            />
+            <Text fontSize="sm" fontWeight="medium" mt="-1">{post.views || 0}</Text>
+          </VStack>
+        </Box>
+      </HStack>
+
+      <LoginRegisterModal
+        isOpen={showLoginModal}
+        onClose={() => setShowLoginModal(false)}
+        onSuccess={like}
+      />
+    </>
   )
 }
 
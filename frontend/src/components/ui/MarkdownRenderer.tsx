@@ -6,12 +6,38 @@ import rehypeSanitize from 'rehype-sanitize'
 import { CodeBlock } from './CodeBlock'
 
 export interface MarkdownRendererProps {
-  content: string
+  content?: string
+  // Already rendered and sanitized by the server; takes precedence over content
+  html?: string
 }
 
-export const MarkdownRenderer = ({ content }: MarkdownRendererProps) => {
+export const MarkdownRenderer = ({ content, html }: MarkdownRendererProps) => {
   const codeBg = useColorModeValue('gray.50', 'gray.800')
 
+  // The server-rendered body is used as is; markdown is only rendered here as a fallback
+  const markdown = html !== undefined ? null : (
+    <ReactMarkdown
+      remarkPlugins={[remarkGfm]}
+      rehypePlugins={[rehypeRaw, rehypeSanitize]}
+      components={{
+        code({ node, inline, className, children, ...props }: any) {
+          const match = /language-(\w+)/.exec(className || '')
+          const codeString = String(children).replace(/\n$/, '')
+          
+          return !inline && match ? (
+            <CodeBlock code={codeString} language={match[1]} />
+          ) : (
+            <code className={className} {...props}>
+              {children}
+            </code>
+          )
+        },
+      }}
+    >
+      {content ?? ''}
+    </ReactMarkdown>
+  )
+
   return (
     <Box
       className="markdown-content"
@@ -54,6 +80,12 @@ export const MarkdownRenderer = ({ content }: MarkdownRendererProps) => {
         '& pre': {
           mb: 4,
         },
+        '& pre > code': {
+          display: 'block',
+          p: 4,
+          overflowX: 'auto',
+          borderRadius: 'md',
+        },
         '& a': {
           color: 'brand.500',
           textDecoration: 'underline',
@@ -88,27 +120,9 @@ export const MarkdownRenderer = ({ content }: MarkdownRendererProps) => {
           fontWeight: 'bold',
         },
       }}
+      dangerouslySetInnerHTML={html !== undefined ? { __html: html } : undefined}
     >
-      <ReactMarkdown
-        remarkPlugins={[remarkGfm]}
-        rehypePlugins={[rehypeRaw, rehypeSanitize]}
-        components={{
-          code({ node, inline, className, children, ...props }: any) {
-            const match = /language-(\w+)/.exec(className || '')
-            const codeString = String(children).replace(/\n$/, '')
-            
-            return !inline && match ? (
-              <CodeBlock code={codeString} language={match[1]} />
-            ) : (
-              <code className={className} {...props}>
-                {children}
-              </code>
-            )
-          },
-        }}
-      >
-        {content}
-      </ReactMarkdown>
+      {markdown}
     </Box>
   )
 }
@@ -2,7 +2,6 @@ import { Box, Flex, Spinner, Center, Text } from '@chakra-ui/react'
 import { useEffect, useRef } from 'react'
 import { useParams } from 'react-router-dom'
 import { usePost } from '@/api/posts'
-import { useComments } from '@/api/comments'
 import { postsApi } from '@/api/posts'
 import { useQueryClient } from '@tanstack/react-query'
 import { PostDetail } from '@/components/blog/PostDetail'
@@ -22,7 +21,6 @@ export const Post = () => {
                        slug !== '%7Bslug%7D'
   
   const { data: post, isLoading, error } = usePost(isValidSlug ? slug : '')
-  const { data: comments } = useComments(isValidSlug ? slug : '')
   const queryClient = useQueryClient()
   const viewedPosts = useRef<Set<string>>(new Set())
 
@@ -76,11 +74,11 @@ export const Post = () => {
         <PostDetail post={post} />
         <Box mt={8} pt={8} borderTop="1px" borderColor="gray.200" _dark={{ borderColor: 'gray.700' }}>
           <Flex justify="space-between" align="center" mb={6}>
-            <PostReactions post={post} commentsCount={comments?.length} />
+            <PostReactions post={post} />
             <PostShare post={post} />
           </Flex>
         </Box>
-        <PostComments slug={post.slug} />
+        <PostComments slug={post.slug} commentsCount={post.commentsCount} />
       </Box>
     </Layout>
   )
@@ -143,6 +143,8 @@ export const PostForm = () => {
       console.log('Submitting post data:', JSON.stringify(postData, null, 2))
       
       if (isEdit && slug) {
+        // Lets the backend reject the save if the post changed since it was loaded
+        postData.expectedUpdatedAt = existingPost?.updatedAt || null
         await updateMutation.mutateAsync({ slug, post: postData })
       } else {
         await createMutation.mutateAsync(postData)
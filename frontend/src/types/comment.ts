@@ -7,7 +7,19 @@ export interface Comment {
   postId: string
   parentId?: string
   replies?: Comment[]
+  replyCount?: number
   likes: number
   createdAt: string
 }
 
+
+export interface CommentPage {
+  comments: Comment[]
+  nextCursor?: string
+  hasMore: boolean
+}
+
+export interface CommentThread {
+  comment: Comment
+  totalComments: number
+}
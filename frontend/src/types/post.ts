@@ -4,7 +4,8 @@ export interface Post {
   id: string
   title: string
   slug: string
-  content: string
+  // Markdown source; only the admin endpoints return it, readers get the body from getBody
+  content?: string
   excerpt: string
   coverImage?: string
   contentImage?: string
@@ -18,5 +19,6 @@ export interface Post {
   likes: number
   commentsCount: number
   isPublished: boolean
+  highlight?: string
 }
 